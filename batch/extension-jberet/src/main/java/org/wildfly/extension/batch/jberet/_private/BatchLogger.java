@@ -25,6 +25,7 @@ package org.wildfly.extension.batch.jberet._private;
 import javax.batch.operations.JobStartException;
 import javax.batch.operations.NoSuchJobException;
 
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.logging.BasicLogger;
@@ -142,4 +143,15 @@ public interface BatchLogger extends BasicLogger {
     @Message(id = 13, value = "Only one job repository can be defined in the jboss-all.xml deployment descriptor. The first job repository will be used.")
     void multipleJobRepositoriesFound();
 
+    /**
+     * Creates an exception indicating a date-time value could not be parsed.
+     *
+     * @param value  the value
+     * @param format the expected format
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 14, value = "Invalid date-time '%s', expected format is %s")
+    OperationFailedException invalidDateTime(String value, String format);
+
 }
@@ -22,6 +22,7 @@
 
 package org.wildfly.extension.batch.jberet.deployment;
 
+import org.jberet.spi.BatchEnvironment;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.ee.structure.DeploymentType;
 import org.jboss.as.ee.structure.DeploymentTypeMarker;
@@ -81,7 +82,7 @@ public class BatchDeploymentResourceProcessor implements DeploymentUnitProcessor
                 }
             }
             phaseContext.getServiceTarget().addService(BatchServiceNames.jobOperatorServiceName(deploymentUnit), jobOperatorService)
-                    .addDependency(BatchServiceNames.batchEnvironmentServiceName(deploymentUnit))
+                    .addDependency(BatchServiceNames.batchEnvironmentServiceName(deploymentUnit), BatchEnvironment.class, jobOperatorService.getBatchEnvironmentInjector())
                     .install();
         }
     }
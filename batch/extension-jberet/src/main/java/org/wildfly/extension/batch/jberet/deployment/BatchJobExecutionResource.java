@@ -22,15 +22,11 @@
 
 package org.wildfly.extension.batch.jberet.deployment;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashSet;
-import java.util.List;
 import java.util.Set;
 
 import javax.batch.operations.JobOperator;
-import javax.batch.runtime.JobExecution;
-import javax.batch.runtime.JobInstance;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -42,6 +38,10 @@ import org.wildfly.extension.batch.jberet._private.BatchLogger;
 
 /**
  * Represents a dynamic resource for batch {@link javax.batch.runtime.JobExecution job executions}.
+ * <p>
+ * The children are the most recent executions held by the {@link JobExecutionCache} of the job, older executions are
+ * looked up in the job repository when they are addressed directly.
+ * </p>
  *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
@@ -50,17 +50,22 @@ public class BatchJobExecutionResource implements Resource {
     private final Resource delegate;
     private final JobOperator jobOperator;
     private final String jobName;
-    // Should be guarded by it's instance
-    private final Set<String> children = new LinkedHashSet<>();
+    // Only used when the job operator does not share the cache of the job
+    private final JobExecutionCache executionCache;
 
     public BatchJobExecutionResource(final JobOperator jobOperator, final String jobName) {
         this(Factory.create(true), jobOperator, jobName);
     }
 
     public BatchJobExecutionResource(final Resource delegate, final JobOperator jobOperator, final String jobName) {
+        this(delegate, jobOperator, jobName, jobOperator instanceof JobOperatorService ? null : new JobExecutionCache(jobOperator, null, jobName));
+    }
+
+    private BatchJobExecutionResource(final Resource delegate, final JobOperator jobOperator, final String jobName, final JobExecutionCache executionCache) {
         this.delegate = delegate;
         this.jobOperator = jobOperator;
         this.jobName = jobName;
+        this.executionCache = executionCache;
     }
 
     @Override
@@ -137,10 +142,7 @@ public class BatchJobExecutionResource implements Resource {
     @Override
     public Set<String> getChildrenNames(final String childType) {
         if (BatchJobExecutionResourceDefinition.EXECUTION.equals(childType)) {
-            synchronized (children) {
-                refreshChildren();
-                return new LinkedHashSet<>(children);
-            }
+            return getExecutionCache().getExecutionNames();
         }
         return delegate.getChildrenNames(childType);
     }
@@ -198,35 +200,15 @@ public class BatchJobExecutionResource implements Resource {
 
     @Override
     public Resource clone() {
-        return new BatchJobExecutionResource(delegate.clone(), jobOperator, jobName);
+        return new BatchJobExecutionResource(delegate.clone(), jobOperator, jobName, executionCache);
     }
 
     private boolean hasJobExecution(final String executionName) {
-        synchronized (children) {
-            if (children.contains(executionName)) {
-                return true;
-            }
-            // Load a cache of the names
-            refreshChildren();
-            return children.contains(executionName);
-        }
+        return getExecutionCache().hasExecution(executionName);
     }
 
-    /**
-     * Note the access to the {@link #children} is <strong>not</strong> guarded here and needs to be externally
-     * guarded.
-     */
-    private void refreshChildren() {
-        final List<JobExecution> executions = new ArrayList<>();
-        final List<JobInstance> instances = jobOperator.getJobInstances(jobName, 0, jobOperator.getJobInstanceCount(jobName));
-        for (JobInstance instance : instances) {
-            executions.addAll(jobOperator.getJobExecutions(instance));
-        }
-        for (JobExecution execution : executions) {
-            final String name = Long.toString(execution.getExecutionId());
-            if (!children.contains(name)) {
-                children.add(name);
-            }
-        }
+    private JobExecutionCache getExecutionCache() {
+        // The cache of the job operator is replaced when the deployment is restarted
+        return jobOperator instanceof JobOperatorService ? ((JobOperatorService) jobOperator).getExecutionCache(jobName) : executionCache;
     }
 }
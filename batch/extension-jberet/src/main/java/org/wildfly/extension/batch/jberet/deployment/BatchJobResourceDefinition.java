@@ -22,18 +22,29 @@
 
 package org.wildfly.extension.batch.jberet.deployment;
 
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
 import javax.batch.operations.JobOperator;
+import javax.batch.runtime.BatchStatus;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.wildfly.extension.batch.jberet.BatchResourceDescriptionResolver;
+import org.wildfly.extension.batch.jberet._private.BatchLogger;
 
 /**
  * A definition representing a job resource.
@@ -51,10 +62,40 @@ public class BatchJobResourceDefinition extends SimpleResourceDefinition {
             .setStorageRuntime()
             .build();
 
+    private static final ResourceDescriptionResolver DEFAULT_RESOLVER = BatchResourceDescriptionResolver.getResourceDescriptionResolver("deployment", "job");
+
+    static final SimpleAttributeDefinition BATCH_STATUS = SimpleAttributeDefinitionBuilder.create("batch-status", ModelType.STRING, true)
+            .setValidator(new EnumValidator<>(BatchStatus.class, true, false))
+            .build();
+
+    static final SimpleAttributeDefinition CREATED_AFTER = SimpleAttributeDefinitionBuilder.create("created-after", ModelType.STRING, true)
+            .build();
+
+    static final SimpleAttributeDefinition CREATED_BEFORE = SimpleAttributeDefinitionBuilder.create("created-before", ModelType.STRING, true)
+            .build();
+
+    static final SimpleAttributeDefinition OFFSET = SimpleAttributeDefinitionBuilder.create("offset", ModelType.INT, true)
+            .setDefaultValue(new ModelNode(0))
+            .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, false))
+            .build();
+
+    static final SimpleAttributeDefinition COUNT = SimpleAttributeDefinitionBuilder.create("count", ModelType.INT, true)
+            .setDefaultValue(new ModelNode(100))
+            .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, false))
+            .build();
+
+    private static final SimpleOperationDefinition LIST_EXECUTIONS = new SimpleOperationDefinitionBuilder("list-executions", DEFAULT_RESOLVER)
+            .setParameters(BATCH_STATUS, CREATED_AFTER, CREATED_BEFORE, OFFSET, COUNT)
+            .setReplyType(ModelType.LIST)
+            .setReplyValueType(ModelType.OBJECT)
+            .setReadOnly()
+            .setRuntimeOnly()
+            .build();
+
     public static final BatchJobResourceDefinition INSTANCE = new BatchJobResourceDefinition();
 
     private BatchJobResourceDefinition() {
-        super(new Parameters(PathElement.pathElement(JOB), BatchResourceDescriptionResolver.getResourceDescriptionResolver("deployment", "job")).setRuntime());
+        super(new Parameters(PathElement.pathElement(JOB), DEFAULT_RESOLVER).setRuntime());
     }
 
     @Override
@@ -73,4 +114,54 @@ public class BatchJobResourceDefinition extends SimpleResourceDefinition {
         });
     }
 
+    @Override
+    public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+
+        resourceRegistration.registerOperationHandler(LIST_EXECUTIONS, new JobOperationStepHandler() {
+            @Override
+            protected void execute(final OperationContext context, final ModelNode operation, final JobOperator jobOperator) throws OperationFailedException {
+                final String jobName = context.getCurrentAddressValue();
+                final ModelNode status = resolveValue(context, operation, BATCH_STATUS);
+                final Date createdAfter = parseDateTime(resolveValue(context, operation, CREATED_AFTER));
+                final Date createdBefore = parseDateTime(resolveValue(context, operation, CREATED_BEFORE));
+                final int offset = resolveValue(context, operation, OFFSET).asInt();
+                final int count = resolveValue(context, operation, COUNT).asInt();
+
+                final JobExecutionCache cache = jobOperator instanceof JobOperatorService
+                        ? ((JobOperatorService) jobOperator).getExecutionCache(jobName) : new JobExecutionCache(jobOperator, null, jobName);
+                final List<JobExecutionCache.Execution> executions = cache.getExecutions(status.isDefined() ? BatchStatus.valueOf(status.asString()) : null,
+                        createdAfter, createdBefore, offset, count);
+
+                final SimpleDateFormat formatter = new SimpleDateFormat(BatchJobExecutionResourceDefinition.ISO_8601_FORMAT);
+                final ModelNode result = context.getResult().setEmptyList();
+                for (JobExecutionCache.Execution execution : executions) {
+                    final ModelNode node = new ModelNode();
+                    node.get("execution-id").set(execution.getExecutionId());
+                    node.get(BatchJobExecutionResourceDefinition.INSTANCE_ID.getName()).set(execution.getInstanceId());
+                    if (execution.getBatchStatus() != null) {
+                        node.get(BatchJobExecutionResourceDefinition.BATCH_STATUS.getName()).set(execution.getBatchStatus().toString());
+                    }
+                    if (execution.getCreateTime() != null) {
+                        node.get(BatchJobExecutionResourceDefinition.CREATE_TIME.getName()).set(formatter.format(execution.getCreateTime()));
+                    }
+                    if (execution.getEndTime() != null) {
+                        node.get(BatchJobExecutionResourceDefinition.END_TIME.getName()).set(formatter.format(execution.getEndTime()));
+                    }
+                    result.add(node);
+                }
+            }
+        });
+    }
+
+    private static Date parseDateTime(final ModelNode value) throws OperationFailedException {
+        if (!value.isDefined()) {
+            return null;
+        }
+        try {
+            return new SimpleDateFormat(BatchJobExecutionResourceDefinition.ISO_8601_FORMAT).parse(value.asString());
+        } catch (ParseException e) {
+            throw BatchLogger.LOGGER.invalidDateTime(value.asString(), BatchJobExecutionResourceDefinition.ISO_8601_FORMAT);
+        }
+    }
 }
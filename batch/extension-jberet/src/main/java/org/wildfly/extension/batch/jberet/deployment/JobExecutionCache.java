@@ -0,0 +1,275 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.deployment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.NoSuchJobException;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+
+import org.wildfly.extension.batch.jberet.job.repository.JobExecutionHistory;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A bounded cache of the most recent executions of a job.
+ * <p>
+ * The cache is refreshed incrementally: the executions of the job with an id higher than the highest execution id seen
+ * are read from the repository, which includes restarts of older job instances, and only the executions which were not
+ * finished at the last refresh are read again. When the repository is a {@link JobExecutionHistory} the new executions
+ * are read with a single bounded query and the cost of a refresh depends on the number of new and running executions
+ * rather than on the size of the repository. Other repositories are scanned through the job operator.
+ * </p>
+ */
+final class JobExecutionCache {
+
+    static final int DEFAULT_MAX_SIZE = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged("org.wildfly.batch.jberet.execution-cache-size", "1000"));
+
+    private final JobOperator jobOperator;
+    private final JobExecutionHistory history;
+    private final String jobName;
+    private final int maxSize;
+    // Guarded by this, most recent first
+    private final NavigableMap<Long, Execution> executions = new TreeMap<>(Collections.reverseOrder());
+    // Guarded by this
+    private long highestExecutionId = -1L;
+
+    JobExecutionCache(final JobOperator jobOperator, final JobExecutionHistory history, final String jobName) {
+        this(jobOperator, history, jobName, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param jobOperator the job operator used to read the executions
+     * @param history     the history of the job repository or {@code null} if the repository cannot be queried for
+     *                    new executions
+     * @param jobName     the job name
+     * @param maxSize     the maximum number of executions to cache
+     */
+    JobExecutionCache(final JobOperator jobOperator, final JobExecutionHistory history, final String jobName, final int maxSize) {
+        this.jobOperator = jobOperator;
+        this.history = history;
+        this.jobName = jobName;
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    /**
+     * Refreshes the cache and returns the ids of the cached executions.
+     *
+     * @return the ids of the most recent executions, most recent first
+     */
+    synchronized Set<String> getExecutionNames() {
+        refresh();
+        final Set<String> result = new LinkedHashSet<>(executions.size());
+        for (Long id : executions.keySet()) {
+            result.add(Long.toString(id));
+        }
+        return result;
+    }
+
+    /**
+     * Checks whether the execution belongs to the job. Executions older than the cached ones are looked up in the
+     * repository.
+     *
+     * @param executionName the execution id
+     *
+     * @return {@code true} if the execution exists and belongs to the job
+     */
+    synchronized boolean hasExecution(final String executionName) {
+        final long executionId;
+        try {
+            executionId = Long.parseLong(executionName);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (executions.containsKey(executionId)) {
+            return true;
+        }
+        if (executionId > highestExecutionId) {
+            refresh();
+            if (executions.containsKey(executionId)) {
+                return true;
+            }
+        }
+        try {
+            return jobName.equals(jobOperator.getJobInstance(executionId).getJobName());
+        } catch (NoSuchJobExecutionException | NoSuchJobException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Refreshes the cache and returns a page of the cached executions matching the criteria.
+     *
+     * @param status        the status of the executions or {@code null} for any status
+     * @param createdAfter  the executions created at or after this time or {@code null}
+     * @param createdBefore the executions created before this time or {@code null}
+     * @param offset        the number of matching executions to skip
+     * @param count         the maximum number of executions to return
+     *
+     * @return the matching executions, most recent first
+     */
+    synchronized List<Execution> getExecutions(final BatchStatus status, final Date createdAfter, final Date createdBefore, final int offset, final int count) {
+        refresh();
+        final List<Execution> result = new ArrayList<>(Math.min(count, executions.size()));
+        int skipped = 0;
+        for (Execution execution : executions.values()) {
+            if (result.size() >= count) {
+                break;
+            }
+            if (status != null && status != execution.getBatchStatus()) {
+                continue;
+            }
+            final Date createTime = execution.getCreateTime();
+            if (createdAfter != null && (createTime == null || createTime.before(createdAfter))) {
+                continue;
+            }
+            if (createdBefore != null && (createTime == null || !createTime.before(createdBefore))) {
+                continue;
+            }
+            if (skipped++ < offset) {
+                continue;
+            }
+            result.add(execution);
+        }
+        return result;
+    }
+
+    /**
+     * Note the access to the cache is <strong>not</strong> guarded here and needs to be externally guarded.
+     */
+    private void refresh() {
+        // Executions which were running at the last refresh
+        for (Execution execution : executions.values()) {
+            if (execution.isRunning()) {
+                try {
+                    execution.update(jobOperator.getJobExecution(execution.getExecutionId()));
+                } catch (NoSuchJobExecutionException ignore) {
+                }
+            }
+        }
+
+        // New executions, including restarts of older instances
+        for (Long executionId : getNewExecutionIds()) {
+            try {
+                add(jobOperator.getJobInstance(executionId).getInstanceId(), jobOperator.getJobExecution(executionId));
+            } catch (NoSuchJobExecutionException ignore) {
+            }
+        }
+
+        // Drop the oldest executions
+        final Iterator<Long> iterator = executions.descendingKeySet().iterator();
+        while (executions.size() > maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private List<Long> getNewExecutionIds() {
+        if (history != null) {
+            return history.getJobExecutionIds(jobName, highestExecutionId, maxSize);
+        }
+        final List<Long> result = new ArrayList<>();
+        final int count;
+        try {
+            count = jobOperator.getJobInstanceCount(jobName);
+        } catch (NoSuchJobException e) {
+            return result;
+        }
+        for (JobInstance instance : jobOperator.getJobInstances(jobName, 0, count)) {
+            for (JobExecution execution : jobOperator.getJobExecutions(instance)) {
+                if (execution.getExecutionId() > highestExecutionId) {
+                    result.add(execution.getExecutionId());
+                }
+            }
+        }
+        result.sort(Collections.reverseOrder());
+        return result.size() > maxSize ? result.subList(0, maxSize) : result;
+    }
+
+    private void add(final long instanceId, final JobExecution execution) {
+        final long executionId = execution.getExecutionId();
+        executions.put(executionId, new Execution(instanceId, execution));
+        if (executionId > highestExecutionId) {
+            highestExecutionId = executionId;
+        }
+    }
+
+    /**
+     * A snapshot of the state of an execution.
+     */
+    static final class Execution {
+        private final long executionId;
+        private final long instanceId;
+        private volatile BatchStatus batchStatus;
+        private volatile Date createTime;
+        private volatile Date endTime;
+
+        Execution(final long instanceId, final JobExecution execution) {
+            this.executionId = execution.getExecutionId();
+            this.instanceId = instanceId;
+            update(execution);
+        }
+
+        private void update(final JobExecution execution) {
+            batchStatus = execution.getBatchStatus();
+            createTime = execution.getCreateTime();
+            endTime = execution.getEndTime();
+        }
+
+        boolean isRunning() {
+            return batchStatus == null || batchStatus == BatchStatus.STARTING || batchStatus == BatchStatus.STARTED || batchStatus == BatchStatus.STOPPING;
+        }
+
+        long getExecutionId() {
+            return executionId;
+        }
+
+        long getInstanceId() {
+            return instanceId;
+        }
+
+        BatchStatus getBatchStatus() {
+            return batchStatus;
+        }
+
+        Date getCreateTime() {
+            return createTime;
+        }
+
+        Date getEndTime() {
+            return endTime;
+        }
+    }
+}
@@ -27,6 +27,8 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import javax.batch.operations.JobExecutionAlreadyCompleteException;
 import javax.batch.operations.JobExecutionIsRunningException;
 import javax.batch.operations.JobExecutionNotMostRecentException;
@@ -43,11 +45,15 @@ import javax.batch.runtime.JobExecution;
 import javax.batch.runtime.JobInstance;
 import javax.batch.runtime.StepExecution;
 
+import org.jberet.repository.JobRepository;
+import org.jberet.spi.BatchEnvironment;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.batch.jberet._private.BatchLogger;
+import org.wildfly.extension.batch.jberet.job.repository.JobExecutionHistory;
 import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
@@ -75,6 +81,8 @@ public class JobOperatorService implements JobOperator, Service<JobOperator> {
     private final Set<String> allowedJobNames;
     // Guarded by this
     private final Set<String> allowedJobXmlNames;
+    private final ConcurrentMap<String, JobExecutionCache> executionCaches = new ConcurrentHashMap<>();
+    private final InjectedValue<BatchEnvironment> batchEnvironmentInjector = new InjectedValue<>();
 
     public JobOperatorService(final ClassLoader classLoader) {
         this.classLoader = classLoader;
@@ -99,6 +107,7 @@ public class JobOperatorService implements JobOperator, Service<JobOperator> {
         classLoader = null;
         allowedJobXmlNames.clear();
         allowedJobNames.clear();
+        executionCaches.clear();
     }
 
     @Override
@@ -319,6 +328,29 @@ public class JobOperatorService implements JobOperator, Service<JobOperator> {
         }
     }
 
+    /**
+     * Returns the cache of the most recent executions of the job, shared by the management resources and operations.
+     *
+     * @param jobName the job name
+     *
+     * @return the execution cache for the job
+     */
+    JobExecutionCache getExecutionCache(final String jobName) {
+        final BatchEnvironment batchEnvironment = batchEnvironmentInjector.getOptionalValue();
+        if (batchEnvironment == null) {
+            // The service is not started, the job operator will reject the reads
+            return new JobExecutionCache(this, null, jobName);
+        }
+        return executionCaches.computeIfAbsent(jobName, name -> {
+            final JobRepository jobRepository = batchEnvironment.getJobRepository();
+            return new JobExecutionCache(this, jobRepository instanceof JobExecutionHistory ? (JobExecutionHistory) jobRepository : null, name);
+        });
+    }
+
+    protected InjectedValue<BatchEnvironment> getBatchEnvironmentInjector() {
+        return batchEnvironmentInjector;
+    }
+
     /**
      * Adds the job XML and the job name to the allowed resources to use.
      *
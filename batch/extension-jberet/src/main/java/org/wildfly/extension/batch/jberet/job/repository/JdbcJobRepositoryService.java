@@ -53,7 +53,7 @@ public class JdbcJobRepositoryService implements Service<JobRepository> {
         final Runnable task = () -> {
             try {
                 // Currently in jBeret tables are created in the constructor which is why this is done asynchronously
-                jobRepository = new JdbcRepository(dataSourceValue.getValue());
+                jobRepository = new PagedJdbcRepository(dataSourceValue.getValue());
                 context.complete();
             } catch (Exception e) {
                 context.failed(BatchLogger.LOGGER.failedToCreateJobRepository(e, "JDBC"));
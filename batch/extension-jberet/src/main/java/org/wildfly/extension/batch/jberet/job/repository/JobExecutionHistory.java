@@ -0,0 +1,45 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import java.util.List;
+
+/**
+ * A job repository which can query the executions of a job created after a known execution directly from its store.
+ * <p>
+ * Execution ids are assigned in increasing order, the ids higher than the highest id seen so far are therefore the
+ * executions created since, including the restarts of older job instances.
+ * </p>
+ */
+public interface JobExecutionHistory {
+
+    /**
+     * Returns the ids of the executions of the job with an id higher than the given execution id.
+     *
+     * @param jobName     the name of the job
+     * @param executionId the highest execution id already known, or {@code -1} for all executions
+     * @param maxResults  the maximum number of ids to return
+     *
+     * @return the execution ids, most recent first
+     */
+    List<Long> getJobExecutionIds(String jobName, long executionId, int maxResults);
+}
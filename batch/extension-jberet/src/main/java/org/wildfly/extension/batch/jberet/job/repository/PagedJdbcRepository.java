@@ -0,0 +1,72 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.batch.jberet.job.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.batch.operations.BatchRuntimeException;
+import javax.sql.DataSource;
+
+import org.jberet.repository.JdbcRepository;
+
+/**
+ * A {@link JdbcRepository} which queries the executions of a job created after a known execution with a single bounded
+ * query rather than loading every instance of the job and the executions of each instance.
+ */
+class PagedJdbcRepository extends JdbcRepository implements JobExecutionHistory {
+
+    private static final String SELECT_JOB_EXECUTION_IDS = "SELECT e.JOBEXECUTIONID FROM JOB_EXECUTION e" +
+            " INNER JOIN JOB_INSTANCE i ON e.JOBINSTANCEID = i.JOBINSTANCEID" +
+            " WHERE i.JOBNAME = ? AND e.JOBEXECUTIONID > ? ORDER BY e.JOBEXECUTIONID DESC";
+
+    private final DataSource dataSource;
+
+    PagedJdbcRepository(final DataSource dataSource) {
+        super(dataSource);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public List<Long> getJobExecutionIds(final String jobName, final long executionId, final int maxResults) {
+        final List<Long> result = new ArrayList<>();
+        try (
+                Connection connection = dataSource.getConnection();
+                PreparedStatement statement = connection.prepareStatement(SELECT_JOB_EXECUTION_IDS)
+        ) {
+            statement.setMaxRows(maxResults);
+            statement.setString(1, jobName);
+            statement.setLong(2, executionId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    result.add(resultSet.getLong(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new BatchRuntimeException(e);
+        }
+        return result;
+    }
+}
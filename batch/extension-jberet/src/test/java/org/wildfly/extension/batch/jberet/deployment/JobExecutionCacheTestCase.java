@@ -0,0 +1,298 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.jberet.deployment;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import javax.batch.operations.JobOperator;
+import javax.batch.operations.NoSuchJobExecutionException;
+import javax.batch.runtime.BatchStatus;
+import javax.batch.runtime.JobExecution;
+import javax.batch.runtime.JobInstance;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.wildfly.extension.batch.jberet.job.repository.JobExecutionHistory;
+
+public class JobExecutionCacheTestCase {
+
+    private static final String JOB_NAME = "test-job";
+
+    private final List<TestJobInstance> instances = new ArrayList<>();
+    private final List<TestJobExecution> executions = new ArrayList<>();
+    private final List<Long> historyQueries = new ArrayList<>();
+    private int executionsRead;
+
+    @Test
+    public void testIncrementalRefresh() {
+        final JobExecutionCache cache = new JobExecutionCache(jobOperator(), history(), JOB_NAME, 1000);
+        for (int i = 0; i < 120; i++) {
+            start(BatchStatus.COMPLETED);
+        }
+        Assert.assertEquals(120, cache.getExecutionNames().size());
+        Assert.assertEquals(Collections.singletonList(-1L), historyQueries);
+
+        // Only the executions created since the last refresh are read
+        historyQueries.clear();
+        executionsRead = 0;
+        start(BatchStatus.COMPLETED);
+        final Set<String> names = cache.getExecutionNames();
+        Assert.assertEquals(121, names.size());
+        Assert.assertEquals("121", names.iterator().next());
+        Assert.assertEquals(Collections.singletonList(120L), historyQueries);
+        Assert.assertEquals(1, executionsRead);
+    }
+
+    @Test
+    public void testRunningExecutionsAreUpdated() {
+        final JobExecutionCache cache = new JobExecutionCache(jobOperator(), history(), JOB_NAME, 1000);
+        final TestJobExecution running = start(BatchStatus.STARTED);
+        start(BatchStatus.COMPLETED);
+        Assert.assertEquals(1, cache.getExecutions(BatchStatus.STARTED, null, null, 0, 10).size());
+
+        running.batchStatus = BatchStatus.FAILED;
+        Assert.assertTrue(cache.getExecutions(BatchStatus.STARTED, null, null, 0, 10).isEmpty());
+        Assert.assertEquals(2, cache.getExecutions(null, null, null, 0, 10).size());
+    }
+
+    @Test
+    public void testRestartOfOlderInstance() {
+        testRestartOfOlderInstance(new JobExecutionCache(jobOperator(), history(), JOB_NAME, 1000));
+    }
+
+    @Test
+    public void testRestartOfOlderInstanceWithoutHistory() {
+        testRestartOfOlderInstance(new JobExecutionCache(jobOperator(), null, JOB_NAME, 1000));
+    }
+
+    private void testRestartOfOlderInstance(final JobExecutionCache cache) {
+        start(BatchStatus.FAILED);
+        start(BatchStatus.COMPLETED);
+        Assert.assertEquals(2, cache.getExecutionNames().size());
+
+        // A restart of an older instance which finished between two refreshes
+        final TestJobExecution restart = new TestJobExecution(executions.size() + 1, instances.get(0), BatchStatus.COMPLETED);
+        executions.add(restart);
+        final List<JobExecutionCache.Execution> result = cache.getExecutions(null, null, null, 0, 10);
+        Assert.assertEquals(3, result.size());
+        Assert.assertEquals(restart.executionId, result.get(0).getExecutionId());
+        Assert.assertEquals(1L, result.get(0).getInstanceId());
+        Assert.assertEquals(BatchStatus.COMPLETED, result.get(0).getBatchStatus());
+    }
+
+    @Test
+    public void testPaging() {
+        final JobExecutionCache cache = new JobExecutionCache(jobOperator(), history(), JOB_NAME, 1000);
+        for (int i = 0; i < 10; i++) {
+            start(i % 2 == 0 ? BatchStatus.COMPLETED : BatchStatus.FAILED);
+        }
+        List<JobExecutionCache.Execution> page = cache.getExecutions(BatchStatus.FAILED, null, null, 1, 2);
+        Assert.assertEquals(2, page.size());
+        Assert.assertEquals(8L, page.get(0).getExecutionId());
+        Assert.assertEquals(6L, page.get(1).getExecutionId());
+
+        page = cache.getExecutions(null, new Date(3000L), new Date(5000L), 0, 10);
+        Assert.assertEquals(2, page.size());
+        Assert.assertEquals(4L, page.get(0).getExecutionId());
+        Assert.assertEquals(3L, page.get(1).getExecutionId());
+    }
+
+    @Test
+    public void testBounded() {
+        testBounded(new JobExecutionCache(jobOperator(), history(), JOB_NAME, 10));
+        // The most recent executions are only read once
+        Assert.assertEquals(11, executionsRead);
+    }
+
+    @Test
+    public void testBoundedWithoutHistory() {
+        testBounded(new JobExecutionCache(jobOperator(), null, JOB_NAME, 10));
+    }
+
+    private void testBounded(final JobExecutionCache cache) {
+        for (int i = 0; i < 25; i++) {
+            start(BatchStatus.COMPLETED);
+        }
+        final Set<String> names = cache.getExecutionNames();
+        Assert.assertEquals(10, names.size());
+        Assert.assertEquals("25", names.iterator().next());
+
+        // Older executions can still be addressed
+        Assert.assertTrue(cache.hasExecution("1"));
+        Assert.assertFalse(cache.hasExecution("26"));
+        Assert.assertFalse(cache.hasExecution("invalid"));
+        start(BatchStatus.STARTED);
+        Assert.assertTrue(cache.hasExecution("26"));
+    }
+
+    private JobExecutionHistory history() {
+        return new JobExecutionHistory() {
+            @Override
+            public List<Long> getJobExecutionIds(final String jobName, final long executionId, final int maxResults) {
+                historyQueries.add(executionId);
+                final List<Long> result = new ArrayList<>();
+                for (int i = executions.size() - 1; i >= 0 && result.size() < maxResults; i--) {
+                    final long id = executions.get(i).executionId;
+                    if (id <= executionId) {
+                        break;
+                    }
+                    result.add(id);
+                }
+                return result;
+            }
+        };
+    }
+
+    private TestJobExecution start(final BatchStatus status) {
+        final TestJobInstance instance = new TestJobInstance(instances.size() + 1);
+        instances.add(instance);
+        final TestJobExecution execution = new TestJobExecution(executions.size() + 1, instance, status);
+        executions.add(execution);
+        return execution;
+    }
+
+    private JobOperator jobOperator() {
+        return (JobOperator) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {JobOperator.class}, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "getJobInstances": {
+                        final List<JobInstance> result = new ArrayList<>(instances);
+                        Collections.reverse(result);
+                        final int start = Math.min((Integer) args[1], result.size());
+                        return new ArrayList<>(result.subList(start, Math.min(start + (Integer) args[2], result.size())));
+                    }
+                    case "getJobExecutions": {
+                        final List<JobExecution> result = new ArrayList<>();
+                        for (TestJobExecution execution : executions) {
+                            if (execution.instance == args[0]) {
+                                result.add(execution);
+                            }
+                        }
+                        return result;
+                    }
+                    case "getJobInstanceCount":
+                        return instances.size();
+                    case "getJobExecution":
+                        executionsRead++;
+                        return execution((Long) args[0]);
+                    case "getJobInstance":
+                        return execution((Long) args[0]).instance;
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            }
+        });
+    }
+
+    private TestJobExecution execution(final long executionId) {
+        if (executionId < 1 || executionId > executions.size()) {
+            throw new NoSuchJobExecutionException(Long.toString(executionId));
+        }
+        return executions.get((int) executionId - 1);
+    }
+
+    private static class TestJobInstance implements JobInstance {
+        private final long instanceId;
+
+        TestJobInstance(final long instanceId) {
+            this.instanceId = instanceId;
+        }
+
+        @Override
+        public long getInstanceId() {
+            return instanceId;
+        }
+
+        @Override
+        public String getJobName() {
+            return JOB_NAME;
+        }
+    }
+
+    private static class TestJobExecution implements JobExecution {
+        private final long executionId;
+        private final TestJobInstance instance;
+        private final Date createTime;
+        private volatile BatchStatus batchStatus;
+
+        TestJobExecution(final long executionId, final TestJobInstance instance, final BatchStatus batchStatus) {
+            this.executionId = executionId;
+            this.instance = instance;
+            this.batchStatus = batchStatus;
+            this.createTime = new Date(executionId * 1000L);
+        }
+
+        @Override
+        public long getExecutionId() {
+            return executionId;
+        }
+
+        @Override
+        public String getJobName() {
+            return JOB_NAME;
+        }
+
+        @Override
+        public BatchStatus getBatchStatus() {
+            return batchStatus;
+        }
+
+        @Override
+        public Date getStartTime() {
+            return createTime;
+        }
+
+        @Override
+        public Date getEndTime() {
+            return null;
+        }
+
+        @Override
+        public String getExitStatus() {
+            return null;
+        }
+
+        @Override
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        @Override
+        public Date getLastUpdatedTime() {
+            return createTime;
+        }
+
+        @Override
+        public Properties getJobParameters() {
+            return null;
+        }
+    }
+}
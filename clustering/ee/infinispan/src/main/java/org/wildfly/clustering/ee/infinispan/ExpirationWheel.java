@@ -0,0 +1,237 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.infinispan;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import org.wildfly.clustering.ee.Batch;
+import org.wildfly.clustering.ee.Batcher;
+
+/**
+ * Hashed timing wheel that expires entries in batches.
+ * Scheduling, rescheduling and canceling an entry are constant time operations that neither create a future nor touch the executor's queue.
+ * A single periodic task advances the wheel, and removes each entry that expired since the previous tick within its own batch.
+ * An entry that fails to be removed does not prevent the others from expiring: its batch is discarded, and the failure is reported.
+ * @param <I> the entry identifier type
+ */
+public class ExpirationWheel<I> implements AutoCloseable {
+
+    public static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+    public static final int DEFAULT_SIZE = 4096;
+
+    private final Map<I, Entry<I>> entries = new ConcurrentHashMap<>();
+    private final Set<Entry<I>>[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final LongSupplier clock;
+    private final long origin;
+    private final Batcher<? extends Batch> batcher;
+    private final Remover<I> remover;
+    private final BiConsumer<Throwable, I> failureHandler;
+    private final Object lock = new Object();
+    private final Future<?> future;
+    private volatile long processedTick = 0;
+
+    public ExpirationWheel(Batcher<? extends Batch> batcher, Remover<I> remover, BiConsumer<Throwable, I> failureHandler, ScheduledExecutorService executor) {
+        this(batcher, remover, failureHandler, executor, DEFAULT_TICK, DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new timing wheel.
+     * @param batcher creates the batch within which an expired entry is removed
+     * @param remover removes an expired entry
+     * @param failureHandler notified of entries that could not be removed
+     * @param executor the executor that advances the wheel
+     * @param tick the resolution of the wheel
+     * @param size the number of buckets of the wheel, rounded up to a power of 2
+     */
+    public ExpirationWheel(Batcher<? extends Batch> batcher, Remover<I> remover, BiConsumer<Throwable, I> failureHandler, ScheduledExecutorService executor, Duration tick, int size) {
+        this(batcher, remover, failureHandler, executor, tick, size, System::nanoTime);
+    }
+
+    /**
+     * Creates a new timing wheel driven by the specified clock.
+     * @param clock the source of the current time, in nanoseconds
+     */
+    @SuppressWarnings("unchecked")
+    ExpirationWheel(Batcher<? extends Batch> batcher, Remover<I> remover, BiConsumer<Throwable, I> failureHandler, ScheduledExecutorService executor, Duration tick, int size, LongSupplier clock) {
+        this.batcher = batcher;
+        this.remover = remover;
+        this.failureHandler = failureHandler;
+        this.tickNanos = Math.max(tick.toNanos(), 1L);
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        int buckets = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        this.mask = buckets - 1;
+        this.buckets = new Set[buckets];
+        for (int i = 0; i < buckets; ++i) {
+            this.buckets[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.future = executor.scheduleWithFixedDelay(this::tick, this.tickNanos, this.tickNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Schedules the specified entry to expire after the specified delay, replacing any previous schedule of the same entry.
+     * @param id an entry identifier
+     * @param delay the delay after which the entry expires, or a negative duration to expire the entry on the next tick
+     */
+    public void schedule(I id, Duration delay) {
+        long remaining = !delay.isNegative() ? delay.toNanos() : 0L;
+        long elapsed = this.clock.getAsLong() - this.origin;
+        // Round up, so that an entry never expires early
+        Entry<I> entry = new Entry<>(id, (elapsed + remaining + this.tickNanos - 1) / this.tickNanos);
+        Entry<I> previous = this.entries.put(id, entry);
+        if (previous != null) {
+            this.bucket(previous).remove(previous);
+        }
+        this.bucket(entry).add(entry);
+        // If the wheel moved past the bucket of this entry before it was added, move it to the next bucket
+        long processed = this.processedTick;
+        while (processed >= entry.tick) {
+            Entry<I> next = new Entry<>(id, processed + 1);
+            if (!this.entries.replace(id, entry, next)) {
+                // Already expired or rescheduled concurrently
+                return;
+            }
+            this.bucket(entry).remove(entry);
+            entry = next;
+            this.bucket(entry).add(entry);
+            processed = this.processedTick;
+        }
+    }
+
+    /**
+     * Cancels the expiration of the specified entry.
+     * @param id an entry identifier
+     */
+    public void cancel(I id) {
+        Entry<I> entry = this.entries.remove(id);
+        if (entry != null) {
+            this.bucket(entry).remove(entry);
+        }
+    }
+
+    /**
+     * Cancels the expiration of all entries matching the specified predicate.
+     * @param predicate an entry identifier predicate
+     */
+    public void cancel(Predicate<I> predicate) {
+        for (I id : this.entries.keySet()) {
+            if (predicate.test(id)) {
+                this.cancel(id);
+            }
+        }
+    }
+
+    /**
+     * Stops this wheel, waiting for any tick in progress to complete.
+     */
+    @Override
+    public void close() {
+        this.future.cancel(false);
+        synchronized (this.lock) {
+            this.entries.clear();
+            for (Set<Entry<I>> bucket : this.buckets) {
+                bucket.clear();
+            }
+        }
+    }
+
+    private Set<Entry<I>> bucket(Entry<I> entry) {
+        return this.buckets[(int) (entry.tick & this.mask)];
+    }
+
+    void tick() {
+        synchronized (this.lock) {
+            long current = (this.clock.getAsLong() - this.origin) / this.tickNanos;
+            long last = this.processedTick;
+            if (current <= last) return;
+            // Publish the current tick before scanning, see schedule(...)
+            this.processedTick = current;
+            List<I> expired = new ArrayList<>();
+            // If the wheel fell behind by more than one revolution, visit each bucket only once
+            for (long tick = Math.max(last + 1, current - this.mask); tick <= current; ++tick) {
+                Iterator<Entry<I>> entries = this.buckets[(int) (tick & this.mask)].iterator();
+                while (entries.hasNext()) {
+                    Entry<I> entry = entries.next();
+                    // Entries of later revolutions remain in their bucket
+                    if (entry.tick <= current) {
+                        entries.remove();
+                        if (this.entries.remove(entry.id, entry)) {
+                            expired.add(entry.id);
+                        }
+                    }
+                }
+            }
+            if (!expired.isEmpty()) {
+                this.expire(expired);
+            }
+        }
+    }
+
+    private void expire(List<I> ids) {
+        for (I id : ids) {
+            this.expire(id);
+        }
+    }
+
+    private void expire(I id) {
+        try {
+            Batch batch = this.batcher.createBatch();
+            boolean success = false;
+            try {
+                this.remover.remove(id);
+                success = true;
+            } finally {
+                if (success) {
+                    batch.close();
+                } else {
+                    batch.discard();
+                }
+            }
+        } catch (Throwable e) {
+            this.failureHandler.accept(e, id);
+        }
+    }
+
+    private static class Entry<I> {
+        final I id;
+        final long tick;
+
+        Entry(I id, long tick) {
+            this.id = id;
+            this.tick = tick;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.infinispan;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+import org.junit.Test;
+import org.wildfly.clustering.ee.Batcher;
+
+/**
+ * Unit test for {@link ExpirationWheel}.
+ */
+public class ExpirationWheelTestCase {
+
+    private static final Duration TICK = Duration.ofMillis(100L);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    private ExpirationWheel<String> createWheel(Batcher<TransactionBatch> batcher, Remover<String> remover, BiConsumer<Throwable, String> failureHandler) {
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        doReturn(future).when(executor).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        return new ExpirationWheel<>(batcher, remover, failureHandler, executor, TICK, ExpirationWheel.DEFAULT_SIZE, this.clock::get);
+    }
+
+    private void advance(Duration duration) {
+        this.clock.addAndGet(duration.toNanos());
+    }
+
+    @Test
+    public void test() {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        BiConsumer<Throwable, String> failureHandler = mock(BiConsumer.class);
+
+        when(batcher.createBatch()).thenReturn(batch);
+
+        try (ExpirationWheel<String> wheel = this.createWheel(batcher, remover, failureHandler)) {
+            wheel.schedule("expiring-1", Duration.ofMillis(1L));
+            wheel.schedule("expiring-2", Duration.ZERO);
+            wheel.schedule("canceled", Duration.ofMillis(1L));
+            wheel.cancel("canceled");
+            wheel.schedule("rescheduled", Duration.ofMillis(1L));
+            wheel.schedule("rescheduled", Duration.ofMinutes(1L));
+            wheel.schedule("later", Duration.ofMillis(250L));
+
+            // Nothing expires before the wheel advances
+            wheel.tick();
+            verifyZeroInteractions(remover);
+
+            this.advance(TICK);
+            wheel.tick();
+
+            verify(remover).remove("expiring-1");
+            verify(remover).remove("expiring-2");
+            verify(remover, never()).remove("later");
+
+            this.advance(TICK.multipliedBy(2L));
+            wheel.tick();
+
+            verify(remover).remove("later");
+        }
+
+        verify(remover, never()).remove("canceled");
+        verify(remover, never()).remove("rescheduled");
+        // Each entry is removed within its own batch
+        verify(batch, times(3)).close();
+        verify(failureHandler, never()).accept(any(), any());
+    }
+
+    @Test
+    public void failure() {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        BiConsumer<Throwable, String> failureHandler = mock(BiConsumer.class);
+        RuntimeException exception = new RuntimeException();
+
+        when(batcher.createBatch()).thenReturn(batch);
+        doThrow(exception).when(remover).remove("failing");
+
+        try (ExpirationWheel<String> wheel = this.createWheel(batcher, remover, failureHandler)) {
+            wheel.schedule("failing", Duration.ZERO);
+            wheel.schedule("expiring", Duration.ZERO);
+
+            this.advance(TICK);
+            wheel.tick();
+        }
+
+        // The batch of the failed entry is discarded, the other entry still expires
+        verify(remover).remove("failing");
+        verify(remover).remove("expiring");
+        verify(failureHandler).accept(exception, "failing");
+        verify(failureHandler, never()).accept(any(), eq("expiring"));
+        verify(batch).close();
+        verify(batch).discard();
+    }
+
+    @Test
+    public void batchFailure() {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        BiConsumer<Throwable, String> failureHandler = mock(BiConsumer.class);
+        RuntimeException removeException = new RuntimeException();
+        RuntimeException closeException = new RuntimeException();
+        AtomicReference<String> removing = new AtomicReference<>();
+        List<String> removed = new ArrayList<>();
+        Remover<String> remover = id -> {
+            removing.set(id);
+            if (id.equals("failing")) {
+                throw removeException;
+            }
+        };
+
+        when(batcher.createBatch()).thenReturn(batch);
+        doAnswer(invocation -> {
+            if (removing.get().equals("closing")) {
+                throw closeException;
+            }
+            removed.add(removing.get());
+            return null;
+        }).when(batch).close();
+
+        try (ExpirationWheel<String> wheel = this.createWheel(batcher, remover, failureHandler)) {
+            wheel.schedule("failing", Duration.ZERO);
+            wheel.schedule("closing", Duration.ZERO);
+            wheel.schedule("expiring", Duration.ZERO);
+
+            this.advance(TICK);
+            wheel.tick();
+        }
+
+        // Each entry is removed within its own batch, so neither failure affects the removal of the other entries
+        verify(batcher, times(3)).createBatch();
+        verify(batch).discard();
+        verify(batch, times(2)).close();
+        assertEquals(Collections.singletonList("expiring"), removed);
+
+        verify(failureHandler).accept(removeException, "failing");
+        verify(failureHandler).accept(closeException, "closing");
+        verify(failureHandler, never()).accept(any(), eq("expiring"));
+    }
+}
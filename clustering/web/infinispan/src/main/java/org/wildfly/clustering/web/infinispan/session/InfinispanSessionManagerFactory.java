@@ -56,6 +56,7 @@ import org.wildfly.clustering.web.IdentifierFactory;
 import org.wildfly.clustering.web.LocalContextFactory;
 import org.wildfly.clustering.web.infinispan.AffinityIdentifierFactory;
 import org.wildfly.clustering.web.infinispan.session.coarse.CoarseSessionFactory;
+import org.wildfly.clustering.web.infinispan.session.delta.DeltaSessionFactory;
 import org.wildfly.clustering.web.infinispan.session.fine.FineSessionFactory;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.SessionContext;
@@ -170,6 +171,10 @@ public class InfinispanSessionManagerFactory implements SessionManagerFactory<Tr
                 Marshaller<Map<String, Object>, MarshalledValue<Map<String, Object>, MarshallingContext>, MarshallingContext> marshaller = new MarshalledValueMarshaller<>(factory, marshallingContext);
                 return new CoarseSessionFactory<>(cache, context, marshaller, localContextFactory, lockOnRead, requireMarshallable);
             }
+            case DELTA: {
+                Marshaller<Object, MarshalledValue<Object, MarshallingContext>, MarshallingContext> marshaller = new MarshalledValueMarshaller<>(factory, marshallingContext);
+                return new DeltaSessionFactory<>(cache, context, marshaller, localContextFactory, lockOnRead, requireMarshallable);
+            }
             default: {
                 // Impossible
                 throw new IllegalStateException();
@@ -25,18 +25,13 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.TimeUnit;
 
 import org.jboss.threads.JBossThreadFactory;
-import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.ExpirationWheel;
 import org.wildfly.clustering.ee.infinispan.Remover;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.infinispan.spi.distribution.Locality;
@@ -46,13 +41,12 @@ import org.wildfly.clustering.web.session.ImmutableSession;
 /**
  * Session expiration scheduler that eagerly expires sessions as soon as they are eligible.
  * If/When Infinispan implements expiration notifications (ISPN-694), this will be obsolete.
+ * Sessions are tracked by an {@link ExpirationWheel}, so rescheduling a session on each request is a constant time operation.
  * @author Paul Ferraro
  */
 public class SessionExpirationScheduler implements Scheduler {
 
-    final Map<String, Future<?>> expirationFutures = new ConcurrentHashMap<>();
-    final Batcher<TransactionBatch> batcher;
-    final Remover<String> remover;
+    private final ExpirationWheel<String> wheel;
     private final ScheduledExecutorService executor;
 
     public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover) {
@@ -76,17 +70,17 @@ public class SessionExpirationScheduler implements Scheduler {
     }
 
     public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ScheduledExecutorService executor) {
-        this.batcher = batcher;
-        this.remover = remover;
+        Remover<String> expirer = id -> {
+            InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", id);
+            remover.remove(id);
+        };
+        this.wheel = new ExpirationWheel<>(batcher, expirer, InfinispanWebLogger.ROOT_LOGGER::failedToExpireSession, executor);
         this.executor = executor;
     }
 
     @Override
     public void cancel(String sessionId) {
-        Future<?> future = this.expirationFutures.remove(sessionId);
-        if (future != null) {
-            future.cancel(false);
-        }
+        this.wheel.cancel(sessionId);
     }
 
     @Override
@@ -96,65 +90,19 @@ public class SessionExpirationScheduler implements Scheduler {
             Instant lastAccessed = session.getMetaData().getLastAccessedTime();
             Duration delay = Duration.between(Instant.now(), lastAccessed.plus(maxInactiveInterval));
             String id = session.getId();
-            Runnable task = new ExpirationTask(id);
             InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire in %d sec", id, maxInactiveInterval.getSeconds());
-            synchronized (task) {
-                this.expirationFutures.put(id, this.executor.schedule(task, !delay.isNegative() ? delay.getSeconds() : 0, TimeUnit.SECONDS));
-            }
+            this.wheel.schedule(id, delay);
         }
     }
 
     @Override
     public void cancel(Locality locality) {
-        this.expirationFutures.keySet().stream().filter(sessionId -> !locality.isLocal(sessionId)).forEach(sessionId -> this.cancel(sessionId));
+        this.wheel.cancel(sessionId -> !locality.isLocal(sessionId));
     }
 
     @Override
     public void close() {
+        this.wheel.close();
         this.executor.shutdown();
-        this.expirationFutures.values().forEach(future -> future.cancel(false));
-        this.expirationFutures.values().stream().filter(future -> !future.isDone()).forEach(future -> {
-            try {
-                future.get();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            } catch (ExecutionException e) {
-                // Ignore
-            }
-        });
-        this.expirationFutures.clear();
-    }
-
-    private class ExpirationTask implements Runnable {
-        private final String id;
-
-        public ExpirationTask(String id) {
-            this.id = id;
-        }
-
-        @Override
-        public void run() {
-            InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", this.id);
-            try {
-                Batch batch = SessionExpirationScheduler.this.batcher.createBatch();
-                boolean success = false;
-                try {
-                    SessionExpirationScheduler.this.remover.remove(this.id);
-                    success = true;
-                } catch (Throwable e) {
-                    InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, this.id);
-                } finally {
-                    if (success) {
-                        batch.close();
-                    } else {
-                        batch.discard();
-                    }
-                }
-            } finally {
-                synchronized (this) {
-                    SessionExpirationScheduler.this.expirationFutures.remove(this.id);
-                }
-            }
-        }
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.wildfly.clustering.marshalling.jboss.InvalidSerializedFormException;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.Marshaller;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.ImmutableSessionAttributes;
+
+/**
+ * Exposes session attributes for a delta granularity session.
+ */
+public class DeltaImmutableSessionAttributes implements ImmutableSessionAttributes {
+    private final String id;
+    private final Map<String, MarshalledValue<Object, MarshallingContext>> attributes;
+    private final Marshaller<Object, MarshalledValue<Object, MarshallingContext>, MarshallingContext> marshaller;
+
+    public DeltaImmutableSessionAttributes(String id, Map<String, MarshalledValue<Object, MarshallingContext>> attributes, Marshaller<Object, MarshalledValue<Object, MarshallingContext>, MarshallingContext> marshaller) {
+        this.id = id;
+        this.attributes = attributes;
+        this.marshaller = marshaller;
+    }
+
+    @Override
+    public Set<String> getAttributeNames() {
+        return this.attributes.keySet();
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return this.read(name, this.attributes.get(name));
+    }
+
+    protected Object read(String name, MarshalledValue<Object, MarshallingContext> value) {
+        try {
+            return this.marshaller.read(value);
+        } catch (InvalidSerializedFormException e) {
+            // This should not happen here, since attributes were pre-activated during DeltaSessionFactory.findValue(...)
+            throw InfinispanWebLogger.ROOT_LOGGER.failedToReadSessionAttribute(e, this.id, name);
+        }
+    }
+}
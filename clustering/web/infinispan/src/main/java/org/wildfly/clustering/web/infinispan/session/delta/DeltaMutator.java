@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import org.wildfly.clustering.marshalling.jboss.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+
+/**
+ * Records changes to individual session attributes.
+ */
+public interface DeltaMutator {
+    /**
+     * Indicates that the specified attribute was set or mutated.
+     * @param name an attribute name
+     * @param value the marshalled attribute value
+     */
+    void put(String name, MarshalledValue<Object, MarshallingContext> value);
+
+    /**
+     * Indicates that the specified attribute was removed.
+     * @param name an attribute name
+     */
+    void remove(String name);
+
+    /**
+     * Applies the changes recorded since the previous flush to the cache, unless they were already applied.
+     * Called when the session is closed at the end of a request.
+     */
+    void flush();
+
+    /**
+     * Trivial {@link DeltaMutator} implementation that does nothing.
+     * Used when the session attributes entry was created within the current batch.
+     */
+    DeltaMutator PASSIVE = new DeltaMutator() {
+        @Override
+        public void put(String name, MarshalledValue<Object, MarshallingContext> value) {
+            // Do nothing
+        }
+
+        @Override
+        public void remove(String name) {
+            // Do nothing
+        }
+
+        @Override
+        public void flush() {
+            // Do nothing
+        }
+    };
+}
@@ -0,0 +1,54 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.wildfly.clustering.ee.infinispan.Remover;
+import org.wildfly.clustering.web.LocalContextFactory;
+import org.wildfly.clustering.web.infinispan.session.InfinispanSession;
+import org.wildfly.clustering.web.session.SessionAttributes;
+import org.wildfly.clustering.web.session.SessionContext;
+import org.wildfly.clustering.web.session.SessionMetaData;
+
+/**
+ * Delta granularity session, which applies the attribute changes made during a request when it is closed.
+ * @param <L> the local context type
+ */
+public class DeltaSession<L> extends InfinispanSession<L> {
+
+    private final DeltaMutator mutator;
+
+    public DeltaSession(String id, SessionMetaData metaData, SessionAttributes attributes, DeltaMutator mutator, AtomicReference<L> localContext, LocalContextFactory<L> localContextFactory, SessionContext context, Remover<String> remover) {
+        super(id, metaData, attributes, localContext, localContextFactory, context, remover);
+        this.mutator = mutator;
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        // An invalidated session was already removed
+        if (this.isValid()) {
+            this.mutator.flush();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import java.util.Map;
+
+import org.infinispan.commons.marshall.NotSerializableException;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.Marshaller;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.web.infinispan.session.MutableDetector;
+import org.wildfly.clustering.web.session.SessionAttributes;
+
+/**
+ * Exposes session attributes for a delta granularity session.
+ * Like a coarse granularity session, all attributes are stored within a single cache entry.
+ * Unlike a coarse granularity session, only those attributes that were set, mutated or removed are replicated.
+ */
+public class DeltaSessionAttributes extends DeltaImmutableSessionAttributes implements SessionAttributes {
+    private final Map<String, MarshalledValue<Object, MarshallingContext>> attributes;
+    private final Marshaller<Object, MarshalledValue<Object, MarshallingContext>, MarshallingContext> marshaller;
+    private final DeltaMutator mutator;
+    private final boolean requireMarshallable;
+
+    public DeltaSessionAttributes(String id, Map<String, MarshalledValue<Object, MarshallingContext>> attributes, Marshaller<Object, MarshalledValue<Object, MarshallingContext>, MarshallingContext> marshaller, DeltaMutator mutator, boolean requireMarshallable) {
+        super(id, attributes, marshaller);
+        this.attributes = attributes;
+        this.marshaller = marshaller;
+        this.mutator = mutator;
+        this.requireMarshallable = requireMarshallable;
+    }
+
+    @Override
+    public Object removeAttribute(String name) {
+        MarshalledValue<Object, MarshallingContext> value = this.attributes.remove(name);
+        if (value != null) {
+            this.mutator.remove(name);
+        }
+        return this.read(name, value);
+    }
+
+    @Override
+    public Object setAttribute(String name, Object attribute) {
+        if (attribute == null) {
+            return this.removeAttribute(name);
+        }
+        if (this.requireMarshallable && !this.marshaller.getContext().isMarshallable(attribute)) {
+            throw new IllegalArgumentException(new NotSerializableException(attribute.getClass().getName()));
+        }
+        MarshalledValue<Object, MarshallingContext> value = this.marshaller.write(attribute);
+        MarshalledValue<Object, MarshallingContext> old = this.attributes.put(name, value);
+        this.mutator.put(name, value);
+        return this.read(name, old);
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        MarshalledValue<Object, MarshallingContext> value = this.attributes.get(name);
+        Object attribute = this.read(name, value);
+        // If the object is mutable, we need to indicate that the attribute should be replicated
+        if ((attribute != null) && MutableDetector.isMutable(attribute)) {
+            this.mutator.put(name, value);
+        }
+        return attribute;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.atomic.Delta;
+import org.infinispan.atomic.DeltaAware;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+
+/**
+ * The attributes of a session that were set, mutated or removed during a request.
+ */
+public class SessionAttributesDelta implements Delta {
+
+    private final Map<String, MarshalledValue<Object, MarshallingContext>> updates = new ConcurrentHashMap<>();
+    private final Set<String> removals = ConcurrentHashMap.newKeySet();
+
+    public SessionAttributesDelta() {
+    }
+
+    public SessionAttributesDelta(Map<String, MarshalledValue<Object, MarshallingContext>> updates) {
+        this.updates.putAll(updates);
+    }
+
+    public SessionAttributesDelta(Map<String, MarshalledValue<Object, MarshallingContext>> updates, Set<String> removals) {
+        this.updates.putAll(updates);
+        this.removals.addAll(removals);
+    }
+
+    public void put(String name, MarshalledValue<Object, MarshallingContext> value) {
+        this.removals.remove(name);
+        this.updates.put(name, value);
+    }
+
+    public void remove(String name) {
+        this.updates.remove(name);
+        this.removals.add(name);
+    }
+
+    public Map<String, MarshalledValue<Object, MarshallingContext>> getUpdates() {
+        return this.updates;
+    }
+
+    public Set<String> getRemovals() {
+        return this.removals;
+    }
+
+    @Override
+    public DeltaAware merge(DeltaAware value) {
+        SessionAttributesEntry entry = (value instanceof SessionAttributesEntry) ? (SessionAttributesEntry) value : new SessionAttributesEntry();
+        Map<String, MarshalledValue<Object, MarshallingContext>> attributes = entry.getAttributes();
+        attributes.putAll(this.updates);
+        for (String name : this.removals) {
+            attributes.remove(name);
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import org.infinispan.Cache;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.web.infinispan.session.coarse.SessionAttributesKey;
+
+/**
+ * Applies the changes to the attributes of a session to its cache entry as a {@link SessionAttributesDelta}.
+ * All changes made during a request are collected by a single delta, which is applied to the cache entry once.
+ * Within a transaction, the delta is applied on the first change, and only marshalled when the transaction is prepared.
+ * Otherwise, the delta is applied when the session is {@link #flush() flushed} at the end of the request.
+ */
+public class SessionAttributesDeltaMutator implements DeltaMutator {
+
+    private final Cache<SessionAttributesKey, SessionAttributesEntry> cache;
+    private final SessionAttributesKey key;
+    private final boolean transactional;
+    private SessionAttributesDelta delta = new SessionAttributesDelta();
+    // Indicates whether the current delta contains changes not yet applied to the cache
+    private boolean pending = false;
+    // Indicates whether the delta was applied within the current transaction
+    private boolean applied = false;
+
+    public SessionAttributesDeltaMutator(Cache<SessionAttributesKey, SessionAttributesEntry> cache, SessionAttributesKey key) {
+        this.cache = cache;
+        this.key = key;
+        this.transactional = cache.getCacheConfiguration().transaction().transactionMode().isTransactional();
+    }
+
+    @Override
+    public synchronized void put(String name, MarshalledValue<Object, MarshallingContext> value) {
+        this.delta.put(name, value);
+        this.changed();
+    }
+
+    @Override
+    public synchronized void remove(String name) {
+        this.delta.remove(name);
+        this.changed();
+    }
+
+    @Override
+    public synchronized void flush() {
+        if (this.pending) {
+            this.apply(this.delta);
+            // Subsequent changes are collected by a new delta
+            this.delta = new SessionAttributesDelta();
+            this.pending = false;
+        }
+    }
+
+    private void changed() {
+        if (this.transactional) {
+            // We only ever have to apply the delta once within a transaction
+            if (!this.applied) {
+                this.apply(this.delta);
+                this.applied = true;
+            }
+        } else {
+            this.pending = true;
+        }
+    }
+
+    private void apply(SessionAttributesDelta delta) {
+        // Lock the same single entry as a coarse granularity session
+        this.cache.getAdvancedCache().applyDelta(this.key, delta, this.key);
+    }
+}
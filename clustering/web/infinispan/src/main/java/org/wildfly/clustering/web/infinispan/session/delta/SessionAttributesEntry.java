@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.infinispan.atomic.Delta;
+import org.infinispan.atomic.DeltaAware;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+
+/**
+ * Cache entry containing all attributes of a delta granularity session.
+ * Each attribute is marshalled independently, so that a {@link SessionAttributesDelta} can replicate only those attributes that changed.
+ */
+public class SessionAttributesEntry implements DeltaAware {
+
+    private final Map<String, MarshalledValue<Object, MarshallingContext>> attributes;
+
+    public SessionAttributesEntry() {
+        this(new ConcurrentHashMap<>());
+    }
+
+    public SessionAttributesEntry(Map<String, MarshalledValue<Object, MarshallingContext>> attributes) {
+        this.attributes = attributes;
+    }
+
+    public Map<String, MarshalledValue<Object, MarshallingContext>> getAttributes() {
+        return this.attributes;
+    }
+
+    @Override
+    public Delta delta() {
+        // Changes are tracked per request by SessionAttributesDelta, so the only delta of the entry itself is its full state
+        return new SessionAttributesDelta(this.attributes);
+    }
+
+    @Override
+    public void commit() {
+        // Nothing to reset
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.wildfly.clustering.marshalling.jboss.InvalidSerializedFormException;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.Marshaller;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+
+/**
+ * Unit test for {@link DeltaSessionAttributes}.
+ */
+public class DeltaSessionAttributesTestCase {
+    private final Map<String, MarshalledValue<Object, MarshallingContext>> attributes = new ConcurrentHashMap<>();
+    private final Marshaller<Object, MarshalledValue<Object, MarshallingContext>, MarshallingContext> marshaller = mock(Marshaller.class);
+    private final DeltaMutator mutator = mock(DeltaMutator.class);
+
+    private final DeltaSessionAttributes sessionAttributes = new DeltaSessionAttributes("session", this.attributes, this.marshaller, this.mutator, false);
+
+    @Test
+    public void setAttribute() throws InvalidSerializedFormException {
+        Object value = "value";
+        MarshalledValue<Object, MarshallingContext> marshalledValue = mock(MarshalledValue.class);
+
+        when(this.marshaller.write(value)).thenReturn(marshalledValue);
+
+        assertNull(this.sessionAttributes.setAttribute("name", value));
+
+        assertSame(marshalledValue, this.attributes.get("name"));
+        verify(this.mutator).put("name", marshalledValue);
+        verify(this.mutator, never()).remove(anyString());
+    }
+
+    @Test
+    public void removeAttribute() throws InvalidSerializedFormException {
+        Object value = "value";
+        MarshalledValue<Object, MarshallingContext> marshalledValue = mock(MarshalledValue.class);
+
+        this.attributes.put("name", marshalledValue);
+        when(this.marshaller.read(marshalledValue)).thenReturn(value);
+
+        assertSame(value, this.sessionAttributes.removeAttribute("name"));
+        assertFalse(this.attributes.containsKey("name"));
+        verify(this.mutator).remove("name");
+
+        assertNull(this.sessionAttributes.removeAttribute("missing"));
+        verify(this.mutator, never()).remove("missing");
+    }
+
+    @Test
+    public void getAttribute() throws InvalidSerializedFormException {
+        Object immutableValue = "immutable";
+        Object mutableValue = new AtomicInteger();
+        MarshalledValue<Object, MarshallingContext> immutableMarshalledValue = mock(MarshalledValue.class);
+        MarshalledValue<Object, MarshallingContext> mutableMarshalledValue = mock(MarshalledValue.class);
+
+        this.attributes.put("immutable", immutableMarshalledValue);
+        this.attributes.put("mutable", mutableMarshalledValue);
+        when(this.marshaller.read(immutableMarshalledValue)).thenReturn(immutableValue);
+        when(this.marshaller.read(mutableMarshalledValue)).thenReturn(mutableValue);
+
+        assertSame(immutableValue, this.sessionAttributes.getAttribute("immutable"));
+        verify(this.mutator, never()).put("immutable", immutableMarshalledValue);
+
+        // Only the mutable attribute is marked for replication
+        assertSame(mutableValue, this.sessionAttributes.getAttribute("mutable"));
+        verify(this.mutator).put("mutable", mutableMarshalledValue);
+    }
+
+    @Test
+    public void merge() {
+        MarshalledValue<Object, MarshallingContext> unchanged = mock(MarshalledValue.class);
+        MarshalledValue<Object, MarshallingContext> updated = mock(MarshalledValue.class);
+        MarshalledValue<Object, MarshallingContext> removed = mock(MarshalledValue.class);
+        SessionAttributesEntry entry = new SessionAttributesEntry();
+        entry.getAttributes().put("unchanged", unchanged);
+        entry.getAttributes().put("removed", removed);
+
+        SessionAttributesDelta delta = new SessionAttributesDelta();
+        delta.put("updated", updated);
+        delta.remove("removed");
+
+        assertSame(entry, delta.merge(entry));
+        assertEquals(2, entry.getAttributes().size());
+        assertSame(unchanged, entry.getAttributes().get("unchanged"));
+        assertSame(updated, entry.getAttributes().get("updated"));
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.web.infinispan.session.delta;
+
+import static org.mockito.Mockito.*;
+
+import org.infinispan.AdvancedCache;
+import org.infinispan.Cache;
+import org.infinispan.configuration.cache.ConfigurationBuilder;
+import org.infinispan.transaction.TransactionMode;
+import org.junit.Test;
+import org.wildfly.clustering.marshalling.jboss.MarshalledValue;
+import org.wildfly.clustering.marshalling.jboss.MarshallingContext;
+import org.wildfly.clustering.web.infinispan.session.coarse.SessionAttributesKey;
+
+/**
+ * Unit test for {@link SessionAttributesDeltaMutator}.
+ */
+public class SessionAttributesDeltaMutatorTestCase {
+
+    private final Cache<SessionAttributesKey, SessionAttributesEntry> cache = mock(Cache.class);
+    private final AdvancedCache<SessionAttributesKey, SessionAttributesEntry> advancedCache = mock(AdvancedCache.class);
+    private final SessionAttributesKey key = new SessionAttributesKey("session");
+
+    private SessionAttributesDeltaMutator createMutator(TransactionMode mode) {
+        when(this.cache.getCacheConfiguration()).thenReturn(new ConfigurationBuilder().transaction().transactionMode(mode).build());
+        when(this.cache.getAdvancedCache()).thenReturn(this.advancedCache);
+        return new SessionAttributesDeltaMutator(this.cache, this.key);
+    }
+
+    @Test
+    public void nonTransactional() {
+        SessionAttributesDeltaMutator mutator = this.createMutator(TransactionMode.NON_TRANSACTIONAL);
+        MarshalledValue<Object, MarshallingContext> value = mock(MarshalledValue.class);
+
+        mutator.put("a", value);
+        mutator.put("b", value);
+        mutator.remove("c");
+
+        // Changes are only applied on flush, with a single delta
+        verify(this.advancedCache, never()).applyDelta(any(), any(), any());
+
+        mutator.flush();
+
+        verify(this.advancedCache).applyDelta(same(this.key), any(SessionAttributesDelta.class), same(this.key));
+
+        // Nothing changed since the previous flush
+        mutator.flush();
+
+        verify(this.advancedCache, times(1)).applyDelta(any(), any(), any());
+
+        mutator.put("a", value);
+        mutator.flush();
+
+        verify(this.advancedCache, times(2)).applyDelta(any(), any(), any());
+    }
+
+    @Test
+    public void transactional() {
+        SessionAttributesDeltaMutator mutator = this.createMutator(TransactionMode.TRANSACTIONAL);
+        MarshalledValue<Object, MarshallingContext> value = mock(MarshalledValue.class);
+
+        mutator.put("a", value);
+        mutator.put("b", value);
+        mutator.remove("c");
+        mutator.flush();
+
+        // The delta is applied once, on the first change
+        verify(this.advancedCache, times(1)).applyDelta(same(this.key), any(SessionAttributesDelta.class), same(this.key));
+    }
+}
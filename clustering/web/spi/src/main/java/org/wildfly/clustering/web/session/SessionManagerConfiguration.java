@@ -28,7 +28,7 @@ import org.jboss.modules.Module;
  * @author Paul Ferraro
  */
 public interface SessionManagerConfiguration {
-    enum SessionAttributePersistenceStrategy { COARSE, FINE }
+    enum SessionAttributePersistenceStrategy { COARSE, FINE, DELTA }
 
     int getMaxActiveSessions();
 
@@ -54,6 +54,12 @@ public class DistributableSessionManagerFactoryBuilder implements org.wildfly.ex
         strategies.put(ReplicationGranularity.ATTRIBUTE, SessionManagerConfiguration.SessionAttributePersistenceStrategy.FINE);
     }
 
+    static SessionManagerConfiguration.SessionAttributePersistenceStrategy getAttributePersistenceStrategy(DistributableSessionManagerConfiguration config) {
+        SessionManagerConfiguration.SessionAttributePersistenceStrategy strategy = strategies.get(config.getGranularity());
+        // jboss-web.xml has no granularity value for delta replication, so the servlet container replaces SESSION granularity when enabled
+        return ((strategy == SessionManagerConfiguration.SessionAttributePersistenceStrategy.COARSE) && config.isDeltaReplication()) ? SessionManagerConfiguration.SessionAttributePersistenceStrategy.DELTA : strategy;
+    }
+
     private static SessionManagerFactoryBuilderProvider<Batch> load() {
         for (SessionManagerFactoryBuilderProvider<Batch> provider: ServiceLoader.load(SessionManagerFactoryBuilderProvider.class, SessionManagerFactoryBuilderProvider.class.getClassLoader())) {
             return provider;
@@ -83,7 +89,7 @@ public class DistributableSessionManagerFactoryBuilder implements org.wildfly.ex
 
             @Override
             public SessionAttributePersistenceStrategy getAttributePersistenceStrategy() {
-                return strategies.get(config.getGranularity());
+                return getAttributePersistenceStrategy(config);
             }
 
             @Override
@@ -315,7 +315,7 @@ public class DsXmlDeploymentInstallProcessor implements DeploymentUnitProcessor
             }
             DataSourceStatisticsService statsService = new DataSourceStatisticsService(registration, false );
                             serviceTarget.addService(dataSourceServiceName.append(Constants.STATISTICS), statsService)
-                                    .addDependency(dataSourceServiceName)
+                                    .addDependency(dataSourceServiceName, javax.sql.DataSource.class, statsService.getDataSourceInjector())
                                     .addDependency(CommonDeploymentService.getServiceName(bindInfo), CommonDeployment.class, statsService.getCommonDeploymentInjector())
                                     .setInitialMode(ServiceController.Mode.PASSIVE)
                                     .install();
@@ -0,0 +1,341 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.datasources.statistics;
+
+import java.sql.Connection;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.resource.spi.ConnectionEvent;
+import javax.resource.spi.ConnectionEventListener;
+
+import org.jboss.dmr.ModelNode;
+import org.jboss.modules.ModuleClassLoader;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Acquisition and hold time statistics of the connections handed out by a datasource, overall and per deployment,
+ * along with a profiler of connections held longer than a threshold.
+ * <p>
+ * While enabled, the connection handles handed out by the datasource are registered when acquired, and their hold
+ * time is recorded when the pool reports them closed through the {@link ConnectionEventListener} this class
+ * implements. The handles are returned to the caller unchanged, and are only weakly referenced, so a handle which is
+ * never closed does not stay reachable. One in {@link #getSampleInterval()} connections also captures the stack of the
+ * borrowing thread, which is reported if the connection is held longer than the
+ * {@link #getHoldTimeThreshold() threshold}, whether it was eventually closed or is still held.
+ */
+public class DataSourceLatencyStatistics implements ConnectionEventListener {
+
+    public static final int DEFAULT_SAMPLE_INTERVAL = 10;
+    static final int MAX_REPORTED_CONNECTIONS = 32;
+    private static final int MAX_CALL_SITE_FRAMES = 12;
+    private static final String DEPLOYMENT_PREFIX = "deployment.";
+
+    private static final ConcurrentMap<Class<?>, Class<?>[]> INTERFACES = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled;
+    private volatile long holdTimeThreshold;
+    private volatile int sampleInterval = DEFAULT_SAMPLE_INTERVAL;
+
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+    private final ConcurrentMap<String, LatencyHistogram[]> deployments = new ConcurrentHashMap<>();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final LongAdder longHeld = new LongAdder();
+    private final Map<Object, HeldConnection> held = Collections.synchronizedMap(new WeakHashMap<Object, HeldConnection>());
+    private final Deque<ModelNode> released = new ArrayDeque<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the hold time, in milliseconds, above which sampled connections are reported, or 0 if disabled
+     */
+    public long getHoldTimeThreshold() {
+        return holdTimeThreshold;
+    }
+
+    public void setHoldTimeThreshold(long holdTimeThreshold) {
+        this.holdTimeThreshold = holdTimeThreshold;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public void setSampleInterval(int sampleInterval) {
+        this.sampleInterval = Math.max(1, sampleInterval);
+    }
+
+    /**
+     * Records the acquisition of a connection, and registers it so its hold time is recorded when the pool reports it
+     * closed.
+     *
+     * @param connection the connection handle handed out by the pool
+     * @param acquireNanos the time it took to obtain the connection, in nanoseconds
+     */
+    public void acquired(final Connection connection, final long acquireNanos) {
+        final String deployment = currentDeployment();
+        acquireTime.record(acquireNanos);
+        final LatencyHistogram[] deploymentHistograms = deployment != null ? histogramsOf(deployment) : null;
+        if (deploymentHistograms != null) {
+            deploymentHistograms[0].record(acquireNanos);
+        }
+        Throwable callSite = null;
+        if (holdTimeThreshold > 0 && acquisitions.getAndIncrement() % sampleInterval == 0) {
+            callSite = new Throwable();
+        }
+        held.put(connection, new HeldConnection(deployment, deploymentHistograms, callSite));
+    }
+
+    /**
+     * Records the hold time of a connection handle registered by {@link #acquired(Connection, long)}.
+     *
+     * @param handle the connection handle which was closed
+     */
+    void released(final Object handle) {
+        if (handle == null) {
+            return;
+        }
+        final HeldConnection connection = held.remove(handle);
+        if (connection == null) {
+            return;
+        }
+        final long holdNanos = System.nanoTime() - connection.acquired;
+        holdTime.record(holdNanos);
+        if (connection.histograms != null) {
+            connection.histograms[1].record(holdNanos);
+        }
+        final long threshold = holdTimeThreshold;
+        if (threshold > 0 && holdNanos > TimeUnit.MILLISECONDS.toNanos(threshold)) {
+            longHeld.increment();
+            if (connection.callSite != null) {
+                final ModelNode report = connection.toModelNode(holdNanos, false);
+                synchronized (released) {
+                    if (released.size() == MAX_REPORTED_CONNECTIONS) {
+                        released.removeFirst();
+                    }
+                    released.addLast(report);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void connectionClosed(ConnectionEvent event) {
+        released(event.getConnectionHandle());
+    }
+
+    @Override
+    public void connectionErrorOccurred(ConnectionEvent event) {
+        // the handles of a failed connection are closed by the application, which is reported as connectionClosed
+    }
+
+    @Override
+    public void localTransactionStarted(ConnectionEvent event) {
+    }
+
+    @Override
+    public void localTransactionCommitted(ConnectionEvent event) {
+    }
+
+    @Override
+    public void localTransactionRolledback(ConnectionEvent event) {
+    }
+
+    public LatencyHistogram getAcquireTime() {
+        return acquireTime;
+    }
+
+    public LatencyHistogram getHoldTime() {
+        return holdTime;
+    }
+
+    /**
+     * @return the number of connections that were held longer than the threshold before being closed
+     */
+    public long getLongHeldCount() {
+        return longHeld.sum();
+    }
+
+    /**
+     * Returns the acquisition and hold time histograms of each deployment which obtained connections.
+     *
+     * @return an object keyed by deployment name
+     */
+    public ModelNode deploymentsToModelNode() {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (Map.Entry<String, LatencyHistogram[]> entry : deployments.entrySet()) {
+            final ModelNode deployment = result.get(entry.getKey());
+            deployment.get("acquire-time").set(entry.getValue()[0].toModelNode());
+            deployment.get("hold-time").set(entry.getValue()[1].toModelNode());
+        }
+        return result;
+    }
+
+    /**
+     * Returns the sampled connections that are held longer than the threshold, followed by the most recently closed
+     * sampled connections that were.
+     *
+     * @return a list of objects describing the connections and their call sites
+     */
+    public ModelNode longHeldConnectionsToModelNode() {
+        final ModelNode result = new ModelNode().setEmptyList();
+        final long threshold = holdTimeThreshold;
+        if (threshold > 0) {
+            final List<HeldConnection> connections;
+            synchronized (held) {
+                connections = new ArrayList<>(held.values());
+            }
+            final long now = System.nanoTime();
+            for (HeldConnection connection : connections) {
+                final long holdNanos = now - connection.acquired;
+                if (connection.callSite != null && holdNanos > TimeUnit.MILLISECONDS.toNanos(threshold)) {
+                    result.add(connection.toModelNode(holdNanos, true));
+                }
+            }
+        }
+        synchronized (released) {
+            for (ModelNode report : released) {
+                result.add(report);
+            }
+        }
+        return result;
+    }
+
+    public void clear() {
+        acquireTime.clear();
+        holdTime.clear();
+        deployments.clear();
+        longHeld.reset();
+        synchronized (released) {
+            released.clear();
+        }
+    }
+
+    private LatencyHistogram[] histogramsOf(final String deployment) {
+        LatencyHistogram[] histograms = deployments.get(deployment);
+        if (histograms == null) {
+            histograms = new LatencyHistogram[] { new LatencyHistogram(), new LatencyHistogram() };
+            final LatencyHistogram[] existing = deployments.putIfAbsent(deployment, histograms);
+            if (existing != null) {
+                histograms = existing;
+            }
+        }
+        return histograms;
+    }
+
+    private static String currentDeployment() {
+        final ClassLoader loader = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
+        if (loader instanceof ModuleClassLoader) {
+            final String name = ((ModuleClassLoader) loader).getModule().getIdentifier().getName();
+            if (name.startsWith(DEPLOYMENT_PREFIX)) {
+                return name.substring(DEPLOYMENT_PREFIX.length());
+            }
+        }
+        return null;
+    }
+
+    static Class<?>[] interfacesOf(final Class<?> type, final Class<?> required) {
+        Class<?>[] interfaces = INTERFACES.get(type);
+        if (interfaces == null) {
+            final Set<Class<?>> all = new LinkedHashSet<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                collectInterfaces(current, all);
+            }
+            all.add(required);
+            interfaces = all.toArray(new Class<?>[all.size()]);
+            INTERFACES.putIfAbsent(type, interfaces);
+        }
+        return interfaces;
+    }
+
+    private static void collectInterfaces(final Class<?> type, final Set<Class<?>> interfaces) {
+        for (Class<?> implemented : type.getInterfaces()) {
+            if (interfaces.add(implemented)) {
+                collectInterfaces(implemented, interfaces);
+            }
+        }
+    }
+
+    private static String format(final Throwable callSite) {
+        final StringBuilder builder = new StringBuilder();
+        int frames = 0;
+        for (StackTraceElement element : callSite.getStackTrace()) {
+            final String className = element.getClassName();
+            if (className.equals(DataSourceLatencyStatistics.class.getName())
+                    || className.equals("org.jboss.as.connector.subsystems.datasources.WildFlyDataSource")) {
+                continue;
+            }
+            if (frames > 0) {
+                builder.append('\n');
+            }
+            builder.append(element);
+            if (++frames == MAX_CALL_SITE_FRAMES) {
+                break;
+            }
+        }
+        return builder.toString();
+    }
+
+    private static final class HeldConnection {
+        private final String deployment;
+        private final LatencyHistogram[] histograms;
+        private final Throwable callSite;
+        private final long acquired = System.nanoTime();
+
+        HeldConnection(String deployment, LatencyHistogram[] histograms, Throwable callSite) {
+            this.deployment = deployment;
+            this.histograms = histograms;
+            this.callSite = callSite;
+        }
+
+        ModelNode toModelNode(long heldNanos, boolean open) {
+            final ModelNode result = new ModelNode();
+            if (deployment != null) {
+                result.get("deployment").set(deployment);
+            }
+            result.get("hold-time").set(TimeUnit.NANOSECONDS.toMillis(heldNanos));
+            result.get("open").set(open);
+            result.get("call-site").set(format(callSite));
+            return result;
+        }
+    }
+}
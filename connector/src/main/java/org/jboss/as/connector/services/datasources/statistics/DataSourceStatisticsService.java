@@ -24,8 +24,11 @@ package org.jboss.as.connector.services.datasources.statistics;
 
 import static org.jboss.as.connector.logging.ConnectorLogger.ROOT_LOGGER;
 
+import javax.sql.DataSource;
+
 import org.jboss.as.connector.dynamicresource.StatisticsResourceDefinition;
 import org.jboss.as.connector.subsystems.datasources.DataSourcesSubsystemProviders;
+import org.jboss.as.connector.subsystems.datasources.WildFlyDataSource;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
@@ -45,11 +48,13 @@ public class DataSourceStatisticsService implements Service<ManagementResourceRe
 
     private static final PathElement JDBC_STATISTICS = PathElement.pathElement("statistics", "jdbc");
     private static final PathElement POOL_STATISTICS = PathElement.pathElement("statistics", "pool");
+    private static final PathElement LATENCY_STATISTICS = LatencyStatisticsResourceDefinition.PATH;
 
     private final ManagementResourceRegistration registration;
     private final boolean statsEnabled;
 
     protected final InjectedValue<CommonDeployment> injectedDeploymentMD = new InjectedValue<>();
+    protected final InjectedValue<DataSource> injectedDataSource = new InjectedValue<>();
 
 
     /**
@@ -98,6 +103,23 @@ public class DataSourceStatisticsService implements Service<ManagementResourceRe
                 }
 
             }
+
+            DataSource dataSource = injectedDataSource.getOptionalValue();
+            if (registration != null && dataSource instanceof WildFlyDataSource) {
+                DataSourceLatencyStatistics latencyStats = ((WildFlyDataSource) dataSource).getLatencyStatistics();
+                StatementShapeCache statementShapes = ((WildFlyDataSource) dataSource).getStatementShapeCache();
+                if (latencyStats != null) {
+                    latencyStats.setEnabled(statsEnabled);
+                }
+                if (statementShapes != null) {
+                    statementShapes.setEnabled(statsEnabled);
+                }
+                if (latencyStats != null && registration.getSubModel(PathAddress.pathAddress(LATENCY_STATISTICS)) == null) {
+                    ManagementResourceRegistration latencyRegistration = registration.registerSubModel(new LatencyStatisticsResourceDefinition(latencyStats,
+                            statementShapes));
+                    latencyRegistration.setRuntimeOnly(true);
+                }
+            }
         }
     }
 
@@ -107,6 +129,7 @@ public class DataSourceStatisticsService implements Service<ManagementResourceRe
             if (registration != null) {
                 registration.unregisterSubModel(JDBC_STATISTICS);
                 registration.unregisterSubModel(POOL_STATISTICS);
+                registration.unregisterSubModel(LATENCY_STATISTICS);
             }
         }
     }
@@ -121,6 +144,10 @@ public class DataSourceStatisticsService implements Service<ManagementResourceRe
         return injectedDeploymentMD;
     }
 
+    public Injector<DataSource> getDataSourceInjector() {
+        return injectedDataSource;
+    }
+
 
     public static void registerStatisticsResources(Resource datasourceResource) {
         synchronized (JDBC_STATISTICS) {
@@ -130,6 +157,9 @@ public class DataSourceStatisticsService implements Service<ManagementResourceRe
             if (!datasourceResource.hasChild(POOL_STATISTICS)) {
                 datasourceResource.registerChild(POOL_STATISTICS, new PlaceholderResource.PlaceholderResourceEntry(POOL_STATISTICS));
             }
+            if (!datasourceResource.hasChild(LATENCY_STATISTICS)) {
+                datasourceResource.registerChild(LATENCY_STATISTICS, new PlaceholderResource.PlaceholderResourceEntry(LATENCY_STATISTICS));
+            }
         }
     }
 
@@ -141,6 +171,9 @@ public class DataSourceStatisticsService implements Service<ManagementResourceRe
             if (datasourceResource.hasChild(POOL_STATISTICS)) {
                 datasourceResource.removeChild(POOL_STATISTICS);
             }
+            if (datasourceResource.hasChild(LATENCY_STATISTICS)) {
+                datasourceResource.removeChild(LATENCY_STATISTICS);
+            }
         }
     }
 
@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.datasources.statistics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A lock free histogram of durations, with buckets whose upper bounds are the powers of two microseconds up to
+ * about 16 seconds, followed by a single overflow bucket.
+ */
+public final class LatencyHistogram {
+
+    static final int BUCKETS = 25;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS + 1];
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; ++i) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration, in nanoseconds
+     */
+    public void record(long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        buckets[bucketOf(micros)].increment();
+        total.add(micros);
+        max.accumulate(micros);
+    }
+
+    static int bucketOf(long micros) {
+        if (micros <= 1) {
+            return 0;
+        }
+        return Math.min(BUCKETS, 64 - Long.numberOfLeadingZeros(micros - 1));
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    long getCount(int bucket) {
+        return buckets[bucket].sum();
+    }
+
+    public void clear() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * Returns the histogram as an object holding the number of recorded durations, their mean and maximum in
+     * microseconds, and the count of each bucket keyed by its upper bound in microseconds.
+     *
+     * @return the model representation
+     */
+    public ModelNode toModelNode() {
+        final ModelNode result = new ModelNode();
+        final long count = getCount();
+        result.get("count").set(count);
+        result.get("mean").set(count > 0 ? total.sum() / count : 0L);
+        result.get("max").set(max.get());
+        final ModelNode histogram = result.get("buckets").setEmptyObject();
+        for (int i = 0; i < BUCKETS; ++i) {
+            histogram.get(Long.toString(1L << i)).set(buckets[i].sum());
+        }
+        histogram.get("+Inf").set(buckets[BUCKETS].sum());
+        return result;
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.datasources.statistics;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+
+import org.jboss.as.connector.subsystems.datasources.DataSourcesSubsystemProviders;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
+import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Runtime resource exposing the {@link DataSourceLatencyStatistics} of a datasource, and the statements tracked by its
+ * {@link StatementShapeCache} if enabled.
+ * <p>
+ * Recording follows the {@code statistics-enabled} attribute of the datasource; the profiler settings only take effect
+ * while it is enabled.
+ */
+public class LatencyStatisticsResourceDefinition extends SimpleResourceDefinition {
+
+    static final PathElement PATH = PathElement.pathElement("statistics", "latency");
+
+    static final SimpleAttributeDefinition HOLD_TIME_THRESHOLD = new SimpleAttributeDefinitionBuilder("hold-time-threshold", ModelType.LONG)
+            .setDefaultValue(new ModelNode(0L))
+            .setAllowNull(true)
+            .setValidator(new LongRangeValidator(0, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition SAMPLE_INTERVAL = new SimpleAttributeDefinitionBuilder("sample-interval", ModelType.INT)
+            .setDefaultValue(new ModelNode(DataSourceLatencyStatistics.DEFAULT_SAMPLE_INTERVAL))
+            .setAllowNull(true)
+            .setValidator(new IntRangeValidator(1, true))
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition ACQUIRE_TIME = new SimpleAttributeDefinitionBuilder("acquire-time", ModelType.OBJECT)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition HOLD_TIME = new SimpleAttributeDefinitionBuilder("hold-time", ModelType.OBJECT)
+            .setMeasurementUnit(MeasurementUnit.MICROSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition DEPLOYMENTS = new SimpleAttributeDefinitionBuilder("deployments", ModelType.OBJECT)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition LONG_HELD_COUNT = new SimpleAttributeDefinitionBuilder("long-held-count", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition LONG_HELD_CONNECTIONS = new SimpleAttributeDefinitionBuilder("long-held-connections", ModelType.LIST)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition STATEMENTS = new SimpleAttributeDefinitionBuilder("statements", ModelType.LIST)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition STATEMENT_WARM_UP_COUNT = new SimpleAttributeDefinitionBuilder("statement-warm-up-count", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    private final DataSourceLatencyStatistics statistics;
+    private final StatementShapeCache statementShapes;
+
+    LatencyStatisticsResourceDefinition(final DataSourceLatencyStatistics statistics, final StatementShapeCache statementShapes) {
+        super(new Parameters(PATH, new StandardResourceDescriptionResolver("statistics.latency", DataSourcesSubsystemProviders.RESOURCE_NAME,
+                DataSourcesSubsystemProviders.class.getClassLoader(), true, false)).setRuntime());
+        this.statistics = statistics;
+        this.statementShapes = statementShapes;
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        final OperationStepHandler readHandler = new ReadHandler(statistics, statementShapes);
+        final OperationStepHandler writeHandler = new WriteHandler(statistics);
+        for (SimpleAttributeDefinition attribute : new SimpleAttributeDefinition[] { HOLD_TIME_THRESHOLD, SAMPLE_INTERVAL }) {
+            resourceRegistration.registerReadWriteAttribute(attribute, readHandler, writeHandler);
+        }
+        for (SimpleAttributeDefinition metric : new SimpleAttributeDefinition[] { ACQUIRE_TIME, HOLD_TIME, DEPLOYMENTS, LONG_HELD_COUNT, LONG_HELD_CONNECTIONS }) {
+            resourceRegistration.registerMetric(metric, readHandler);
+        }
+        if (statementShapes != null) {
+            resourceRegistration.registerMetric(STATEMENTS, readHandler);
+            resourceRegistration.registerMetric(STATEMENT_WARM_UP_COUNT, readHandler);
+        }
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(ClearHandler.DEFINITION, new ClearHandler(statistics, statementShapes));
+    }
+
+    private static final class ReadHandler implements OperationStepHandler {
+        private final DataSourceLatencyStatistics statistics;
+        private final StatementShapeCache statementShapes;
+
+        ReadHandler(DataSourceLatencyStatistics statistics, StatementShapeCache statementShapes) {
+            this.statistics = statistics;
+            this.statementShapes = statementShapes;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final ModelNode result = context.getResult();
+            switch (operation.require(NAME).asString()) {
+                case "hold-time-threshold":
+                    result.set(statistics.getHoldTimeThreshold());
+                    break;
+                case "sample-interval":
+                    result.set(statistics.getSampleInterval());
+                    break;
+                case "acquire-time":
+                    result.set(statistics.getAcquireTime().toModelNode());
+                    break;
+                case "hold-time":
+                    result.set(statistics.getHoldTime().toModelNode());
+                    break;
+                case "deployments":
+                    result.set(statistics.deploymentsToModelNode());
+                    break;
+                case "long-held-count":
+                    result.set(statistics.getLongHeldCount());
+                    break;
+                case "long-held-connections":
+                    result.set(statistics.longHeldConnectionsToModelNode());
+                    break;
+                case "statements":
+                    result.set(statementShapes.toModelNode());
+                    break;
+                case "statement-warm-up-count":
+                    result.set(statementShapes.getWarmUpCount());
+                    break;
+            }
+            context.stepCompleted();
+        }
+    }
+
+    private static final class WriteHandler implements OperationStepHandler {
+        private final DataSourceLatencyStatistics statistics;
+
+        WriteHandler(DataSourceLatencyStatistics statistics) {
+            this.statistics = statistics;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String attributeName = operation.require(NAME).asString();
+            final ModelNode value = operation.hasDefined(VALUE) ? operation.get(VALUE).resolve() : new ModelNode();
+            switch (attributeName) {
+                case "hold-time-threshold":
+                    HOLD_TIME_THRESHOLD.getValidator().validateParameter(VALUE, value);
+                    statistics.setHoldTimeThreshold(value.isDefined() ? value.asLong() : 0L);
+                    break;
+                case "sample-interval":
+                    SAMPLE_INTERVAL.getValidator().validateParameter(VALUE, value);
+                    statistics.setSampleInterval(value.isDefined() ? value.asInt() : DataSourceLatencyStatistics.DEFAULT_SAMPLE_INTERVAL);
+                    break;
+            }
+            context.stepCompleted();
+        }
+    }
+
+    private static final class ClearHandler implements OperationStepHandler {
+        static final SimpleOperationDefinition DEFINITION = new SimpleOperationDefinitionBuilder("clear-statistics",
+                new StandardResourceDescriptionResolver("statistics.latency", DataSourcesSubsystemProviders.RESOURCE_NAME,
+                        DataSourcesSubsystemProviders.class.getClassLoader(), true, false))
+                .setRuntimeOnly()
+                .build();
+
+        private final DataSourceLatencyStatistics statistics;
+        private final StatementShapeCache statementShapes;
+
+        ClearHandler(DataSourceLatencyStatistics statistics, StatementShapeCache statementShapes) {
+            this.statistics = statistics;
+            this.statementShapes = statementShapes;
+        }
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            statistics.clear();
+            if (statementShapes != null) {
+                statementShapes.clear();
+            }
+            context.stepCompleted();
+        }
+    }
+}
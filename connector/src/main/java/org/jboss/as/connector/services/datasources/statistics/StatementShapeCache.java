@@ -0,0 +1,465 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.datasources.statistics;
+
+import static org.jboss.as.connector.logging.ConnectorLogger.ROOT_LOGGER;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnection;
+import javax.security.auth.Subject;
+import javax.sql.ConnectionEventListener;
+import javax.sql.StatementEventListener;
+import javax.sql.XAConnection;
+import javax.transaction.xa.XAResource;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The shapes, i.e. the SQL text, of the statements prepared through any connection of a datasource, along with their
+ * execution counts and timings.
+ * <p>
+ * The prepared statement cache of IronJacamar is held by each physical connection, so a connection which is created
+ * after a flush or to grow the pool has to parse every statement again. This cache is shared by the whole pool: when
+ * the pool creates a physical connection, the most executed statements are prepared and closed on it, which leaves
+ * them in its prepared statement cache before the application asks for them.
+ * <p>
+ * The statements are recorded on the physical connections created by the driver, below the connection handles of
+ * the pool, so the handles and statements handed out to the application are those of the pool. Statements are only
+ * recorded while enabled, i.e. while the statistics of the datasource are enabled.
+ * <p>
+ * At most {@link #getMaxSize()} shapes are tracked. When full, the least executed tenth of them is dropped to make room
+ * for new ones.
+ */
+public class StatementShapeCache {
+
+    private static final Comparator<Ranked> HOTTEST_FIRST = new Comparator<Ranked>() {
+        @Override
+        public int compare(Ranked ranked, Ranked other) {
+            return Long.compare(other.executions, ranked.executions);
+        }
+    };
+
+    private final int maxSize;
+    private final int warmUpSize;
+    private final ConcurrentMap<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final LongAdder warmUps = new LongAdder();
+    private volatile boolean enabled;
+
+    /**
+     * @param maxSize the maximum number of statement shapes to track
+     * @param warmUpSize the maximum number of statements to prepare on each new physical connection, usually the size
+     *                   of the prepared statement cache of the datasource. 0 disables the warm up.
+     */
+    public StatementShapeCache(final int maxSize, final int warmUpSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.warmUpSize = Math.min(this.maxSize, Math.max(0, warmUpSize));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getWarmUpSize() {
+        return warmUpSize;
+    }
+
+    /**
+     * @return the number of statements prepared ahead of time on new physical connections
+     */
+    public long getWarmUpCount() {
+        return warmUps.sum();
+    }
+
+    public int size() {
+        return shapes.size();
+    }
+
+    /**
+     * Prepares the hottest statements on a managed connection the pool just created, before it is handed out, so
+     * that they end up in the prepared statement cache of its physical connection.
+     *
+     * @param managedConnection the new managed connection
+     * @param subject the subject the managed connection was created for
+     * @param cri the connection request info the managed connection was created for
+     */
+    public void warmUp(final ManagedConnection managedConnection, final Subject subject, final ConnectionRequestInfo cri) {
+        if (warmUpSize == 0 || shapes.isEmpty()) {
+            return;
+        }
+        try {
+            final Connection connection = (Connection) managedConnection.getConnection(subject, cri);
+            try {
+                warmUp(connection);
+            } finally {
+                connection.close();
+            }
+        } catch (ResourceException | SQLException e) {
+            ROOT_LOGGER.debugf(e, "Unable to prepare statements ahead of time on %s", managedConnection);
+        }
+    }
+
+    /**
+     * Wraps the driver of a datasource to record the statements prepared on the physical connections it creates.
+     *
+     * @param driver the driver
+     * @return the driver the pool creates its physical connections with
+     */
+    public Driver track(final Driver driver) {
+        return new TrackedDriver(driver);
+    }
+
+    /**
+     * Wraps a physical XA connection to record the statements prepared on its connection.
+     *
+     * @param connection the physical XA connection
+     * @return the XA connection the pool wraps in a managed connection
+     */
+    public XAConnection track(final XAConnection connection) {
+        return new TrackedXAConnection(connection);
+    }
+
+    Connection track(final Connection connection) {
+        if (connection == null) {
+            return null;
+        }
+        return (Connection) Proxy.newProxyInstance(connection.getClass().getClassLoader(),
+                DataSourceLatencyStatistics.interfacesOf(connection.getClass(), Connection.class), new TrackedConnection(connection));
+    }
+
+    void warmUp(final Connection connection) {
+        int prepared = 0;
+        for (Ranked ranked : hottest()) {
+            final Shape shape = ranked.shape;
+            if (prepared == warmUpSize || ranked.executions == 0) {
+                break;
+            }
+            if (!shape.plain) {
+                continue;
+            }
+            try {
+                final PreparedStatement statement = shape.callable ? connection.prepareCall(shape.sql) : connection.prepareStatement(shape.sql);
+                statement.close();
+                prepared++;
+            } catch (SQLException e) {
+                ROOT_LOGGER.debugf(e, "Unable to prepare statement %s ahead of time", shape.sql);
+                break;
+            }
+        }
+        warmUps.add(prepared);
+    }
+
+    private Shape prepared(final String sql, final boolean callable, final boolean plain) {
+        Shape shape = shapes.get(sql);
+        if (shape == null) {
+            if (shapes.size() >= maxSize) {
+                evict();
+            }
+            shape = new Shape(sql, callable);
+            final Shape existing = shapes.putIfAbsent(sql, shape);
+            if (existing != null) {
+                shape = existing;
+            }
+        }
+        if (plain && !shape.plain) {
+            shape.plain = true;
+        }
+        shape.prepares.increment();
+        return shape;
+    }
+
+    private synchronized void evict() {
+        if (shapes.size() < maxSize) {
+            return;
+        }
+        final List<Ranked> hottest = hottest();
+        for (int i = hottest.size() - 1, evicted = 0; i >= 0 && evicted <= maxSize / 10; i--, evicted++) {
+            final Shape shape = hottest.get(i).shape;
+            shapes.remove(shape.sql, shape);
+        }
+    }
+
+    private List<Ranked> hottest() {
+        // the counts keep changing while sorting, so they are read once up front to keep the ordering consistent
+        final List<Ranked> result = new ArrayList<>(shapes.size());
+        for (Shape shape : shapes.values()) {
+            result.add(new Ranked(shape, shape.executions.sum()));
+        }
+        Collections.sort(result, HOTTEST_FIRST);
+        return result;
+    }
+
+    /**
+     * Returns the tracked statements, most executed first.
+     *
+     * @return a list of objects with the SQL, prepare and execution counts and execution times in microseconds
+     */
+    public ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyList();
+        for (Ranked ranked : hottest()) {
+            result.add(ranked.shape.toModelNode());
+        }
+        return result;
+    }
+
+    public void clear() {
+        shapes.clear();
+        warmUps.reset();
+    }
+
+    private static final class Shape {
+        private final String sql;
+        private final boolean callable;
+        private volatile boolean plain;
+        private final LongAdder prepares = new LongAdder();
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder executionTime = new LongAdder();
+        private final AtomicLong maxExecutionTime = new AtomicLong();
+
+        Shape(String sql, boolean callable) {
+            this.sql = sql;
+            this.callable = callable;
+        }
+
+        void executed(final long nanos) {
+            executions.increment();
+            executionTime.add(nanos);
+            long max = maxExecutionTime.get();
+            while (nanos > max && !maxExecutionTime.compareAndSet(max, nanos)) {
+                max = maxExecutionTime.get();
+            }
+        }
+
+        ModelNode toModelNode() {
+            final long count = executions.sum();
+            final long total = TimeUnit.NANOSECONDS.toMicros(executionTime.sum());
+            final ModelNode result = new ModelNode();
+            result.get("sql").set(sql);
+            result.get("prepare-count").set(prepares.sum());
+            result.get("execution-count").set(count);
+            result.get("total-time").set(total);
+            result.get("mean-time").set(count == 0 ? 0L : total / count);
+            result.get("max-time").set(TimeUnit.NANOSECONDS.toMicros(maxExecutionTime.get()));
+            return result;
+        }
+    }
+
+    private static final class Ranked {
+        private final Shape shape;
+        private final long executions;
+
+        Ranked(Shape shape, long executions) {
+            this.shape = shape;
+            this.executions = executions;
+        }
+    }
+
+    private final class TrackedDriver implements Driver {
+        private final Driver delegate;
+
+        TrackedDriver(Driver delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            return track(delegate.connect(url, info));
+        }
+
+        @Override
+        public boolean acceptsURL(String url) throws SQLException {
+            return delegate.acceptsURL(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+            return delegate.getPropertyInfo(url, info);
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return delegate.getMajorVersion();
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return delegate.getMinorVersion();
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return delegate.jdbcCompliant();
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return delegate.getParentLogger();
+        }
+    }
+
+    private final class TrackedXAConnection implements XAConnection {
+        private final XAConnection delegate;
+
+        TrackedXAConnection(XAConnection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public XAResource getXAResource() throws SQLException {
+            return delegate.getXAResource();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return track(delegate.getConnection());
+        }
+
+        @Override
+        public void close() throws SQLException {
+            delegate.close();
+        }
+
+        @Override
+        public void addConnectionEventListener(ConnectionEventListener listener) {
+            delegate.addConnectionEventListener(listener);
+        }
+
+        @Override
+        public void removeConnectionEventListener(ConnectionEventListener listener) {
+            delegate.removeConnectionEventListener(listener);
+        }
+
+        @Override
+        public void addStatementEventListener(StatementEventListener listener) {
+            delegate.addStatementEventListener(listener);
+        }
+
+        @Override
+        public void removeStatementEventListener(StatementEventListener listener) {
+            delegate.removeStatementEventListener(listener);
+        }
+    }
+
+    private final class TrackedConnection implements InvocationHandler {
+        private final Connection delegate;
+
+        TrackedConnection(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+            }
+            final Object result;
+            try {
+                result = method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (enabled && result instanceof PreparedStatement && args != null && args[0] instanceof String) {
+                final boolean callable = method.getName().equals("prepareCall");
+                final Shape shape = prepared((String) args[0], callable, args.length == 1);
+                return Proxy.newProxyInstance(result.getClass().getClassLoader(),
+                        DataSourceLatencyStatistics.interfacesOf(result.getClass(), callable ? CallableStatement.class : PreparedStatement.class),
+                        new TrackedStatement((PreparedStatement) result, shape));
+            }
+            return result;
+        }
+    }
+
+    private static final class TrackedStatement implements InvocationHandler {
+        private final PreparedStatement delegate;
+        private final Shape shape;
+
+        TrackedStatement(PreparedStatement delegate, Shape shape) {
+            this.delegate = delegate;
+            this.shape = shape;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+            }
+            // only the parameterless variants run the prepared statement, the others run the SQL they are given
+            final boolean execution = method.getParameterCount() == 0 && method.getName().startsWith("execute");
+            final long start = execution ? System.nanoTime() : 0L;
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (execution) {
+                    shape.executed(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+}
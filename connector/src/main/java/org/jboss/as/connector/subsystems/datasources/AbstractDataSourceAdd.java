@@ -27,6 +27,8 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.DATASOURCE
 import static org.jboss.as.connector.subsystems.datasources.Constants.ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.Constants.JNDI_NAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.JTA;
+import static org.jboss.as.connector.subsystems.datasources.Constants.PREPARED_STATEMENTS_CACHE_SIZE;
+import static org.jboss.as.connector.subsystems.datasources.Constants.STATEMENT_SHAPE_CACHE_SIZE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STATISTICS_ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.DataSourceModelNodeUtil.from;
 import static org.jboss.as.connector.subsystems.datasources.DataSourceModelNodeUtil.xaFrom;
@@ -142,6 +144,12 @@ public abstract class AbstractDataSourceAdd extends AbstractAddStepHandler {
         driverDemanderBuilder.setInitialMode(ServiceController.Mode.ACTIVE);
 
         AbstractDataSourceService dataSourceService = createDataSourceService(dsName, jndiName);
+        final int statementShapeCacheSize = STATEMENT_SHAPE_CACHE_SIZE.resolveModelAttribute(context, model).asInt();
+        if (statementShapeCacheSize > 0) {
+            final ModelNode preparedStatementsCacheSize = PREPARED_STATEMENTS_CACHE_SIZE.resolveModelAttribute(context, model);
+            dataSourceService.setStatementShapeCacheSize(statementShapeCacheSize,
+                    preparedStatementsCacheSize.isDefined() ? (int) Math.min(Integer.MAX_VALUE, preparedStatementsCacheSize.asLong()) : 0);
+        }
 
         final ManagementResourceRegistration registration = context.getResourceRegistrationForUpdate();
         final ServiceName dataSourceServiceNameAlias = AbstractDataSourceService.getServiceName(bindInfo);
@@ -296,7 +304,7 @@ public abstract class AbstractDataSourceAdd extends AbstractAddStepHandler {
                 DataSourceStatisticsService statsService = new DataSourceStatisticsService(datasourceRegistration, statsEnabled);
                 serviceTarget.addService(dataSourceServiceName.append(Constants.STATISTICS), statsService)
                         .addAliases(dataSourceServiceNameAlias)
-                        .addDependency(dataSourceServiceName)
+                        .addDependency(dataSourceServiceName, DataSource.class, statsService.getDataSourceInjector())
                         .addDependency(CommonDeploymentService.getServiceName( ContextNames.bindInfoFor(jndiName)), CommonDeployment.class, statsService.getCommonDeploymentInjector())
                         .setInitialMode(ServiceController.Mode.PASSIVE)
                         .install();
@@ -27,20 +27,29 @@ import static java.security.AccessController.doPrivileged;
 import static org.jboss.as.connector.logging.ConnectorLogger.DS_DEPLOYER_LOGGER;
 
 import javax.naming.Reference;
+import javax.resource.ResourceException;
+import javax.resource.spi.ConnectionRequestInfo;
+import javax.resource.spi.ManagedConnection;
 import javax.resource.spi.ManagedConnectionFactory;
+import javax.security.auth.Subject;
 import javax.sql.DataSource;
+import javax.sql.XAConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.Driver;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 
 import org.jboss.as.connector.logging.ConnectorLogger;
+import org.jboss.as.connector.services.datasources.statistics.DataSourceLatencyStatistics;
+import org.jboss.as.connector.services.datasources.statistics.StatementShapeCache;
 import org.jboss.as.connector.services.driver.InstalledDriver;
 import org.jboss.as.connector.services.driver.registry.DriverRegistry;
 import org.jboss.as.connector.util.Injection;
@@ -126,6 +135,10 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     protected CommonDeployment deploymentMD;
     private WildFlyDataSource sqlDataSource;
+    private final DataSourceLatencyStatistics latencyStatistics = new DataSourceLatencyStatistics();
+    private volatile int statementShapeCacheSize;
+    private volatile int statementWarmUpSize;
+    private volatile StatementShapeCache statementShapes;
 
     /**
      * The class loader to use. If null the Driver class loader will be used instead.
@@ -142,11 +155,14 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         try {
             final ServiceContainer container = startContext.getController().getServiceContainer();
 
+            // the managed connection factories record the statements of the physical connections the pool creates
+            statementShapes = statementShapeCacheSize > 0 ? new StatementShapeCache(statementShapeCacheSize, statementWarmUpSize) : null;
             deploymentMD = getDeployer().deploy(container);
             if (deploymentMD.getCfs().length != 1) {
                 throw ConnectorLogger.ROOT_LOGGER.cannotStartDs();
             }
-            sqlDataSource = new WildFlyDataSource((javax.sql.DataSource) deploymentMD.getCfs()[0], jndiName.getAbsoluteJndiName());
+            sqlDataSource = new WildFlyDataSource((javax.sql.DataSource) deploymentMD.getCfs()[0], jndiName.getAbsoluteJndiName(), latencyStatistics);
+            sqlDataSource.setStatementShapeCache(statementShapes);
             DS_DEPLOYER_LOGGER.debugf("Adding datasource: %s", deploymentMD.getCfJndiNames()[0]);
             CommonDeploymentService cdService = new CommonDeploymentService(deploymentMD);
             final ServiceName cdServiceName = CommonDeploymentService.getServiceName(jndiName);
@@ -235,6 +251,17 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         return sqlDataSource;
     }
 
+    /**
+     * Enables the statement shape cache shared by the connections of the datasource.
+     *
+     * @param size the number of statement shapes to track, or 0 to disable the cache
+     * @param warmUpSize the number of statements to prepare on each new physical connection
+     */
+    public void setStatementShapeCacheSize(final int size, final int warmUpSize) {
+        this.statementShapeCacheSize = size;
+        this.statementWarmUpSize = warmUpSize;
+    }
+
     public Injector<TransactionIntegration> getTransactionIntegrationInjector() {
         return transactionIntegrationValue;
     }
@@ -512,7 +539,7 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         @Override
         protected ManagedConnectionFactory createMcf(org.jboss.jca.common.api.metadata.ds.DataSource arg0, String arg1,
                 ClassLoader arg2) throws NotFoundException, DeployException {
-            final LocalManagedConnectionFactory managedConnectionFactory = new LocalManagedConnectionFactory();
+            final LocalManagedConnectionFactory managedConnectionFactory = new WildFlyLocalMCF();
             managedConnectionFactory.setDriverClass(dataSourceConfig.getDriverClass());
 
             if (dataSourceConfig.getUrlDelimiter() != null) {
@@ -671,6 +698,28 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     }
 
+    private class WildFlyLocalMCF extends LocalManagedConnectionFactory {
+
+        private static final long serialVersionUID = -5453185281428436593L;
+
+        @Override
+        public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException {
+            final ManagedConnection mc = super.createManagedConnection(subject, cri);
+            warmUp(mc, subject, cri);
+            // lets the latency statistics observe the connection handles being closed
+            mc.addConnectionEventListener(latencyStatistics);
+            return mc;
+        }
+
+        @Override
+        protected synchronized Driver getDriver(String url) throws ResourceException {
+            final Driver driver = super.getDriver(url);
+            final StatementShapeCache shapes = statementShapes;
+            return shapes != null ? shapes.track(driver) : driver;
+        }
+
+    }
+
     private class WildFlyXaMCF extends XAManagedConnectionFactory {
 
         private static final long serialVersionUID = 4876371551002746953L;
@@ -679,6 +728,30 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
             xaProps.putAll(inputProperties);
         }
 
+        @Override
+        public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException {
+            final ManagedConnection mc = super.createManagedConnection(subject, cri);
+            warmUp(mc, subject, cri);
+            mc.addConnectionEventListener(latencyStatistics);
+            return mc;
+        }
+
+        @Override
+        protected ManagedConnection newXAManagedConnection(Properties props, XAConnection xaConnection) throws SQLException {
+            final StatementShapeCache shapes = statementShapes;
+            return super.newXAManagedConnection(props, shapes != null ? shapes.track(xaConnection) : xaConnection);
+        }
+
+    }
+
+    /**
+     * Prepares the hottest statements on a physical connection created by the pool, before the pool hands it out.
+     */
+    private void warmUp(ManagedConnection mc, Subject subject, ConnectionRequestInfo cri) {
+        final StatementShapeCache shapes = statementShapes;
+        if (shapes != null) {
+            shapes.warmUp(mc, subject, cri);
+        }
     }
 
 }
@@ -46,6 +46,7 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.NonResolvingResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.ParameterValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.transform.OperationResultTransformer;
@@ -126,6 +127,8 @@ public class Constants {
 
     private static final String TRACKING_NAME = "tracking";
 
+    private static final String STATEMENT_SHAPE_CACHE_SIZE_NAME = "statement-shape-cache-size";
+
     static final String POOLNAME_NAME = "pool-name";
 
     private static final String ENABLED_NAME = "enabled";
@@ -586,6 +589,13 @@ public class Constants {
             .setAllowExpression(true)
             .build();
 
+    static SimpleAttributeDefinition STATEMENT_SHAPE_CACHE_SIZE = new SimpleAttributeDefinitionBuilder(STATEMENT_SHAPE_CACHE_SIZE_NAME, ModelType.INT)
+            .setDefaultValue(new ModelNode(0))
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .build();
+
 
     static final SimpleAttributeDefinition[] DATASOURCE_ATTRIBUTE = new SimpleAttributeDefinition[]{CONNECTION_URL,
             DRIVER_CLASS, Constants.DATASOURCE_CLASS, JNDI_NAME,
@@ -618,7 +628,7 @@ public class Constants {
             org.jboss.as.connector.subsystems.common.pool.Constants.BACKGROUNDVALIDATION,
             org.jboss.as.connector.subsystems.common.pool.Constants.USE_FAST_FAIL,
             VALIDATE_ON_MATCH, SPY,
-            USE_CCM, ENABLED, CONNECTABLE, STATISTICS_ENABLED, TRACKING, MCP, ENLISTMENT_TRACE};
+            USE_CCM, ENABLED, CONNECTABLE, STATISTICS_ENABLED, TRACKING, MCP, ENLISTMENT_TRACE, STATEMENT_SHAPE_CACHE_SIZE};
 
     static final PropertiesAttributeDefinition[] DATASOURCE_PROPERTIES_ATTRIBUTES = new PropertiesAttributeDefinition[]{
             REAUTHPLUGIN_PROPERTIES,
@@ -694,7 +704,7 @@ public class Constants {
             org.jboss.as.connector.subsystems.common.pool.Constants.BACKGROUNDVALIDATION,
             org.jboss.as.connector.subsystems.common.pool.Constants.USE_FAST_FAIL,
             VALIDATE_ON_MATCH, XA_RESOURCE_TIMEOUT,
-            SPY, USE_CCM, ENABLED, CONNECTABLE, STATISTICS_ENABLED, TRACKING, MCP, ENLISTMENT_TRACE,
+            SPY, USE_CCM, ENABLED, CONNECTABLE, STATISTICS_ENABLED, TRACKING, MCP, ENLISTMENT_TRACE, STATEMENT_SHAPE_CACHE_SIZE,
             RECOVERY_USERNAME, RECOVERY_PASSWORD,
             RECOVERY_SECURITY_DOMAIN, RECOVER_PLUGIN_CLASSNAME,
             NO_RECOVERY, URL_PROPERTY};
@@ -100,6 +100,7 @@ public class DataSourcesSubsystemRootDefinition extends SimpleResourceDefinition
         TransformationDescription.Tools.register(get130TransformationDescription(), subsystem, ModelVersion.create(1, 3, 0)); //EAP 6.2.0
         TransformationDescription.Tools.register(get200TransformationDescription(), subsystem, ModelVersion.create(2, 0, 0));
         TransformationDescription.Tools.register(get300TransformationDescription(), subsystem, ModelVersion.create(3, 0, 0));
+        TransformationDescription.Tools.register(get400TransformationDescription(), subsystem, ModelVersion.create(4, 0, 0));
     }
 
 
@@ -144,4 +145,12 @@ public class DataSourcesSubsystemRootDefinition extends SimpleResourceDefinition
         return builder.build();
     }
 
+    static TransformationDescription get400TransformationDescription() {
+
+        ResourceTransformationDescriptionBuilder builder = TransformationDescriptionBuilder.Factory.createSubsystemInstance();
+        DataSourceDefinition.registerTransformers400(builder);
+        XaDataSourceDefinition.registerTransformers400(builder);
+        return builder.build();
+    }
+
 }
@@ -218,6 +218,7 @@ public class DsParser extends AbstractParser {
                                     parseDataSource_3_0(reader, list, parentAddress);
                                     break;
                                 case DATASOURCES_4_0:
+                                case DATASOURCES_4_1:
                                     parseDataSource_4_0(reader, list, parentAddress);
                                     break;
                             }
@@ -236,6 +237,7 @@ public class DsParser extends AbstractParser {
                                     parseXADataSource_3_0(reader, list, parentAddress);
                                     break;
                                 case DATASOURCES_4_0:
+                                case DATASOURCES_4_1:
                                     parseXADataSource_4_0(reader, list, parentAddress);
                                     break;
                             }
@@ -1192,6 +1194,14 @@ public class DsParser extends AbstractParser {
                         }
                         break;
 
+                    } else if (Constants.STATEMENT_SHAPE_CACHE_SIZE.getName().equals(reader.getAttributeLocalName(i))
+                            && Namespace.forUri(reader.getNamespaceURI()) == Namespace.DATASOURCES_4_1) {
+                        final String value = rawAttributeText(reader, Constants.STATEMENT_SHAPE_CACHE_SIZE.getXmlName());
+                        if (value != null) {
+                            Constants.STATEMENT_SHAPE_CACHE_SIZE.parseAndSetParameter(value, operation, reader);
+                        }
+                        break;
+
                     } else {
                         throw ParseUtils.unexpectedAttribute(reader, i);
                     }
@@ -1831,6 +1841,14 @@ public class DsParser extends AbstractParser {
                         }
                         break;
 
+                    } else if (Constants.STATEMENT_SHAPE_CACHE_SIZE.getName().equals(reader.getAttributeLocalName(i))
+                            && Namespace.forUri(reader.getNamespaceURI()) == Namespace.DATASOURCES_4_1) {
+                        final String value = rawAttributeText(reader, Constants.STATEMENT_SHAPE_CACHE_SIZE.getXmlName());
+                        if (value != null) {
+                            Constants.STATEMENT_SHAPE_CACHE_SIZE.parseAndSetParameter(value, operation, reader);
+                        }
+                        break;
+
                     } else {
                         throw ParseUtils.unexpectedAttribute(reader, i);
                     }
@@ -41,12 +41,14 @@ public enum Namespace {
 
     DATASOURCES_3_0("urn:jboss:domain:datasources:3.0"),
 
-    DATASOURCES_4_0("urn:jboss:domain:datasources:4.0");
+    DATASOURCES_4_0("urn:jboss:domain:datasources:4.0"),
+
+    DATASOURCES_4_1("urn:jboss:domain:datasources:4.1");
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = DATASOURCES_4_0;
+    public static final Namespace CURRENT = DATASOURCES_4_1;
 
     private final String name;
 
@@ -32,6 +32,9 @@ import java.sql.SQLException;
 import java.sql.SQLFeatureNotSupportedException;
 import java.util.logging.Logger;
 
+import org.jboss.as.connector.services.datasources.statistics.DataSourceLatencyStatistics;
+import org.jboss.as.connector.services.datasources.statistics.StatementShapeCache;
+
 /**
  * WildFly DataSource implementation
  *
@@ -48,6 +51,12 @@ public class WildFlyDataSource implements DataSource, Serializable {
     /** Service name */
     private transient String jndiName;
 
+    /** Latency statistics */
+    private transient DataSourceLatencyStatistics latencyStatistics;
+
+    /** Statement shapes shared by the connections */
+    private transient StatementShapeCache statementShapeCache;
+
 
     /**
      * Constructor
@@ -55,22 +64,71 @@ public class WildFlyDataSource implements DataSource, Serializable {
      * @param jndiName The service name
      */
     public WildFlyDataSource(DataSource delegate, String jndiName) {
+        this(delegate, jndiName, null);
+    }
+
+    /**
+     * Constructor
+     * @param delegate The datasource
+     * @param jndiName The service name
+     * @param latencyStatistics The latency statistics, notified by the pool when connections are closed, or null
+     */
+    public WildFlyDataSource(DataSource delegate, String jndiName, DataSourceLatencyStatistics latencyStatistics) {
         this.delegate = delegate;
         this.jndiName = jndiName;
+        this.latencyStatistics = latencyStatistics;
     }
 
     /**
      * {@inheritDoc}
      */
     public Connection getConnection() throws SQLException {
-        return delegate.getConnection();
+        final DataSourceLatencyStatistics statistics = latencyStatistics;
+        if (statistics == null || !statistics.isEnabled()) {
+            return delegate.getConnection();
+        }
+        final long start = System.nanoTime();
+        final Connection connection = delegate.getConnection();
+        statistics.acquired(connection, System.nanoTime() - start);
+        return connection;
     }
 
     /**
      * {@inheritDoc}
      */
     public Connection getConnection(String username, String password) throws SQLException {
-        return delegate.getConnection(username, password);
+        final DataSourceLatencyStatistics statistics = latencyStatistics;
+        if (statistics == null || !statistics.isEnabled()) {
+            return delegate.getConnection(username, password);
+        }
+        final long start = System.nanoTime();
+        final Connection connection = delegate.getConnection(username, password);
+        statistics.acquired(connection, System.nanoTime() - start);
+        return connection;
+    }
+
+    /**
+     * Get the latency statistics of the connections handed out by this datasource
+     * @return The statistics, or null if not available
+     */
+    public DataSourceLatencyStatistics getLatencyStatistics() {
+        return latencyStatistics;
+    }
+
+    /**
+     * Get the statement shapes shared by the connections handed out by this datasource
+     * @return The cache, or null if not enabled
+     */
+    public StatementShapeCache getStatementShapeCache() {
+        return statementShapeCache;
+    }
+
+    /**
+     * Set the statement shapes shared by the connections handed out by this datasource
+     * @param statementShapeCache The cache, or null to disable it
+     */
+    public void setStatementShapeCache(StatementShapeCache statementShapeCache) {
+        this.statementShapeCache = statementShapeCache;
     }
 
     /**
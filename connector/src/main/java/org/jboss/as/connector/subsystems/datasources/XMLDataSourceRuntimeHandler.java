@@ -388,6 +388,9 @@ public class XMLDataSourceRuntimeHandler extends AbstractXMLDataSourceRuntimeHan
         } else if (attributeName.equals(Constants.ENLISTMENT_TRACE.getName())) {
             //Just return w/o setting a result
             return;
+        } else if (attributeName.equals(Constants.STATEMENT_SHAPE_CACHE_SIZE.getName())) {
+            //Just return w/o setting a result
+            return;
         } else {
             throw ConnectorLogger.ROOT_LOGGER.unknownAttribute(attributeName);
         }
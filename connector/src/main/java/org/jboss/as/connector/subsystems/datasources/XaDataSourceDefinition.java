@@ -35,6 +35,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_GRAC
 import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_IDLE_CONNECTION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_INVALID_CONNECTION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.MCP;
+import static org.jboss.as.connector.subsystems.datasources.Constants.STATEMENT_SHAPE_CACHE_SIZE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STATISTICS_ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TEST_CONNECTION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TRACKING;
@@ -164,6 +165,8 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
     static void registerTransformers120(ResourceTransformationDescriptionBuilder parentBuilder) {
         ResourceTransformationDescriptionBuilder builder = parentBuilder.addChildResource(PATH_XA_DATASOURCE);
         builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0)), STATEMENT_SHAPE_CACHE_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, STATEMENT_SHAPE_CACHE_SIZE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), CONNECTABLE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, false, new ModelNode(true)), STATISTICS_ENABLED)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(true)), ENLISTMENT_TRACE)
@@ -197,6 +200,8 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
     static void registerTransformers130(ResourceTransformationDescriptionBuilder parentBuilder) {
         ResourceTransformationDescriptionBuilder builder = parentBuilder.addChildResource(PATH_XA_DATASOURCE);
         builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0)), STATEMENT_SHAPE_CACHE_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, STATEMENT_SHAPE_CACHE_SIZE)
                 .setDiscard(new DiscardAttributeChecker.DefaultDiscardAttributeChecker() {
                     @Override
                     protected boolean isValueDiscardable(PathAddress address, String attributeName, ModelNode attributeValue, TransformationContext context) {
@@ -212,6 +217,8 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
     static void registerTransformers200(ResourceTransformationDescriptionBuilder parentBuilder) {
         ResourceTransformationDescriptionBuilder builder = parentBuilder.addChildResource(PATH_XA_DATASOURCE);
         builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0)), STATEMENT_SHAPE_CACHE_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, STATEMENT_SHAPE_CACHE_SIZE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), CONNECTABLE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, false, new ModelNode(true)), STATISTICS_ENABLED)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(true)), ENLISTMENT_TRACE)
@@ -245,6 +252,8 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
     static void registerTransformers300(ResourceTransformationDescriptionBuilder parentBuilder) {
         ResourceTransformationDescriptionBuilder builder = parentBuilder.addChildResource(PATH_XA_DATASOURCE);
         builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0)), STATEMENT_SHAPE_CACHE_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, STATEMENT_SHAPE_CACHE_SIZE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(true)), ENLISTMENT_TRACE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(LEGACY_MCP)), MCP)
                 .addRejectCheck(RejectAttributeChecker.DEFINED, ENLISTMENT_TRACE)
@@ -252,4 +261,12 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                 .end();
     }
 
+    static void registerTransformers400(ResourceTransformationDescriptionBuilder parentBuilder) {
+        ResourceTransformationDescriptionBuilder builder = parentBuilder.addChildResource(PATH_XA_DATASOURCE);
+        builder.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, true, new ModelNode(0)), STATEMENT_SHAPE_CACHE_SIZE)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, STATEMENT_SHAPE_CACHE_SIZE)
+                .end();
+    }
+
 }
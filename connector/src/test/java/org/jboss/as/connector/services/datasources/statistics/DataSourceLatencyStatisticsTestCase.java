@@ -0,0 +1,131 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.datasources.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.TimeUnit;
+
+import javax.resource.spi.ConnectionEvent;
+import javax.resource.spi.ManagedConnection;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+public class DataSourceLatencyStatisticsTestCase {
+
+    @Test
+    public void testBuckets() {
+        assertEquals(0, LatencyHistogram.bucketOf(0));
+        assertEquals(0, LatencyHistogram.bucketOf(1));
+        assertEquals(1, LatencyHistogram.bucketOf(2));
+        assertEquals(2, LatencyHistogram.bucketOf(3));
+        assertEquals(2, LatencyHistogram.bucketOf(4));
+        assertEquals(10, LatencyHistogram.bucketOf(1024));
+        assertEquals(11, LatencyHistogram.bucketOf(1025));
+        assertEquals(LatencyHistogram.BUCKETS, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.record(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(2, histogram.getCount());
+        assertEquals(1, histogram.getCount(2));
+        assertEquals(1, histogram.getCount(LatencyHistogram.BUCKETS));
+    }
+
+    @Test
+    public void testHoldTime() throws Exception {
+        DataSourceLatencyStatistics statistics = new DataSourceLatencyStatistics();
+        statistics.setEnabled(true);
+        Connection connection = connection();
+        statistics.acquired(connection, TimeUnit.MILLISECONDS.toNanos(5));
+        close(statistics, connection);
+        // a handle is only released once
+        close(statistics, connection);
+        // handles which were not acquired while enabled are ignored
+        close(statistics, connection());
+        assertEquals(1, statistics.getAcquireTime().getCount());
+        assertEquals(1, statistics.getHoldTime().getCount());
+        assertEquals(0, statistics.getLongHeldCount());
+    }
+
+    @Test
+    public void testLongHeldConnections() throws Exception {
+        DataSourceLatencyStatistics statistics = new DataSourceLatencyStatistics();
+        statistics.setEnabled(true);
+        statistics.setHoldTimeThreshold(1);
+        statistics.setSampleInterval(1);
+        Connection open = connection();
+        Connection released = connection();
+        statistics.acquired(open, 0);
+        statistics.acquired(released, 0);
+        Thread.sleep(20);
+        close(statistics, released);
+        assertEquals(1, statistics.getLongHeldCount());
+
+        ModelNode report = statistics.longHeldConnectionsToModelNode();
+        assertEquals(2, report.asList().size());
+        assertTrue(report.get(0).get("open").asBoolean());
+        assertFalse(report.get(1).get("open").asBoolean());
+        assertTrue(report.get(1).get("call-site").asString().contains(DataSourceLatencyStatisticsTestCase.class.getName()));
+
+        close(statistics, open);
+        assertEquals(2, statistics.getLongHeldCount());
+        assertEquals(2, statistics.longHeldConnectionsToModelNode().asList().size());
+        statistics.clear();
+        assertEquals(0, statistics.longHeldConnectionsToModelNode().asList().size());
+    }
+
+    private static void close(DataSourceLatencyStatistics statistics, Connection handle) {
+        // what the pool reports when a handle is closed
+        ConnectionEvent event = new ConnectionEvent(proxy(ManagedConnection.class), ConnectionEvent.CONNECTION_CLOSED);
+        event.setConnectionHandle(handle);
+        statistics.connectionClosed(event);
+    }
+
+    private static Connection connection() {
+        return proxy(Connection.class);
+    }
+
+    private static <T> T proxy(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(DataSourceLatencyStatisticsTestCase.class.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return null;
+                }
+            }
+        }));
+    }
+}
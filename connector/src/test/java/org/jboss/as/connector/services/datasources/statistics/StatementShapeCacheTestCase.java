@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.services.datasources.statistics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.resource.spi.ManagedConnection;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+public class StatementShapeCacheTestCase {
+
+    @Test
+    public void testExecutionsAreRecorded() throws Exception {
+        StatementShapeCache cache = new StatementShapeCache(16, 0);
+        cache.setEnabled(true);
+        Connection connection = cache.track(connection(new ArrayList<String>()));
+        for (int i = 0; i < 3; i++) {
+            PreparedStatement statement = connection.prepareStatement("select 1");
+            statement.executeQuery();
+            statement.close();
+        }
+        connection.prepareStatement("select 2").execute();
+
+        ModelNode statements = cache.toModelNode();
+        assertEquals(2, statements.asList().size());
+        assertEquals("select 1", statements.get(0).get("sql").asString());
+        assertEquals(3, statements.get(0).get("prepare-count").asLong());
+        assertEquals(3, statements.get(0).get("execution-count").asLong());
+        assertEquals("select 2", statements.get(1).get("sql").asString());
+        assertEquals(1, statements.get(1).get("execution-count").asLong());
+    }
+
+    @Test
+    public void testNothingIsRecordedWhileDisabled() throws Exception {
+        StatementShapeCache cache = new StatementShapeCache(16, 0);
+        final PreparedStatement statement = statement();
+        Connection connection = cache.track(connection(new ArrayList<String>(), statement));
+        // the statements of the driver are returned as is
+        assertSame(statement, connection.prepareStatement("select 1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDriverConnectionsAreTracked() throws Exception {
+        StatementShapeCache cache = new StatementShapeCache(16, 0);
+        cache.setEnabled(true);
+        final Connection physical = connection(new ArrayList<String>());
+        Driver driver = cache.track((Driver) Proxy.newProxyInstance(StatementShapeCacheTestCase.class.getClassLoader(), new Class<?>[] { Driver.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return method.getName().equals("connect") && args[0].equals("jdbc:test") ? physical : null;
+            }
+        }));
+        execute(driver.connect("jdbc:test", null), "select 1", 2);
+        assertEquals(2, cache.toModelNode().get(0).get("execution-count").asLong());
+        // a driver which does not accept the URL still returns null
+        assertNull(driver.connect("jdbc:other", null));
+    }
+
+    @Test
+    public void testHotStatementsArePreparedOnNewConnections() throws Exception {
+        StatementShapeCache cache = new StatementShapeCache(16, 2);
+        cache.setEnabled(true);
+        Connection first = cache.track(connection(new ArrayList<String>()));
+        execute(first, "select a", 5);
+        execute(first, "select b", 3);
+        execute(first, "select c", 1);
+        first.prepareStatement("select d");
+
+        List<String> prepared = new ArrayList<>();
+        final Connection handle = connection(prepared);
+        final List<String> managedCalls = new ArrayList<>();
+        ManagedConnection managedConnection = (ManagedConnection) Proxy.newProxyInstance(StatementShapeCacheTestCase.class.getClassLoader(), new Class<?>[] { ManagedConnection.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                managedCalls.add(method.getName());
+                return method.getName().equals("getConnection") ? handle : null;
+            }
+        });
+        cache.warmUp(managedConnection, null, null);
+        // the statements are prepared through a handle of the new managed connection, which is closed again
+        assertEquals(Arrays.asList("select a", "select b", "close"), prepared);
+        assertEquals(Collections.singletonList("getConnection"), managedCalls);
+        assertEquals(2, cache.getWarmUpCount());
+    }
+
+    @Test
+    public void testSizeIsBounded() throws Exception {
+        StatementShapeCache cache = new StatementShapeCache(10, 0);
+        cache.setEnabled(true);
+        Connection connection = cache.track(connection(new ArrayList<String>()));
+        execute(connection, "select hot", 10);
+        for (int i = 0; i < 100; i++) {
+            execute(connection, "select " + i, 1);
+        }
+        assertTrue(cache.size() <= 10);
+        assertEquals("select hot", cache.toModelNode().get(0).get("sql").asString());
+    }
+
+    private static void execute(Connection connection, String sql, int times) throws Exception {
+        for (int i = 0; i < times; i++) {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.executeUpdate();
+            statement.close();
+        }
+    }
+
+    private static Connection connection(final List<String> prepared) {
+        return connection(prepared, null);
+    }
+
+    private static Connection connection(final List<String> prepared, final PreparedStatement statement) {
+        return (Connection) Proxy.newProxyInstance(StatementShapeCacheTestCase.class.getClassLoader(), new Class<?>[] { Connection.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getDeclaringClass() == Object.class) {
+                    return method.invoke(this, args);
+                }
+                if (method.getName().equals("prepareStatement")) {
+                    prepared.add((String) args[0]);
+                    return statement != null ? statement : statement();
+                }
+                if (method.getName().equals("close")) {
+                    prepared.add("close");
+                }
+                return null;
+            }
+        });
+    }
+
+    private static PreparedStatement statement() {
+        return (PreparedStatement) Proxy.newProxyInstance(StatementShapeCacheTestCase.class.getClassLoader(), new Class<?>[] { PreparedStatement.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "executeUpdate":
+                        return 1;
+                    case "execute":
+                        return false;
+                    default:
+                        return null;
+                }
+            }
+        });
+    }
+}
@@ -24,6 +24,8 @@ package org.jboss.as.connector.subsystems.datasources;
 import java.io.IOException;
 import java.util.List;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.jboss.as.connector.logging.ConnectorLogger;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
@@ -59,7 +61,7 @@ public class DatasourcesSubsystemTestCase extends AbstractSubsystemBaseTest {
 
     @Override
     protected String getSubsystemXsdPath() throws Exception {
-        return "schema/wildfly-datasources_4_0.xsd";
+        return "schema/wildfly-datasources_4_1.xsd";
     }
 
     @Override
@@ -79,6 +81,11 @@ public class DatasourcesSubsystemTestCase extends AbstractSubsystemBaseTest {
         standardSubsystemTest("datasources-full-expression.xml", "datasources-full.xml");
     }
 
+    @Test(expected = XMLStreamException.class)
+    public void testStatementShapeCacheSizeRejectedIn40() throws Exception {
+        parse(readResource("datasources-full.xml").replace(Namespace.DATASOURCES_4_1.getUriString(), Namespace.DATASOURCES_4_0.getUriString()));
+    }
+
     protected AdditionalInitialization createAdditionalInitialization() {
         return AdditionalInitialization.MANAGEMENT;
     }
@@ -156,8 +163,8 @@ public class DatasourcesSubsystemTestCase extends AbstractSubsystemBaseTest {
         PathAddress subsystemAddress = PathAddress.pathAddress(DataSourcesSubsystemRootDefinition.PATH_SUBSYSTEM);
 
         ModelTestUtils.checkFailedTransformedBootOperations(mainServices, modelVersion, ops, new FailedOperationTransformationConfig()
-                        .addFailedAttribute(subsystemAddress.append(DataSourceDefinition.PATH_DATASOURCE), new FailedOperationTransformationConfig.NewAttributesConfig(Constants.TRACKING))
-                        .addFailedAttribute(subsystemAddress.append(XaDataSourceDefinition.PATH_XA_DATASOURCE), new FailedOperationTransformationConfig.NewAttributesConfig(Constants.TRACKING))
+                        .addFailedAttribute(subsystemAddress.append(DataSourceDefinition.PATH_DATASOURCE), new FailedOperationTransformationConfig.NewAttributesConfig(Constants.TRACKING, Constants.STATEMENT_SHAPE_CACHE_SIZE))
+                        .addFailedAttribute(subsystemAddress.append(XaDataSourceDefinition.PATH_XA_DATASOURCE), new FailedOperationTransformationConfig.NewAttributesConfig(Constants.TRACKING, Constants.STATEMENT_SHAPE_CACHE_SIZE))
         );
     }
 }
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import org.jboss.invocation.Interceptor;
+
+/**
+ * The interceptor chains of the methods of a view, resolved when the view starts and indexed by the ordinal of the
+ * methods in the {@link org.jboss.invocation.proxy.ProxyFactory#getCachedMethods() cached methods} of its proxy factory.
+ * <p>
+ * When the client interceptors of a method end with the {@link ViewDescription#CLIENT_DISPATCHER_INTERCEPTOR_FACTORY client dispatcher},
+ * the chain of the method runs the view interceptors right after the client interceptors, without looking the view and
+ * its interceptors up on each invocation.
+ * <p>
+ * The ordinal of an invoked method is found in an open addressing table keyed by the identity of the cached methods
+ * and hashed on their name, whose hash code is cached by the string. The table is immutable, so concurrent callers
+ * invoking different methods do not disturb each other.
+ */
+final class CompiledViewInvocations {
+
+    private final Interceptor[] interceptors;
+    private final Method[] table;
+    private final int[] tableOrdinals;
+    private final int mask;
+
+    /**
+     * @param methods the cached methods of the proxy factory of the view
+     * @param interceptors the interceptor chains of the methods, by ordinal, {@code null} for methods which may not be invoked
+     */
+    CompiledViewInvocations(final List<Method> methods, final Interceptor[] interceptors) {
+        this.interceptors = interceptors;
+        // at most half full, so that probe sequences stay short
+        int capacity = 2;
+        while (capacity < methods.size() * 2) {
+            capacity <<= 1;
+        }
+        this.table = new Method[capacity];
+        this.tableOrdinals = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < methods.size(); i++) {
+            final Method method = methods.get(i);
+            int index = hash(method) & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = method;
+            tableOrdinals[index] = i;
+        }
+    }
+
+    private static int hash(final Method method) {
+        final int h = method.getName().hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @param method the invoked method
+     * @return the ordinal of the method, or -1 if it is not a method of the view
+     */
+    int ordinalOf(final Method method) {
+        int index = hash(method) & mask;
+        Method candidate;
+        while ((candidate = table[index]) != null) {
+            if (candidate == method) {
+                return tableOrdinals[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * @param ordinal the ordinal of the method
+     * @return the interceptor chain of the method, or {@code null} if the method may not be invoked
+     */
+    Interceptor getInterceptor(final int ordinal) {
+        return ordinal < 0 ? null : interceptors[ordinal];
+    }
+}
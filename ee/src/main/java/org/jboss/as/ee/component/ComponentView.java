@@ -94,6 +94,26 @@ public interface ComponentView {
      */
     Method getMethod(final String name, final String descriptor);
 
+    /**
+     * Finds a view method based on name and the names of its parameter types, as returned by {@link Class#getName()}
+     * and separated by {@code ','}. This is the format used by remote invocations.
+     *
+     * @param name the method name
+     * @param parameterTypeNames the parameter type names, or an empty string if the method has no parameters
+     * @return The method that corresponds to the given name and parameter types, or {@code null} if it cannot be found
+     */
+    default Method findMethod(final String name, final String parameterTypeNames) {
+        final Set<Method> viewMethods = getViewMethods();
+        if (viewMethods != null) {
+            for (Method method : viewMethods) {
+                if (method.getName().equals(name) && ViewService.parameterTypeNames(method).equals(parameterTypeNames)) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Provides a mechanism to attach arbitrary data to the component view
      * @param clazz The class of attachment
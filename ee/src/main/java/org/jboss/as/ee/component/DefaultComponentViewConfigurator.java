@@ -63,6 +63,7 @@ class DefaultComponentViewConfigurator extends AbstractComponentConfigurator imp
                 proxyConfiguration.setSuperClass(viewClass);
                 viewConfiguration = view.createViewConfiguration(viewClass, configuration, new ProxyFactory(proxyConfiguration));
             }
+            viewConfiguration.setCompiledInvocations(view.isCompiledInvocations());
             for (final ViewConfigurator configurator : view.getConfigurators()) {
                 configurator.configure(context, configuration, view, viewConfiguration);
             }
@@ -38,6 +38,7 @@ import org.jboss.invocation.InterceptorContext;
 public final class ProxyInvocationHandler implements InvocationHandler {
 
     private final Map<Method, Interceptor> interceptors;
+    private final CompiledViewInvocations compiledInvocations;
     private final ComponentView componentView;
     private final ComponentClientInstance instance;
 
@@ -50,13 +51,33 @@ public final class ProxyInvocationHandler implements InvocationHandler {
      */
     public ProxyInvocationHandler(final Map<Method, Interceptor> interceptors, ComponentClientInstance instance, ComponentView componentView) {
         this.interceptors = interceptors;
+        this.compiledInvocations = null;
+        this.instance = instance;
+        this.componentView = componentView;
+    }
+
+    /**
+     * Construct a new instance dispatching to the interceptor chains resolved when the view started.
+     *
+     * @param compiledInvocations the interceptor chains of the view methods
+     * @param instance The view instane data
+     * @param componentView The component view
+     */
+    ProxyInvocationHandler(final CompiledViewInvocations compiledInvocations, ComponentClientInstance instance, ComponentView componentView) {
+        this.interceptors = null;
+        this.compiledInvocations = compiledInvocations;
         this.instance = instance;
         this.componentView = componentView;
     }
 
     /** {@inheritDoc} */
     public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
-        final Interceptor interceptor = interceptors.get(method);
+        final Interceptor interceptor;
+        if (compiledInvocations == null) {
+            interceptor = interceptors.get(method);
+        } else {
+            interceptor = compiledInvocations.getInterceptor(compiledInvocations.ordinalOf(method));
+        }
         if (interceptor == null) {
             throw new NoSuchMethodError(method.toString());
         }
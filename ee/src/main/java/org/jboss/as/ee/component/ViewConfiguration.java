@@ -58,6 +58,7 @@ public class ViewConfiguration {
     private final List<DependencyConfigurator<ViewService>> dependencies = new ArrayList<DependencyConfigurator<ViewService>>();
     private final Map<Method, Method> viewToComponentMethodMap = new HashMap<>();
     private ViewInstanceFactory viewInstanceFactory;
+    private boolean compiledInvocations;
 
     /**
      * Construct a new instance.
@@ -278,6 +279,21 @@ public class ViewConfiguration {
         this.viewInstanceFactory = viewInstanceFactory;
     }
 
+    public boolean isCompiledInvocations() {
+        return compiledInvocations;
+    }
+
+    /**
+     * Sets whether the proxies of the view dispatch to the interceptor chains of their methods resolved when the view
+     * starts. A local invocation of a method whose client interceptors end with the client dispatcher then runs the view
+     * interceptors without looking them up.
+     *
+     * @param compiledInvocations {@code true} to resolve the interceptor chains when the view starts
+     */
+    public void setCompiledInvocations(final boolean compiledInvocations) {
+        this.compiledInvocations = compiledInvocations;
+    }
+
     /**
      * Attaches arbitrary private data to this view instance
      *
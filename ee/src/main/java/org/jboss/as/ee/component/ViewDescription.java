@@ -70,6 +70,7 @@ public class ViewDescription {
     private final Deque<ViewConfigurator> configurators = new ArrayDeque<ViewConfigurator>();
     private boolean serializable;
     private boolean useWriteReplace;
+    private boolean compiledInvocations;
 
     /**
      * Construct a new instance.
@@ -277,6 +278,18 @@ public class ViewDescription {
         this.useWriteReplace = useWriteReplace;
     }
 
+    public boolean isCompiledInvocations() {
+        return compiledInvocations;
+    }
+
+    /**
+     * @param compiledInvocations whether the proxies of the view dispatch to interceptor chains resolved when the view
+     *                            starts, see {@link ViewConfiguration#setCompiledInvocations(boolean)}
+     */
+    public void setCompiledInvocations(final boolean compiledInvocations) {
+        this.compiledInvocations = compiledInvocations;
+    }
+
     @Override
     public String toString() {
         return "View of type " + viewClassName + " for " + componentDescription;
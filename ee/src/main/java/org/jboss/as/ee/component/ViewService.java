@@ -23,6 +23,7 @@
 package org.jboss.as.ee.component;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -57,6 +58,9 @@ public final class ViewService implements Service<ComponentView> {
     private final InjectedValue<Component> componentInjector = new InjectedValue<Component>();
     private final Map<Method, InterceptorFactory> viewInterceptorFactories;
     private final Map<Method, InterceptorFactory> clientInterceptorFactories;
+    private final Map<Method, List<InterceptorFactory>> clientInterceptorFactoryLists;
+    private final List<Method> methods;
+    private final boolean compileInvocations;
     private final InterceptorFactory clientPostConstruct;
     private final InterceptorFactory clientPreDestroy;
     private final ProxyFactory<?> proxyFactory;
@@ -69,6 +73,7 @@ public final class ViewService implements Service<ComponentView> {
     private volatile Interceptor clientPostConstructInterceptor;
     private volatile Interceptor clientPreDestroyInterceptor;
     private volatile Map<Method, Interceptor> clientInterceptors;
+    private volatile CompiledViewInvocations compiledInvocations;
 
 
     public ViewService(final ViewConfiguration viewConfiguration) {
@@ -81,16 +86,22 @@ public final class ViewService implements Service<ComponentView> {
         clientPreDestroy = Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientPreDestroyInterceptors());
         final IdentityHashMap<Method, InterceptorFactory> viewInterceptorFactories = new IdentityHashMap<Method, InterceptorFactory>(methodCount);
         final IdentityHashMap<Method, InterceptorFactory> clientInterceptorFactories = new IdentityHashMap<Method, InterceptorFactory>(methodCount);
+        final IdentityHashMap<Method, List<InterceptorFactory>> clientInterceptorFactoryLists = new IdentityHashMap<Method, List<InterceptorFactory>>(methodCount);
         for (final Method method : methods) {
             if (method.getName().equals("finalize") && method.getParameterTypes().length == 0) {
                 viewInterceptorFactories.put(method, Interceptors.getTerminalInterceptorFactory());
             } else {
                 viewInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(viewConfiguration.getViewInterceptors(method)));
-                clientInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(viewConfiguration.getClientInterceptors(method)));
+                final List<InterceptorFactory> clientInterceptorList = viewConfiguration.getClientInterceptors(method);
+                clientInterceptorFactories.put(method, Interceptors.getChainedInterceptorFactory(clientInterceptorList));
+                clientInterceptorFactoryLists.put(method, clientInterceptorList);
             }
         }
         this.viewInterceptorFactories = viewInterceptorFactories;
         this.clientInterceptorFactories = clientInterceptorFactories;
+        this.clientInterceptorFactoryLists = clientInterceptorFactoryLists;
+        this.methods = methods;
+        this.compileInvocations = viewConfiguration.isCompiledInvocations();
         this.asyncMethods = viewConfiguration.getAsyncMethods();
         if (viewConfiguration.getViewInstanceFactory() == null) {
             viewInstanceFactory = new DefaultViewInstanceFactory();
@@ -118,17 +129,50 @@ public final class ViewService implements Service<ComponentView> {
         clientPostConstructInterceptor = clientPostConstruct.create(factoryContext);
         clientPreDestroyInterceptor = clientPreDestroy.create(factoryContext);
 
-        final Map<Method, InterceptorFactory> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
-        clientInterceptors = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
-        for (Method method : clientInterceptorFactories.keySet()) {
-            clientInterceptors.put(method, clientInterceptorFactories.get(method).create(factoryContext));
+        if (compileInvocations) {
+            compiledInvocations = createCompiledInvocations(view, factoryContext);
+        } else {
+            final Map<Method, InterceptorFactory> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
+            clientInterceptors = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
+            for (Method method : clientInterceptorFactories.keySet()) {
+                clientInterceptors.put(method, clientInterceptorFactories.get(method).create(factoryContext));
+            }
         }
 
 
     }
 
+    /**
+     * Creates the client interceptors of each method, directly followed by its view interceptors if the client
+     * interceptors end with the client dispatcher.
+     */
+    private CompiledViewInvocations createCompiledInvocations(final View view, final SimpleInterceptorFactoryContext factoryContext) {
+        final Interceptor[] interceptors = new Interceptor[methods.size()];
+        for (int i = 0; i < interceptors.length; i++) {
+            final Method method = methods.get(i);
+            final List<InterceptorFactory> factories = clientInterceptorFactoryLists.get(method);
+            if (factories == null) {
+                continue;
+            }
+            final int last = factories.size() - 1;
+            if (last >= 0 && factories.get(last) == ViewDescription.CLIENT_DISPATCHER_INTERCEPTOR_FACTORY) {
+                final List<Interceptor> chain = new ArrayList<Interceptor>(factories.size());
+                for (InterceptorFactory factory : factories.subList(0, last)) {
+                    chain.add(factory.create(factoryContext));
+                }
+                chain.add(view.viewInterceptors.get(method));
+                interceptors[i] = Interceptors.getChainedInterceptor(chain);
+            } else {
+                interceptors[i] = clientInterceptorFactories.get(method).create(factoryContext);
+            }
+        }
+        return new CompiledViewInvocations(methods, interceptors);
+    }
+
     public void stop(final StopContext context) {
         view = null;
+        clientInterceptors = null;
+        compiledInvocations = null;
     }
 
     public Injector<Component> getComponentInjector() {
@@ -144,6 +188,7 @@ public final class ViewService implements Service<ComponentView> {
         private final Component component;
         private final Map<Method, Interceptor> viewInterceptors;
         private final Map<MethodDescription, Method> methods;
+        private final Map<String, Map<String, Method>> methodsByParameterTypeNames;
         private final Map<Class<?>, Object> privateData;
 
         View(final Map<Class<?>, Object> privateData) {
@@ -152,6 +197,7 @@ public final class ViewService implements Service<ComponentView> {
             //we need to build the view interceptor chain
             this.viewInterceptors = new IdentityHashMap<Method, Interceptor>();
             this.methods = new HashMap<MethodDescription, Method>();
+            this.methodsByParameterTypeNames = new HashMap<String, Map<String, Method>>();
         }
 
         void initializeInterceptors() {
@@ -166,6 +212,12 @@ public final class ViewService implements Service<ComponentView> {
             for (Method method : viewInterceptorFactories.keySet()) {
                 viewEntryPoints.put(method, viewInterceptorFactories.get(method).create(factoryContext));
                 methods.put(new MethodDescription(method.getName(), DescriptorUtils.methodDescriptor(method)), method);
+                Map<String, Method> methodsForName = methodsByParameterTypeNames.get(method.getName());
+                if (methodsForName == null) {
+                    methodsForName = new HashMap<String, Method>();
+                    methodsByParameterTypeNames.put(method.getName(), methodsForName);
+                }
+                methodsForName.put(parameterTypeNames(method), method);
             }
 
         }
@@ -223,6 +275,12 @@ public final class ViewService implements Service<ComponentView> {
             return method;
         }
 
+        @Override
+        public Method findMethod(final String name, final String parameterTypeNames) {
+            final Map<String, Method> methodsForName = methodsByParameterTypeNames.get(name);
+            return methodsForName == null ? null : methodsForName.get(parameterTypeNames);
+        }
+
         @Override
         public <T> T getPrivateData(final Class<T> clazz) {
             return (T) privateData.get(clazz);
@@ -270,6 +328,22 @@ public final class ViewService implements Service<ComponentView> {
         }
     }
 
+    /**
+     * Returns the names of the parameter types of the given method, separated by {@code ','}.
+     *
+     * @see ComponentView#findMethod(String, String)
+     */
+    static String parameterTypeNames(final Method method) {
+        final StringBuilder builder = new StringBuilder();
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (builder.length() > 0) {
+                builder.append(',');
+            }
+            builder.append(parameterType.getName());
+        }
+        return builder.toString();
+    }
+
     private class DefaultViewInstanceFactory implements ViewInstanceFactory {
 
         public ManagedReference createViewInstance(final ComponentView componentView, final Map<Object, Object> contextData) throws Exception {
@@ -278,7 +352,8 @@ public final class ViewService implements Service<ComponentView> {
             final Component component = componentView.getComponent();
             final ComponentClientInstance instance = new ComponentClientInstance();
             try {
-                proxy = proxyFactory.newInstance(new ProxyInvocationHandler(clientInterceptors, instance, componentView));
+                final CompiledViewInvocations compiledInvocations = ViewService.this.compiledInvocations;
+                proxy = proxyFactory.newInstance(compiledInvocations != null ? new ProxyInvocationHandler(compiledInvocations, instance, componentView) : new ProxyInvocationHandler(clientInterceptors, instance, componentView));
             } catch (InstantiationException e) {
                 InstantiationError error = new InstantiationError(e.getMessage());
                 Throwable cause = e.getCause();
@@ -24,12 +24,35 @@ package org.jboss.as.ee.concurrent;
 
 import org.glassfish.enterprise.concurrent.ContextServiceImpl;
 import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.jboss.as.ee.logging.EeLogger;
 import org.wildfly.extension.requestcontroller.ControlPoint;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
+import javax.enterprise.concurrent.ManagedTask;
+import javax.enterprise.concurrent.ManagedTaskListener;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.jboss.as.ee.concurrent.ControlPointUtils.doWrap;
 
@@ -38,35 +61,411 @@ import static org.jboss.as.ee.concurrent.ControlPointUtils.doWrap;
  */
 public class ManagedExecutorServiceImpl extends org.glassfish.enterprise.concurrent.ManagedExecutorServiceImpl {
 
+    /**
+     * The engines which may run the tasks of a managed executor service.
+     */
+    public enum Engine {
+        /**
+         * The thread pool of the EE Concurrency RI, with a thread per max-threads obtained from the managed thread factory.
+         */
+        THREAD_POOL,
+        /**
+         * A work stealing fork join pool, with a worker thread per max-threads. Tasks are not run as
+         * {@link ForkJoinPool.ManagedBlocker}s, so the pool does not compensate for workers blocked by a task, e.g. on I/O
+         * or a lock, and blocking tasks lower its parallelism. It is meant for short, CPU bound tasks.
+         */
+        WORK_STEALING,
+        /**
+         * A new virtual thread per task, on runtimes supporting them.
+         */
+        VIRTUAL_THREAD,
+    }
+
+    private final String name;
     private final ControlPoint controlPoint;
+    private final ContextServiceImpl contextService;
+    private final RejectPolicy rejectPolicy;
+    private final ManagedExecutorServiceStatistics statistics = new ManagedExecutorServiceStatistics();
+    private final Engine engine;
+    /**
+     * runs the tasks if the engine is not the thread pool of the RI
+     */
+    private final TaskEngine taskEngine;
 
     public ManagedExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, ContextServiceImpl contextService, RejectPolicy rejectPolicy, BlockingQueue<Runnable> queue, ControlPoint controlPoint) {
         super(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, contextService, rejectPolicy, queue);
+        this.name = name;
         this.controlPoint = controlPoint;
+        this.contextService = contextService;
+        this.rejectPolicy = rejectPolicy;
+        this.engine = Engine.THREAD_POOL;
+        this.taskEngine = null;
     }
 
     public ManagedExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, ContextServiceImpl contextService, RejectPolicy rejectPolicy, ControlPoint controlPoint) {
-        super(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService, rejectPolicy);
+        this(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService, rejectPolicy, controlPoint, Engine.THREAD_POOL);
+    }
+
+    /**
+     * Creates a managed executor service which runs its tasks with the given engine. Hung tasks are only detected by the
+     * thread pool engine, the other engines ignore the core-threads and keepalive-time values, and bound the number of
+     * tasks waiting to run with the queue capacity unless it is 0.
+     */
+    public ManagedExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, ContextServiceImpl contextService, RejectPolicy rejectPolicy, ControlPoint controlPoint, Engine engine) {
+        this(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, corePoolSize, maxPoolSize, keepAliveTime, keepAliveTimeUnit, threadLifeTime, queueCapacity, contextService, rejectPolicy, controlPoint, engine, newEngineExecutor(name, engine, maxPoolSize));
+    }
+
+    private ManagedExecutorServiceImpl(String name, ManagedThreadFactoryImpl managedThreadFactory, long hungTaskThreshold, boolean longRunningTasks, int corePoolSize, int maxPoolSize, long keepAliveTime, TimeUnit keepAliveTimeUnit, long threadLifeTime, int queueCapacity, ContextServiceImpl contextService, RejectPolicy rejectPolicy, ControlPoint controlPoint, Engine engine, ExecutorService executor) {
+        // the thread pool of the RI is kept to a single idle thread at most when another engine runs the tasks
+        super(name, managedThreadFactory, hungTaskThreshold, longRunningTasks, executor == null ? corePoolSize : 0, executor == null ? maxPoolSize : 1, keepAliveTime, keepAliveTimeUnit, threadLifeTime, executor == null ? queueCapacity : 0, contextService, rejectPolicy);
+        this.name = name;
         this.controlPoint = controlPoint;
+        this.contextService = contextService;
+        this.rejectPolicy = rejectPolicy;
+        this.engine = executor == null ? Engine.THREAD_POOL : engine;
+        this.taskEngine = executor != null ? new TaskEngine(executor, queueCapacity > 0 ? queueCapacity : Integer.MAX_VALUE) : null;
+    }
+
+    /**
+     * @return the engine running the tasks, which is the thread pool if the configured one is not supported by the runtime
+     */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public ManagedExecutorServiceStatistics getStatistics() {
+        return statistics;
     }
 
     @Override
     public <T> Future<T> submit(Callable<T> task) {
-        return super.submit(doWrap(task, controlPoint));
+        final Callable<T> wrapped = doWrap(statistics.wrap(task), controlPoint);
+        try {
+            return taskEngine == null ? super.submit(wrapped) : taskEngine.submit(wrapped);
+        } catch (RejectedExecutionException e) {
+            rejected();
+            throw e;
+        }
     }
 
     @Override
     public <T> Future<T> submit(Runnable task, T result) {
-        return super.submit(doWrap(task, controlPoint), result);
+        final Runnable wrapped = doWrap(statistics.wrap(task), controlPoint);
+        try {
+            return taskEngine == null ? super.submit(wrapped, result) : taskEngine.submit(wrapped, result);
+        } catch (RejectedExecutionException e) {
+            rejected();
+            throw e;
+        }
     }
 
     @Override
     public Future<?> submit(Runnable task) {
-        return super.submit(doWrap(task, controlPoint));
+        final Runnable wrapped = doWrap(statistics.wrap(task), controlPoint);
+        try {
+            return taskEngine == null ? super.submit(wrapped) : taskEngine.submit(wrapped);
+        } catch (RejectedExecutionException e) {
+            rejected();
+            throw e;
+        }
     }
 
     @Override
     public void execute(Runnable command) {
-        super.execute(doWrap(command, controlPoint));
+        final Runnable wrapped = doWrap(statistics.wrap(command), controlPoint);
+        try {
+            if (taskEngine == null) {
+                super.execute(wrapped);
+            } else {
+                taskEngine.execute(taskEngine.newTaskFor(wrapped, null));
+            }
+        } catch (RejectedExecutionException e) {
+            rejected();
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        return taskEngine == null ? super.invokeAll(tasks) : taskEngine.invokeAll(tasks);
+    }
+
+    @Override
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+        return taskEngine == null ? super.invokeAll(tasks, timeout, unit) : taskEngine.invokeAll(tasks, timeout, unit);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+        return taskEngine == null ? super.invokeAny(tasks) : taskEngine.invokeAny(tasks);
+    }
+
+    @Override
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return taskEngine == null ? super.invokeAny(tasks, timeout, unit) : taskEngine.invokeAny(tasks, timeout, unit);
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        if (taskEngine != null) {
+            taskEngine.shutdown();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> tasks = new ArrayList<>(super.shutdownNow());
+        if (taskEngine != null) {
+            tasks.addAll(taskEngine.shutdownNow());
+        }
+        return tasks;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return super.isShutdown() && (taskEngine == null || taskEngine.isShutdown());
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return super.isTerminated() && (taskEngine == null || taskEngine.isTerminated());
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        if (!super.awaitTermination(timeout, unit)) {
+            return false;
+        }
+        return taskEngine == null || taskEngine.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Accounts for a task which will never run, ending the request the control point began for it when it was wrapped.
+     */
+    private void rejected() {
+        statistics.rejected();
+        if (controlPoint != null) {
+            controlPoint.requestComplete();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Callable<T> contextualize(final Callable<T> task) {
+        return contextService == null ? task : contextService.createContextualProxy(task, executionProperties(task), Callable.class);
+    }
+
+    private Runnable contextualize(final Runnable task) {
+        return contextService == null ? task : contextService.createContextualProxy(task, executionProperties(task), Runnable.class);
+    }
+
+    private static Map<String, String> executionProperties(final Object task) {
+        return task instanceof ManagedTask ? ((ManagedTask) task).getExecutionProperties() : null;
+    }
+
+    /**
+     * @return the executor running the tasks with the given engine, or {@code null} if the thread pool of the RI runs them
+     */
+    private static ExecutorService newEngineExecutor(final String name, final Engine engine, final int maxPoolSize) {
+        final String threadNamePrefix = "EE-ManagedExecutorService-" + name + "-";
+        switch (engine) {
+            case WORK_STEALING:
+                return new ForkJoinPool(Math.min(Math.max(1, maxPoolSize), 0x7fff), new WorkerThreadFactory(threadNamePrefix), null, true);
+            case VIRTUAL_THREAD:
+                final ExecutorService executor = newVirtualThreadExecutor(threadNamePrefix);
+                if (executor == null) {
+                    EeLogger.ROOT_LOGGER.virtualThreadsNotSupported(name, Engine.THREAD_POOL);
+                }
+                return executor;
+            default:
+                return null;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor(final String threadNamePrefix) {
+        // looked up reflectively, as virtual threads are only available on newer runtimes
+        try {
+            final Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+            final ThreadFactory threadFactory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, threadFactory);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            EeLogger.ROOT_LOGGER.tracef(e, "Virtual threads are not available");
+            return null;
+        }
+    }
+
+    /**
+     * Creates the named worker threads of the work stealing engine, which do not retain the class loader of the thread
+     * which caused their creation.
+     */
+    private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+
+        private final String threadNamePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        WorkerThreadFactory(String threadNamePrefix) {
+            this.threadNamePrefix = threadNamePrefix;
+        }
+
+        @Override
+        public ForkJoinWorkerThread newThread(final ForkJoinPool pool) {
+            final ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(threadNamePrefix + threadNumber.getAndIncrement());
+            if (WildFlySecurityManager.isChecking()) {
+                AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                    @Override
+                    public Void run() {
+                        thread.setContextClassLoader(WorkerThreadFactory.class.getClassLoader());
+                        return null;
+                    }
+                });
+            } else {
+                thread.setContextClassLoader(WorkerThreadFactory.class.getClassLoader());
+            }
+            return thread;
+        }
+    }
+
+    /**
+     * Runs tasks with an engine other than the thread pool of the RI, applying the context service and notifying the
+     * managed task listeners as the RI does.
+     */
+    private final class TaskEngine extends AbstractExecutorService {
+
+        private final ExecutorService executor;
+        private final int capacity;
+        private final AtomicInteger waiting = new AtomicInteger();
+
+        TaskEngine(ExecutorService executor, int capacity) {
+            this.executor = executor;
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+            return new EngineTask<>(contextualize(callable), callable);
+        }
+
+        @Override
+        protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+            return new EngineTask<>(contextualize(runnable), value, runnable);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if (command == null) {
+                throw new NullPointerException();
+            }
+            if (command instanceof EngineTask) {
+                ((EngineTask<?>) command).submitted();
+            }
+            if (!dispatch(command) && (rejectPolicy != RejectPolicy.RETRY_ABORT || !dispatch(command))) {
+                throw EeLogger.ROOT_LOGGER.taskRejected(name, capacity);
+            }
+        }
+
+        private boolean dispatch(final Runnable command) {
+            if (waiting.incrementAndGet() > capacity) {
+                waiting.decrementAndGet();
+                return false;
+            }
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        waiting.decrementAndGet();
+                        command.run();
+                    }
+                });
+                return true;
+            } catch (RejectedExecutionException e) {
+                waiting.decrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            executor.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return executor.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return executor.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return executor.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return executor.awaitTermination(timeout, unit);
+        }
+    }
+
+    /**
+     * A task run by an engine other than the thread pool of the RI.
+     */
+    private final class EngineTask<V> extends FutureTask<V> {
+
+        private final Object task;
+        private final ManagedTaskListener listener;
+
+        EngineTask(Callable<V> contextualTask, Object task) {
+            super(contextualTask);
+            this.task = task;
+            this.listener = task instanceof ManagedTask ? ((ManagedTask) task).getManagedTaskListener() : null;
+        }
+
+        EngineTask(Runnable contextualTask, V result, Object task) {
+            super(contextualTask, result);
+            this.task = task;
+            this.listener = task instanceof ManagedTask ? ((ManagedTask) task).getManagedTaskListener() : null;
+        }
+
+        void submitted() {
+            if (listener != null) {
+                listener.taskSubmitted(this, getAdapter(), task);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (listener != null && !isDone()) {
+                listener.taskStarting(this, getAdapter(), task);
+            }
+            super.run();
+        }
+
+        @Override
+        protected void done() {
+            if (listener == null) {
+                return;
+            }
+            Throwable failure = null;
+            if (isCancelled()) {
+                failure = new CancellationException();
+                listener.taskAborted(this, getAdapter(), task, failure);
+            } else {
+                try {
+                    get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            listener.taskDone(this, getAdapter(), task, failure);
+        }
     }
 }
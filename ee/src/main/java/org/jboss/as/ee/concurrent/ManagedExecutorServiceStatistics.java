@@ -0,0 +1,192 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.enterprise.concurrent.ManagedTask;
+
+/**
+ * Task counts and timings of a managed executor service, whatever the engine running its tasks.
+ * <p>
+ * The queue time of a task is the time between its submission and the start of its execution. Times are reported in
+ * microseconds.
+ */
+public class ManagedExecutorServiceStatistics {
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder queueTime = new LongAdder();
+    private final LongAdder executionTime = new LongAdder();
+    private final AtomicLong maxQueueTime = new AtomicLong();
+    private final AtomicLong maxExecutionTime = new AtomicLong();
+
+    /**
+     * Wraps a task, which is about to be submitted, to record its queue and execution times.
+     *
+     * @param task the task
+     * @return the wrapped task, which is a {@link ManagedTask} if the given task is one
+     */
+    Runnable wrap(final Runnable task) {
+        if (task == null) {
+            return null;
+        }
+        final TimedRunnable timed = new TimedRunnable(task, submitted());
+        return task instanceof ManagedTask ? new ControlPointUtils.ControlledManagedRunnable(timed, (ManagedTask) task) : timed;
+    }
+
+    /**
+     * Wraps a task, which is about to be submitted, to record its queue and execution times.
+     *
+     * @param task the task
+     * @return the wrapped task, which is a {@link ManagedTask} if the given task is one
+     */
+    <T> Callable<T> wrap(final Callable<T> task) {
+        if (task == null) {
+            return null;
+        }
+        final TimedCallable<T> timed = new TimedCallable<>(task, submitted());
+        return task instanceof ManagedTask ? new ControlPointUtils.ControlledManagedCallable<>(timed, (ManagedTask) task) : timed;
+    }
+
+    private long submitted() {
+        submitted.increment();
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the rejection of a task previously passed to one of the {@code wrap} methods.
+     */
+    void rejected() {
+        rejected.increment();
+    }
+
+    private long starting(final long submittedAt) {
+        final long now = System.nanoTime();
+        started.increment();
+        record(queueTime, maxQueueTime, now - submittedAt);
+        return now;
+    }
+
+    private void done(final long startedAt) {
+        record(executionTime, maxExecutionTime, System.nanoTime() - startedAt);
+        completed.increment();
+    }
+
+    private static void record(final LongAdder total, final AtomicLong max, final long nanos) {
+        total.add(nanos);
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+    public long getSubmittedTaskCount() {
+        return submitted.sum();
+    }
+
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    public long getCompletedTaskCount() {
+        return completed.sum();
+    }
+
+    /**
+     * @return the number of tasks currently executing
+     */
+    public long getActiveTaskCount() {
+        // read completed first, so that a task finishing in between is not counted as a negative
+        final long done = completed.sum();
+        return Math.max(0L, started.sum() - done);
+    }
+
+    public long getMeanQueueTime() {
+        return mean(queueTime, started);
+    }
+
+    public long getMaxQueueTime() {
+        return TimeUnit.NANOSECONDS.toMicros(maxQueueTime.get());
+    }
+
+    public long getMeanExecutionTime() {
+        return mean(executionTime, completed);
+    }
+
+    public long getMaxExecutionTime() {
+        return TimeUnit.NANOSECONDS.toMicros(maxExecutionTime.get());
+    }
+
+    private static long mean(final LongAdder total, final LongAdder count) {
+        final long n = count.sum();
+        return n == 0 ? 0L : TimeUnit.NANOSECONDS.toMicros(total.sum() / n);
+    }
+
+    private final class TimedRunnable implements Runnable {
+
+        private final Runnable task;
+        private final long submittedAt;
+
+        TimedRunnable(Runnable task, long submittedAt) {
+            this.task = task;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            final long startedAt = starting(submittedAt);
+            try {
+                task.run();
+            } finally {
+                done(startedAt);
+            }
+        }
+    }
+
+    private final class TimedCallable<T> implements Callable<T> {
+
+        private final Callable<T> task;
+        private final long submittedAt;
+
+        TimedCallable(Callable<T> task, long submittedAt) {
+            this.task = task;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public T call() throws Exception {
+            final long startedAt = starting(submittedAt);
+            try {
+                return task.call();
+            } finally {
+                done(startedAt);
+            }
+        }
+    }
+}
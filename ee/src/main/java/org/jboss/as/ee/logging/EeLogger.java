@@ -30,6 +30,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.Location;
@@ -1104,4 +1105,25 @@ public interface EeLogger extends BasicLogger {
      */
     @Message(id = 113, value = "The max-threads value %d cannot be less than the core-threads value %d.")
     OperationFailedException invalidMaxThreads(int maxThreads, int coreThreads);
+
+    /**
+     * Logs a warning message indicating the virtual thread engine is not supported by the runtime.
+     *
+     * @param name     the name of the managed executor service
+     * @param fallback the engine used instead
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 114, value = "Virtual threads are not supported by this runtime, managed executor service %s uses the %s engine instead")
+    void virtualThreadsNotSupported(String name, Object fallback);
+
+    /**
+     * Creates an exception indicating a task was rejected as too many tasks are waiting to run.
+     *
+     * @param name        the name of the managed executor service
+     * @param queueLength the queue length of the managed executor service
+     *
+     * @return a {@link RejectedExecutionException} for the error
+     */
+    @Message(id = 115, value = "Task rejected by managed executor service %s, %d tasks are already waiting to run")
+    RejectedExecutionException taskRejected(String name, int queueLength);
 }
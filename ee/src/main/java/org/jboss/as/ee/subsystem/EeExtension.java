@@ -64,7 +64,7 @@ public class EeExtension implements Extension {
     public static final String SUBSYSTEM_NAME = "ee";
     private static final String RESOURCE_NAME = EeExtension.class.getPackage().getName() + ".LocalDescriptions";
 
-    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(4, 0, 0);
+    private static final ModelVersion CURRENT_MODEL_VERSION = ModelVersion.create(4, 1, 0);
 
     protected static final PathElement PATH_SUBSYSTEM = PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
 
@@ -88,7 +88,10 @@ public class EeExtension implements Extension {
         // register submodels
         rootResource.registerSubModel(ContextServiceResourceDefinition.INSTANCE);
         rootResource.registerSubModel(ManagedThreadFactoryResourceDefinition.INSTANCE);
-        rootResource.registerSubModel(ManagedExecutorServiceResourceDefinition.INSTANCE);
+        final ManagementResourceRegistration managedExecutorService = rootResource.registerSubModel(ManagedExecutorServiceResourceDefinition.INSTANCE);
+        if (context.isRuntimeOnlyRegistrationValid()) {
+            ManagedExecutorServiceMetricsHandler.INSTANCE.registerMetrics(managedExecutorService);
+        }
         rootResource.registerSubModel(ManagedScheduledExecutorServiceResourceDefinition.INSTANCE);
         rootResource.registerSubModel(new DefaultBindingsResourceDefinition(new DefaultBindingsConfigurationProcessor()));
 
@@ -116,8 +119,13 @@ public class EeExtension implements Extension {
     private void registerTransformers(SubsystemRegistration subsystem) {
         final ModelVersion v1_0_0 = ModelVersion.create(1, 0, 0);
         final ModelVersion v3_0_0 = ModelVersion.create(3, 0, 0);
+        final ModelVersion v4_0_0 = ModelVersion.create(4, 0, 0);
         ChainedTransformationDescriptionBuilder chainedBuilder = TransformationDescriptionBuilder.Factory.createChainedSubystemInstance(subsystem.getSubsystemVersion());
-        ResourceTransformationDescriptionBuilder builder_3_0 = chainedBuilder.createBuilder(subsystem.getSubsystemVersion(), v3_0_0);
+        ResourceTransformationDescriptionBuilder builder_4_0 = chainedBuilder.createBuilder(subsystem.getSubsystemVersion(), v4_0_0);
+
+        ManagedExecutorServiceResourceDefinition.INSTANCE.registerTransformers_4_1(builder_4_0);
+
+        ResourceTransformationDescriptionBuilder builder_3_0 = chainedBuilder.createBuilder(v4_0_0, v3_0_0);
 
         ManagedExecutorServiceResourceDefinition.INSTANCE.registerTransformers_4_0(builder_3_0);
         ManagedScheduledExecutorServiceResourceDefinition.INSTANCE.registerTransformers_4_0(builder_3_0);
@@ -144,7 +152,8 @@ public class EeExtension implements Extension {
 
         chainedBuilder.buildAndRegister(subsystem, new ModelVersion[] {
                 v1_0_0,
-                v3_0_0
+                v3_0_0,
+                v4_0_0
         });
     }
 
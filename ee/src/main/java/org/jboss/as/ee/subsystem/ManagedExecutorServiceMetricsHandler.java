@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.subsystem;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.ee.concurrent.ManagedExecutorServiceStatistics;
+import org.jboss.as.ee.concurrent.service.ConcurrentServiceNames;
+import org.jboss.as.ee.concurrent.service.ManagedExecutorServiceService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handler for the task metrics of managed executor services.
+ */
+public class ManagedExecutorServiceMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public enum Metric {
+
+        SUBMITTED_TASK_COUNT(metric("submitted-task-count", null)),
+        COMPLETED_TASK_COUNT(metric("completed-task-count", null)),
+        REJECTED_TASK_COUNT(metric("rejected-task-count", null)),
+        ACTIVE_TASK_COUNT(metric("active-task-count", null)),
+        MEAN_QUEUE_TIME(metric("mean-queue-time", MeasurementUnit.MICROSECONDS)),
+        MAX_QUEUE_TIME(metric("max-queue-time", MeasurementUnit.MICROSECONDS)),
+        MEAN_EXECUTION_TIME(metric("mean-execution-time", MeasurementUnit.MICROSECONDS)),
+        MAX_EXECUTION_TIME(metric("max-execution-time", MeasurementUnit.MICROSECONDS));
+
+        private static final Map<String, Metric> MAP = new HashMap<String, Metric>();
+        static {
+            for (Metric metric : EnumSet.allOf(Metric.class)) {
+                MAP.put(metric.toString(), metric);
+            }
+        }
+        final AttributeDefinition definition;
+        private Metric(final AttributeDefinition definition) {
+            this.definition = definition;
+        }
+
+        @Override
+        public final String toString() {
+            return definition.getName();
+        }
+
+        public static Metric getMetric(final String stringForm) {
+            return MAP.get(stringForm);
+        }
+
+        private static AttributeDefinition metric(final String name, final MeasurementUnit unit) {
+            final SimpleAttributeDefinitionBuilder builder = new SimpleAttributeDefinitionBuilder(name, ModelType.LONG, true)
+                    .setStorageRuntime();
+            if (unit != null) {
+                builder.setMeasurementUnit(unit);
+            }
+            return builder.build();
+        }
+    }
+
+    public static final ManagedExecutorServiceMetricsHandler INSTANCE = new ManagedExecutorServiceMetricsHandler();
+
+    private ManagedExecutorServiceMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final Metric metric = Metric.getMetric(operation.require(ModelDescriptionConstants.NAME).asString());
+        final String name = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
+        final ServiceController<?> controller = context.getServiceRegistry(false).getService(ConcurrentServiceNames.getManagedExecutorServiceServiceName(name));
+        final ManagedExecutorServiceStatistics statistics = controller != null ? ((ManagedExecutorServiceService) controller.getService()).getStatistics() : null;
+        if (metric != null && statistics != null) {
+            final ModelNode result = new ModelNode();
+            switch (metric) {
+                case SUBMITTED_TASK_COUNT:
+                    result.set(statistics.getSubmittedTaskCount());
+                    break;
+                case COMPLETED_TASK_COUNT:
+                    result.set(statistics.getCompletedTaskCount());
+                    break;
+                case REJECTED_TASK_COUNT:
+                    result.set(statistics.getRejectedTaskCount());
+                    break;
+                case ACTIVE_TASK_COUNT:
+                    result.set(statistics.getActiveTaskCount());
+                    break;
+                case MEAN_QUEUE_TIME:
+                    result.set(statistics.getMeanQueueTime());
+                    break;
+                case MAX_QUEUE_TIME:
+                    result.set(statistics.getMaxQueueTime());
+                    break;
+                case MEAN_EXECUTION_TIME:
+                    result.set(statistics.getMeanExecutionTime());
+                    break;
+                case MAX_EXECUTION_TIME:
+                    result.set(statistics.getMaxExecutionTime());
+                    break;
+                default:
+                    throw new IllegalStateException(metric.toString());
+            }
+            context.getResult().set(result);
+        }
+
+        context.stepCompleted();
+    }
+
+    void registerMetrics(final ManagementResourceRegistration resourceRegistration) {
+        for (Metric metric : Metric.values()) {
+            resourceRegistration.registerMetric(metric.definition, this);
+        }
+    }
+}
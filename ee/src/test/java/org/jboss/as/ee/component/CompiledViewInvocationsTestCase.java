@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.junit.Test;
+
+/**
+ * Tests for {@link CompiledViewInvocations} and the proxy invocation handler dispatching through them.
+ */
+public class CompiledViewInvocationsTestCase {
+
+    public interface Greeter {
+        String greet();
+
+        String greet(String name);
+
+        String farewell(String name);
+
+        void unsupported();
+    }
+
+    private static List<Method> methods() throws NoSuchMethodException {
+        final List<Method> methods = new ArrayList<Method>();
+        methods.addAll(Arrays.asList(Object.class.getMethods()));
+        methods.add(Greeter.class.getMethod("greet"));
+        methods.add(Greeter.class.getMethod("greet", String.class));
+        methods.add(Greeter.class.getMethod("farewell", String.class));
+        methods.add(Greeter.class.getMethod("unsupported"));
+        return methods;
+    }
+
+    private static CompiledViewInvocations compile(final List<Method> methods) {
+        final Interceptor[] interceptors = new Interceptor[methods.size()];
+        for (int i = 0; i < interceptors.length; i++) {
+            final Method method = methods.get(i);
+            if (!method.getName().equals("unsupported")) {
+                interceptors[i] = new NamingInterceptor(method);
+            }
+        }
+        return new CompiledViewInvocations(methods, interceptors);
+    }
+
+    @Test
+    public void testOrdinals() throws Exception {
+        final List<Method> methods = methods();
+        final CompiledViewInvocations invocations = compile(methods);
+        // alternate between methods, including overloads sharing a name
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < methods.size(); i++) {
+                assertEquals(i, invocations.ordinalOf(methods.get(i)));
+            }
+        }
+        assertEquals(-1, invocations.ordinalOf(Runnable.class.getMethod("run")));
+        // an equal but distinct method instance is not a cached method of the view
+        assertEquals(-1, invocations.ordinalOf(Greeter.class.getMethod("farewell", String.class)));
+    }
+
+    @Test
+    public void testInvocation() throws Throwable {
+        final List<Method> methods = methods();
+        final ProxyInvocationHandler handler = new ProxyInvocationHandler(compile(methods), new ComponentClientInstance(), componentView());
+        final Method greet = methods.get(methods.size() - 4);
+        final Method greetName = methods.get(methods.size() - 3);
+        final Method farewell = methods.get(methods.size() - 2);
+        for (int i = 0; i < 3; i++) {
+            assertEquals("greet", handler.invoke(null, greet, null));
+            assertEquals("greet(a)", handler.invoke(null, greetName, new Object[] { "a" }));
+            assertEquals("farewell(b)", handler.invoke(null, farewell, new Object[] { "b" }));
+        }
+        try {
+            handler.invoke(null, methods.get(methods.size() - 1), null);
+            fail("a method without interceptors may not be invoked");
+        } catch (NoSuchMethodError expected) {
+            // expected
+        }
+    }
+
+    private static ComponentView componentView() {
+        return (ComponentView) Proxy.newProxyInstance(ComponentView.class.getClassLoader(), new Class<?>[] { ComponentView.class }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return null;
+            }
+        });
+    }
+
+    private static final class NamingInterceptor implements Interceptor {
+
+        private final Method method;
+
+        NamingInterceptor(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Object processInvocation(InterceptorContext context) throws Exception {
+            assertEquals(method, context.getMethod());
+            final Object[] parameters = context.getParameters();
+            return parameters == null || parameters.length == 0 ? method.getName() : method.getName() + "(" + parameters[0] + ")";
+        }
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedTask;
+import javax.enterprise.concurrent.ManagedTaskListener;
+
+import org.glassfish.enterprise.concurrent.AbstractManagedExecutorService.RejectPolicy;
+import org.glassfish.enterprise.concurrent.ManagedThreadFactoryImpl;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests for the engines of {@link ManagedExecutorServiceImpl}.
+ */
+public class ManagedExecutorServiceImplTestCase {
+
+    private ManagedExecutorServiceImpl executor;
+
+    @After
+    public void after() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private ManagedExecutorServiceImpl createExecutor(ManagedExecutorServiceImpl.Engine engine, int maxThreads, int queueCapacity) {
+        executor = new ManagedExecutorServiceImpl("test", new ManagedThreadFactoryImpl("test", null, Thread.NORM_PRIORITY), 0, false, 1, maxThreads, 60000, TimeUnit.MILLISECONDS, 0, queueCapacity, null, RejectPolicy.ABORT, null, engine);
+        return executor;
+    }
+
+    @Test
+    public void testWorkStealing() throws Exception {
+        final ManagedExecutorServiceImpl executor = createExecutor(ManagedExecutorServiceImpl.Engine.WORK_STEALING, 2, 0);
+        assertEquals(ManagedExecutorServiceImpl.Engine.WORK_STEALING, executor.getEngine());
+        assertEquals("result", executor.submit(new NamedCallable()).get(10, TimeUnit.SECONDS));
+        assertEquals(1, executor.getStatistics().getSubmittedTaskCount());
+        assertEquals(1, executor.getStatistics().getCompletedTaskCount());
+    }
+
+    @Test
+    public void testVirtualThread() throws Exception {
+        final ManagedExecutorServiceImpl executor = createExecutor(ManagedExecutorServiceImpl.Engine.VIRTUAL_THREAD, 2, 0);
+        // runtimes without virtual threads fall back to the thread pool
+        assertTrue(executor.getEngine() == ManagedExecutorServiceImpl.Engine.VIRTUAL_THREAD || executor.getEngine() == ManagedExecutorServiceImpl.Engine.THREAD_POOL);
+        assertEquals("result", executor.submit(new NamedCallable()).get(10, TimeUnit.SECONDS));
+        assertEquals(1, executor.getStatistics().getCompletedTaskCount());
+    }
+
+    @Test
+    public void testManagedTaskListener() throws Exception {
+        final ManagedExecutorServiceImpl executor = createExecutor(ManagedExecutorServiceImpl.Engine.WORK_STEALING, 2, 0);
+        final RecordingListener listener = new RecordingListener();
+        final Future<?> future = executor.submit(new ListenedRunnable(listener));
+        future.get(10, TimeUnit.SECONDS);
+        assertTrue(listener.done.await(10, TimeUnit.SECONDS));
+        assertEquals(3, listener.events.size());
+        assertEquals("submitted", listener.events.get(0));
+        assertEquals("starting", listener.events.get(1));
+        assertEquals("done", listener.events.get(2));
+    }
+
+    @Test
+    public void testQueueCapacity() throws Exception {
+        final ManagedExecutorServiceImpl executor = createExecutor(ManagedExecutorServiceImpl.Engine.WORK_STEALING, 1, 1);
+        final BlockingRunnable blocking = new BlockingRunnable();
+        executor.submit(blocking);
+        assertTrue(blocking.started.await(10, TimeUnit.SECONDS));
+        // the single worker is busy, the next task waits and fills the queue
+        executor.submit(new BlockingRunnable());
+        try {
+            executor.submit(new BlockingRunnable());
+            fail("the task should have been rejected");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertEquals(1, executor.getStatistics().getRejectedTaskCount());
+        blocking.released = true;
+    }
+
+    private static class NamedCallable implements Callable<String> {
+        @Override
+        public String call() {
+            return "result";
+        }
+    }
+
+    private static class BlockingRunnable implements Runnable {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        volatile boolean released;
+
+        @Override
+        public void run() {
+            started.countDown();
+            // polls, as blocking on a synchronizer lets the fork join pool start a compensating worker
+            while (!released && !Thread.currentThread().isInterrupted()) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private static class ListenedRunnable implements Runnable, ManagedTask {
+
+        private final ManagedTaskListener listener;
+
+        ListenedRunnable(ManagedTaskListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public ManagedTaskListener getManagedTaskListener() {
+            return listener;
+        }
+
+        @Override
+        public Map<String, String> getExecutionProperties() {
+            return null;
+        }
+    }
+
+    private static class RecordingListener implements ManagedTaskListener {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch done = new CountDownLatch(1);
+
+        @Override
+        public void taskSubmitted(Future<?> future, ManagedExecutorService executor, Object task) {
+            events.add("submitted");
+        }
+
+        @Override
+        public void taskAborted(Future<?> future, ManagedExecutorService executor, Object task, Throwable exception) {
+            events.add("aborted");
+        }
+
+        @Override
+        public void taskDone(Future<?> future, ManagedExecutorService executor, Object task, Throwable exception) {
+            events.add("done");
+            done.countDown();
+        }
+
+        @Override
+        public void taskStarting(Future<?> future, ManagedExecutorService executor, Object task) {
+            events.add("starting");
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ee.concurrent.ManagedExecutorServiceImpl;
 import org.jboss.as.model.test.FailedOperationTransformationConfig;
 import org.jboss.as.model.test.FailedOperationTransformationConfig.AttributesPathAddressConfig;
 import org.jboss.as.model.test.ModelFixer;
@@ -92,7 +93,10 @@ public class EeSubsystemTestCase extends AbstractSubsystemBaseTest {
                 bootOps,
                 new FailedOperationTransformationConfig()
                         .addFailedAttribute(PathAddress.pathAddress(EeExtension.PATH_SUBSYSTEM, ManagedExecutorServiceResourceDefinition.INSTANCE.getPathElement()),
-                                new RejectUndefinedAttribute(new ModelNode(Integer.MAX_VALUE), ManagedExecutorServiceResourceDefinition.CORE_THREADS_AD.getName()))
+                                FailedOperationTransformationConfig.ChainedConfig.createBuilder(ManagedExecutorServiceResourceDefinition.CORE_THREADS_AD, ManagedExecutorServiceResourceDefinition.EXECUTOR_ENGINE_AD)
+                                        .addConfig(new RejectUndefinedAttribute(new ModelNode(Integer.MAX_VALUE), ManagedExecutorServiceResourceDefinition.CORE_THREADS_AD.getName()))
+                                        .addConfig(new RejectExecutorEngine())
+                                        .build())
                         .addFailedAttribute(PathAddress.pathAddress(EeExtension.PATH_SUBSYSTEM, ManagedScheduledExecutorServiceResourceDefinition.INSTANCE.getPathElement()),
                                 new RejectUndefinedAttribute(new ModelNode(Integer.MAX_VALUE), ManagedScheduledExecutorServiceResourceDefinition.CORE_THREADS_AD.getName())));
     }
@@ -389,6 +393,31 @@ public class EeSubsystemTestCase extends AbstractSubsystemBaseTest {
         }
     }
 
+    /**
+     * The executor engine is only discarded by the 4.0.0 transformer when it is the thread pool engine.
+     */
+    private static class RejectExecutorEngine extends AttributesPathAddressConfig<RejectExecutorEngine> {
+
+        private RejectExecutorEngine() {
+            super(ManagedExecutorServiceResourceDefinition.EXECUTOR_ENGINE_AD.getName());
+        }
+
+        @Override
+        protected boolean isAttributeWritable(final String attributeName) {
+            return true;
+        }
+
+        @Override
+        protected boolean checkValue(final String attrName, final ModelNode attribute, final boolean isWriteAttribute) {
+            return attribute.isDefined() && !ManagedExecutorServiceImpl.Engine.THREAD_POOL.toString().equals(attribute.asString());
+        }
+
+        @Override
+        protected ModelNode correctValue(final ModelNode toResolve, final boolean isWriteAttribute) {
+            return new ModelNode();
+        }
+    }
+
     private static class RejectUndefinedAttribute extends AttributesPathAddressConfig<RejectUndefinedAttribute> {
         private final ModelNode replacementValue;
 
@@ -30,21 +30,31 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Invocation statistics of a component.
+ * <p/>
+ * All counters are striped, and the per-method counters are only created on the first invocation of a method, so
+ * recording an invocation neither allocates nor spins on a shared compare-and-set.
+ *
  * @author <a href="mailto:cdewolf@redhat.com">Carlo de Wolf</a>
  */
 public class InvocationMetrics {
+    /**
+     * A snapshot of the statistics of a component or of one of its methods.
+     */
     public static class Values {
         final long invocations;
         final long executionTime;
         final long waitTime;
+        private final Counters counters;
 
-        private Values(final long invocations, final long waitTime, final long executionTime) {
-            this.invocations = invocations;
-            this.executionTime = executionTime;
-            this.waitTime = waitTime;
+        private Values(final Counters counters) {
+            this.invocations = counters.invocations.sum();
+            this.executionTime = counters.executionTime.sum();
+            this.waitTime = counters.waitTime.sum();
+            this.counters = counters;
         }
 
         public long getExecutionTime() {
@@ -58,40 +68,61 @@ public class InvocationMetrics {
         public long getWaitTime() {
             return waitTime;
         }
+
+        /**
+         * @param fraction e.g. 0.99 for the 99th percentile
+         * @return the execution time in milliseconds at the given percentile
+         */
+        public long getExecutionTimePercentile(final double fraction) {
+            return counters.executionTimes.getPercentile(fraction);
+        }
+
+        /**
+         * @param fraction e.g. 0.99 for the 99th percentile
+         * @return the wait time in milliseconds at the given percentile
+         */
+        public long getWaitTimePercentile(final double fraction) {
+            return counters.waitTimes.getPercentile(fraction);
+        }
+    }
+
+    private static class Counters {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder executionTime = new LongAdder();
+        final LongAdder waitTime = new LongAdder();
+        final LatencyHistogram executionTimes = new LatencyHistogram();
+        final LatencyHistogram waitTimes = new LatencyHistogram();
+
+        void record(final long invocationWaitTime, final long invocationExecutionTime) {
+            invocations.increment();
+            waitTime.add(invocationWaitTime);
+            executionTime.add(invocationExecutionTime);
+            waitTimes.record(invocationWaitTime);
+            executionTimes.record(invocationExecutionTime);
+        }
     }
 
-    private final AtomicReference<Values> values = new AtomicReference<Values>(new Values(0, 0, 0));
+    private final Counters values = new Counters();
     private final AtomicLong concurrent = new AtomicLong(0);
     private final AtomicLong peakConcurrent = new AtomicLong(0);
 
-    private final ConcurrentMap<String, AtomicReference<Values>> methods = new ConcurrentHashMap<String, AtomicReference<Values>>();
+    private final ConcurrentMap<String, Counters> methods = new ConcurrentHashMap<String, Counters>();
 
     void finishInvocation(final Method method, final long invocationWaitTime, final long invocationExecutionTime) {
         concurrent.decrementAndGet();
-        for(;;) {
-            final Values oldv = values.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (values.compareAndSet(oldv, newv))
-                break;
-        }
-        final AtomicReference<Values> methodValues = ref(methods, method.getName());
-        for (;;) {
-            final Values oldv = methodValues.get();
-            final Values newv = new Values(oldv.invocations + 1, oldv.waitTime + invocationWaitTime, oldv.executionTime + invocationExecutionTime);
-            if (methodValues.compareAndSet(oldv, newv))
-                break;
-        }
+        values.record(invocationWaitTime, invocationExecutionTime);
+        counters(methods, method.getName()).record(invocationWaitTime, invocationExecutionTime);
     }
 
-    private static AtomicReference<Values> ref(final ConcurrentMap<String, AtomicReference<Values>> map, final String key) {
-        AtomicReference<Values> ref = map.get(key);
-        if (ref == null) {
-            ref = new AtomicReference<Values>(new Values(0, 0, 0));
-            final AtomicReference<Values> prevRef = map.putIfAbsent(key, ref);
-            if (prevRef != null)
-                ref = prevRef;
+    private static Counters counters(final ConcurrentMap<String, Counters> map, final String key) {
+        Counters counters = map.get(key);
+        if (counters == null) {
+            counters = new Counters();
+            final Counters prevCounters = map.putIfAbsent(key, counters);
+            if (prevCounters != null)
+                counters = prevCounters;
         }
-        return ref;
+        return counters;
     }
 
     public long getConcurrent() {
@@ -99,11 +130,19 @@ public class InvocationMetrics {
     }
 
     public long getExecutionTime() {
-        return values.get().executionTime;
+        return values.executionTime.sum();
+    }
+
+    /**
+     * @param fraction e.g. 0.99 for the 99th percentile
+     * @return the execution time in milliseconds at the given percentile
+     */
+    public long getExecutionTimePercentile(final double fraction) {
+        return values.executionTimes.getPercentile(fraction);
     }
 
     public long getInvocations() {
-        return values.get().invocations;
+        return values.invocations.sum();
     }
 
     public Map<String, Values> getMethods() {
@@ -113,7 +152,7 @@ public class InvocationMetrics {
                 return new AbstractSet<Entry<String, Values>>() {
                     @Override
                     public Iterator<Entry<String, Values>> iterator() {
-                        final Iterator<Entry<String, AtomicReference<Values>>> delegate = methods.entrySet().iterator();
+                        final Iterator<Entry<String, Counters>> delegate = methods.entrySet().iterator();
                         return new Iterator<Entry<String, Values>>() {
                             @Override
                             public boolean hasNext() {
@@ -122,7 +161,7 @@ public class InvocationMetrics {
 
                             @Override
                             public Entry<String, Values> next() {
-                                final Entry<String, AtomicReference<Values>> next = delegate.next();
+                                final Entry<String, Counters> next = delegate.next();
                                 return new Entry<String, Values>() {
                                     @Override
                                     public String getKey() {
@@ -131,7 +170,7 @@ public class InvocationMetrics {
 
                                     @Override
                                     public Values getValue() {
-                                        return next.getValue().get();
+                                        return new Values(next.getValue());
                                     }
 
                                     @Override
@@ -162,7 +201,15 @@ public class InvocationMetrics {
     }
 
     public long getWaitTime() {
-        return values.get().waitTime;
+        return values.waitTime.sum();
+    }
+
+    /**
+     * @param fraction e.g. 0.99 for the 99th percentile
+     * @return the wait time in milliseconds at the given percentile
+     */
+    public long getWaitTimePercentile(final double fraction) {
+        return values.waitTimes.getPercentile(fraction);
     }
 
     void startInvocation() {
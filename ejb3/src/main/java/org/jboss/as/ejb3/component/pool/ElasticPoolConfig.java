@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.pool.Pool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.as.ejb3.pool.elastic.ElasticPool;
+
+/**
+ * Configuration of an {@link ElasticPool}.
+ */
+public class ElasticPoolConfig extends PoolConfig {
+
+    public static final int DEFAULT_MIN_POOL_SIZE = 0;
+
+    public static final int DEFAULT_MAX_POOL_SIZE = 20;
+
+    public static final long DEFAULT_IDLE_TIMEOUT = 5;
+
+    public static final TimeUnit DEFAULT_IDLE_TIMEOUT_UNIT = TimeUnit.MINUTES;
+
+    private volatile int minPoolSize;
+
+    private volatile int maxPoolSize;
+
+    private volatile long idleTimeout;
+
+    private volatile TimeUnit idleTimeoutUnit;
+
+    private volatile ScheduledExecutorService reaperExecutor;
+
+    public ElasticPoolConfig(final String poolName, int minSize, int maxSize, long idleTimeout, TimeUnit idleTimeoutUnit) {
+        super(poolName);
+        this.minPoolSize = minSize;
+        this.maxPoolSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.idleTimeoutUnit = idleTimeoutUnit;
+    }
+
+    @Override
+    public <T> Pool<T> createPool(final StatelessObjectFactory<T> statelessObjectFactory) {
+        return new ElasticPool<T>(statelessObjectFactory, this.minPoolSize, this.maxPoolSize, this.idleTimeout, this.idleTimeoutUnit, this.reaperExecutor);
+    }
+
+    public int getMinPoolSize() {
+        return minPoolSize;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+    }
+
+    public int getMaxPoolSize() {
+        return maxPoolSize;
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+    }
+
+    public long getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public TimeUnit getIdleTimeoutUnit() {
+        return idleTimeoutUnit;
+    }
+
+    public void setIdleTimeoutUnit(TimeUnit idleTimeoutUnit) {
+        this.idleTimeoutUnit = idleTimeoutUnit;
+    }
+
+    void setReaperExecutor(ScheduledExecutorService reaperExecutor) {
+        this.reaperExecutor = reaperExecutor;
+    }
+
+    @Override
+    public String toString() {
+        return "ElasticPoolConfig{" +
+                "name=" + this.poolName +
+                ", minPoolSize=" + minPoolSize +
+                ", maxPoolSize=" + maxPoolSize +
+                ", idleTimeout=" + idleTimeout +
+                ", idleTimeoutUnit=" + idleTimeoutUnit +
+                '}';
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.component.pool;
+
+import static java.security.AccessController.doPrivileged;
+
+import java.security.PrivilegedAction;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.pool.elastic.ElasticPool;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Service providing an {@link ElasticPoolConfig}. The service owns the single thread which trims idle instances from
+ * every pool created from this configuration.
+ */
+public class ElasticPoolConfigService implements Service<PoolConfig> {
+
+    public static final ServiceName ELASTIC_POOL_CONFIG_BASE_SERVICE_NAME = ServiceName.JBOSS.append("ejb").append("elastic-pool-config");
+
+    private static final ThreadFactory THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+        public JBossThreadFactory run() {
+            return new JBossThreadFactory(new ThreadGroup(ElasticPool.class.getSimpleName()), Boolean.TRUE, null, "%G - %t", null, null);
+        }
+    });
+
+    private final ElasticPoolConfig poolConfig;
+
+    private volatile ScheduledThreadPoolExecutor reaperExecutor;
+
+    public ElasticPoolConfigService(final String poolName, int minPoolSize, int maxPoolSize, long idleTimeout, TimeUnit idleTimeoutUnit) {
+        this.poolConfig = new ElasticPoolConfig(poolName, minPoolSize, maxPoolSize, idleTimeout, idleTimeoutUnit);
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, THREAD_FACTORY);
+        executor.setRemoveOnCancelPolicy(true);
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.reaperExecutor = executor;
+        this.poolConfig.setReaperExecutor(executor);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        this.poolConfig.setReaperExecutor(null);
+        this.reaperExecutor.shutdownNow();
+        this.reaperExecutor = null;
+    }
+
+    public void setMinPoolSize(int minPoolSize) {
+        poolConfig.setMinPoolSize(minPoolSize);
+    }
+
+    public void setMaxPoolSize(int maxPoolSize) {
+        poolConfig.setMaxPoolSize(maxPoolSize);
+    }
+
+    public void setIdleTimeout(long idleTimeout) {
+        poolConfig.setIdleTimeout(idleTimeout);
+    }
+
+    public void setIdleTimeoutUnit(TimeUnit idleTimeoutUnit) {
+        poolConfig.setIdleTimeoutUnit(idleTimeoutUnit);
+    }
+
+    @Override
+    public PoolConfig getValue() throws IllegalStateException, IllegalArgumentException {
+        return this.poolConfig;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.deployment.processors;
+
+import org.jboss.as.ee.component.ComponentDescription;
+import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.ee.component.ViewDescription;
+import org.jboss.as.ejb3.component.EJBComponentDescription;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
+import org.jboss.as.server.deployment.DeploymentUnitProcessor;
+
+import static org.jboss.as.ee.component.Attachments.EE_MODULE_DESCRIPTION;
+
+/**
+ * A {@link DeploymentUnitProcessor} which applies the <code>compiled-view-invocations</code> setting of the EJB
+ * subsystem to {@link ViewDescription#setCompiledInvocations(boolean) every view} of the {@link EJBComponentDescription}s
+ * in the deployment unit.
+ */
+public class CompiledViewInvocationsProcessor implements DeploymentUnitProcessor {
+
+    private volatile boolean compiledInvocations;
+
+    @Override
+    public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
+        final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
+        final EEModuleDescription eeModuleDescription = deploymentUnit.getAttachment(EE_MODULE_DESCRIPTION);
+        if (eeModuleDescription == null) {
+            return;
+        }
+        final boolean compiledInvocations = this.compiledInvocations;
+        for (ComponentDescription componentDescription : eeModuleDescription.getComponentDescriptions()) {
+            if (componentDescription instanceof EJBComponentDescription) {
+                for (ViewDescription view : componentDescription.getViews()) {
+                    view.setCompiledInvocations(compiledInvocations);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void undeploy(DeploymentUnit context) {
+    }
+
+    /**
+     * Sets whether the views of EJB components deployed from now on resolve their interceptor chains when they start.
+     *
+     * @param compiledInvocations {@code true} to compile the invocations of the views
+     */
+    public void setCompiledInvocations(final boolean compiledInvocations) {
+        this.compiledInvocations = compiledInvocations;
+    }
+}
@@ -3106,4 +3106,11 @@ public interface EjbLogger extends BasicLogger {
 
     @Message(id = 483, value = "Attributes are mutually exclusive: %s, %s")
     XMLStreamException mutuallyExclusiveAttributes(@Param Location location, String attribute1, String attribute2);
+
+    @LogMessage(level = WARN)
+    @Message(id = 484, value = "Timer journal %s is truncated or corrupt after offset %d, discarding the remaining records")
+    void timerJournalTruncated(File journal, long offset);
+
+    @Message(id = 485, value = "Bean instance pool name %s is already used by the %s resource of the same name")
+    OperationFailedException beanInstancePoolNameInUse(String poolName, String poolType);
 }
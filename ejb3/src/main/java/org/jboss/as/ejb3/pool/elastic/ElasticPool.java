@@ -0,0 +1,278 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.elastic;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+
+/**
+ * A pool which never blocks the caller.
+ * <p/>
+ * Free instances are kept in a number of stripes, roughly one per processor. A thread always returns instances to,
+ * and first takes instances from, its own stripe; only when that stripe is empty does it steal from the other
+ * stripes, and only when every stripe is empty is a new instance created. The max pool size bounds the number of
+ * instances retained in the pool, not the number of instances in use: instances released into a full stripe are
+ * destroyed. If an idle timeout is configured, stripes that have not been used for that long are trimmed back to
+ * their share of the min pool size.
+ */
+public class ElasticPool<T> extends AbstractPool<T> {
+
+    private static final int MAX_STRIPES = 64;
+
+    private final Stripe<T>[] stripes;
+    private final int mask;
+    private final long idleTimeout;
+    private final TimeUnit idleTimeoutUnit;
+    private final ScheduledExecutorService reaperExecutor;
+
+    private volatile int minSize;
+    private volatile int maxSize;
+    private volatile ScheduledFuture<?> reaper;
+
+    /**
+     * Creates a new elastic pool.
+     *
+     * @param factory         the factory used to create and destroy instances
+     * @param minSize         the number of idle instances the reaper will leave in the pool
+     * @param maxSize         the maximum number of idle instances retained in the pool
+     * @param idleTimeout     how long a stripe must be unused before it is trimmed, a value &lt;= 0 disables trimming
+     * @param idleTimeoutUnit the unit of the idle timeout
+     * @param reaperExecutor  the executor which runs the trimming task, may be null if trimming is disabled
+     */
+    @SuppressWarnings("unchecked")
+    public ElasticPool(StatelessObjectFactory<T> factory, int minSize, int maxSize, long idleTimeout, TimeUnit idleTimeoutUnit, ScheduledExecutorService reaperExecutor) {
+        super(factory);
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+        this.idleTimeoutUnit = idleTimeoutUnit;
+        this.reaperExecutor = reaperExecutor;
+        int count = stripeCount(Math.min(Runtime.getRuntime().availableProcessors(), Math.max(1, maxSize)));
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe<T>();
+        }
+        this.mask = count - 1;
+    }
+
+    private static int stripeCount(int parallelism) {
+        // Largest power of two not exceeding the parallelism, so that every stripe may retain at least one instance
+        int count = 1;
+        while ((count << 1) <= parallelism && count < MAX_STRIPES) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    /**
+     * Splits the given total as evenly as possible across the stripes.
+     */
+    private int share(int total, int index) {
+        int count = this.stripes.length;
+        return (total / count) + ((index < (total % count)) ? 1 : 0);
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        return (int) (id ^ (id >>> 16)) & this.mask;
+    }
+
+    @Override
+    public T get() {
+        int home = this.home();
+        T bean = this.stripes[home].pollFirst();
+        if (bean != null) {
+            return bean;
+        }
+        // Steal the least recently released instance of another stripe
+        for (int i = 1; i < this.stripes.length; i++) {
+            bean = this.stripes[(home + i) & this.mask].pollLast();
+            if (bean != null) {
+                return bean;
+            }
+        }
+        return this.create();
+    }
+
+    @Override
+    public void release(T obj) {
+        int home = this.home();
+        if (this.stripes[home].offerFirst(obj, this.share(this.maxSize, home))) {
+            return;
+        }
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Stripe %s of %s is full, destroying instance %s", home, this, obj);
+        }
+        this.doRemove(obj);
+    }
+
+    @Override
+    public void discard(T obj) {
+        if (ROOT_LOGGER.isTraceEnabled()) {
+            ROOT_LOGGER.tracef("Discard instance %s#%s", this, obj);
+        }
+        this.doRemove(obj);
+    }
+
+    @Override
+    @Deprecated
+    public void remove(T obj) {
+        this.doRemove(obj);
+    }
+
+    @Override
+    public int getAvailableCount() {
+        int count = 0;
+        for (Stripe<T> stripe : this.stripes) {
+            count += stripe.size();
+        }
+        return count;
+    }
+
+    @Override
+    public int getCurrentSize() {
+        return this.getCreateCount() - this.getRemoveCount();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+    @Override
+    public void setMaxSize(int maxSize) {
+        // Surplus instances are destroyed on release, or by the reaper
+        this.maxSize = maxSize;
+    }
+
+    public int getMinSize() {
+        return this.minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    @Override
+    public void start() {
+        if ((this.idleTimeout > 0) && (this.reaperExecutor != null)) {
+            this.reaper = this.reaperExecutor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    ElasticPool.this.trim();
+                }
+            }, this.idleTimeout, this.idleTimeout, this.idleTimeoutUnit);
+        }
+    }
+
+    @Override
+    public void stop() {
+        ScheduledFuture<?> reaper = this.reaper;
+        if (reaper != null) {
+            reaper.cancel(false);
+            this.reaper = null;
+        }
+        for (Stripe<T> stripe : this.stripes) {
+            for (T obj = stripe.pollLast(); obj != null; obj = stripe.pollLast()) {
+                this.destroy(obj);
+            }
+        }
+    }
+
+    /**
+     * Destroys surplus instances of each stripe which has not been used since the previous run.
+     */
+    void trim() {
+        for (int i = 0; i < this.stripes.length; i++) {
+            Stripe<T> stripe = this.stripes[i];
+            int limit = stripe.checkAndClearTouched() ? this.share(this.maxSize, i) : Math.min(this.share(this.minSize, i), this.share(this.maxSize, i));
+            while (stripe.size() > limit) {
+                T obj = stripe.pollLast();
+                if (obj == null) break;
+                this.destroy(obj);
+            }
+        }
+    }
+
+    /**
+     * A lock-free deque of free instances along with its approximate size.
+     */
+    private static class Stripe<T> {
+        private final ConcurrentLinkedDeque<T> instances = new ConcurrentLinkedDeque<T>();
+        private final AtomicInteger size = new AtomicInteger();
+        private volatile boolean touched;
+
+        T pollFirst() {
+            this.touch();
+            T obj = this.instances.pollFirst();
+            if (obj != null) {
+                this.size.decrementAndGet();
+            }
+            return obj;
+        }
+
+        T pollLast() {
+            T obj = this.instances.pollLast();
+            if (obj != null) {
+                this.size.decrementAndGet();
+            }
+            return obj;
+        }
+
+        boolean offerFirst(T obj, int capacity) {
+            this.touch();
+            if (this.size.incrementAndGet() > capacity) {
+                this.size.decrementAndGet();
+                return false;
+            }
+            this.instances.offerFirst(obj);
+            return true;
+        }
+
+        int size() {
+            return Math.max(this.size.get(), 0);
+        }
+
+        private void touch() {
+            // Avoid dirtying the cache line if the flag is already set
+            if (!this.touched) {
+                this.touched = true;
+            }
+        }
+
+        boolean checkAndClearTouched() {
+            boolean touched = this.touched;
+            if (touched) {
+                this.touched = false;
+            }
+            return touched;
+        }
+    }
+}
@@ -24,18 +24,25 @@ package org.jboss.as.ejb3.remote;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.net.InetAddress;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.ejb.AsyncResult;
@@ -75,9 +82,7 @@ import org.jboss.ejb.client.TransactionID;
 import org.jboss.ejb.client.remoting.NetworkUtil;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.marshalling.cloner.ClassLoaderClassCloner;
-import org.jboss.marshalling.cloner.ClonerConfiguration;
 import org.jboss.marshalling.cloner.ObjectCloner;
-import org.jboss.marshalling.cloner.ObjectCloners;
 import org.jboss.msc.inject.Injector;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -104,6 +109,23 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
 
     private static final Object[] EMPTY_OBJECT_ARRAY = {};
 
+    /**
+     * JDK types whose instances are immutable, and can therefore be passed by reference even when pass-by-value is required
+     */
+    private static final Set<Class<?>> IMMUTABLE_TYPES = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Byte.class, Character.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class, UUID.class));
+
+    /**
+     * The cloners for the results of invocations, by the proxy class of the invoking client
+     */
+    private static final ClassValue<ObjectClonerPool> RESULT_CLONERS = new ClassValue<ObjectClonerPool>() {
+        @Override
+        protected ObjectClonerPool computeValue(final Class<?> proxyClass) {
+            return new ObjectClonerPool(new LocalInvocationClassCloner(WildFlySecurityManager.getClassLoaderPrivileged(proxyClass)));
+        }
+    };
+
     final List<EJBReceiverContext> contexts = new CopyOnWriteArrayList<EJBReceiverContext>();
     private final InjectedValue<DeploymentRepository> deploymentRepository = new InjectedValue<DeploymentRepository>();
     @SuppressWarnings("rawtypes")
@@ -113,6 +135,8 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
     private final InjectedValue<Endpoint> endpointValue = new InjectedValue<>();
     private final InjectedValue<EJBRemoteConnectorService> ejbRemoteConnectorServiceValue = new InjectedValue<>();
     private final Set<ClusterTopologyUpdateListener> clusterTopologyUpdateListeners = Collections.synchronizedSet(new HashSet<ClusterTopologyUpdateListener>());
+    // the cloners for the parameters of invocations, by the deployment of the invoked EJB
+    private final ConcurrentMap<DeploymentModuleIdentifier, ObjectClonerPool> parameterCloners = new ConcurrentHashMap<>();
 
 
     public LocalEjbReceiver(final String nodeName, final boolean allowPassByReference) {
@@ -149,9 +173,6 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         if (!ejb.isRemoteView(viewClass.getName())) {
             throw EjbLogger.ROOT_LOGGER.viewNotFound(viewClass.getName(), ejb.getEjbName());
         }
-        final ClonerConfiguration paramConfig = new ClonerConfiguration();
-        paramConfig.setClassCloner(new ClassLoaderClassCloner(ejb.getDeploymentClassLoader()));
-        final ObjectCloner parameterCloner = createCloner(paramConfig);
         //TODO: this is not very efficient
         final Method method = view.getMethod(invocation.getInvokedMethod().getName(), DescriptorUtils.methodDescriptor(invocation.getInvokedMethod()));
 
@@ -162,8 +183,26 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
             parameters = EMPTY_OBJECT_ARRAY;
         } else {
             parameters = new Object[invocation.getParameters().length];
-            for (int i = 0; i < parameters.length; ++i) {
-                parameters[i] = clone(method.getParameterTypes()[i], parameterCloner, invocation.getParameters()[i], allowPassByReference);
+            final Class<?>[] parameterTypes = method.getParameterTypes();
+            final ObjectClonerPool parameterClonerPool = getParameterClonerPool(locator, ejb);
+            // all parameters are cloned by the same cloner, so that objects shared between them stay shared
+            ObjectCloner parameterCloner = null;
+            try {
+                for (int i = 0; i < parameters.length; ++i) {
+                    final Object parameter = invocation.getParameters()[i];
+                    if (requiresCloning(parameterTypes[i], parameter, allowPassByReference)) {
+                        if (parameterCloner == null) {
+                            parameterCloner = parameterClonerPool.acquire();
+                        }
+                        parameters[i] = clone(parameterCloner, parameter);
+                    } else {
+                        parameters[i] = parameter;
+                    }
+                }
+            } finally {
+                if (parameterCloner != null) {
+                    parameterClonerPool.release(parameterCloner);
+                }
             }
         }
 
@@ -210,9 +249,7 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
             interceptorContext.putPrivateData(EntityBeanComponent.PRIMARY_KEY_CONTEXT_KEY, primaryKey);
         }
 
-        final ClonerConfiguration config = new ClonerConfiguration();
-        config.setClassCloner(new LocalInvocationClassCloner(WildFlySecurityManager.getClassLoaderPrivileged(invocation.getInvokedProxy().getClass())));
-        final ObjectCloner resultCloner = createCloner(config);
+        final ObjectClonerPool resultCloner = RESULT_CLONERS.get(invocation.getInvokedProxy().getClass());
         if (async) {
             if (ejbComponent instanceof SessionBeanComponent) {
                 final SessionBeanComponent component = (SessionBeanComponent) ejbComponent;
@@ -270,19 +307,18 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         }
     }
 
-    private ObjectCloner createCloner(final ClonerConfiguration paramConfig) {
-        ObjectCloner parameterCloner;
-        if(WildFlySecurityManager.isChecking()) {
-            parameterCloner = WildFlySecurityManager.doUnchecked(new PrivilegedAction<ObjectCloner>() {
-                @Override
-                public ObjectCloner run() {
-                    return ObjectCloners.getSerializingObjectClonerFactory().createCloner(paramConfig);
-                }
-            });
-        } else {
-            parameterCloner = ObjectCloners.getSerializingObjectClonerFactory().createCloner(paramConfig);
+    private ObjectClonerPool getParameterClonerPool(final EJBLocator<?> locator, final EjbDeploymentInformation ejb) {
+        final ObjectClonerPool pool = parameterCloners.get(new DeploymentModuleIdentifier(locator.getAppName(), locator.getModuleName(), locator.getDistinctName()));
+        // the pools are maintained by the deployment listener, so this only happens while the deployment is going away
+        return pool != null ? pool : new ObjectClonerPool(new ClassLoaderClassCloner(ejb.getDeploymentClassLoader()));
+    }
+
+    private void registerParameterClonerPool(final DeploymentModuleIdentifier deployment, final ModuleDeployment moduleDeployment) {
+        final Iterator<EjbDeploymentInformation> ejbs = moduleDeployment.getEjbs().values().iterator();
+        if (ejbs.hasNext()) {
+            // all the EJBs of a module share the deployment class loader
+            parameterCloners.put(deployment, new ObjectClonerPool(new ClassLoaderClassCloner(ejbs.next().getDeploymentClassLoader())));
         }
-        return parameterCloner;
     }
 
     @Override
@@ -297,18 +333,32 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         return new StatefulEJBLocator<T>(viewType, appName, moduleName, beanName, distinctName, sessionID, statefulComponent.getCache().getStrictAffinity(), this.getNodeName());
     }
 
-    private static Object clone(final Class<?> target, final ObjectCloner cloner, final Object object, final boolean allowPassByReference) {
+    private static Object clone(final Class<?> target, final ObjectClonerPool clonerPool, final Object object, final boolean allowPassByReference) {
+        if (!requiresCloning(target, object, allowPassByReference)) {
+            return object;
+        }
+        final ObjectCloner cloner = clonerPool.acquire();
+        try {
+            return clone(cloner, object);
+        } finally {
+            clonerPool.release(cloner);
+        }
+    }
+
+    private static boolean requiresCloning(final Class<?> target, final Object object, final boolean allowPassByReference) {
         if (object == null) {
-            return null;
+            return false;
         }
         // don't clone primitives
         if (target.isPrimitive()) {
-            return object;
+            return false;
         }
-        if (allowPassByReference && target.isAssignableFrom(object.getClass())) {
-            return object;
+        final Class<?> objectClass = object.getClass();
+        // nor immutable JDK types, which the class cloners resolve to the very same class anyway
+        if (IMMUTABLE_TYPES.contains(objectClass) || (objectClass.isEnum() && objectClass.getClassLoader() == null)) {
+            return false;
         }
-        return clone(cloner, object);
+        return !(allowPassByReference && target.isAssignableFrom(objectClass));
     }
 
     private static Object clone(final ObjectCloner cloner, final Object object) {
@@ -576,12 +626,14 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         public void listenerAdded(final DeploymentRepository repository) {
             for (Map.Entry<DeploymentModuleIdentifier, ModuleDeployment> entry : repository.getModules().entrySet()) {
                 final DeploymentModuleIdentifier module = entry.getKey();
+                LocalEjbReceiver.this.registerParameterClonerPool(module, entry.getValue());
                 LocalEjbReceiver.this.registerModule(module.getApplicationName(), module.getModuleName(), module.getDistinctName());
             }
         }
 
         @Override
         public void deploymentAvailable(final DeploymentModuleIdentifier deployment, final ModuleDeployment moduleDeployment) {
+            LocalEjbReceiver.this.registerParameterClonerPool(deployment, moduleDeployment);
             LocalEjbReceiver.this.registerModule(deployment.getApplicationName(), deployment.getModuleName(), deployment.getDistinctName());
         }
 
@@ -592,6 +644,7 @@ public class LocalEjbReceiver extends EJBReceiver implements Service<LocalEjbRec
         @Override
         public void deploymentRemoved(final DeploymentModuleIdentifier deployment) {
             LocalEjbReceiver.this.deregisterModule(deployment.getApplicationName(), deployment.getModuleName(), deployment.getDistinctName());
+            LocalEjbReceiver.this.parameterCloners.remove(deployment);
         }
     }
 
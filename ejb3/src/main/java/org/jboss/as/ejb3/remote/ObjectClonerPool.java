@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import java.security.PrivilegedAction;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.marshalling.cloner.ClassCloner;
+import org.jboss.marshalling.cloner.ClonerConfiguration;
+import org.jboss.marshalling.cloner.ObjectCloner;
+import org.jboss.marshalling.cloner.ObjectCloners;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A pool of {@link ObjectCloner}s which share the same {@link ClassCloner}. Cloners are reset when they are released,
+ * so that they can be reused by subsequent invocations instead of being configured from scratch each time.
+ */
+final class ObjectClonerPool {
+
+    private static final int MAX_IDLE_CLONERS = 16;
+
+    private final ClonerConfiguration configuration;
+    private final Queue<ObjectCloner> idleCloners = new ConcurrentLinkedQueue<ObjectCloner>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    ObjectClonerPool(final ClassCloner classCloner) {
+        final ClonerConfiguration configuration = new ClonerConfiguration();
+        configuration.setClassCloner(classCloner);
+        this.configuration = configuration;
+    }
+
+    /**
+     * Returns an idle cloner, or creates a new one if there is none. The cloner must be given back through
+     * {@link #release(ObjectCloner)} once the objects of an invocation have been cloned.
+     *
+     * @return the cloner
+     */
+    ObjectCloner acquire() {
+        final ObjectCloner cloner = idleCloners.poll();
+        if (cloner != null) {
+            idleCount.decrementAndGet();
+            return cloner;
+        }
+        if (WildFlySecurityManager.isChecking()) {
+            return WildFlySecurityManager.doUnchecked(new PrivilegedAction<ObjectCloner>() {
+                @Override
+                public ObjectCloner run() {
+                    return ObjectCloners.getSerializingObjectClonerFactory().createCloner(configuration);
+                }
+            });
+        } else {
+            return ObjectCloners.getSerializingObjectClonerFactory().createCloner(configuration);
+        }
+    }
+
+    /**
+     * Resets the given cloner, so that it does not retain any cloned objects, and makes it available for reuse.
+     *
+     * @param cloner the cloner returned by {@link #acquire()}
+     */
+    void release(final ObjectCloner cloner) {
+        cloner.reset();
+        if (idleCount.incrementAndGet() <= MAX_IDLE_CLONERS) {
+            idleCloners.offer(cloner);
+        } else {
+            idleCount.decrementAndGet();
+        }
+    }
+}
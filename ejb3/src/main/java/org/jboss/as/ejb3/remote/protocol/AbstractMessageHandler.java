@@ -42,6 +42,7 @@ import org.jboss.ejb.client.remoting.PackedInteger;
 import org.jboss.marshalling.ByteInput;
 import org.jboss.marshalling.ByteOutput;
 import org.jboss.marshalling.ClassResolver;
+import org.jboss.marshalling.ContextClassResolver;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
 import org.jboss.marshalling.Marshalling;
@@ -61,6 +62,12 @@ public abstract class AbstractMessageHandler implements MessageHandler {
     protected static final byte HEADER_SESSION_NOT_ACTIVE_FAILURE = 0x0C;
     private static final byte HEADER_INVOCATION_EXCEPTION = 0x06;
 
+    /**
+     * The marshaller and unmarshaller cached by the current thread. Each message is an independent stream, but
+     * {@link Marshaller#finish()} and {@link Unmarshaller#finish()} discard all the per-stream state, so a finished
+     * instance can be reused for the next message instead of being configured from scratch.
+     */
+    private static final ThreadLocal<CachedMarshallers> CACHED_MARSHALLERS = new ThreadLocal<CachedMarshallers>();
 
     protected Map<String, Object> readAttachments(final ObjectInput input) throws IOException, ClassNotFoundException {
         final int numAttachments = input.readByte();
@@ -113,7 +120,7 @@ public abstract class AbstractMessageHandler implements MessageHandler {
             // write the attachments
             this.writeAttachments(marshaller, attachments);
             // finish marshalling
-            marshaller.finish();
+            this.finishMarshalling(marshallerFactory, marshaller);
         } finally {
             channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
             outputStream.close();
@@ -215,13 +222,34 @@ public abstract class AbstractMessageHandler implements MessageHandler {
     }
 
     /**
-     * Creates and returns a {@link org.jboss.marshalling.Marshaller}
+     * Finishes marshalling with the passed {@link org.jboss.marshalling.Marshaller}, which was returned by
+     * {@link #prepareForMarshalling(org.jboss.marshalling.MarshallerFactory, java.io.DataOutput)}, and makes it
+     * available for reuse by the current thread.
+     *
+     * @param marshallerFactory The marshaller factory which was used to prepare the marshaller
+     * @param marshaller        The marshaller
+     * @throws IOException
+     */
+    protected void finishMarshalling(final MarshallerFactory marshallerFactory, final Marshaller marshaller) throws IOException {
+        marshaller.finish();
+        getCachedMarshallers(marshallerFactory).marshaller = marshaller;
+    }
+
+    /**
+     * Returns the {@link org.jboss.marshalling.Marshaller} cached by the current thread, or creates a new one
      *
      * @param marshallerFactory The marshaller factory
      * @return
      * @throws IOException
      */
     private org.jboss.marshalling.Marshaller getMarshaller(final org.jboss.marshalling.MarshallerFactory marshallerFactory) throws IOException {
+        final CachedMarshallers cached = getCachedMarshallers(marshallerFactory);
+        final Marshaller marshaller = cached.marshaller;
+        if (marshaller != null) {
+            // it is only returned to the cache once it has been finished successfully
+            cached.marshaller = null;
+            return marshaller;
+        }
         final MarshallingConfiguration marshallingConfiguration = new MarshallingConfiguration();
         marshallingConfiguration.setClassTable(ProtocolV1ClassTable.INSTANCE);
         marshallingConfiguration.setObjectTable(ProtocolV1ObjectTable.INSTANCE);
@@ -271,6 +299,52 @@ public abstract class AbstractMessageHandler implements MessageHandler {
         return unmarshaller;
     }
 
+    /**
+     * Creates and returns a {@link org.jboss.marshalling.Unmarshaller} which is ready to be used for unmarshalling, and
+     * which resolves classes through the thread context class loader. Unlike
+     * {@link #prepareForUnMarshalling(MarshallerFactory, ClassResolver, DataInputStream)}, the unmarshaller is reused
+     * by the current thread if it is finished through {@link #finishUnmarshalling(MarshallerFactory, Unmarshaller)}.
+     *
+     * @param marshallerFactory The marshaller factory
+     * @param dataInput         The data input from which to unmarshall
+     * @return
+     * @throws IOException
+     */
+    protected Unmarshaller prepareForUnMarshalling(final MarshallerFactory marshallerFactory, final DataInputStream dataInput) throws IOException {
+        final CachedMarshallers cached = getCachedMarshallers(marshallerFactory);
+        Unmarshaller unmarshaller = cached.unmarshaller;
+        if (unmarshaller != null) {
+            cached.unmarshaller = null;
+        } else {
+            unmarshaller = this.getUnMarshaller(marshallerFactory, new ContextClassResolver());
+        }
+        unmarshaller.start(Marshalling.createByteInput(dataInput));
+        return unmarshaller;
+    }
+
+    /**
+     * Finishes unmarshalling with the passed {@link org.jboss.marshalling.Unmarshaller}, which was returned by
+     * {@link #prepareForUnMarshalling(MarshallerFactory, DataInputStream)}, and makes it available for reuse by the
+     * current thread.
+     *
+     * @param marshallerFactory The marshaller factory which was used to prepare the unmarshaller
+     * @param unmarshaller      The unmarshaller
+     * @throws IOException
+     */
+    protected void finishUnmarshalling(final MarshallerFactory marshallerFactory, final Unmarshaller unmarshaller) throws IOException {
+        unmarshaller.finish();
+        getCachedMarshallers(marshallerFactory).unmarshaller = unmarshaller;
+    }
+
+    private static CachedMarshallers getCachedMarshallers(final MarshallerFactory marshallerFactory) {
+        CachedMarshallers cached = CACHED_MARSHALLERS.get();
+        if (cached == null || cached.marshallerFactory != marshallerFactory) {
+            cached = new CachedMarshallers(marshallerFactory);
+            CACHED_MARSHALLERS.set(cached);
+        }
+        return cached;
+    }
+
     /**
      * Creates and returns a {@link Unmarshaller}
      *
@@ -287,4 +361,14 @@ public abstract class AbstractMessageHandler implements MessageHandler {
         marshallingConfiguration.setSerializedCreator(new SunReflectiveCreator());
         return marshallerFactory.createUnmarshaller(marshallingConfiguration);
     }
+
+    private static final class CachedMarshallers {
+        private final MarshallerFactory marshallerFactory;
+        private Marshaller marshaller;
+        private Unmarshaller unmarshaller;
+
+        CachedMarshallers(final MarshallerFactory marshallerFactory) {
+            this.marshallerFactory = marshallerFactory;
+        }
+    }
 }
@@ -42,7 +42,6 @@ import org.jboss.ejb.client.EntityEJBLocator;
 import org.jboss.ejb.client.SessionID;
 import org.jboss.ejb.client.StatefulEJBLocator;
 import org.jboss.invocation.InterceptorContext;
-import org.jboss.marshalling.AbstractClassResolver;
 import org.jboss.marshalling.Marshaller;
 import org.jboss.marshalling.MarshallerFactory;
 import org.jboss.marshalling.Unmarshaller;
@@ -58,7 +57,6 @@ import java.io.ObjectStreamException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
@@ -95,19 +93,12 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
         // read the method name
         final String methodName = input.readUTF();
         // method signature
-        String[] methodParamTypes = null;
         final String signature = input.readUTF();
-        if (signature.isEmpty()) {
-            methodParamTypes = new String[0];
-        } else {
-            methodParamTypes = signature.split(String.valueOf(METHOD_PARAM_TYPE_SEPARATOR));
-        }
 
         // read the Locator
-        // we use a mutable ClassResolver, so that we can switch to a different (and correct deployment CL)
+        // the unmarshaller resolves classes through the TCCL, so that we can switch to a different (and correct deployment CL)
         // midway through the unmarshalling of the stream
-        final ClassLoaderSwitchingClassResolver classResolver = new ClassLoaderSwitchingClassResolver(Thread.currentThread().getContextClassLoader());
-        final Unmarshaller unmarshaller = this.prepareForUnMarshalling(this.marshallerFactory, classResolver, input);
+        final Unmarshaller unmarshaller = this.prepareForUnMarshalling(this.marshallerFactory, input);
         // read the EJB info
         final String appName;
         final String moduleName;
@@ -129,11 +120,9 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
         final ClassLoader tccl = WildFlySecurityManager.getCurrentContextClassLoaderPrivileged();
         Runnable runnable = null;
         try {
-            //set the correct TCCL for unmarshalling
+            //set the correct TCCL for unmarshalling, so that the unmarshaller can use the
+            // EJB deployment's CL for the rest of the unmarshalling of the stream
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(ejbDeploymentInformation.getDeploymentClassLoader());
-            // now switch the CL to the EJB deployment's CL so that the unmarshaller can use the
-            // correct CL for the rest of the unmarshalling of the stream
-            classResolver.switchClassLoader(ejbDeploymentInformation.getDeploymentClassLoader());
             // read the Locator
             final EJBLocator<?> locator;
             try {
@@ -148,16 +137,19 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
                 return;
             }
             final ComponentView componentView = ejbDeploymentInformation.getView(viewClassName);
-            final Method invokedMethod = this.findMethod(componentView, methodName, methodParamTypes);
+            // the view indexes its methods by name and signature, so the lookup does not need to split the signature
+            final Method invokedMethod = componentView.findMethod(methodName, signature);
             if (invokedMethod == null) {
+                final String[] methodParamTypes = signature.isEmpty() ? new String[0] : signature.split(String.valueOf(METHOD_PARAM_TYPE_SEPARATOR));
                 this.writeNoSuchEJBMethodFailureMessage(channelAssociation, invocationId, appName, moduleName, distinctName, beanName, viewClassName, methodName, methodParamTypes);
                 return;
             }
 
-            final Object[] methodParams = new Object[methodParamTypes.length];
+            final int parameterCount = invokedMethod.getParameterCount();
+            final Object[] methodParams = new Object[parameterCount];
             // un-marshall the method arguments
-            if (methodParamTypes.length > 0) {
-                for (int i = 0; i < methodParamTypes.length; i++) {
+            if (parameterCount > 0) {
+                for (int i = 0; i < parameterCount; i++) {
                     try {
                         methodParams[i] = unmarshaller.readObject();
                     } catch (Throwable e) {
@@ -177,7 +169,7 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
                 return;
             }
             // done with unmarshalling
-            unmarshaller.finish();
+            this.finishUnmarshalling(this.marshallerFactory, unmarshaller);
 
             runnable = new Runnable() {
 
@@ -332,29 +324,6 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
         }
     }
 
-    private Method findMethod(final ComponentView componentView, final String methodName, final String[] paramTypes) {
-        final Set<Method> viewMethods = componentView.getViewMethods();
-        for (final Method method : viewMethods) {
-            if (method.getName().equals(methodName)) {
-                final Class<?>[] methodParamTypes = method.getParameterTypes();
-                if (methodParamTypes.length != paramTypes.length) {
-                    continue;
-                }
-                boolean found = true;
-                for (int i = 0; i < methodParamTypes.length; i++) {
-                    if (!methodParamTypes[i].getName().equals(paramTypes[i])) {
-                        found = false;
-                        break;
-                    }
-                }
-                if (found) {
-                    return method;
-                }
-            }
-        }
-        return null;
-    }
-
     private void writeMethodInvocationResponse(final ChannelAssociation channelAssociation, final short invocationId, final Object result, final Map<String, Object> attachments, Method invokedMethod, ComponentView componentView) throws IOException {
         final DataOutputStream outputStream;
         final MessageOutputStream messageOutputStream;
@@ -375,7 +344,7 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
             // write the attachments
             this.writeAttachments(marshaller, attachments);
             // finish marshalling
-            marshaller.finish();
+            this.finishMarshalling(this.marshallerFactory, marshaller);
         } finally {
             IoUtils.safeClose(outputStream);
             IoUtils.safeClose(messageOutputStream);
@@ -407,31 +376,4 @@ public class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHan
             outputStream.close();
         }
     }
-
-    /**
-     * A mutable {@link org.jboss.marshalling.ClassResolver}
-     */
-    private class ClassLoaderSwitchingClassResolver extends AbstractClassResolver {
-
-        private ClassLoader currentClassLoader;
-
-        ClassLoaderSwitchingClassResolver(final ClassLoader classLoader) {
-            this.currentClassLoader = classLoader;
-        }
-
-        /**
-         * Sets the passed <code>newCL</code> as the classloader which will be returned on
-         * subsequent calls to {@link #getClassLoader()}
-         *
-         * @param newCL
-         */
-        void switchClassLoader(final ClassLoader newCL) {
-            this.currentClassLoader = newCL;
-        }
-
-        @Override
-        protected ClassLoader getClassLoader() {
-            return this.currentClassLoader;
-        }
-    }
 }
@@ -113,7 +113,7 @@ class SessionOpenRequestHandler extends EJBIdentifierBasedMessageHandler {
             marshaller.writeObject(hardAffinity);
 
             // finish marshalling
-            marshaller.finish();
+            this.finishMarshalling(this.marshallerFactory, marshaller);
 
         } finally {
             channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
@@ -141,7 +141,7 @@ class TransactionRecoverMessageHandler extends AbstractMessageHandler {
                         marshaller.writeObject(new XidTransactionID(xids[i]));
                     }
                     // finish marshalling
-                    marshaller.finish();
+                    TransactionRecoverMessageHandler.this.finishMarshalling(marshallerFactory, marshaller);
                 }
             } finally {
                 channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
@@ -165,7 +165,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                     break;
                 }
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    parseTimerServiceAttribute(reader, i, attribute, value, timerServiceAdd);
             }
         }
         if (!required.isEmpty()) {
@@ -182,6 +182,20 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         }
     }
 
+    /**
+     * Parses a timer-service attribute which is not known to this version of the schema.
+     */
+    protected void parseTimerServiceAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final String value, final ModelNode timerServiceAdd) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
+    /**
+     * Parses a file-data-store attribute which is not known to this version of the schema.
+     */
+    protected void parseFileDataStoreAttribute(final XMLExtendedStreamReader reader, final int index, final EJB3SubsystemXMLAttribute attribute, final String value, final ModelNode fileDataStoreAdd) throws XMLStreamException {
+        throw unexpectedAttribute(reader, index);
+    }
+
     private void parseDataStores(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
             switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
@@ -204,6 +218,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         String dataStorePath = null;
         String dataStorePathRelativeTo = null;
         String name = null;
+        final ModelNode fileDataStoreAdd = new ModelNode();
         final EnumSet<EJB3SubsystemXMLAttribute> required = EnumSet.of(EJB3SubsystemXMLAttribute.NAME, EJB3SubsystemXMLAttribute.PATH);
         final int count = reader.getAttributeCount();
         for (int i = 0; i < count; i++) {
@@ -231,7 +246,7 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
                     dataStorePathRelativeTo = FileDataStoreResourceDefinition.RELATIVE_TO.parse(value, reader).asString();
                     break;
                 default:
-                    throw unexpectedAttribute(reader, i);
+                    parseFileDataStoreAttribute(reader, i, attribute, value, fileDataStoreAdd);
             }
         }
         if (!required.isEmpty()) {
@@ -241,7 +256,6 @@ public class EJB3Subsystem20Parser extends EJB3Subsystem14Parser {
         address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
         address.add(SERVICE, TIMER_SERVICE);
         address.add(FILE_DATA_STORE, name);
-        final ModelNode fileDataStoreAdd = new ModelNode();
         fileDataStoreAdd.get(OP).set(ADD);
         fileDataStoreAdd.get(ADDRESS).set(address);
         fileDataStoreAdd.get(PATH).set(dataStorePath);
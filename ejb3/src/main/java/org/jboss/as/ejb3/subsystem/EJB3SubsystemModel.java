@@ -56,15 +56,18 @@ public interface EJB3SubsystemModel {
     String DEFAULT_ENTITY_BEAN_OPTIMISTIC_LOCKING = "default-entity-bean-optimistic-locking";
     String DISABLE_DEFAULT_EJB_PERMISSIONS = "disable-default-ejb-permissions";
     String LOG_SYSTEM_EXCEPTIONS = "log-system-exceptions";
+    String COMPILED_VIEW_INVOCATIONS = "compiled-view-invocations";
 
     String ENABLE_STATISTICS = "enable-statistics";
 
     String FILE_DATA_STORE = "file-data-store";
 
     String MAX_POOL_SIZE = "max-pool-size";
+    String MIN_POOL_SIZE = "min-pool-size";
     String DERIVE_SIZE = "derive-size";
 
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String ELASTIC_BEAN_INSTANCE_POOL = "elastic-bean-instance-pool";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
@@ -91,6 +94,8 @@ public interface EJB3SubsystemModel {
     String TIMER_SERVICE = "timer-service";
     String THREAD_POOL = "thread-pool";
     String THREAD_POOL_NAME = "thread-pool-name";
+    String SCHEDULER_THREADS = "scheduler-threads";
+    String JOURNAL = "journal";
     String DEFAULT = "default";
 
     String USE_QUALIFIED_NAME = "use-qualified-name";
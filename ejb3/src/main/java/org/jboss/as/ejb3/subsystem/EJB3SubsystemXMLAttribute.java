@@ -56,11 +56,13 @@ public enum EJB3SubsystemXMLAttribute {
 
     @Deprecated GROUPS_PATH("groups-path"),
 
-    @Deprecated IDLE_TIMEOUT("idle-timeout"),
-    @Deprecated IDLE_TIMEOUT_UNIT("idle-timeout-unit"),
+    IDLE_TIMEOUT("idle-timeout"),
+    IDLE_TIMEOUT_UNIT("idle-timeout-unit"),
     INSTANCE_ACQUISITION_TIMEOUT("instance-acquisition-timeout"),
     INSTANCE_ACQUISITION_TIMEOUT_UNIT("instance-acquisition-timeout-unit"),
 
+    JOURNAL("journal"),
+
     KEEPALIVE_TIME("keepalive-time"),
 
     LOCAL_RECEIVER_PASS_BY_VALUE("local-receiver-pass-by-value"),
@@ -69,6 +71,7 @@ public enum EJB3SubsystemXMLAttribute {
     MAX_SIZE("max-size"),
     DERIVE_SIZE("derive-size"),
     MAX_THREADS("max-threads"),
+    MIN_POOL_SIZE("min-pool-size"),
 
     NAME("name"),
 
@@ -86,6 +89,7 @@ public enum EJB3SubsystemXMLAttribute {
     RELATIVE_TO("relative-to"),
     RESOURCE_ADAPTER_NAME("resource-adapter-name"),
 
+    SCHEDULER_THREADS("scheduler-threads"),
     @Deprecated SESSIONS_PATH("sessions-path"),
     @Deprecated SUBDIRECTORY_COUNT("subdirectory-count"),
 
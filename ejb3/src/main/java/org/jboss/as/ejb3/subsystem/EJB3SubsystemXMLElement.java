@@ -39,6 +39,7 @@ public enum EJB3SubsystemXMLElement {
     BEAN_INSTANCE_POOLS("bean-instance-pools"),
     BEAN_INSTANCE_POOL_REF("bean-instance-pool-ref"),
 
+    ELASTIC_POOL("elastic-pool"),
     ENTITY_BEAN("entity-bean"),
 
     DATA_STORE("data-store"),
@@ -91,6 +92,7 @@ public enum EJB3SubsystemXMLElement {
     THREAD_POOLS("thread-pools"),
     TIMER_SERVICE("timer-service"),
     LOG_SYSTEM_EXCEPTIONS(EJB3SubsystemModel.LOG_SYSTEM_EXCEPTIONS),
+    COMPILED_VIEW_INVOCATIONS(EJB3SubsystemModel.COMPILED_VIEW_INVOCATIONS),
     DELIVERY_GROUPS("delivery-groups"),
     DELIVERY_GROUP("delivery-group"),
     ;
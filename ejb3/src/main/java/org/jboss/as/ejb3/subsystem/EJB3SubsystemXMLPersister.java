@@ -126,7 +126,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
             writer.writeEndElement();
         }
         // write the pools element
-        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)) {
+        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL) || model.hasDefined(EJB3SubsystemModel.ELASTIC_BEAN_INSTANCE_POOL)) {
             // <pools>
             writer.writeStartElement(EJB3SubsystemXMLElement.POOLS.getLocalName());
             // <bean-instance-pools>
@@ -259,6 +259,13 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
             writer.writeAttribute(EJB3SubsystemXMLAttribute.VALUE.getLocalName(), model.get(EJB3SubsystemModel.LOG_SYSTEM_EXCEPTIONS).asString());
             writer.writeEndElement();
         }
+
+        // compiled-view-invocations element
+        if (model.hasDefined(EJB3SubsystemModel.COMPILED_VIEW_INVOCATIONS)) {
+            writer.writeStartElement(EJB3SubsystemXMLElement.COMPILED_VIEW_INVOCATIONS.getLocalName());
+            writer.writeAttribute(EJB3SubsystemXMLAttribute.VALUE.getLocalName(), model.get(EJB3SubsystemModel.COMPILED_VIEW_INVOCATIONS).asString());
+            writer.writeEndElement();
+        }
     }
 
     private void writeIIOP(final XMLExtendedStreamWriter writer, final ModelNode model) throws XMLStreamException {
@@ -414,6 +421,21 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeEndElement();
             }
         }
+        if (beanInstancePoolModelNode.hasDefined(EJB3SubsystemModel.ELASTIC_BEAN_INSTANCE_POOL)) {
+            final List<Property> elasticPools = beanInstancePoolModelNode.get(EJB3SubsystemModel.ELASTIC_BEAN_INSTANCE_POOL).asPropertyList();
+            for (Property property : elasticPools) {
+                // <elastic-pool>
+                writer.writeStartElement(EJB3SubsystemXMLElement.ELASTIC_POOL.getLocalName());
+                final ModelNode elasticPoolModelNode = property.getValue();
+                writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), property.getName());
+                ElasticPoolResourceDefinition.MIN_POOL_SIZE.marshallAsAttribute(elasticPoolModelNode, writer);
+                ElasticPoolResourceDefinition.MAX_POOL_SIZE.marshallAsAttribute(elasticPoolModelNode, writer);
+                ElasticPoolResourceDefinition.IDLE_TIMEOUT.marshallAsAttribute(elasticPoolModelNode, writer);
+                ElasticPoolResourceDefinition.IDLE_TIMEOUT_UNIT.marshallAsAttribute(elasticPoolModelNode, writer);
+                // </elastic-pool>
+                writer.writeEndElement();
+            }
+        }
     }
 
     private void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final Property strictMaxPoolModel) throws XMLStreamException {
@@ -505,6 +527,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
 
         TimerServiceResourceDefinition.THREAD_POOL_NAME.marshallAsAttribute(timerServiceModel, writer);
         TimerServiceResourceDefinition.DEFAULT_DATA_STORE.marshallAsAttribute(timerServiceModel, writer);
+        TimerServiceResourceDefinition.SCHEDULER_THREADS.marshallAsAttribute(timerServiceModel, writer);
 
         writer.writeStartElement(EJB3SubsystemXMLElement.DATA_STORES.getLocalName());
         writeFileDataStores(writer, timerServiceModel);
@@ -539,6 +562,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), property.getName());
                 FileDataStoreResourceDefinition.PATH.marshallAsAttribute(store, writer);
                 FileDataStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(store, writer);
+                FileDataStoreResourceDefinition.JOURNAL.marshallAsAttribute(store, writer);
                 writer.writeEndElement();
             }
         }
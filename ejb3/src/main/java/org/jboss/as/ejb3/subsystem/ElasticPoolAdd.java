@@ -0,0 +1,91 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.ejb3.component.pool.ElasticPoolConfigService;
+import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfigService;
+import org.jboss.as.ejb3.logging.EjbLogger;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Adds an elastic pool to the EJB3 subsystem's bean-instance-pools. The {#performRuntime runtime action}
+ * will create and install a {@link org.jboss.as.ejb3.component.pool.ElasticPoolConfigService}.
+ */
+public class ElasticPoolAdd extends AbstractAddStepHandler {
+
+    public static final ElasticPoolAdd INSTANCE = new ElasticPoolAdd();
+
+    private ElasticPoolAdd() {
+        super(ElasticPoolResourceDefinition.ATTRIBUTES.values());
+    }
+
+    @Override
+    protected void populateModel(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
+        super.populateModel(context, operation, resource);
+        checkPoolNameNotInUse(context, EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL);
+    }
+
+    @Override
+    protected void performRuntime(OperationContext context, ModelNode operation, ModelNode model) throws OperationFailedException {
+        final String poolName = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.ADDRESS)).getLastElement().getValue();
+        final int minPoolSize = ElasticPoolResourceDefinition.MIN_POOL_SIZE.resolveModelAttribute(context, model).asInt();
+        final int maxPoolSize = ElasticPoolResourceDefinition.MAX_POOL_SIZE.resolveModelAttribute(context, model).asInt();
+        final long idleTimeout = ElasticPoolResourceDefinition.IDLE_TIMEOUT.resolveModelAttribute(context, model).asLong();
+        final String unit = ElasticPoolResourceDefinition.IDLE_TIMEOUT_UNIT.resolveModelAttribute(context, model).asString();
+
+        final ElasticPoolConfigService poolConfigService = new ElasticPoolConfigService(poolName, minPoolSize, maxPoolSize, idleTimeout, TimeUnit.valueOf(unit));
+        final ServiceName serviceName = ElasticPoolConfigService.ELASTIC_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
+        // the alias lets beans and the default pool refs select an elastic pool by name, just like a strict max pool.
+        // The names of both pool types are kept unique by checkPoolNameNotInUse
+        context.getServiceTarget().addService(serviceName, poolConfigService)
+                .addAliases(StrictMaxPoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName))
+                .install();
+    }
+
+    /**
+     * Verifies that no bean instance pool of the other type has the same name as the pool being added, since pools
+     * of both types are referenced by name only.
+     *
+     * @param context the operation context of the add operation
+     * @param otherPoolType the resource type of the other pool type
+     * @throws OperationFailedException if the name is already in use
+     */
+    static void checkPoolNameNotInUse(OperationContext context, String otherPoolType) throws OperationFailedException {
+        final PathAddress address = context.getCurrentAddress();
+        final String poolName = address.getLastElement().getValue();
+        final Resource parent = context.readResourceFromRoot(address.getParent(), false);
+        if (parent.hasChild(PathElement.pathElement(otherPoolType, poolName))) {
+            throw EjbLogger.ROOT_LOGGER.beanInstancePoolNameInUse(poolName, otherPoolType);
+        }
+    }
+}
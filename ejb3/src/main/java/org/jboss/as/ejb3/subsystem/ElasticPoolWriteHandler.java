@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.controller.AbstractWriteAttributeHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.ejb3.component.pool.ElasticPoolConfigService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Handles the "write-attribute" operation for an elastic-bean-instance-pool resource.
+ * As with the strict max pools, new values only apply to pools created afterwards.
+ */
+public class ElasticPoolWriteHandler extends AbstractWriteAttributeHandler<Void> {
+
+    public static final ElasticPoolWriteHandler INSTANCE = new ElasticPoolWriteHandler();
+
+    private ElasticPoolWriteHandler() {
+        super(ElasticPoolResourceDefinition.MIN_POOL_SIZE, ElasticPoolResourceDefinition.MAX_POOL_SIZE,
+                ElasticPoolResourceDefinition.IDLE_TIMEOUT, ElasticPoolResourceDefinition.IDLE_TIMEOUT_UNIT);
+    }
+
+    @Override
+    protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName,
+                                           ModelNode newValue, ModelNode currentValue, HandbackHolder<Void> handbackHolder) throws OperationFailedException {
+        final ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+        applyModelToRuntime(context, attributeName, model);
+        return false;
+    }
+
+    @Override
+    protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName,
+                                         ModelNode valueToRestore, ModelNode valueToRevert, Void handback) throws OperationFailedException {
+        final ModelNode restored = context.readResource(PathAddress.EMPTY_ADDRESS).getModel().clone();
+        restored.get(attributeName).set(valueToRestore);
+        applyModelToRuntime(context, attributeName, restored);
+    }
+
+    private void applyModelToRuntime(OperationContext context, String attributeName, ModelNode model) throws OperationFailedException {
+        final String poolName = context.getCurrentAddressValue();
+        final ServiceName serviceName = ElasticPoolConfigService.ELASTIC_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
+        final ServiceController<?> sc = context.getServiceRegistry(true).getService(serviceName);
+        if (sc == null || !(sc.getService() instanceof ElasticPoolConfigService)) {
+            return;
+        }
+        final ElasticPoolConfigService service = (ElasticPoolConfigService) sc.getService();
+        if (ElasticPoolResourceDefinition.MIN_POOL_SIZE.getName().equals(attributeName)) {
+            service.setMinPoolSize(ElasticPoolResourceDefinition.MIN_POOL_SIZE.resolveModelAttribute(context, model).asInt());
+        } else if (ElasticPoolResourceDefinition.MAX_POOL_SIZE.getName().equals(attributeName)) {
+            service.setMaxPoolSize(ElasticPoolResourceDefinition.MAX_POOL_SIZE.resolveModelAttribute(context, model).asInt());
+        } else if (ElasticPoolResourceDefinition.IDLE_TIMEOUT.getName().equals(attributeName)) {
+            service.setIdleTimeout(ElasticPoolResourceDefinition.IDLE_TIMEOUT.resolveModelAttribute(context, model).asLong());
+        } else if (ElasticPoolResourceDefinition.IDLE_TIMEOUT_UNIT.getName().equals(attributeName)) {
+            service.setIdleTimeoutUnit(TimeUnit.valueOf(ElasticPoolResourceDefinition.IDLE_TIMEOUT_UNIT.resolveModelAttribute(context, model).asString()));
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfigService;
 import org.jboss.dmr.ModelNode;
@@ -68,6 +69,12 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         }
     }
 
+    @Override
+    protected void populateModel(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
+        super.populateModel(context, operation, resource);
+        ElasticPoolAdd.checkPoolNameNotInUse(context, EJB3SubsystemModel.ELASTIC_BEAN_INSTANCE_POOL);
+    }
+
     @Override
     protected void performRuntime(OperationContext context, ModelNode operation, ModelNode strictMaxPoolModel,
                                   ServiceVerificationHandler verificationHandler,
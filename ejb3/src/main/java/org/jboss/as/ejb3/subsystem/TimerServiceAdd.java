@@ -22,8 +22,12 @@
 
 package org.jboss.as.ejb3.subsystem;
 
+import static java.security.AccessController.doPrivileged;
+
+import java.security.PrivilegedAction;
 import java.util.List;
 import java.util.Timer;
+import java.util.concurrent.ThreadFactory;
 
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -34,6 +38,9 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.scheduler.ShardedTimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.scheduler.TimerTimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -44,6 +51,8 @@ import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
 
 import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 
@@ -81,6 +90,7 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
         final String defaultDataStore = TimerServiceResourceDefinition.DEFAULT_DATA_STORE.resolveModelAttribute(context, model).asString();
         final String threadPoolName = TimerServiceResourceDefinition.THREAD_POOL_NAME.resolveModelAttribute(context, model).asString();
         final ServiceName threadPoolServiceName = EJB3SubsystemModel.BASE_THREAD_POOL_SERVICE_NAME.append(threadPoolName);
+        final int schedulerThreads = TimerServiceResourceDefinition.SCHEDULER_THREADS.resolveModelAttribute(context, model).asInt();
 
         context.addStep(new AbstractDeploymentChainStep() {
             protected void execute(DeploymentProcessorTarget processorTarget) {
@@ -96,6 +106,11 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
         newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService())
                 .install());
 
+        final TimeoutSchedulerService schedulerService = new TimeoutSchedulerService(schedulerThreads);
+        newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMEOUT_SCHEDULER_SERVICE_NAME, schedulerService)
+                .addDependency(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, Timer.class, schedulerService.timer)
+                .install());
+
     }
 
     private static final class TimerValueService implements Service<Timer> {
@@ -118,4 +133,43 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             return timer;
         }
     }
+
+    /**
+     * Provides the {@link TimeoutScheduler} shared by the timer services of all deployments. A single thread reuses
+     * the shared {@link Timer}, more threads spread the timers across independent schedulers.
+     */
+    private static final class TimeoutSchedulerService implements Service<TimeoutScheduler> {
+
+        private static final ThreadFactory THREAD_FACTORY = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+            public JBossThreadFactory run() {
+                return new JBossThreadFactory(new ThreadGroup("EJB timer scheduler"), Boolean.TRUE, null, "%G - %t", null, null);
+            }
+        });
+
+        private final int threads;
+        private final InjectedValue<Timer> timer = new InjectedValue<Timer>();
+        private TimeoutScheduler scheduler;
+
+        TimeoutSchedulerService(int threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public synchronized void start(final StartContext context) throws StartException {
+            scheduler = (threads > 1) ? new ShardedTimeoutScheduler(threads, THREAD_FACTORY) : new TimerTimeoutScheduler(timer.getValue());
+        }
+
+        @Override
+        public synchronized void stop(final StopContext context) {
+            if (scheduler instanceof ShardedTimeoutScheduler) {
+                ((ShardedTimeoutScheduler) scheduler).shutdown();
+            }
+            scheduler = null;
+        }
+
+        @Override
+        public synchronized TimeoutScheduler getValue() throws IllegalStateException, IllegalArgumentException {
+            return scheduler;
+        }
+    }
 }
@@ -48,7 +48,9 @@ import org.jboss.as.controller.transform.PathAddressTransformer;
 import org.jboss.as.controller.transform.ResourceTransformationContext;
 import org.jboss.as.controller.transform.TransformationContext;
 import org.jboss.as.controller.transform.TransformationTarget;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.transform.description.DiscardAttributeChecker;
+import org.jboss.as.controller.transform.description.RejectAttributeChecker;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.dmr.ModelNode;
@@ -73,6 +75,18 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     //.setDefaultValue(new ModelNode("default-file-store")) //for backward compatibility!
                     .build();
 
+    /**
+     * The number of threads triggering timeouts. With a single thread, all timeouts are triggered from one shared
+     * {@link java.util.Timer}; with more, the timers are spread across that many independent schedulers.
+     */
+    static final SimpleAttributeDefinition SCHEDULER_THREADS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULER_THREADS, ModelType.INT, true)
+                    .setDefaultValue(new ModelNode(1))
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     private final PathManager pathManager;
@@ -81,6 +95,7 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(THREAD_POOL_NAME.getName(), THREAD_POOL_NAME);
         map.put(DEFAULT_DATA_STORE.getName(), DEFAULT_DATA_STORE);
+        map.put(SCHEDULER_THREADS.getName(), SCHEDULER_THREADS);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -110,9 +125,17 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
 
     static void registerTransformers_1_2_0(ResourceTransformationDescriptionBuilder parent) {
         ResourceTransformationDescriptionBuilder timerService = parent.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
+        rejectSchedulerThreads(timerService);
         registerDataStoreTransformers(timerService);
     }
 
+    private static void rejectSchedulerThreads(ResourceTransformationDescriptionBuilder timerService) {
+        timerService.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(SCHEDULER_THREADS.getDefaultValue()), SCHEDULER_THREADS)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, SCHEDULER_THREADS)
+                .end();
+    }
+
     private static void registerDataStoreTransformers(ResourceTransformationDescriptionBuilder timerService) {
 
         DataStoreTransformer dataStoreTransformer = new DataStoreTransformer();
@@ -128,6 +151,7 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                 return builder.getCurrent();
             }
         });
+        FileDataStoreResourceDefinition.registerTransformers(fileDataStore);
 
         fileDataStore.addOperationTransformationOverride(ModelDescriptionConstants.ADD)
             .inheritResourceAttributeDefinitions()
@@ -138,9 +162,17 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
 
     public static void registerTransformers_1_3_0(ResourceTransformationDescriptionBuilder parent) {
         ResourceTransformationDescriptionBuilder timerService = parent.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
+        rejectSchedulerThreads(timerService);
+        FileDataStoreResourceDefinition.registerTransformers(timerService.addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH));
         DatabaseDataStoreResourceDefinition.registerTransformers1_3_0(timerService);
     }
 
+    static void registerTransformers_3_0_0(ResourceTransformationDescriptionBuilder parent) {
+        ResourceTransformationDescriptionBuilder timerService = parent.addChildResource(EJB3SubsystemModel.TIMER_SERVICE_PATH);
+        rejectSchedulerThreads(timerService);
+        FileDataStoreResourceDefinition.registerTransformers(timerService.addChildResource(EJB3SubsystemModel.FILE_DATA_STORE_PATH));
+    }
+
     private static class DataStoreTransformer implements CombinedTransformer {
 
         private DataStoreTransformer() {
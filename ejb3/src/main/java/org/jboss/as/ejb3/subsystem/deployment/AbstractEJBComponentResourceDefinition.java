@@ -80,7 +80,15 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
 
-    private static final AttributeDefinition METHODS = ObjectTypeAttributeDefinition.Builder.of("methods", EXECUTION_TIME, INVOCATIONS, WAIT_TIME)
+    private static final AttributeDefinition EXECUTION_TIME_P50 = createPercentileMetric("execution-time-p50");
+    private static final AttributeDefinition EXECUTION_TIME_P99 = createPercentileMetric("execution-time-p99");
+    private static final AttributeDefinition EXECUTION_TIME_P999 = createPercentileMetric("execution-time-p999");
+    private static final AttributeDefinition WAIT_TIME_P50 = createPercentileMetric("wait-time-p50");
+    private static final AttributeDefinition WAIT_TIME_P99 = createPercentileMetric("wait-time-p99");
+    private static final AttributeDefinition WAIT_TIME_P999 = createPercentileMetric("wait-time-p999");
+
+    private static final AttributeDefinition METHODS = ObjectTypeAttributeDefinition.Builder.of("methods", EXECUTION_TIME, INVOCATIONS, WAIT_TIME,
+            EXECUTION_TIME_P50, EXECUTION_TIME_P99, EXECUTION_TIME_P999, WAIT_TIME_P50, WAIT_TIME_P99, WAIT_TIME_P999)
             .setAllowNull(true)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
             .build();
@@ -128,8 +136,19 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
     public static final SimpleAttributeDefinition POOL_MAX_SIZE = new SimpleAttributeDefinitionBuilder("pool-max-size", ModelType.INT, false)
             .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
 
+    private static final double P50 = 0.5;
+    private static final double P99 = 0.99;
+    private static final double P999 = 0.999;
+
     private final EJBComponentType componentType;
 
+    private static AttributeDefinition createPercentileMetric(final String name) {
+        return new SimpleAttributeDefinitionBuilder(name, ModelType.LONG)
+                .setUndefinedMetricValue(new ModelNode(0))
+                .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                .build();
+    }
+
     public AbstractEJBComponentResourceDefinition(final EJBComponentType componentType) {
         super(PathElement.pathElement(componentType.getResourceType()),
                 EJB3Extension.getResourceDescriptionResolver(componentType.getResourceType()));
@@ -201,6 +220,12 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                 context.getResult().set(component.getInvocationMetrics().getWaitTime());
             }
         });
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P50, false, P50);
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P99, false, P99);
+        registerPercentileMetric(resourceRegistration, EXECUTION_TIME_P999, false, P999);
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P50, true, P50);
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P99, true, P99);
+        registerPercentileMetric(resourceRegistration, WAIT_TIME_P999, true, P999);
         resourceRegistration.registerMetric(METHODS, new AbstractRuntimeMetricsHandler() {
             @Override
             protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
@@ -211,12 +236,29 @@ public abstract class AbstractEJBComponentResourceDefinition extends SimpleResou
                     result.get("execution-time").set(values.getExecutionTime());
                     result.get("invocations").set(values.getInvocations());
                     result.get("wait-time").set(values.getWaitTime());
+                    result.get(EXECUTION_TIME_P50.getName()).set(values.getExecutionTimePercentile(P50));
+                    result.get(EXECUTION_TIME_P99.getName()).set(values.getExecutionTimePercentile(P99));
+                    result.get(EXECUTION_TIME_P999.getName()).set(values.getExecutionTimePercentile(P999));
+                    result.get(WAIT_TIME_P50.getName()).set(values.getWaitTimePercentile(P50));
+                    result.get(WAIT_TIME_P99.getName()).set(values.getWaitTimePercentile(P99));
+                    result.get(WAIT_TIME_P999.getName()).set(values.getWaitTimePercentile(P999));
                     context.getResult().get(entry.getKey()).set(result);
                 }
             }
         });
     }
 
+    private static void registerPercentileMetric(final ManagementResourceRegistration resourceRegistration, final AttributeDefinition metric,
+                                                 final boolean waitTime, final double fraction) {
+        resourceRegistration.registerMetric(metric, new AbstractRuntimeMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final ModelNode operation, final EJBComponent component) throws OperationFailedException {
+                final InvocationMetrics metrics = component.getInvocationMetrics();
+                context.getResult().set(waitTime ? metrics.getWaitTimePercentile(fraction) : metrics.getExecutionTimePercentile(fraction));
+            }
+        });
+    }
+
     /* (non-Javadoc)
      * @see org.jboss.as.controller.SimpleResourceDefinition#registerChildren(org.jboss.as.controller.registry.ManagementResourceRegistration)
      */
@@ -36,6 +36,7 @@ import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
 import javax.ejb.EJBException;
@@ -65,6 +66,7 @@ import org.jboss.as.ejb3.subsystem.deployment.TimerServiceResource;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
 import org.jboss.as.ejb3.timerservice.spi.ScheduleTimer;
 import org.jboss.as.ejb3.timerservice.spi.TimedObjectInvoker;
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
@@ -101,7 +103,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
     private final InjectedValue<ExecutorService> executorServiceInjectedValue = new InjectedValue<ExecutorService>();
 
-    private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TimeoutScheduler> timeoutSchedulerInjectedValue = new InjectedValue<TimeoutScheduler>();
 
     private final InjectedValue<TimedObjectInvoker> timedObjectInvoker = new InjectedValue<TimedObjectInvoker>();
 
@@ -118,12 +120,12 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * All timers which were created by this {@link TimerService}
      */
-    private final Map<String, TimerImpl> timers = Collections.synchronizedMap(new HashMap<String, TimerImpl>());
+    private final Map<String, TimerImpl> timers = new ConcurrentHashMap<String, TimerImpl>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the task of each of the timers that have been scheduled
      */
-    private final Map<String, java.util.TimerTask> scheduledTimerFutures = new HashMap<String, java.util.TimerTask>();
+    private final ConcurrentHashMap<String, Task> scheduledTimerFutures = new ConcurrentHashMap<String, Task>();
 
     /**
      * Key that is used to store timers that are waiting on transaction completion in the transaction local
@@ -211,7 +213,7 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         this.transactionManager = null;
         IoUtils.safeClose(listenerHandle);
         listenerHandle = null;
-        timerInjectedValue.getValue().purge(); //WFLY-3823
+        timeoutSchedulerInjectedValue.getValue().purge(); //WFLY-3823
     }
 
 
@@ -400,12 +402,10 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         Object pk = currentPrimaryKey();
         final Set<Timer> activeTimers = new HashSet<Timer>();
         // get all active timers for this timerservice
-        synchronized (this.timers) {
-            for (final TimerImpl timer : this.timers.values()) {
-                if (timer.isActive()) {
-                    if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
-                        activeTimers.add(timer);
-                    }
+        for (final TimerImpl timer : this.timers.values()) {
+            if (timer.isActive()) {
+                if (timer.getPrimaryKey() == null || timer.getPrimaryKey().equals(pk)) {
+                    activeTimers.add(timer);
                 }
             }
         }
@@ -623,6 +623,28 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
+    /**
+     * Persists the state of several existing persistent <code>timers</code> at once, such as the auto timers
+     * reconciled when the timer service is restored, so that the timer persistence can write them in a single batch.
+     *
+     * @param timers the timers to persist
+     */
+    private void persistTimers(final Collection<TimerImpl> timers) {
+        if (timers.isEmpty()) {
+            return;
+        }
+        try {
+            if (timerPersistence.getOptionalValue() == null) {
+                ROOT_LOGGER.timerPersistenceNotEnable();
+                return;
+            }
+            timerPersistence.getValue().persistTimers(timers);
+        } catch (Throwable t) {
+            this.setRollbackOnly();
+            throw new RuntimeException(t);
+        }
+    }
+
     public void cancelTimer(final TimerImpl timer) {
         timer.lock();
         boolean release = true;
@@ -700,6 +722,9 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
 
         //timers are removed from the list as they are loaded
         final List<ScheduleTimer> newAutoTimers = new LinkedList<ScheduleTimer>(autoTimers);
+        //the state of the auto timers is persisted in one go, before the matching ones are started
+        final List<TimerImpl> autoTimerUpdates = new ArrayList<TimerImpl>();
+        final List<TimerImpl> foundAutoTimers = new ArrayList<TimerImpl>();
 
         if (ROOT_LOGGER.isDebugEnabled()) {
             ROOT_LOGGER.debug("Found " + restorableTimers.size() + " active persistentTimers for timedObjectId: "
@@ -741,15 +766,20 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
                     // timers of other nodes in the cluster
                     activeTimer.setTimerState(TimerState.ACTIVE);
                 }
-                this.persistTimer(activeTimer, false);
+                autoTimerUpdates.add(activeTimer);
                 if (found) {
-                    startTimer(activeTimer);
-                    ROOT_LOGGER.debugv("Started timer: {0}", activeTimer);
+                    foundAutoTimers.add(activeTimer);
                 }
             } else if (!ineligibleTimerStates.contains(activeTimer.getState())) {
                 startTimer(activeTimer);
+                ROOT_LOGGER.debugv("Started timer: {0}",  activeTimer);
             }
-            ROOT_LOGGER.debugv("Started timer: {0}",  activeTimer);
+        }
+
+        this.persistTimers(autoTimerUpdates);
+        for (TimerImpl activeTimer : foundAutoTimers) {
+            startTimer(activeTimer);
+            ROOT_LOGGER.debugv("Started timer: {0}", activeTimer);
         }
 
         for (ScheduleTimer timer : newAutoTimers) {
@@ -861,43 +891,48 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
     /**
      * Creates and schedules a {@link TimerTask} for the next timeout of the passed <code>timer</code>
      */
-    protected void scheduleTimeout(TimerImpl timer, boolean newTimer) {
-        synchronized (scheduledTimerFutures) {
-            if (!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
-                //this timer has been cancelled by another thread. We just return
-                return;
-            }
+    protected void scheduleTimeout(final TimerImpl timer, boolean newTimer) {
+        if (!newTimer && !scheduledTimerFutures.containsKey(timer.getId())) {
+            //this timer has been cancelled by another thread. We just return
+            return;
+        }
 
-            Date nextExpiration = timer.getNextExpiration();
-            if (nextExpiration == null) {
-                ROOT_LOGGER.nextExpirationIsNull(timer);
-                return;
-            }
-            // create the timer task
-            final TimerTask<?> timerTask = timer.getTimerTask();
-            // find out how long is it away from now
-            long delay = nextExpiration.getTime() - System.currentTimeMillis();
-            // if in past, then trigger immediately
-            if (delay < 0) {
-                delay = 0;
-            }
-            long intervalDuration = timer.getInterval();
-            final Task task = new Task(timerTask, ejbComponentInjectedValue.getValue().getControlPoint());
-            if (intervalDuration > 0) {
-                ROOT_LOGGER.debugv("Scheduling timer {0} at fixed rate, starting at {1} milliseconds from now with repeated interval={2}",
-                        timer, delay, intervalDuration);
-                // schedule the task
-                this.timerInjectedValue.getValue().scheduleAtFixedRate(task, delay, intervalDuration);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
-            } else {
-                ROOT_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
-                // schedule the task
-                this.timerInjectedValue.getValue().schedule(task, delay);
-                // maintain it in timerservice for future use (like cancellation)
-                this.scheduledTimerFutures.put(timer.getId(), task);
+        Date nextExpiration = timer.getNextExpiration();
+        if (nextExpiration == null) {
+            ROOT_LOGGER.nextExpirationIsNull(timer);
+            return;
+        }
+        // find out how long is it away from now
+        long delay = nextExpiration.getTime() - System.currentTimeMillis();
+        // if in past, then trigger immediately
+        if (delay < 0) {
+            delay = 0;
+        }
+        // register the task before it is scheduled, otherwise a timeout which is due immediately could run and try to
+        // reschedule its timer before its entry exists, and the timer would never fire again
+        final Task task = new Task(timer.getTimerTask(), ejbComponentInjectedValue.getValue().getControlPoint());
+        if (newTimer) {
+            // maintain it in timerservice for future use (like cancellation)
+            this.scheduledTimerFutures.put(timer.getId(), task);
+        } else if (this.scheduledTimerFutures.computeIfPresent(timer.getId(), (id, previous) -> task) != task) {
+            // the timer has been cancelled concurrently, in which case its entry is gone
+            return;
+        }
+        this.schedule(timer, task, delay);
+    }
 
-            }
+    private void schedule(TimerImpl timer, Task task, long delay) {
+        final TimeoutScheduler scheduler = this.timeoutSchedulerInjectedValue.getValue();
+        long intervalDuration = timer.getInterval();
+        if (intervalDuration > 0) {
+            ROOT_LOGGER.debugv("Scheduling timer {0} at fixed rate, starting at {1} milliseconds from now with repeated interval={2}",
+                    timer, delay, intervalDuration);
+            // schedule the task
+            task.setHandle(scheduler.scheduleAtFixedRate(timer.getId(), task, delay, intervalDuration));
+        } else {
+            ROOT_LOGGER.debugv("Scheduling a single action timer {0} starting at {1} milliseconds from now", timer, delay);
+            // schedule the task
+            task.setHandle(scheduler.schedule(timer.getId(), task, delay));
         }
     }
 
@@ -907,18 +942,14 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
      * @param timer
      */
     protected void cancelTimeout(final TimerImpl timer) {
-        synchronized (this.scheduledTimerFutures) {
-            java.util.TimerTask timerTask = this.scheduledTimerFutures.remove(timer.getId());
-            if (timerTask != null) {
-                timerTask.cancel();
-            }
+        Task task = this.scheduledTimerFutures.remove(timer.getId());
+        if (task != null) {
+            task.cancel();
         }
     }
 
     public boolean isScheduled(final String tid){
-        synchronized (this.scheduledTimerFutures) {
-            return this.scheduledTimerFutures.containsKey(tid);
-        }
+        return this.scheduledTimerFutures.containsKey(tid);
     }
 
     /**
@@ -1073,8 +1104,8 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         return executorServiceInjectedValue;
     }
 
-    public InjectedValue<java.util.Timer> getTimerInjectedValue() {
-        return timerInjectedValue;
+    public InjectedValue<TimeoutScheduler> getTimeoutSchedulerInjectedValue() {
+        return timeoutSchedulerInjectedValue;
     }
 
     public InjectedValue<TimerPersistence> getTimerPersistence() {
@@ -1191,10 +1222,12 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
         }
     }
 
-    private class Task extends java.util.TimerTask {
+    private class Task implements Runnable {
 
         private final TimerTask<?> delegate;
         private final ControlPoint controlPoint;
+        private volatile TimeoutScheduler.Handle handle;
+        private volatile boolean cancelled = false;
         /**
          * This is true if a task is queued up to be run by the request controller,
          * used to stop timer tasks banking up when the container is suspended.
@@ -1227,10 +1260,21 @@ public class TimerServiceImpl implements TimerService, Service<TimerService> {
             }
         }
 
-        @Override
-        public boolean cancel() {
+        void setHandle(TimeoutScheduler.Handle handle) {
+            this.handle = handle;
+            // the task may have been cancelled while it was being scheduled
+            if (this.cancelled) {
+                handle.cancel();
+            }
+        }
+
+        void cancel() {
+            this.cancelled = true;
             delegate.cancel();
-            return super.cancel();
+            TimeoutScheduler.Handle handle = this.handle;
+            if (handle != null) {
+                handle.cancel();
+            }
         }
     }
 
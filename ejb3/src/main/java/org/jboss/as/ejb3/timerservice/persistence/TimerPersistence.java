@@ -22,6 +22,7 @@
 package org.jboss.as.ejb3.timerservice.persistence;
 
 import java.io.Closeable;
+import java.util.Collection;
 import java.util.List;
 
 import javax.transaction.TransactionManager;
@@ -51,6 +52,18 @@ public interface TimerPersistence {
      */
     void persistTimer(TimerImpl timer);
 
+    /**
+     * Called when the state of several timers is being persisted at once, e.g. when timers are restored.
+     * Implementations may override this to write the changes in a single batch.
+     *
+     * @param timers The timers
+     */
+    default void persistTimers(Collection<TimerImpl> timers) {
+        for (TimerImpl timer : timers) {
+            persistTimer(timer);
+        }
+    }
+
     /**
      * Invoked before running a timer in order to determine if this node should run the timer.
      * @param timer The timer
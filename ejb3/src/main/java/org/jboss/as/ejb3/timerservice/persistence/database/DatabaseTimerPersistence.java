@@ -39,6 +39,7 @@ import java.sql.Timestamp;
 import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
@@ -49,6 +50,8 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sql.DataSource;
@@ -99,7 +102,8 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
 
-    private final Map<String, Set<String>> knownTimerIds = new HashMap<>();
+    /** The ids of the timers known to this node, by timed object*/
+    private final ConcurrentMap<String, Set<String>> knownTimerIds = new ConcurrentHashMap<>();
 
     /** Identifier for the database dialect to be used for the timer-sql.properties */
     private String database;
@@ -128,6 +132,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private static final String LOAD_TIMER = "load-timer";
     private static final String DELETE_TIMER = "delete-timer";
     private static final String UPDATE_RUNNING = "update-running";
+    private static final String LOAD_TIMER_IDS = "load-timer-ids";
 
     public DatabaseTimerPersistence(final String database, String partition, String nodeName, int refreshInterval, boolean allowExecution) {
         this.database = database;
@@ -165,7 +170,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     }
 
     @Override
-    public synchronized void stop(final StopContext context) {
+    public void stop(final StopContext context) {
         if (refreshTask != null) {
             refreshTask.cancel();
         }
@@ -319,9 +324,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         PreparedStatement statement = null;
         ResultSet resultSet = null;
         try {
-            synchronized (this) {
-                knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-            }
+            timerPersisted(timerEntity);
             connection = dataSource.getConnection();
             statement = connection.prepareStatement(createTimer);
             statementParameters(timerEntity, statement);
@@ -342,32 +345,17 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         ResultSet resultSet = null;
         try {
             connection = dataSource.getConnection();
-            if (timerEntity.getState() == TimerState.CANCELED ||
-                    timerEntity.getState() == TimerState.EXPIRED) {
+            if (isRemoved(timerEntity)) {
                 String deleteTimer = sql(DELETE_TIMER);
                 statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
+                deleteParameters(timerEntity, statement);
                 statement.execute();
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
-                }
+                timerPersisted(timerEntity);
             } else {
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-                }
+                timerPersisted(timerEntity);
                 String updateTimer = sql(UPDATE_TIMER);
                 statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                setNodeName(timerEntity.getState(), statement, 4);
-                // WHERE CLAUSE
-                statement.setString(5, timerEntity.getTimedObjectId());
-                statement.setString(6, timerEntity.getId());
-                statement.setString(7, partition);
-                statement.setString(8, nodeName);   // only persist if this node or empty
+                updateParameters(timerEntity, statement);
                 statement.execute();
             }
         } catch (SQLException e) {
@@ -379,6 +367,89 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Persists the state changes of several timers using one connection, and one JDBC batch per kind of change.
+     */
+    @Override
+    public void persistTimers(final Collection<TimerImpl> timers) {
+        if (timers.isEmpty()) {
+            return;
+        }
+        Connection connection = null;
+        PreparedStatement update = null;
+        PreparedStatement delete = null;
+        try {
+            connection = dataSource.getConnection();
+            for (TimerImpl timerEntity : timers) {
+                if (isRemoved(timerEntity)) {
+                    if (delete == null) {
+                        delete = connection.prepareStatement(sql(DELETE_TIMER));
+                    }
+                    deleteParameters(timerEntity, delete);
+                    delete.addBatch();
+                } else {
+                    if (update == null) {
+                        update = connection.prepareStatement(sql(UPDATE_TIMER));
+                    }
+                    updateParameters(timerEntity, update);
+                    update.addBatch();
+                }
+            }
+            if (update != null) {
+                update.executeBatch();
+            }
+            if (delete != null) {
+                delete.executeBatch();
+            }
+            for (TimerImpl timerEntity : timers) {
+                timerPersisted(timerEntity);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        } finally {
+            safeClose(update);
+            safeClose(delete);
+            safeClose(connection);
+        }
+    }
+
+    private static boolean isRemoved(final TimerImpl timerEntity) {
+        return timerEntity.getState() == TimerState.CANCELED ||
+                timerEntity.getState() == TimerState.EXPIRED;
+    }
+
+    /**
+     * Keeps track of the timers known to this node, so that the refresh task only reports changes made by other nodes.
+     */
+    private void timerPersisted(final TimerImpl timerEntity) {
+        final Set<String> ids = knownTimerIds.get(timerEntity.getTimedObjectId());
+        if (ids != null) {
+            if (isRemoved(timerEntity)) {
+                ids.remove(timerEntity.getId());
+            } else {
+                ids.add(timerEntity.getId());
+            }
+        }
+    }
+
+    private void updateParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+        statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+        statement.setString(3, timerEntity.getState().name());
+        setNodeName(timerEntity.getState(), statement, 4);
+        // WHERE CLAUSE
+        statement.setString(5, timerEntity.getTimedObjectId());
+        statement.setString(6, timerEntity.getId());
+        statement.setString(7, partition);
+        statement.setString(8, nodeName);   // only persist if this node or empty
+    }
+
+    private void deleteParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setString(1, timerEntity.getTimedObjectId());
+        statement.setString(2, timerEntity.getId());
+        statement.setString(3, partition);
+    }
+
     @Override
     public boolean shouldRun(TimerImpl timer, TransactionManager tm) {
         if (!allowExecution) {
@@ -436,7 +507,7 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     }
 
     @Override
-    public synchronized void timerUndeployed(final String timedObjectId) {
+    public void timerUndeployed(final String timedObjectId) {
         knownTimerIds.remove(timedObjectId);
     }
 
@@ -463,31 +534,29 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                     EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                 }
             }
-            synchronized (this) {
-                Set<String> ids = new HashSet<>();
-                for (Holder timer : timers) {
-                    ids.add(timer.timer.getId());
-                }
-                knownTimerIds.put(timedObjectId, ids);
-                for(Holder timer : timers) {
-                    if(timer.requiresReset) {
-                        TimerImpl ret = timer.timer;
-                        EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(ret.getId(), ret.getTimedObjectId());
-                        if(ret.getNextExpiration() == null) {
-                            ret.setTimerState(TimerState.CANCELED);
-                            persistTimer(ret);
-                            return null;
-                        } else {
-                            ret.setTimerState(TimerState.ACTIVE);
-                            persistTimer(ret);
-                        }
-                    }
-                }
+            final Set<String> ids = ConcurrentHashMap.newKeySet();
+            for (Holder timer : timers) {
+                ids.add(timer.timer.getId());
             }
+            knownTimerIds.put(timedObjectId, ids);
+            final List<TimerImpl> reset = new ArrayList<>();
             List<TimerImpl> ret = new ArrayList<>();
             for(Holder timer : timers) {
-                ret.add(timer.timer);
+                if(timer.requiresReset) {
+                    TimerImpl resetTimer = timer.timer;
+                    EjbLogger.DEPLOYMENT_LOGGER.loadedPersistentTimerInTimeout(resetTimer.getId(), resetTimer.getTimedObjectId());
+                    if(resetTimer.getNextExpiration() == null) {
+                        resetTimer.setTimerState(TimerState.CANCELED);
+                    } else {
+                        resetTimer.setTimerState(TimerState.ACTIVE);
+                    }
+                    reset.add(resetTimer);
+                }
+                if (!isRemoved(timer.timer)) {
+                    ret.add(timer.timer);
+                }
             }
+            persistTimers(reset);
             return ret;
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -751,6 +820,43 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         }
     }
 
+    /**
+     * Loads the ids of all timers of the partition, by timed object, with a single query.
+     */
+    private Map<String, Set<String>> loadTimerIds() throws SQLException {
+        final Map<String, Set<String>> timerIds = new HashMap<>();
+        Connection connection = null;
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            statement = connection.prepareStatement(sql(LOAD_TIMER_IDS));
+            statement.setString(1, partition);
+            resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                final String timedObjectId = resultSet.getString(1);
+                Set<String> ids = timerIds.get(timedObjectId);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    timerIds.put(timedObjectId, ids);
+                }
+                ids.add(resultSet.getString(2));
+            }
+            return timerIds;
+        } finally {
+            safeClose(resultSet);
+            safeClose(statement);
+            safeClose(connection);
+        }
+    }
+
+    /**
+     * Periodically picks up the timers added and removed by other nodes. Each run reads the ids of the timers of the
+     * whole partition with a single query, and only loads the timers of a timed object if other nodes added some.
+     * The id query is not incremental, its cost grows with the number of timers of the partition: the timer table has
+     * no change marker, since rows deleted by other nodes would leave no trace of their removal, and nodes running
+     * older versions against the same table would not maintain it.
+     */
     private class RefreshTask extends TimerTask {
 
         private volatile AtomicBoolean running = new AtomicBoolean();
@@ -759,59 +865,42 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         public void run() {
             if (running.compareAndSet(false, true)) {
                 try {
-                    Set<String> timedObjects;
-                    synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
+                    if (changeListeners.isEmpty()) {
+                        // no deployed timed object to notify, so the ids of the partition need not be read
+                        return;
+                    }
+                    // snapshot the known timers before querying, so that a timer added by this node while the query
+                    // runs is not mistaken for one removed by another node
+                    final Map<String, Set<String>> snapshots = new HashMap<>();
+                    for (Map.Entry<String, Set<String>> entry : knownTimerIds.entrySet()) {
+                        snapshots.put(entry.getKey(), new HashSet<>(entry.getValue()));
                     }
-                    for (String timedObjectId : timedObjects) {
+                    final Map<String, Set<String>> timerIds;
+                    try {
+                        timerIds = loadTimerIds();
+                    } catch (SQLException e) {
+                        EjbLogger.ROOT_LOGGER.failedToRefreshTimers(partition);
+                        return;
+                    }
+                    for (Map.Entry<String, Set<String>> entry : snapshots.entrySet()) {
+                        final String timedObjectId = entry.getKey();
                         TimerChangeListener listener = changeListeners.get(timedObjectId);
-                        if (listener == null) {
+                        final Set<String> known = knownTimerIds.get(timedObjectId);
+                        if (listener == null || known == null) {
                             continue;
                         }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
+                        final Set<String> existing = entry.getValue();
+                        Set<String> stored = timerIds.get(timedObjectId);
+                        if (stored == null) {
+                            stored = Collections.emptySet();
                         }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
-                        Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
-                        try {
-                            connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            while (resultSet.next()) {
-                                try {
-                                    String id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
-                                        synchronized (DatabaseTimerPersistence.this) {
-                                            knownTimerIds.get(timedObjectId).add(id);
-                                        }
-                                        final Holder holder = timerFromResult(resultSet, listener.getTimerService());
-                                        if(holder != null) {
-                                            listener.timerAdded(holder.timer);
-                                        }
-                                    }
-                                } catch (Exception e) {
-                                    EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
-                                }
-                            }
-
-                            synchronized (DatabaseTimerPersistence.this) {
-                                Set<String> timers = knownTimerIds.get(timedObjectId);
-                                for (String timer : existing) {
-                                    timers.remove(timer);
-                                    listener.timerRemoved(timer);
-                                }
-                            }
-                        } catch (SQLException e) {
-                            EjbLogger.ROOT_LOGGER.failedToRefreshTimers(timedObjectId);
-                        } finally {
-                            safeClose(resultSet);
-                            safeClose(statement);
-                            safeClose(connection);
+                        if (!existing.containsAll(stored)) {
+                            refreshAddedTimers(timedObjectId, listener, known, existing);
+                        }
+                        existing.removeAll(stored);
+                        for (String timer : existing) {
+                            known.remove(timer);
+                            listener.timerRemoved(timer);
                         }
                     }
                 } finally {
@@ -820,6 +909,39 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             }
 
         }
+
+        private void refreshAddedTimers(final String timedObjectId, final TimerChangeListener listener, final Set<String> known, final Set<String> existing) {
+            String loadTimer = sql(LOAD_ALL_TIMERS);
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(loadTimer);
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    try {
+                        String id = resultSet.getString(1);
+                        if (!existing.contains(id) && known.add(id)) {
+                            final Holder holder = timerFromResult(resultSet, listener.getTimerService());
+                            if(holder != null) {
+                                listener.timerAdded(holder.timer);
+                            }
+                        }
+                    } catch (Exception e) {
+                        EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                    }
+                }
+            } catch (SQLException e) {
+                EjbLogger.ROOT_LOGGER.failedToRefreshTimers(timedObjectId);
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
     }
 
 
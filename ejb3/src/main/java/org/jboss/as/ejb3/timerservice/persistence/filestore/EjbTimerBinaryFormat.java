@@ -0,0 +1,207 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * Compact binary representation of a persistent timer, as stored in a {@link TimerJournal}. It holds the same state
+ * as the XML representation written by {@link EjbTimerXmlPersister}.
+ */
+public class EjbTimerBinaryFormat {
+
+    private static final byte TIMER = 1;
+    private static final byte CALENDAR_TIMER = 2;
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    public EjbTimerBinaryFormat(MarshallerFactory factory, MarshallingConfiguration configuration) {
+        this.factory = factory;
+        this.configuration = configuration;
+    }
+
+    public byte[] write(TimerImpl timer) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte((timer instanceof CalendarTimer) ? CALENDAR_TIMER : TIMER);
+        output.writeUTF(timer.getTimedObjectId());
+        output.writeUTF(timer.getId());
+        writeDate(output, timer.getInitialExpiration());
+        output.writeLong(timer.getInterval());
+        writeDate(output, timer.getNextExpiration());
+        writeDate(output, timer.getPreviousRun());
+        output.writeUTF(timer.getState().name());
+        this.writeObject(output, timer.getTimerInfo());
+        this.writeObject(output, timer.getPrimaryKey());
+        if (timer instanceof CalendarTimer) {
+            final CalendarTimer calendarTimer = (CalendarTimer) timer;
+            final ScheduleExpression schedule = calendarTimer.getScheduleExpression();
+            output.writeUTF(schedule.getSecond());
+            output.writeUTF(schedule.getMinute());
+            output.writeUTF(schedule.getHour());
+            output.writeUTF(schedule.getDayOfWeek());
+            output.writeUTF(schedule.getDayOfMonth());
+            output.writeUTF(schedule.getMonth());
+            output.writeUTF(schedule.getYear());
+            writeDate(output, schedule.getStart());
+            writeDate(output, schedule.getEnd());
+            writeString(output, schedule.getTimezone());
+            output.writeBoolean(calendarTimer.isAutoTimer());
+            if (calendarTimer.isAutoTimer()) {
+                final Method method = calendarTimer.getTimeoutMethod();
+                output.writeUTF(method.getDeclaringClass().getName());
+                output.writeUTF(method.getName());
+                final Class<?>[] parameters = method.getParameterTypes();
+                output.writeInt(parameters.length);
+                for (Class<?> parameter : parameters) {
+                    output.writeUTF(parameter.getName());
+                }
+            }
+        }
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads a timer.
+     *
+     * @return the timer, or null if the timeout method of an auto timer no longer exists
+     */
+    public TimerImpl read(byte[] content, TimerServiceImpl timerService, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(content));
+        final byte type = input.readByte();
+        final TimerImpl.Builder builder = (type == CALENDAR_TIMER) ? CalendarTimer.builder() : TimerImpl.builder();
+        builder.setPersistent(true);
+        builder.setTimedObjectId(input.readUTF());
+        builder.setId(input.readUTF());
+        builder.setInitialDate(readDate(input));
+        builder.setRepeatInterval(input.readLong());
+        builder.setNextDate(readDate(input));
+        builder.setPreviousRun(readDate(input));
+        builder.setTimerState(TimerState.valueOf(input.readUTF()));
+        builder.setInfo((Serializable) this.readObject(input));
+        builder.setPrimaryKey(this.readObject(input));
+        if (type != CALENDAR_TIMER) {
+            return builder.build(timerService);
+        }
+        final CalendarTimer.Builder calendarBuilder = (CalendarTimer.Builder) builder;
+        calendarBuilder.setScheduleExprSecond(input.readUTF());
+        calendarBuilder.setScheduleExprMinute(input.readUTF());
+        calendarBuilder.setScheduleExprHour(input.readUTF());
+        calendarBuilder.setScheduleExprDayOfWeek(input.readUTF());
+        calendarBuilder.setScheduleExprDayOfMonth(input.readUTF());
+        calendarBuilder.setScheduleExprMonth(input.readUTF());
+        calendarBuilder.setScheduleExprYear(input.readUTF());
+        calendarBuilder.setScheduleExprStartDate(readDate(input));
+        calendarBuilder.setScheduleExprEndDate(readDate(input));
+        calendarBuilder.setScheduleExprTimezone(readString(input));
+        final boolean autoTimer = input.readBoolean();
+        calendarBuilder.setAutoTimer(autoTimer);
+        if (autoTimer) {
+            final String declaringClass = input.readUTF();
+            final String name = input.readUTF();
+            final String[] parameters = new String[input.readInt()];
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] = input.readUTF();
+            }
+            final Method timeoutMethod = CalendarTimer.getTimeoutMethod(new TimeoutMethod(declaringClass, name, parameters), classLoader);
+            if (timeoutMethod == null) {
+                return null;
+            }
+            calendarBuilder.setTimeoutMethod(timeoutMethod);
+        }
+        return calendarBuilder.build(timerService);
+    }
+
+    private void writeObject(DataOutputStream output, Object object) throws IOException {
+        if (object == null) {
+            output.writeInt(-1);
+            return;
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Marshaller marshaller = this.factory.createMarshaller(this.configuration)) {
+            marshaller.start(new OutputStreamByteOutput(bytes));
+            marshaller.writeObject(object);
+            marshaller.finish();
+        }
+        output.writeInt(bytes.size());
+        bytes.writeTo(output);
+    }
+
+    private Object readObject(DataInputStream input) throws IOException, ClassNotFoundException {
+        final int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] data = new byte[length];
+        input.readFully(data);
+        try (Unmarshaller unmarshaller = this.factory.createUnmarshaller(this.configuration)) {
+            unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(data)));
+            return unmarshaller.readObject();
+        }
+    }
+
+    private static void writeDate(DataOutputStream output, Date date) throws IOException {
+        output.writeBoolean(date != null);
+        if (date != null) {
+            output.writeLong(date.getTime());
+        }
+    }
+
+    private static Date readDate(DataInputStream input) throws IOException {
+        return input.readBoolean() ? new Date(input.readLong()) : null;
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+}
@@ -62,6 +62,7 @@ import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -99,7 +100,18 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
 
+    /**
+     * If true the timers of each timed object are stored in a {@link TimerJournal}, rather than one XML file per timer.
+     */
+    private final boolean journal;
+    private final ConcurrentMap<String, TimerJournal> journals = new ConcurrentHashMap<String, TimerJournal>();
+    private EjbTimerBinaryFormat binaryFormat;
+
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this(createIfNotExists, path, pathRelativeTo, false);
+    }
+
+    public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final boolean journal) {
         final SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkPermission(FILE_PERMISSION);
@@ -107,6 +119,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         this.createIfNotExists = createIfNotExists;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
+        this.journal = journal;
     }
 
     @Override
@@ -130,6 +143,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
         this.configuration = configuration;
         this.factory = factory;
+        this.binaryFormat = new EjbTimerBinaryFormat(factory, configuration);
         if (pathRelativeTo != null) {
             callbackHandle = pathManager.getValue().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
         }
@@ -150,6 +164,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     @Override
     public void stop(final StopContext context) {
+        for (TimerJournal timerJournal : journals.values()) {
+            safeClose(timerJournal);
+        }
+        journals.clear();
         locks.clear();
         directories.clear();
         if (callbackHandle != null) {
@@ -157,6 +175,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
         factory = null;
         configuration = null;
+        binaryFormat = null;
     }
 
     @Override
@@ -201,6 +220,8 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private void persistTimer(final TimerImpl timer, boolean newTimer) {
         final Lock lock = getLock(timer.getTimedObjectId());
+        TimerJournal timerJournal = null;
+        long sequence = 0;
         try {
             final int status = transactionManager.getValue().getStatus();
             if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
@@ -213,16 +234,23 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             if (status == Status.STATUS_NO_TRANSACTION ||
                     status == Status.STATUS_UNKNOWN || isBeforeCompletion()
                     || status == Status.STATUS_COMMITTED) {
-                Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                if (timer.getState() == TimerState.CANCELED ||
-                        timer.getState() == TimerState.EXPIRED) {
-                    map.remove(timer.getId());
-                    writeFile(timer);
-                } else if (newTimer || map.containsKey(timer.getId())) {
-                    //if it is not a new timer and is not in the map then it has
-                    //been removed by another thread.
-                    map.put(timer.getId(), timer);
-                    writeFile(timer);
+                if (journal) {
+                    timerJournal = getJournal(timer.getTimedObjectId(), timer.getTimerService());
+                    writeJournal(timerJournal, timer, newTimer);
+                    //the journal is forced once the lock is released, so that concurrent changes share one fsync
+                    sequence = timerJournal.getSequence();
+                } else {
+                    Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
+                    if (timer.getState() == TimerState.CANCELED ||
+                            timer.getState() == TimerState.EXPIRED) {
+                        map.remove(timer.getId());
+                        writeFile(timer);
+                    } else if (newTimer || map.containsKey(timer.getId())) {
+                        //if it is not a new timer and is not in the map then it has
+                        //been removed by another thread.
+                        map.put(timer.getId(), timer);
+                        writeFile(timer);
+                    }
                 }
             } else {
 
@@ -230,7 +258,19 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 Object existing = transactionSynchronizationRegistry.getValue().getResource(key);
                 //check is there is already a persist sync for this timer
                 if (existing == null) {
-                    transactionSynchronizationRegistry.getValue().registerInterposedSynchronization(new PersistTransactionSynchronization(lock, key, newTimer));
+                    if (journal) {
+                        //a single sync writes all timers of the timed object changed by the transaction, with one fsync
+                        final String journalKey = journalTransactionKey(timer.getTimedObjectId());
+                        JournalTransactionSynchronization sync = (JournalTransactionSynchronization) transactionSynchronizationRegistry.getValue().getResource(journalKey);
+                        if (sync == null) {
+                            sync = new JournalTransactionSynchronization(lock, timer.getTimedObjectId(), timer.getTimerService());
+                            transactionSynchronizationRegistry.getValue().registerInterposedSynchronization(sync);
+                            transactionSynchronizationRegistry.getValue().putResource(journalKey, sync);
+                        }
+                        sync.addTimer(key, newTimer);
+                    } else {
+                        transactionSynchronizationRegistry.getValue().registerInterposedSynchronization(new PersistTransactionSynchronization(lock, key, newTimer));
+                    }
                 }
                 //update the most recent version of the timer to be persisted
                 transactionSynchronizationRegistry.getValue().putResource(key, timer);
@@ -240,12 +280,19 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         } finally {
             lock.unlock();
         }
+        if (timerJournal != null) {
+            syncJournal(timerJournal, sequence);
+        }
     }
 
     private String timerTransactionKey(final TimerImpl TimerImpl) {
         return "org.jboss.as.ejb3.timerTransactionKey." + TimerImpl.getId();
     }
 
+    private String journalTransactionKey(final String timedObjectId) {
+        return "org.jboss.as.ejb3.timerJournalTransactionKey." + timedObjectId;
+    }
+
     @Override
     public void timerUndeployed(final String timedObjectId) {
         final Lock lock = getLock(timedObjectId);
@@ -253,6 +300,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             lock.lock();
             locks.remove(timedObjectId);
             directories.remove(timedObjectId);
+            safeClose(journals.remove(timedObjectId));
         } finally {
             lock.unlock();
         }
@@ -272,6 +320,9 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         final Lock lock = getLock(timedObjectId);
         try {
             lock.lock();
+            if (journal) {
+                return loadActiveTimersFromJournal(timedObjectId, timerService);
+            }
             final Map<String, TimerImpl> timers = getTimers(timedObjectId, timerService);
 
             final List<TimerImpl> entities = new ArrayList<TimerImpl>();
@@ -284,6 +335,25 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
     }
 
+    private List<TimerImpl> loadActiveTimersFromJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        final TimerJournal timerJournal = getJournal(timedObjectId, timerService);
+        final ClassLoader classLoader = timerService.getTimedObjectInvoker().getValue().getClassLoader();
+        final List<TimerImpl> entities = new ArrayList<TimerImpl>();
+        for (Map.Entry<String, byte[]> entry : timerJournal.getTimers().entrySet()) {
+            try {
+                final TimerImpl timer = binaryFormat.read(entry.getValue(), timerService, classLoader);
+                if (timer != null) {
+                    entities.add(mostRecentEntityVersion(timer));
+                } else {
+                    ROOT_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), null);
+                }
+            } catch (Exception e) {
+                ROOT_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), e);
+            }
+        }
+        return entities;
+    }
+
     @Override
     public Closeable registerChangeListener(String timedObjectId, TimerChangeListener listener) {
         return new Closeable() {
@@ -334,6 +404,77 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return loadTimersFromFile(timedObjectId, timerService);
     }
 
+    /**
+     * Gets the journal of a timed object, opening it if necessary. The first time the journal is created, the timers
+     * stored in the XML format are migrated into it. Should be called under lock
+     *
+     * @param timedObjectId The timed object id
+     * @return The journal of the timed object
+     */
+    private TimerJournal getJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        TimerJournal timerJournal = journals.get(timedObjectId);
+        if (timerJournal == null) {
+            try {
+                timerJournal = new TimerJournal(new File(getDirectory(timedObjectId)));
+                if (timerJournal.isCreated()) {
+                    migrateTimers(timerJournal, timedObjectId, timerService);
+                }
+            } catch (IOException e) {
+                safeClose(timerJournal);
+                throw new RuntimeException(e);
+            }
+            journals.put(timedObjectId, timerJournal);
+        }
+        return timerJournal;
+    }
+
+    /**
+     * Moves the timers stored as XML files into a newly created journal. The XML files are only deleted once the
+     * journal has been forced to disk.
+     */
+    private void migrateTimers(final TimerJournal timerJournal, final String timedObjectId, final TimerServiceImpl timerService) throws IOException {
+        final Map<String, TimerImpl> timers = loadTimersFromFile(timedObjectId, timerService);
+        if (timers.isEmpty()) {
+            return;
+        }
+        for (TimerImpl timer : timers.values()) {
+            timerJournal.put(timer.getId(), binaryFormat.write(timer));
+        }
+        timerJournal.sync();
+        for (TimerImpl timer : timers.values()) {
+            final File file = fileName(timedObjectId, timer.getId());
+            if (file.exists()) {
+                file.delete();
+            }
+        }
+    }
+
+    /**
+     * Appends the change of a timer to the journal. Should be called under lock
+     */
+    private void writeJournal(final TimerJournal timerJournal, final TimerImpl timer, final boolean newTimer) {
+        try {
+            if (timer.getState() == TimerState.CANCELED ||
+                    timer.getState() == TimerState.EXPIRED) {
+                timerJournal.remove(timer.getId());
+            } else if (newTimer || timerJournal.contains(timer.getId())) {
+                //if it is not a new timer and is not in the journal then it has
+                //been removed by another thread.
+                timerJournal.put(timer.getId(), binaryFormat.write(timer));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void syncJournal(final TimerJournal timerJournal, final long sequence) {
+        try {
+            timerJournal.sync(sequence);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private Map<String, TimerImpl> loadTimersFromFile(String timedObjectId, TimerServiceImpl timerService) {
         Map<String, TimerImpl> timers = new HashMap<>();
         String directory = getDirectory(timedObjectId);
@@ -479,6 +620,68 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     }
 
+    /**
+     * Writes all timers of a timed object changed by a transaction into its journal once the transaction is committed,
+     * and forces them to disk together.
+     */
+    private final class JournalTransactionSynchronization implements Synchronization {
+
+        private final Lock lock;
+        private final String timedObjectId;
+        private final TimerServiceImpl timerService;
+        // the transaction key of each timer, with whether it was created by the transaction
+        private final Map<String, Boolean> transactionKeys = new LinkedHashMap<String, Boolean>();
+        private final List<TimerImpl> timers = new ArrayList<TimerImpl>();
+        private final List<Boolean> newTimers = new ArrayList<Boolean>();
+
+        JournalTransactionSynchronization(final Lock lock, final String timedObjectId, final TimerServiceImpl timerService) {
+            this.lock = lock;
+            this.timedObjectId = timedObjectId;
+            this.timerService = timerService;
+        }
+
+        void addTimer(final String transactionKey, final boolean newTimer) {
+            transactionKeys.put(transactionKey, newTimer);
+        }
+
+        @Override
+        public void beforeCompletion() {
+            //get the latest version of the entities
+            for (Map.Entry<String, Boolean> entry : transactionKeys.entrySet()) {
+                final TimerImpl timer = (TimerImpl) transactionSynchronizationRegistry.getValue().getResource(entry.getKey());
+                if (timer != null) {
+                    timers.add(timer);
+                    newTimers.add(entry.getValue());
+                }
+            }
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (timers.isEmpty() || status != Status.STATUS_COMMITTED) {
+                return;
+            }
+            doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    final TimerJournal timerJournal;
+                    final long sequence;
+                    try {
+                        lock.lock();
+                        timerJournal = getJournal(timedObjectId, timerService);
+                        for (int i = 0; i < timers.size(); i++) {
+                            writeJournal(timerJournal, timers.get(i), newTimers.get(i));
+                        }
+                        sequence = timerJournal.getSequence();
+                    } finally {
+                        lock.unlock();
+                    }
+                    syncJournal(timerJournal, sequence);
+                    return null;
+                }
+            });
+        }
+    }
+
     private void writeFile(TimerImpl timer) {
         final File file = fileName(timer.getTimedObjectId(), timer.getId());
 
@@ -0,0 +1,319 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.jboss.as.ejb3.logging.EjbLogger;
+
+/**
+ * Append-only log holding the persistent timers of a single timed object.
+ * <p/>
+ * Every change of a timer appends one record to the log, so persisting a timeout costs one small sequential write
+ * instead of rewriting a file. Records are only forced to disk by {@link #sync()} or {@link #sync(long)}, which allows
+ * several changes to be flushed together: a thread which finds the records it appended already forced by another
+ * thread returns without forcing the log again. Once enough records have been superseded, the log is compacted by rewriting the live records
+ * into a new file, which atomically replaces the old one.
+ * <p/>
+ * Each record consists of its length, its content and a CRC32 checksum of the content. Records following an incomplete
+ * or corrupt record (e.g. one which was being written when the server crashed) are discarded when the log is opened.
+ * <p/>
+ * This class is not thread safe, callers are expected to hold the lock of the timed object, except for the sync methods
+ * which may be called without it.
+ */
+final class TimerJournal implements Closeable {
+
+    static final String FILE_NAME = "timers.journal";
+
+    private static final int MAGIC = 0x454A544A;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    /**
+     * The minimum number of superseded records before the log is compacted.
+     */
+    static final int COMPACTION_THRESHOLD = 1024;
+
+    private final File file;
+    private final boolean created;
+    private final Map<String, byte[]> timers = new LinkedHashMap<String, byte[]>();
+    private final Object syncLock = new Object();
+    private volatile FileChannel channel;
+    private int garbage;
+    // the number of records appended, and the number of those which are known to be on disk
+    private volatile long sequence;
+    private long syncedSequence;
+
+    TimerJournal(File directory) throws IOException {
+        this.file = new File(directory, FILE_NAME);
+        // a log without a complete header was never written to
+        this.created = this.file.length() < HEADER_SIZE;
+        if (this.created) {
+            this.channel = create(this.file);
+        } else {
+            final long end = this.replay();
+            this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.WRITE);
+            if (end < this.channel.size()) {
+                EjbLogger.ROOT_LOGGER.timerJournalTruncated(this.file, end);
+                this.channel.truncate(end);
+            }
+            this.channel.position(end);
+            this.compactIfNeeded();
+        }
+    }
+
+    /**
+     * @return true if the log did not exist yet, and was created when opening it
+     */
+    boolean isCreated() {
+        return this.created;
+    }
+
+    /**
+     * @return the current content of the live timers, by timer id
+     */
+    Map<String, byte[]> getTimers() {
+        return Collections.unmodifiableMap(this.timers);
+    }
+
+    boolean contains(String timerId) {
+        return this.timers.containsKey(timerId);
+    }
+
+    /**
+     * Appends the new content of a timer to the log.
+     */
+    void put(String timerId, byte[] content) throws IOException {
+        this.append(PUT, timerId, content);
+        if (this.timers.put(timerId, content) != null) {
+            this.garbage++;
+        }
+        this.compactIfNeeded();
+    }
+
+    /**
+     * Appends the removal of a timer to the log, if the timer is present.
+     */
+    void remove(String timerId) throws IOException {
+        if (this.timers.containsKey(timerId)) {
+            this.append(REMOVE, timerId, null);
+            this.timers.remove(timerId);
+            // both the last put and the remove record are now superseded
+            this.garbage += 2;
+            this.compactIfNeeded();
+        }
+    }
+
+    /**
+     * @return the sequence number of the last appended record, to be passed to {@link #sync(long)}
+     */
+    long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Forces all the appended records to disk.
+     */
+    void sync() throws IOException {
+        this.sync(this.sequence);
+    }
+
+    /**
+     * Forces the records up to the given sequence number to disk, unless another thread already did so.
+     */
+    void sync(long sequence) throws IOException {
+        synchronized (this.syncLock) {
+            // a closed log was forced when it was closed
+            if (this.syncedSequence >= sequence || !this.channel.isOpen()) {
+                return;
+            }
+            // everything appended so far is forced as well
+            final long target = this.sequence;
+            this.channel.force(false);
+            this.syncedSequence = target;
+        }
+    }
+
+    /**
+     * Rewrites the live timers into a new log, which replaces the current one.
+     */
+    void compact() throws IOException {
+        final File tmp = new File(this.file.getParentFile(), FILE_NAME + ".tmp");
+        final FileChannel compacted = create(tmp);
+        try {
+            for (Map.Entry<String, byte[]> entry : this.timers.entrySet()) {
+                write(compacted, PUT, entry.getKey(), entry.getValue());
+            }
+            compacted.force(false);
+        } finally {
+            compacted.close();
+        }
+        synchronized (this.syncLock) {
+            this.channel.close();
+            Files.move(tmp.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            final FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.WRITE);
+            channel.position(channel.size());
+            this.channel = channel;
+            // the compacted log holds every live record, and was forced
+            this.syncedSequence = this.sequence;
+        }
+        this.garbage = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this.syncLock) {
+            try {
+                this.sync();
+            } finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (this.garbage >= COMPACTION_THRESHOLD && this.garbage > this.timers.size()) {
+            this.compact();
+        }
+    }
+
+    private void append(byte type, String timerId, byte[] content) throws IOException {
+        write(this.channel, type, timerId, content);
+        this.sequence++;
+    }
+
+    /**
+     * Reads the records of the log into the live timers.
+     *
+     * @return the offset following the last valid record
+     */
+    private long replay() throws IOException {
+        final long size = this.file.length();
+        try (InputStream in = new FileInputStream(this.file)) {
+            final DataInputStream input = new DataInputStream(new BufferedInputStream(in));
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException(this.file.getAbsolutePath());
+            }
+            long offset = HEADER_SIZE;
+            final CRC32 crc = new CRC32();
+            while (true) {
+                final byte[] record;
+                try {
+                    final int length = input.readInt();
+                    // a length beyond the end of the file is the remainder of a torn record
+                    if (length <= 0 || length > size - offset - 8) {
+                        return offset;
+                    }
+                    record = new byte[length];
+                    input.readFully(record);
+                    crc.reset();
+                    crc.update(record, 0, length);
+                    if (input.readInt() != (int) crc.getValue()) {
+                        return offset;
+                    }
+                } catch (EOFException e) {
+                    return offset;
+                }
+                this.apply(record);
+                offset += record.length + 8;
+            }
+        }
+    }
+
+    private void apply(byte[] record) throws IOException {
+        final DataInputStream input = new DataInputStream(new ByteArrayInputStream(record));
+        final byte type = input.readByte();
+        final String timerId = input.readUTF();
+        switch (type) {
+            case PUT: {
+                final int length = input.readInt();
+                if (length < 0 || length > input.available()) {
+                    throw new IOException(this.file.getAbsolutePath());
+                }
+                final byte[] content = new byte[length];
+                input.readFully(content);
+                if (this.timers.put(timerId, content) != null) {
+                    this.garbage++;
+                }
+                break;
+            }
+            case REMOVE: {
+                this.garbage += (this.timers.remove(timerId) != null) ? 2 : 1;
+                break;
+            }
+            default:
+                throw new IOException(this.file.getAbsolutePath());
+        }
+    }
+
+    private static FileChannel create(File file) throws IOException {
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        return channel;
+    }
+
+    private static void write(FileChannel channel, byte type, String timerId, byte[] content) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream((content != null) ? content.length + 64 : 64);
+        final DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(type);
+        output.writeUTF(timerId);
+        if (content != null) {
+            output.writeInt(content.length);
+            output.write(content);
+        }
+        output.flush();
+        final byte[] record = bytes.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(record, 0, record.length);
+        final ByteBuffer buffer = ByteBuffer.allocate(record.length + 8);
+        buffer.putInt(record.length).put(record).putInt((int) crc.getValue()).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+
+/**
+ * A {@link TimeoutScheduler} which spreads the timeouts across several single threaded
+ * {@link ScheduledThreadPoolExecutor}s, selected by the hash of the timer id.
+ * <p/>
+ * Each shard has its own queue and lock, so scheduling and cancelling timers only contends with the timers of the same
+ * shard, and a slow-to-dispatch timeout only delays the timeouts of its own shard. All timeouts of a given timer are
+ * triggered by the same shard, and so are never triggered concurrently.
+ */
+public class ShardedTimeoutScheduler implements TimeoutScheduler {
+
+    private final ScheduledThreadPoolExecutor[] shards;
+
+    public ShardedTimeoutScheduler(int shards, ThreadFactory threadFactory) {
+        if (shards < 1) {
+            throw new IllegalArgumentException(String.valueOf(shards));
+        }
+        this.shards = new ScheduledThreadPoolExecutor[shards];
+        for (int i = 0; i < shards; i++) {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, threadFactory);
+            // Keep the queues small when many timers are cancelled or rescheduled
+            executor.setRemoveOnCancelPolicy(true);
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+            executor.setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
+            this.shards[i] = executor;
+        }
+    }
+
+    private ScheduledThreadPoolExecutor shard(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return this.shards[(hash & Integer.MAX_VALUE) % this.shards.length];
+    }
+
+    @Override
+    public Handle schedule(String key, Runnable task, long delay) {
+        return new FutureHandle(this.shard(key).schedule(task, delay, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public Handle scheduleAtFixedRate(String key, Runnable task, long delay, long period) {
+        return new FutureHandle(this.shard(key).scheduleAtFixedRate(task, delay, period, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public void purge() {
+        for (ScheduledThreadPoolExecutor shard : this.shards) {
+            shard.purge();
+        }
+    }
+
+    /**
+     * Stops all shards. Scheduled timeouts will no longer be triggered.
+     */
+    public void shutdown() {
+        for (ScheduledThreadPoolExecutor shard : this.shards) {
+            shard.shutdownNow();
+        }
+    }
+
+    private static class FutureHandle implements Handle {
+        private final ScheduledFuture<?> future;
+
+        FutureHandle(ScheduledFuture<?> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void cancel() {
+            this.future.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.spi;
+
+/**
+ * The engine which triggers the timeouts of the timers of a timer service.
+ */
+public interface TimeoutScheduler {
+
+    /**
+     * A scheduled timeout.
+     */
+    interface Handle {
+        /**
+         * Cancels any further execution of the task. A task that is already running is not interrupted.
+         */
+        void cancel();
+    }
+
+    /**
+     * Schedules the task to run once.
+     *
+     * @param key   identifies the timer the task belongs to; implementations may use it to spread the load
+     * @param task  the task
+     * @param delay the delay in milliseconds
+     * @return the handle used to cancel the task
+     */
+    Handle schedule(String key, Runnable task, long delay);
+
+    /**
+     * Schedules the task to run repeatedly, at a fixed rate.
+     *
+     * @param key    identifies the timer the task belongs to; implementations may use it to spread the load
+     * @param task   the task
+     * @param delay  the delay of the first execution in milliseconds
+     * @param period the period between the start of successive executions in milliseconds
+     * @return the handle used to cancel the task
+     */
+    Handle scheduleAtFixedRate(String key, Runnable task, long delay, long period);
+
+    /**
+     * Removes cancelled tasks from the queue(s) of the scheduler.
+     */
+    void purge();
+}
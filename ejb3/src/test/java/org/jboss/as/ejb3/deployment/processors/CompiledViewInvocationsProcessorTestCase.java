@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.deployment.processors;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.jboss.as.ee.component.Attachments;
+import org.jboss.as.ee.component.ComponentDescription;
+import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.ee.component.ViewDescription;
+import org.jboss.as.ejb3.component.EJBComponentDescription;
+import org.jboss.as.server.deployment.DeploymentPhaseContext;
+import org.jboss.as.server.deployment.DeploymentUnit;
+import org.junit.Test;
+
+/**
+ * Tests that {@link CompiledViewInvocationsProcessor} applies the subsystem setting to the views of EJB components.
+ */
+public class CompiledViewInvocationsProcessorTestCase {
+
+    private static <C extends ComponentDescription> C component(final Class<C> type, final String name) {
+        final C component = mock(type);
+        when(component.getComponentName()).thenReturn(name);
+        when(component.getComponentClassName()).thenReturn(name);
+        return component;
+    }
+
+    @Test
+    public void testViewsOfEjbComponents() throws Exception {
+        final EJBComponentDescription ejb = component(EJBComponentDescription.class, "ejb");
+        final ComponentDescription managedBean = component(ComponentDescription.class, "managed-bean");
+        final ViewDescription ejbView = new ViewDescription(ejb, "EjbView");
+        final ViewDescription managedBeanView = new ViewDescription(managedBean, "ManagedBeanView");
+        when(ejb.getViews()).thenReturn(Collections.singleton(ejbView));
+        when(managedBean.getViews()).thenReturn(Collections.singleton(managedBeanView));
+
+        final EEModuleDescription module = new EEModuleDescription("app", "module", null, false);
+        module.addComponent(ejb);
+        module.addComponent(managedBean);
+        final DeploymentUnit deploymentUnit = mock(DeploymentUnit.class);
+        when(deploymentUnit.getAttachment(Attachments.EE_MODULE_DESCRIPTION)).thenReturn(module);
+        final DeploymentPhaseContext phaseContext = mock(DeploymentPhaseContext.class);
+        when(phaseContext.getDeploymentUnit()).thenReturn(deploymentUnit);
+
+        final CompiledViewInvocationsProcessor processor = new CompiledViewInvocationsProcessor();
+        processor.deploy(phaseContext);
+        assertFalse(ejbView.isCompiledInvocations());
+
+        processor.setCompiledInvocations(true);
+        processor.deploy(phaseContext);
+        assertTrue(ejbView.isCompiledInvocations());
+        // Only the views of EJB components are affected by the EJB subsystem
+        assertFalse(managedBeanView.isCompiledInvocations());
+
+        processor.setCompiledInvocations(false);
+        processor.deploy(phaseContext);
+        assertFalse(ejbView.isCompiledInvocations());
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.pool.elastic;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.pool.common.MockBean;
+import org.jboss.as.ejb3.pool.common.MockFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ElasticPool}.
+ */
+public class ElasticPoolUnitTestCase {
+
+    @Before
+    public void setUp() {
+        MockBean.reset();
+    }
+
+    @Test
+    public void testReuse() {
+        ElasticPool<MockBean> pool = new ElasticPool<MockBean>(new MockFactory(), 0, 10, 0, TimeUnit.SECONDS, null);
+        pool.start();
+
+        MockBean bean = pool.get();
+        pool.release(bean);
+        for (int i = 0; i < 10; i++) {
+            MockBean reused = pool.get();
+            assertTrue(bean == reused);
+            pool.release(reused);
+        }
+        assertEquals(1, pool.getCreateCount());
+        assertEquals(1, pool.getAvailableCount());
+
+        pool.stop();
+
+        assertEquals(1, MockBean.getPostConstructs());
+        assertEquals(1, MockBean.getPreDestroys());
+    }
+
+    @Test
+    public void testNeverBlocks() {
+        ElasticPool<MockBean> pool = new ElasticPool<MockBean>(new MockFactory(), 0, 5, 0, TimeUnit.SECONDS, null);
+        pool.start();
+
+        MockBean[] beans = new MockBean[20];
+        for (int i = 0; i < beans.length; i++) {
+            beans[i] = pool.get();
+            assertNotNull(beans[i]);
+        }
+        assertEquals(20, pool.getCurrentSize());
+
+        for (MockBean bean : beans) {
+            pool.release(bean);
+        }
+        // Surplus instances are destroyed on release
+        assertTrue(pool.getAvailableCount() <= pool.getMaxSize());
+        assertEquals(pool.getAvailableCount(), pool.getCurrentSize());
+
+        pool.stop();
+
+        assertEquals(20, MockBean.getPostConstructs());
+        assertEquals(20, MockBean.getPreDestroys());
+        assertEquals(0, pool.getCurrentSize());
+    }
+
+    @Test
+    public void testTrim() {
+        ElasticPool<MockBean> pool = new ElasticPool<MockBean>(new MockFactory(), 0, 10, 1, TimeUnit.SECONDS, null);
+        pool.start();
+
+        pool.release(pool.get());
+        assertEquals(1, pool.getAvailableCount());
+
+        // The first run only notices that the pool was used since the last run
+        pool.trim();
+        assertEquals(1, pool.getAvailableCount());
+
+        pool.trim();
+        assertEquals(0, pool.getAvailableCount());
+        assertEquals(1, MockBean.getPreDestroys());
+
+        pool.stop();
+    }
+
+    @Test
+    public void testMultiThread() throws Exception {
+        final ElasticPool<MockBean> pool = new ElasticPool<MockBean>(new MockFactory(), 0, 10, 0, TimeUnit.SECONDS, null);
+        pool.start();
+
+        final CountDownLatch ready = new CountDownLatch(20);
+        final CountDownLatch in = new CountDownLatch(1);
+
+        Callable<Void> task = new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                MockBean bean = pool.get();
+                ready.countDown();
+                in.await();
+                pool.release(bean);
+                for (int i = 0; i < 1000; i++) {
+                    pool.release(pool.get());
+                }
+                return null;
+            }
+        };
+
+        ExecutorService service = Executors.newFixedThreadPool(20);
+        try {
+            Future<?>[] results = new Future<?>[20];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = service.submit(task);
+            }
+            // No task may block another from acquiring an instance
+            assertTrue(ready.await(60, TimeUnit.SECONDS));
+            in.countDown();
+
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            service.shutdown();
+        }
+
+        assertTrue(pool.getAvailableCount() <= pool.getMaxSize());
+        assertEquals(pool.getAvailableCount(), pool.getCurrentSize());
+
+        pool.stop();
+
+        assertEquals(MockBean.getPostConstructs(), MockBean.getPreDestroys());
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link TimerJournal}.
+ */
+public class TimerJournalTestCase {
+
+    private File directory;
+
+    @Before
+    public void before() throws IOException {
+        this.directory = Files.createTempDirectory("timer-journal").toFile();
+    }
+
+    @After
+    public void after() {
+        for (File file : this.directory.listFiles()) {
+            file.delete();
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            assertTrue(journal.isCreated());
+            journal.put("a", new byte[] { 1 });
+            journal.put("b", new byte[] { 2 });
+            journal.put("a", new byte[] { 3 });
+            journal.remove("b");
+            journal.remove("c");
+            journal.sync();
+        }
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            assertFalse(journal.isCreated());
+            assertEquals(1, journal.getTimers().size());
+            assertArrayEquals(new byte[] { 3 }, journal.getTimers().get("a"));
+            assertFalse(journal.contains("b"));
+        }
+    }
+
+    @Test
+    public void testTornRecord() throws IOException {
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            journal.put("a", new byte[] { 1 });
+            journal.put("b", new byte[] { 2, 2, 2, 2 });
+        }
+        final File file = new File(this.directory, TimerJournal.FILE_NAME);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // cut the last record in half
+            raf.setLength(raf.length() - 6);
+        }
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            assertEquals(1, journal.getTimers().size());
+            assertTrue(journal.contains("a"));
+            // appending after a discarded record must not corrupt the journal
+            journal.put("c", new byte[] { 3 });
+        }
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            assertEquals(2, journal.getTimers().size());
+            assertArrayEquals(new byte[] { 3 }, journal.getTimers().get("c"));
+        }
+    }
+
+    @Test
+    public void testTornRecordLength() throws IOException {
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            journal.put("a", new byte[] { 1 });
+        }
+        final File file = new File(this.directory, TimerJournal.FILE_NAME);
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            // a record length far beyond the end of the file, as left by a torn write
+            raf.seek(raf.length());
+            raf.writeInt(Integer.MAX_VALUE - 8);
+        }
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            assertEquals(1, journal.getTimers().size());
+            assertTrue(journal.contains("a"));
+        }
+    }
+
+    @Test
+    public void testSyncSequence() throws IOException {
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            journal.put("a", new byte[] { 1 });
+            final long first = journal.getSequence();
+            journal.put("b", new byte[] { 2 });
+            final long second = journal.getSequence();
+            assertTrue(second > first);
+            // forcing the later record covers the earlier one too
+            journal.sync(second);
+            journal.sync(first);
+        }
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            assertEquals(2, journal.getTimers().size());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        final File file = new File(this.directory, TimerJournal.FILE_NAME);
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            for (int i = 0; i < TimerJournal.COMPACTION_THRESHOLD * 4; i++) {
+                journal.put("timer", new byte[] { (byte) i });
+            }
+            journal.sync();
+            // without compaction the journal would hold one record per put
+            assertTrue(file.length() < TimerJournal.COMPACTION_THRESHOLD * 2 * 16);
+        }
+        try (TimerJournal journal = new TimerJournal(this.directory)) {
+            assertEquals(1, journal.getTimers().size());
+            assertArrayEquals(new byte[] { (byte) (TimerJournal.COMPACTION_THRESHOLD * 4 - 1) }, journal.getTimers().get("timer"));
+        }
+        assertFalse(new File(this.directory, TimerJournal.FILE_NAME + ".tmp").exists());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.ejb3.timerservice.spi.TimeoutScheduler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ShardedTimeoutScheduler}.
+ */
+public class ShardedTimeoutSchedulerTestCase {
+
+    private ShardedTimeoutScheduler scheduler;
+
+    @Before
+    public void before() {
+        this.scheduler = new ShardedTimeoutScheduler(4, Executors.defaultThreadFactory());
+    }
+
+    @After
+    public void after() {
+        this.scheduler.shutdown();
+    }
+
+    @Test
+    public void testManyTimeouts() throws InterruptedException {
+        final int count = 10000;
+        final CountDownLatch latch = new CountDownLatch(count);
+        final AtomicLong maxLateness = new AtomicLong();
+        for (int i = 0; i < count; i++) {
+            final long delay = i % 50;
+            final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            this.scheduler.schedule("timer-" + i, new Runnable() {
+                @Override
+                public void run() {
+                    final long lateness = System.nanoTime() - deadline;
+                    long max = maxLateness.get();
+                    while (lateness > max && !maxLateness.compareAndSet(max, lateness)) {
+                        max = maxLateness.get();
+                    }
+                    latch.countDown();
+                }
+            }, delay);
+        }
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        // generous bound, this only guards against timeouts queuing up behind each other
+        final long maxLatenessMillis = TimeUnit.NANOSECONDS.toMillis(maxLateness.get());
+        assertTrue("Timeouts fired up to " + maxLatenessMillis + " ms late", maxLatenessMillis < 1000);
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        final AtomicInteger fired = new AtomicInteger();
+        final List<TimeoutScheduler.Handle> handles = new ArrayList<TimeoutScheduler.Handle>();
+        for (int i = 0; i < 1000; i++) {
+            handles.add(this.scheduler.schedule("timer-" + i, new Runnable() {
+                @Override
+                public void run() {
+                    fired.incrementAndGet();
+                }
+            }, 200));
+        }
+        for (TimeoutScheduler.Handle handle : handles) {
+            handle.cancel();
+        }
+        this.scheduler.purge();
+        Thread.sleep(400);
+        assertEquals(0, fired.get());
+    }
+
+    @Test
+    public void testFixedRate() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final TimeoutScheduler.Handle handle = this.scheduler.scheduleAtFixedRate("timer", new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, 0, 10);
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            handle.cancel();
+        }
+    }
+}
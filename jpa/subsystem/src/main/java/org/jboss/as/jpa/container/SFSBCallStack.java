@@ -23,7 +23,6 @@
 package org.jboss.as.jpa.container;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.jboss.as.jpa.messages.JpaLogger;
@@ -55,7 +54,6 @@ public class SFSBCallStack {
         SFSBCallStackThreadData data = CURRENT.get();
         int no = data.creationBeanNestingLevel;
         if (no == 0) {
-            data.creationTimeXPCRegistration = new HashMap<String, ExtendedEntityManager>();
             // create new tracking structure (passing in parent levels tracking structure or null if toplevel)
             data.creationTimeInjectedXPCs = new SFSBInjectedXPCs(data.creationTimeInjectedXPCs, null);
         }
@@ -78,7 +76,6 @@ public class SFSBCallStack {
 
         if (no == 0) {
             // Completed creating top level bean, remove 'xpc creation tracking' thread local
-            data.creationTimeXPCRegistration = null;
             data.creationTimeInjectedXPCs = null;
         }
         else {
@@ -150,9 +147,8 @@ public class SFSBCallStack {
      */
     public static Map<String, ExtendedEntityManager> popCall() {
         ArrayList<Map<String, ExtendedEntityManager>> stack = currentSFSBCallStack();
-        Map<String, ExtendedEntityManager> result = stack.remove(stack.size() - 1);
-        stack.trimToSize();
-        return result;
+        // the backing array is kept, trimming it would reallocate it on every push of the next invocation
+        return stack.remove(stack.size() - 1);
     }
 
     /**
@@ -176,11 +172,6 @@ public class SFSBCallStack {
          */
         private ArrayList<Map<String, ExtendedEntityManager>> invocationStack = new ArrayList<Map<String, ExtendedEntityManager>>();
 
-        /**
-         * During SFSB creation, track the injected extended persistence contexts
-         */
-        private Map<String, ExtendedEntityManager> creationTimeXPCRegistration = null;
-
         private SFSBInjectedXPCs creationTimeInjectedXPCs;
         /**
          * Track the SFSB bean injection nesting level.  Zero indicates the top level bean, one is the first level of SFSBs injected,
@@ -32,6 +32,7 @@ import java.util.Map;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.SynchronizationType;
+import javax.transaction.Transaction;
 import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 
@@ -79,13 +80,15 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     @Override
     protected EntityManager getEntityManager() {
         EntityManager entityManager;
-        boolean isInTx;
+        Transaction transaction;
 
-        isInTx = TransactionUtil.isInTx(transactionManager);
+        transaction = TransactionUtil.getActiveTransaction(transactionManager);
 
-        if (isInTx) {
-            entityManager = getOrCreateTransactionScopedEntityManager(emf, puScopedName, properties, synchronizationType);
+        if (transaction != null) {
+            entityManager = getOrCreateTransactionScopedEntityManager(transaction, emf, puScopedName, properties, synchronizationType);
         } else {
+            // drop what was cached for a transaction which completed, possibly on another thread
+            TransactionUtil.clearCachedTransactionScopedEntityManagers();
             entityManager = NonTxEmCloser.get(puScopedName);
             if (entityManager == null) {
                 entityManager = createEntityManager(emf, properties, synchronizationType);
@@ -140,7 +143,11 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     /**
      * get or create a Transactional entity manager.
      * Only call while a transaction is active in the current thread.
+     * <p/>
+     * The entity manager resolved for the transaction is cached by the current thread until the transaction completes,
+     * so that the TransactionSynchronizationRegistry is only consulted the first time.
      *
+     * @param transaction the active transaction of the current thread
      * @param emf
      * @param scopedPuName
      * @param properties
@@ -148,11 +155,17 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
      * @return
      */
     private EntityManager getOrCreateTransactionScopedEntityManager(
+            final Transaction transaction,
             final EntityManagerFactory emf,
             final String scopedPuName,
             final Map properties,
             final SynchronizationType synchronizationType) {
-        EntityManager entityManager = TransactionUtil.getTransactionScopedEntityManager(puScopedName, transactionSynchronizationRegistry);
+        EntityManager entityManager = TransactionUtil.getCachedTransactionScopedEntityManager(scopedPuName, transaction);
+        if (entityManager != null) {
+            testForMixedSynchronizationTypes(entityManager, scopedPuName, synchronizationType);
+            return entityManager;
+        }
+        entityManager = TransactionUtil.getTransactionScopedEntityManager(puScopedName, transactionSynchronizationRegistry);
         if (entityManager == null) {
             entityManager = createEntityManager(emf, properties, synchronizationType);
             if (ROOT_LOGGER.isDebugEnabled()) {
@@ -169,6 +182,7 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
                         TransactionUtil.getTransaction(transactionManager).toString());
             }
         }
+        TransactionUtil.cacheTransactionScopedEntityManager(scopedPuName, transaction, entityManager);
         return entityManager;
     }
 
@@ -25,6 +25,8 @@ package org.jboss.as.jpa.transaction;
 import static org.jboss.as.jpa.messages.JpaLogger.ROOT_LOGGER;
 
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Synchronization;
@@ -52,11 +54,81 @@ public class TransactionUtil {
 
     private static final EnumSet<EventType> eventTypes = EnumSet.of(EventType.ASSOCIATED, EventType.DISASSOCIATING);
 
+    /**
+     * The transaction scoped entity managers already resolved by the current thread for its current transaction, so
+     * that repeated invocations on a transaction scoped entity manager don't have to go through the
+     * TransactionSynchronizationRegistry.
+     */
+    private static final ThreadLocal<TransactionEntityManagers> CURRENT = new ThreadLocal<TransactionEntityManagers>();
+
     public static boolean isInTx(TransactionManager transactionManager) {
+        return getActiveTransaction(transactionManager) != null;
+    }
+
+    /**
+     * Get the transaction associated with the current thread if it is active.
+     *
+     * @param transactionManager
+     * @return the active transaction, or null if there is none
+     */
+    public static Transaction getActiveTransaction(TransactionManager transactionManager) {
         Transaction tx = getTransaction(transactionManager);
         if (tx == null || !TxUtils.isActive(tx))
-            return false;
-        return true;
+            return null;
+        return tx;
+    }
+
+    /**
+     * Get the persistence context previously resolved by the current thread for the specified transaction.
+     *
+     * @param puScopedName
+     * @param tx the active transaction of the current thread
+     * @return the entity manager, or null if it was not resolved yet by this thread
+     */
+    public static EntityManager getCachedTransactionScopedEntityManager(String puScopedName, Transaction tx) {
+        TransactionEntityManagers current = CURRENT.get();
+        if (current == null || current.transaction != tx) {
+            return null;
+        }
+        return current.entityManagers.get(puScopedName);
+    }
+
+    /**
+     * Remember the persistence context of the specified transaction for the current thread, until the transaction
+     * completes or the thread moves on to another transaction.
+     *
+     * @param puScopedName
+     * @param tx the active transaction of the current thread
+     * @param entityManager
+     */
+    public static void cacheTransactionScopedEntityManager(String puScopedName, Transaction tx, EntityManager entityManager) {
+        TransactionEntityManagers current = CURRENT.get();
+        if (current == null || current.transaction != tx) {
+            current = new TransactionEntityManagers(tx);
+            CURRENT.set(current);
+        }
+        current.entityManagers.put(puScopedName, entityManager);
+    }
+
+    /**
+     * Forget the persistence contexts cached by the current thread if they belong to the specified transaction.
+     *
+     * @param tx
+     */
+    static void clearCachedTransactionScopedEntityManagers(Transaction tx) {
+        TransactionEntityManagers current = CURRENT.get();
+        if (current != null && current.transaction == tx) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Forget the persistence contexts cached by the current thread, e.g. once it no longer has an active transaction.
+     * The cache is only ever cleared by the thread which owns it; a transaction completed by another thread, such as
+     * the transaction reaper, is noticed by the owning thread since it is no longer active.
+     */
+    public static void clearCachedTransactionScopedEntityManagers() {
+        CURRENT.remove();
     }
 
     /**
@@ -70,10 +142,11 @@ public class TransactionUtil {
     }
 
     public static void registerSynchronization(EntityManager entityManager, String puScopedName, TransactionSynchronizationRegistry tsr, TransactionManager transactionManager) {
-        SessionSynchronization sessionSynchronization = new SessionSynchronization(entityManager, puScopedName);
+        Transaction transaction = getTransaction(transactionManager);
+        SessionSynchronization sessionSynchronization = new SessionSynchronization(entityManager, puScopedName, transaction);
         tsr.registerInterposedSynchronization(sessionSynchronization);
         try {
-            getTransactionListenerRegistry(transactionManager).addListener(getTransaction(transactionManager), sessionSynchronization, eventTypes);
+            getTransactionListenerRegistry(transactionManager).addListener(transaction, sessionSynchronization, eventTypes);
         } catch (TransactionTypeNotSupported transactionTypeNotSupported) {
             throw JpaLogger.ROOT_LOGGER.errorGettingTransaction(transactionTypeNotSupported);
         }
@@ -146,12 +219,14 @@ public class TransactionUtil {
     private static class SessionSynchronization implements Synchronization, TransactionListener {
         private EntityManager manager;  // the underlying entity manager
         private String scopedPuName;
+        private final Transaction transaction;
         private transient boolean transactionDisassociatedFromApplication = false;
         private transient boolean afterCompletionCalled = false;
 
-        public SessionSynchronization(EntityManager session, String scopedPuName) {
+        public SessionSynchronization(EntityManager session, String scopedPuName, Transaction transaction) {
             this.manager = session;
             this.scopedPuName = scopedPuName;
+            this.transaction = transaction;
         }
 
         public void beforeCompletion() {
@@ -164,6 +239,7 @@ public class TransactionUtil {
              * at the same time.
              */
             afterCompletionCalled = true;
+            // the cache of the application thread is cleared by that thread, as this may run on the reaper thread
             safeCloseEntityManager();
         }
 
@@ -195,9 +271,22 @@ public class TransactionUtil {
             // is no longer associated with the transaction, as that indicates that it is safe to
             // close the entity manager (since the application is no longer using the entity manager).
             transactionDisassociatedFromApplication = transactionEvent.getTypes().contains(EventType.DISASSOCIATING);
+            if (transactionDisassociatedFromApplication) {
+                // notified on the application thread which is being disassociated, i.e. the owner of the cache
+                clearCachedTransactionScopedEntityManagers(transaction);
+            }
             safeCloseEntityManager();
         }
     }
 
+    private static final class TransactionEntityManagers {
+        private final Transaction transaction;
+        private final Map<String, EntityManager> entityManagers = new HashMap<String, EntityManager>(4);
+
+        TransactionEntityManagers(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
+
 
 }
@@ -0,0 +1,133 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.transaction;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transaction;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the per thread cache of transaction scoped entity managers.
+ */
+public class TransactionUtilTestCase {
+
+    private final Transaction tx1 = proxy(Transaction.class);
+    private final Transaction tx2 = proxy(Transaction.class);
+
+    @After
+    public void clear() {
+        TransactionUtil.clearCachedTransactionScopedEntityManagers();
+    }
+
+    @Test
+    public void testCachedPerTransaction() {
+        EntityManager first = proxy(EntityManager.class);
+        EntityManager second = proxy(EntityManager.class);
+        assertNull(TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx1));
+
+        TransactionUtil.cacheTransactionScopedEntityManager("app.jar#pu1", tx1, first);
+        TransactionUtil.cacheTransactionScopedEntityManager("app.jar#pu2", tx1, second);
+        assertSame(first, TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx1));
+        assertSame(second, TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu2", tx1));
+        assertNull(TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx2));
+
+        // moving on to another transaction forgets the entity managers of the previous one
+        TransactionUtil.cacheTransactionScopedEntityManager("app.jar#pu1", tx2, second);
+        assertSame(second, TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx2));
+        assertNull(TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx1));
+    }
+
+    @Test
+    public void testClearedOnCompletion() {
+        EntityManager entityManager = proxy(EntityManager.class);
+        TransactionUtil.cacheTransactionScopedEntityManager("app.jar#pu1", tx1, entityManager);
+
+        // completion of another transaction leaves the cache alone
+        TransactionUtil.clearCachedTransactionScopedEntityManagers(tx2);
+        assertSame(entityManager, TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx1));
+
+        TransactionUtil.clearCachedTransactionScopedEntityManagers(tx1);
+        assertNull(TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx1));
+    }
+
+    @Test
+    public void testCachedPerThread() throws Exception {
+        EntityManager entityManager = proxy(EntityManager.class);
+        TransactionUtil.cacheTransactionScopedEntityManager("app.jar#pu1", tx1, entityManager);
+
+        final AtomicReference<EntityManager> other = new AtomicReference<>(entityManager);
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                other.set(TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx1));
+            }
+        });
+        thread.start();
+        thread.join();
+        assertNull(other.get());
+    }
+
+    @Test
+    public void testClearedByOwningThread() throws Exception {
+        EntityManager entityManager = proxy(EntityManager.class);
+        TransactionUtil.cacheTransactionScopedEntityManager("app.jar#pu1", tx1, entityManager);
+
+        // a transaction completed by another thread, e.g. the reaper, cannot reach the cache of this thread
+        Thread reaper = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                TransactionUtil.clearCachedTransactionScopedEntityManagers(tx1);
+                TransactionUtil.clearCachedTransactionScopedEntityManagers();
+            }
+        });
+        reaper.start();
+        reaper.join();
+        assertSame(entityManager, TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx1));
+
+        // the owning thread drops it once it sees no active transaction
+        TransactionUtil.clearCachedTransactionScopedEntityManagers();
+        assertNull(TransactionUtil.getCachedTransactionScopedEntityManager("app.jar#pu1", tx1));
+    }
+
+    private static <T> T proxy(Class<T> type) {
+        return type.cast(Proxy.newProxyInstance(TransactionUtilTestCase.class.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getDeclaringClass() == Object.class) {
+                    return method.invoke(this, args);
+                }
+                return null;
+            }
+        }));
+    }
+}
@@ -208,7 +208,7 @@ public class InitialContext extends InitialLdapContext {
                         namespace = "jboss/exported";
                         remaining = name.getSuffix(2);
                     } else {
-                        namespace = theRest;
+                        namespace = namespace(first, theRest);
                         remaining = name.getSuffix(1);
                     }
                 } else {
@@ -228,6 +228,27 @@ public class InitialContext extends InitialLdapContext {
             };
         }
 
+        /**
+         * Returns the canonical instance of the common namespaces, so that the selectors' lookups by namespace hit
+         * the string identity check.
+         */
+        private static String namespace(final String first, final String theRest) {
+            switch (first) {
+                case "java:comp":
+                    return "comp";
+                case "java:module":
+                    return "module";
+                case "java:app":
+                    return "app";
+                case "java:global":
+                    return "global";
+                case "java:jboss":
+                    return "jboss";
+                default:
+                    return theRest;
+            }
+        }
+
         public Object lookup(final Name name, boolean dereference) throws NamingException {
             final ParsedName parsedName = parse(name);
             final Context namespaceContext = findContext(name, parsedName);
@@ -35,8 +35,10 @@ import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
+import org.jboss.msc.service.AbstractServiceListener;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -98,6 +100,43 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupBindingAfterRebind() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+        assertEquals(value, store.lookup(new CompositeName("foo/bar")));
+        assertEquals(value, store.lookup(new CompositeName("foo/bar")));
+
+        unbind(bindingName);
+
+        final Object newValue = new Object();
+        bindObject(bindingName, newValue);
+        assertEquals(newValue, store.lookup(new CompositeName("foo/bar")));
+    }
+
+    @Test
+    public void testLookupAliasesAfterRebind() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
+        final ServiceName otherBindingName = ServiceName.JBOSS.append("foo", "baz");
+        final Object value = new Object();
+        final Object otherValue = new Object();
+        bindObject(bindingName, value);
+        bindObject(otherBindingName, otherValue);
+        // both names resolve to the same binding
+        assertEquals(value, store.lookup(new CompositeName("foo/bar")));
+        assertEquals(value, store.lookup(new CompositeName("foo//bar")));
+        assertEquals(otherValue, store.lookup(new CompositeName("foo/baz")));
+
+        unbind(bindingName);
+
+        final Object newValue = new Object();
+        bindObject(bindingName, newValue);
+        assertEquals(newValue, store.lookup(new CompositeName("foo/bar")));
+        assertEquals(newValue, store.lookup(new CompositeName("foo//bar")));
+        assertEquals(otherValue, store.lookup(new CompositeName("foo/baz")));
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
@@ -415,4 +454,20 @@ public class ServiceBasedNamingStoreTestCase {
         }).install();
         latch.await();
     }
+
+    private void unbind(final ServiceName serviceName) throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ServiceController<?> controller = container.getRequiredService(serviceName);
+        controller.addListener(new AbstractServiceListener<Object>() {
+            @Override
+            public void transition(ServiceController<?> controller, ServiceController.Transition transition) {
+                if (transition.getAfter() == ServiceController.Substate.REMOVED) {
+                    latch.countDown();
+                }
+            }
+        });
+        controller.setMode(ServiceController.Mode.REMOVE);
+        latch.await();
+        store.remove(serviceName);
+    }
 }
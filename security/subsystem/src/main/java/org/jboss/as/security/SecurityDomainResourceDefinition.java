@@ -43,10 +43,16 @@ import org.jboss.as.controller.access.constraint.ApplicationTypeConfig;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.ApplicationTypeAccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.common.Util;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.org.jboss.as.security.lru.SegmentedLRUCache;
+import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.dmr.ModelNode;
@@ -67,6 +73,40 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
             .setAllowedValues("default", "infinispan")
             .build();
 
+    public static final SimpleAttributeDefinition CACHE_MAX_SIZE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MAX_SIZE, ModelType.INT, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(DefaultAuthenticationCacheFactory.DEFAULT_MAX_SIZE))
+            .setValidator(new IntRangeValidator(1, true, true))
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_LIFESPAN = new SimpleAttributeDefinitionBuilder(Constants.CACHE_LIFESPAN, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(0L))
+            .setValidator(new LongRangeValidator(0, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    public static final SimpleAttributeDefinition CACHE_MAX_IDLE = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MAX_IDLE, ModelType.LONG, true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(0L))
+            .setValidator(new LongRangeValidator(0, true, true))
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_HIT_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_HIT_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_MISS_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MISS_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_EVICTION_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_EVICTION_COUNT, ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition[] CACHE_ATTRIBUTES = { CACHE_MAX_SIZE, CACHE_LIFESPAN, CACHE_MAX_IDLE };
+
     private final boolean registerRuntimeOnly;
     private final List<AccessConstraintDefinition> accessConstraints;
 
@@ -84,6 +124,14 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, new SecurityDomainReloadWriteHandler(CACHE_TYPE));
+        for (SimpleAttributeDefinition attribute : CACHE_ATTRIBUTES) {
+            resourceRegistration.registerReadWriteAttribute(attribute, null, new SecurityDomainReloadWriteHandler(attribute));
+        }
+        if (registerRuntimeOnly) {
+            for (SimpleAttributeDefinition metric : new SimpleAttributeDefinition[] { CACHE_HIT_COUNT, CACHE_MISS_COUNT, CACHE_EVICTION_COUNT }) {
+                resourceRegistration.registerMetric(metric, CacheMetricsHandler.INSTANCE);
+            }
+        }
     }
 
     @Override
@@ -190,6 +238,40 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    static final class CacheMetricsHandler extends AbstractRuntimeOnlyHandler {
+        static final CacheMetricsHandler INSTANCE = new CacheMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+            final String securityDomain = address.getLastElement().getValue();
+            final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+
+            ServiceController<SecurityDomainContext> controller = getSecurityDomainService(context, securityDomain);
+            SegmentedLRUCache<?, ?> cache = null;
+            if (controller.getState() == ServiceController.State.UP) {
+                cache = ((SecurityDomainService) controller.getService()).getAuthenticationCache();
+            }
+            // Domains without a default cache report no activity
+            long value = 0;
+            if (cache != null) {
+                switch (attributeName) {
+                    case Constants.CACHE_HIT_COUNT:
+                        value = cache.getHitCount();
+                        break;
+                    case Constants.CACHE_MISS_COUNT:
+                        value = cache.getMissCount();
+                        break;
+                    case Constants.CACHE_EVICTION_COUNT:
+                        value = cache.getEvictionCount();
+                        break;
+                }
+            }
+            context.getResult().set(value);
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     /**
      * Wait for the required service to start up and fail otherwise. This method is necessary when a runtime operation
      * uses a service that might have been created within a composite operation.
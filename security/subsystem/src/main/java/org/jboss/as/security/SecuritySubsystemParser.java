@@ -72,6 +72,7 @@ import javax.xml.stream.XMLStreamException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.PropertiesAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.persistence.SubsystemMarshallingContext;
 import org.jboss.as.security.logging.SecurityLogger;
@@ -192,6 +193,9 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                 writer.writeAttribute(Attribute.NAME.getLocalName(), policy);
                 ModelNode policyDetails = securityDomains.get(policy);
                 SecurityDomainResourceDefinition.CACHE_TYPE.marshallAsAttribute(policyDetails, writer);
+                for (SimpleAttributeDefinition attribute : SecurityDomainResourceDefinition.CACHE_ATTRIBUTES) {
+                    attribute.marshallAsAttribute(policyDetails, writer);
+                }
                 writeSecurityDomainContent(writer, policyDetails);
                 writer.writeEndElement();
             }
@@ -221,6 +225,9 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
         Set<String> keys = policyDetails.keys();
         keys.remove(NAME);
         keys.remove(CACHE_TYPE);
+        for (SimpleAttributeDefinition attribute : SecurityDomainResourceDefinition.CACHE_ATTRIBUTES) {
+            keys.remove(attribute.getName());
+        }
 
         for (String key : keys) {
             Element element = Element.forName(key);
@@ -427,6 +434,7 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
     }
 
     private void parseSecurityDomain(List<ModelNode> list, XMLExtendedStreamReader reader, PathAddress parentAddress) throws XMLStreamException {
+        Namespace schemaVer = Namespace.forUri(reader.getNamespaceURI());
         ModelNode op = Util.createAddOperation();
         list.add(op);
         PathElement secDomainPath = null;
@@ -449,6 +457,21 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
                     SecurityDomainResourceDefinition.CACHE_TYPE.parseAndSetParameter(value, op, reader);
                     break;
                 }
+                case CACHE_MAX_SIZE: {
+                    if (schemaVer.compareTo(Namespace.SECURITY_1_3) < 0) { throw unexpectedAttribute(reader, i); }
+                    SecurityDomainResourceDefinition.CACHE_MAX_SIZE.parseAndSetParameter(value, op, reader);
+                    break;
+                }
+                case CACHE_LIFESPAN: {
+                    if (schemaVer.compareTo(Namespace.SECURITY_1_3) < 0) { throw unexpectedAttribute(reader, i); }
+                    SecurityDomainResourceDefinition.CACHE_LIFESPAN.parseAndSetParameter(value, op, reader);
+                    break;
+                }
+                case CACHE_MAX_IDLE: {
+                    if (schemaVer.compareTo(Namespace.SECURITY_1_3) < 0) { throw unexpectedAttribute(reader, i); }
+                    SecurityDomainResourceDefinition.CACHE_MAX_IDLE.parseAndSetParameter(value, op, reader);
+                    break;
+                }
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -746,8 +769,8 @@ public class SecuritySubsystemParser implements XMLStreamConstants, XMLElementRe
         Namespace schemaVer = Namespace.forUri(reader.getNamespaceURI());
         EnumSet<Attribute> required = EnumSet.of(Attribute.CODE);
         EnumSet<Attribute> notAllowed;
-        // in version 1.2 of the schema the optional flag attribute has been included.
-        if (schemaVer == Namespace.SECURITY_1_2) {
+        // since version 1.2 of the schema the optional flag attribute has been included.
+        if (schemaVer.compareTo(Namespace.SECURITY_1_2) >= 0) {
             notAllowed = EnumSet.of(Attribute.TYPE);
         }
         // in earlier versions of the schema, the flag attribute was missing (not allowed).
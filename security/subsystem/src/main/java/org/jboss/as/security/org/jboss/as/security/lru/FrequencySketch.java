@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.jboss.as.security.org.jboss.as.security.lru;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Approximate, aging access frequency of keys, in the style of a count-min sketch.
+ * <p/>
+ * <p>Each key maps to one saturating 4 bit counter per row; its estimated frequency is the minimum of those counters.
+ * Counters are packed eight to an int. Once the number of recorded accesses reaches the sample size, all counters are
+ * halved, so that the sketch reflects recent rather than historic popularity.</p>
+ */
+final class FrequencySketch {
+    private static final int[] SEEDS = { 0x97cb3127, 0xb492b66f, 0x9ae16a3b, 0x2f90404f };
+    private static final int MAX_COUNT = 15;
+    private static final int RESET_MASK = 0x77777777;
+
+    private final AtomicIntegerArray table;
+    private final int width;
+    private final int mask;
+    private final long sampleSize;
+    private final AtomicLong additions = new AtomicLong();
+
+    FrequencySketch(int capacity) {
+        int width = 64;
+        while (width < capacity * 8 && width < (1 << 26)) {
+            width <<= 1;
+        }
+        this.width = width;
+        this.mask = width - 1;
+        this.table = new AtomicIntegerArray((width * SEEDS.length) >>> 3);
+        this.sampleSize = 10L * Math.max(capacity, 1);
+    }
+
+    void increment(Object key) {
+        int hash = key.hashCode();
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; ++row) {
+            int index = index(hash, row);
+            int slot = index >>> 3;
+            int shift = (index & 7) << 2;
+            for (;;) {
+                int word = table.get(slot);
+                if (((word >>> shift) & MAX_COUNT) == MAX_COUNT) {
+                    break;
+                }
+                if (table.compareAndSet(slot, word, word + (1 << shift))) {
+                    added = true;
+                    break;
+                }
+            }
+        }
+        if (added && additions.incrementAndGet() >= sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(Object key) {
+        int hash = key.hashCode();
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; ++row) {
+            int index = index(hash, row);
+            frequency = Math.min(frequency, (table.get(index >>> 3) >>> ((index & 7) << 2)) & MAX_COUNT);
+        }
+        return frequency;
+    }
+
+    private synchronized void reset() {
+        if (additions.get() < sampleSize) {
+            // Another thread already aged the sketch
+            return;
+        }
+        for (int i = 0; i < table.length(); ++i) {
+            for (;;) {
+                int word = table.get(i);
+                if (table.compareAndSet(i, word, (word >>> 1) & RESET_MASK)) {
+                    break;
+                }
+            }
+        }
+        additions.set(additions.get() / 2);
+    }
+
+    private int index(int hash, int row) {
+        int h = (hash ^ SEEDS[row]) * 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return (row * width) + (h & mask);
+    }
+}
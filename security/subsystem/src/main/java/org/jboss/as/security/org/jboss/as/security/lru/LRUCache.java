@@ -26,6 +26,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A non-blocking cache where entries are indexed by a key.
@@ -48,6 +49,7 @@ public class LRUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K
     private final ConcurrentHashMap<K, CacheEntry<K, V>> cache;
     private final ConcurrentDirectDeque<CacheEntry<K, V>> accessQueue;
     private final RemoveCallback<K, V> removeCallback;
+    private final LongAdder evictions = new LongAdder();
 
     public LRUCache(int maxEntries) {
         this(maxEntries, null);
@@ -90,7 +92,9 @@ public class LRUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K
             //remove the oldest
             CacheEntry<K, V> oldest = accessQueue.poll();
             if (oldest != entry) {
-                this.remove(oldest.key());
+                if (this.remove(oldest.key()) != null) {
+                    evictions.increment();
+                }
             }
         }
 
@@ -136,6 +140,18 @@ public class LRUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K
         return cacheEntry.getValue();
     }
 
+    /**
+     * Returns the value mapped to the specified key, without recording an access.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not cached
+     */
+    public V peek(Object key) {
+        @SuppressWarnings("SuspiciousMethodCalls")
+        CacheEntry<K, V> cacheEntry = cache.get(key);
+        return (cacheEntry != null) ? cacheEntry.getValue() : null;
+    }
+
     private CacheEntry<K, V> get0(Object key) {
         @SuppressWarnings("SuspiciousMethodCalls")
         CacheEntry<K, V> cacheEntry = cache.get(key);
@@ -213,6 +229,25 @@ public class LRUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K
         return cache.size();
     }
 
+    /**
+     * Returns the key of the least recently used entry, i.e. the next candidate for eviction.
+     *
+     * @return a key, or null if the cache is empty
+     */
+    public K eldestKey() {
+        CacheEntry<K, V> eldest = accessQueue.peekFirst();
+        return (eldest != null) ? eldest.key() : null;
+    }
+
+    /**
+     * Returns the number of entries removed to keep the cache within its capacity.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
     @Override
     public Set<Entry<K, V>> entrySet() {
         return new WrappedEntrySet(cache.entrySet());
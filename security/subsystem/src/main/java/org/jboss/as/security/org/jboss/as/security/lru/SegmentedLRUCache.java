@@ -0,0 +1,331 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.jboss.as.security.org.jboss.as.security.lru;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, non-blocking cache with optional time based expiration, whose entries are striped over a number of
+ * {@link LRUCache} segments, each evicting independently.
+ * <p/>
+ * <p>Entries expire once they are older than the configured lifespan, or once they were not accessed for the
+ * configured max idle time. Expired entries are removed when accessed, or when they become the eviction candidate of
+ * their segment.</p>
+ * <p/>
+ * <p>When a segment is full, a new key is only admitted if it was accessed at least as frequently as the segment's
+ * eviction candidate, as estimated by a {@link FrequencySketch} (TinyLFU admission). This keeps keys that are seen
+ * once from displacing popular ones. A value that is not admitted is never cached, so it is not passed to the remove
+ * callback either: it remains owned by the caller.</p>
+ */
+public class SegmentedLRUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 16;
+
+    private final LRUCache<K, TimedValue<V>>[] segments;
+    private final int segmentMask;
+    private final int segmentCapacity;
+    private final long lifespan;
+    private final long maxIdle;
+    private final FrequencySketch sketch;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public SegmentedLRUCache(int maxEntries) {
+        this(maxEntries, 0, 0, null);
+    }
+
+    /**
+     * @param maxEntries the maximum number of entries
+     * @param lifespan the maximum time, in milliseconds, an entry remains cached, or 0 if unlimited
+     * @param maxIdle the maximum time, in milliseconds, an entry remains cached without being accessed, or 0 if unlimited
+     * @param removeCallback notified of entries removed from the cache, may be null
+     */
+    @SuppressWarnings("unchecked")
+    public SegmentedLRUCache(int maxEntries, long lifespan, long maxIdle, final RemoveCallback<K, V> removeCallback) {
+        int count = 1;
+        while (count < MAX_SEGMENTS && (count << 1) * MIN_SEGMENT_SIZE <= maxEntries) {
+            count <<= 1;
+        }
+        this.segmentMask = count - 1;
+        this.segmentCapacity = Math.max(1, (maxEntries + count - 1) / count);
+        this.lifespan = TimeUnit.MILLISECONDS.toNanos(lifespan);
+        this.maxIdle = TimeUnit.MILLISECONDS.toNanos(maxIdle);
+        this.sketch = new FrequencySketch(maxEntries);
+        RemoveCallback<K, TimedValue<V>> callback = null;
+        if (removeCallback != null) {
+            callback = new RemoveCallback<K, TimedValue<V>>() {
+                @Override
+                public void afterRemove(K key, TimedValue<V> value) {
+                    removeCallback.afterRemove(key, (value != null) ? value.value : null);
+                }
+            };
+        }
+        this.segments = new LRUCache[count];
+        for (int i = 0; i < count; ++i) {
+            this.segments[i] = new LRUCache<>(this.segmentCapacity, callback);
+        }
+    }
+
+    private LRUCache<K, TimedValue<V>> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[h & segmentMask];
+    }
+
+    @Override
+    public V get(Object key) {
+        sketch.increment(key);
+        LRUCache<K, TimedValue<V>> segment = segmentFor(key);
+        TimedValue<V> value = segment.get(key);
+        if (value != null) {
+            long now = System.nanoTime();
+            if (!isExpired(value, now)) {
+                value.accessed = now;
+                hits.increment();
+                return value.value;
+            }
+            expire(segment, key, value);
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        TimedValue<V> value = segmentFor(key).peek(key);
+        return value != null && !isExpired(value, System.nanoTime());
+    }
+
+    @Override
+    public V put(K key, V value) {
+        return put(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    private V put(K key, V value, boolean ifAbsent) {
+        LRUCache<K, TimedValue<V>> segment = segmentFor(key);
+        long now = System.nanoTime();
+        purgeEldest(segment, now);
+        if (segment.size() >= segmentCapacity && segment.peek(key) == null) {
+            K victim = segment.eldestKey();
+            if (victim != null && sketch.frequency(key) < sketch.frequency(victim)) {
+                rejections.increment();
+                return null;
+            }
+        }
+        TimedValue<V> old = segment.put(key, new TimedValue<>(value, now), ifAbsent);
+        return (old != null) ? old.value : null;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        TimedValue<V> old = segmentFor(key).replace(key, new TimedValue<>(value, System.nanoTime()));
+        return (old != null) ? old.value : null;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        LRUCache<K, TimedValue<V>> segment = segmentFor(key);
+        TimedValue<V> old = segment.peek(key);
+        return old != null && old.value == oldValue && segment.replace(key, old, new TimedValue<>(newValue, System.nanoTime()));
+    }
+
+    @Override
+    public V remove(Object key) {
+        TimedValue<V> old = segmentFor(key).remove(key);
+        return (old != null) ? old.value : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        LRUCache<K, TimedValue<V>> segment = segmentFor(key);
+        TimedValue<V> old = segment.peek(key);
+        return old != null && old.value == value && segment.remove(key, old);
+    }
+
+    @Override
+    public void clear() {
+        for (LRUCache<K, TimedValue<V>> segment : segments) {
+            segment.clear();
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (LRUCache<K, TimedValue<V>> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new EntrySet();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted to keep the cache within its capacity, entries that expired, and values
+     * that were not admitted in the first place.
+     *
+     * @return the number of evictions
+     */
+    public long getEvictionCount() {
+        long evictions = expirations.sum() + rejections.sum();
+        for (LRUCache<K, TimedValue<V>> segment : segments) {
+            evictions += segment.getEvictionCount();
+        }
+        return evictions;
+    }
+
+    private boolean isExpired(TimedValue<V> value, long now) {
+        return (lifespan > 0 && now - value.created > lifespan) || (maxIdle > 0 && now - value.accessed > maxIdle);
+    }
+
+    private void expire(LRUCache<K, TimedValue<V>> segment, Object key, TimedValue<V> value) {
+        // Only remove the entry if it was not replaced meanwhile
+        if (segment.peek(key) == value && segment.remove(key) != null) {
+            expirations.increment();
+        }
+    }
+
+    /**
+     * Removes the eviction candidate of the specified segment, if it has expired.
+     */
+    private void purgeEldest(LRUCache<K, TimedValue<V>> segment, long now) {
+        if (lifespan <= 0 && maxIdle <= 0) {
+            return;
+        }
+        K eldest = segment.eldestKey();
+        if (eldest != null) {
+            TimedValue<V> value = segment.peek(eldest);
+            if (value != null && isExpired(value, now)) {
+                expire(segment, eldest, value);
+            }
+        }
+    }
+
+    private static final class TimedValue<V> {
+        final V value;
+        final long created;
+        volatile long accessed;
+
+        TimedValue(V value, long created) {
+            this.value = value;
+            this.created = created;
+            this.accessed = created;
+        }
+    }
+
+    private class EntrySet extends AbstractSet<Entry<K, V>> {
+
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return SegmentedLRUCache.this.size();
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?, ?> e = (Entry<?, ?>) o;
+            return SegmentedLRUCache.this.remove(e.getKey()) != null;
+        }
+
+        @Override
+        public void clear() {
+            SegmentedLRUCache.this.clear();
+        }
+    }
+
+    /**
+     * Iterates over the entries of all segments, skipping the entries that have expired but were not removed yet.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final long now = System.nanoTime();
+        private int segment = 0;
+        private Iterator<Entry<K, TimedValue<V>>> iterator = segments[0].entrySet().iterator();
+        private Entry<K, V> next;
+        private K last;
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                while (!iterator.hasNext()) {
+                    if (++segment >= segments.length) {
+                        return false;
+                    }
+                    iterator = segments[segment].entrySet().iterator();
+                }
+                Entry<K, TimedValue<V>> entry = iterator.next();
+                TimedValue<V> value = entry.getValue();
+                if (value != null && !isExpired(value, now)) {
+                    next = new SimpleImmutableEntry<>(entry.getKey(), value.value);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> entry = next;
+            next = null;
+            last = entry.getKey();
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException("next() not called");
+            }
+            SegmentedLRUCache.this.remove(last);
+            last = null;
+        }
+    }
+}
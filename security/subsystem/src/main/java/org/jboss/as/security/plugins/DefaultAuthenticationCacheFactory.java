@@ -25,8 +25,8 @@ package org.jboss.as.security.plugins;
 import java.security.Principal;
 import java.util.concurrent.ConcurrentMap;
 
-import org.jboss.as.security.org.jboss.as.security.lru.LRUCache;
 import org.jboss.as.security.org.jboss.as.security.lru.RemoveCallback;
+import org.jboss.as.security.org.jboss.as.security.lru.SegmentedLRUCache;
 import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
 
 /**
@@ -36,13 +36,35 @@ import org.jboss.security.authentication.JBossCachedAuthenticationManager.Domain
  */
 public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFactory {
 
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final int maxSize;
+    private final long lifespan;
+    private final long maxIdle;
+    private volatile SegmentedLRUCache<Principal, DomainInfo> cache;
+
+    public DefaultAuthenticationCacheFactory() {
+        this(DEFAULT_MAX_SIZE, 0, 0);
+    }
+
+    /**
+     * @param maxSize the maximum number of cached principals
+     * @param lifespan the maximum time, in milliseconds, a principal remains cached, or 0 if unlimited
+     * @param maxIdle the maximum time, in milliseconds, an unused principal remains cached, or 0 if unlimited
+     */
+    public DefaultAuthenticationCacheFactory(int maxSize, long lifespan, long maxIdle) {
+        this.maxSize = maxSize;
+        this.lifespan = lifespan;
+        this.maxIdle = maxIdle;
+    }
+
     /**
      * Returns a default cache implementation
      *
      * @return cache implementation
      */
     public ConcurrentMap<Principal, DomainInfo> getCache() {
-        ConcurrentMap<Principal, DomainInfo> map = new LRUCache<>(1000,  new RemoveCallback<Principal, DomainInfo>() {
+        SegmentedLRUCache<Principal, DomainInfo> map = new SegmentedLRUCache<>(maxSize, lifespan, maxIdle, new RemoveCallback<Principal, DomainInfo>() {
             @Override
             public void afterRemove(Principal key, DomainInfo value) {
                 if (value != null) {
@@ -50,6 +72,16 @@ public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFac
                 }
             }
         });
+        this.cache = map;
         return map;
     }
+
+    /**
+     * Returns the cache most recently created by this factory.
+     *
+     * @return the cache, or null if no cache was created yet
+     */
+    public SegmentedLRUCache<Principal, DomainInfo> getCreatedCache() {
+        return cache;
+    }
 }
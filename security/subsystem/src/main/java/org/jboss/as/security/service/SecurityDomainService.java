@@ -26,6 +26,7 @@ import javax.security.auth.login.Configuration;
 
 import org.jboss.as.security.SecurityExtension;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.org.jboss.as.security.lru.SegmentedLRUCache;
 import org.jboss.as.security.plugins.AuthenticationCacheFactory;
 import org.jboss.as.security.plugins.DefaultAuthenticationCacheFactory;
 import org.jboss.as.security.plugins.InfinispanAuthenticationCacheFactory;
@@ -68,12 +69,28 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
 
     private final String cacheType;
 
+    private final int cacheMaxSize;
+
+    private final long cacheLifespan;
+
+    private final long cacheMaxIdle;
+
+    private volatile DefaultAuthenticationCacheFactory defaultCacheFactory;
+
     public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
             String cacheType) {
+        this(name, applicationPolicy, jsseSecurityDomain, cacheType, DefaultAuthenticationCacheFactory.DEFAULT_MAX_SIZE, 0, 0);
+    }
+
+    public SecurityDomainService(String name, ApplicationPolicy applicationPolicy, JSSESecurityDomain jsseSecurityDomain,
+            String cacheType, int cacheMaxSize, long cacheLifespan, long cacheMaxIdle) {
         this.name = name;
         this.applicationPolicy = applicationPolicy;
         this.jsseSecurityDomain = jsseSecurityDomain;
         this.cacheType = cacheType;
+        this.cacheMaxSize = cacheMaxSize;
+        this.cacheLifespan = cacheLifespan;
+        this.cacheMaxIdle = cacheMaxIdle;
     }
 
     /** {@inheritDoc} */
@@ -87,10 +104,12 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         }
         final JNDIBasedSecurityManagement securityManagement = (JNDIBasedSecurityManagement) securityManagementValue.getValue();
         AuthenticationCacheFactory cacheFactory = null;
+        defaultCacheFactory = null;
         if ("infinispan".equals(cacheType)) {
             cacheFactory = new InfinispanAuthenticationCacheFactory(cacheManagerValue.getValue(), name);
         } else if ("default".equals(cacheType)) {
-            cacheFactory = new DefaultAuthenticationCacheFactory();
+            defaultCacheFactory = new DefaultAuthenticationCacheFactory(cacheMaxSize, cacheLifespan, cacheMaxIdle);
+            cacheFactory = defaultCacheFactory;
         }
         try {
             securityDomainContext = securityManagement.createSecurityDomainContext(name, cacheFactory);
@@ -126,6 +145,16 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
         return securityDomainContext;
     }
 
+    /**
+     * Returns the authentication cache of this security domain, if it uses the default cache type.
+     *
+     * @return the cache, or null if the domain does not use the default cache
+     */
+    public SegmentedLRUCache<?, ?> getAuthenticationCache() {
+        DefaultAuthenticationCacheFactory factory = defaultCacheFactory;
+        return (factory != null) ? factory.getCreatedCache() : null;
+    }
+
     /**
      * Target {@code Injector}
      *
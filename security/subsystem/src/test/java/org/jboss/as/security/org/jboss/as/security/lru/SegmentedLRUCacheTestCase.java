@@ -0,0 +1,168 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.jboss.as.security.org.jboss.as.security.lru;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class SegmentedLRUCacheTestCase {
+
+    @Test
+    public void testPutGet() {
+        SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<>(100);
+        assertNull(cache.get("a"));
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        assertEquals("1", cache.putIfAbsent("a", "2"));
+        assertEquals("1", cache.put("a", "3"));
+        assertEquals("3", cache.get("a"));
+        assertEquals(1, cache.size());
+        assertTrue(cache.keySet().contains("a"));
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testBounded() {
+        SegmentedLRUCache<Integer, Integer> cache = new SegmentedLRUCache<>(64);
+        for (int i = 0; i < 1000; ++i) {
+            cache.put(i, i);
+        }
+        assertTrue(cache.size() <= 64);
+        assertTrue(cache.getEvictionCount() >= 1000 - 64);
+    }
+
+    @Test
+    public void testFrequentKeysAreRetained() {
+        SegmentedLRUCache<Integer, Integer> cache = new SegmentedLRUCache<>(16);
+        for (int i = 0; i < 16; ++i) {
+            cache.put(i, i);
+            for (int j = 0; j < 10; ++j) {
+                cache.get(i);
+            }
+        }
+        // A scan of keys that are seen only once must not displace the popular ones
+        for (int i = 100; i < 150; ++i) {
+            cache.get(i);
+            cache.put(i, i);
+        }
+        for (int i = 0; i < 16; ++i) {
+            assertEquals(Integer.valueOf(i), cache.get(i));
+        }
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        final List<String> removed = new ArrayList<>();
+        SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<>(100, 50, 0, new RemoveCallback<String, String>() {
+            @Override
+            public void afterRemove(String key, String value) {
+                removed.add(value);
+            }
+        });
+        cache.put("a", "1");
+        assertEquals("1", cache.get("a"));
+        Thread.sleep(100);
+        assertFalse(cache.containsKey("a"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+        assertEquals(1, removed.size());
+        assertEquals("1", removed.get(0));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testIdleExpiration() throws Exception {
+        SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<>(100, 0, 200, null);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        for (int i = 0; i < 3; ++i) {
+            Thread.sleep(100);
+            assertEquals("1", cache.get("a"));
+        }
+        assertEquals("1", cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void testRemoveCallback() {
+        final List<String> removed = new ArrayList<>();
+        SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<>(100, 0, 0, new RemoveCallback<String, String>() {
+            @Override
+            public void afterRemove(String key, String value) {
+                removed.add(value);
+            }
+        });
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertEquals("1", cache.remove("a"));
+        assertEquals(1, removed.size());
+        cache.clear();
+        assertEquals(2, removed.size());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRejectedValueIsNotRemoved() {
+        final List<Integer> removed = new ArrayList<>();
+        SegmentedLRUCache<Integer, Integer> cache = new SegmentedLRUCache<>(1, 0, 0, new RemoveCallback<Integer, Integer>() {
+            @Override
+            public void afterRemove(Integer key, Integer value) {
+                removed.add(value);
+            }
+        });
+        cache.put(1, 1);
+        for (int i = 0; i < 10; ++i) {
+            cache.get(1);
+        }
+        // A value that is not admitted was never cached, so it is not released by the cache
+        assertNull(cache.put(2, 2));
+        assertFalse(cache.containsKey(2));
+        assertTrue(removed.isEmpty());
+        assertEquals(Integer.valueOf(1), cache.get(1));
+    }
+
+    @Test
+    public void testIteratorSkipsExpiredEntries() throws Exception {
+        SegmentedLRUCache<String, String> cache = new SegmentedLRUCache<>(100, 0, 200, null);
+        cache.put("a", "1");
+        cache.put("b", "2");
+        Thread.sleep(100);
+        cache.get("a");
+        Thread.sleep(150);
+        Iterator<Map.Entry<String, String>> entries = cache.entrySet().iterator();
+        assertTrue(entries.hasNext());
+        Map.Entry<String, String> entry = entries.next();
+        assertEquals("a", entry.getKey());
+        assertEquals("1", entry.getValue());
+        assertFalse(entries.hasNext());
+        assertEquals(Collections.singleton("a"), new HashSet<>(cache.keySet()));
+    }
+}
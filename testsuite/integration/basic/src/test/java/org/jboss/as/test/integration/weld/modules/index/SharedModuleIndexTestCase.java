@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.test.integration.weld.modules.index;
+
+import java.io.File;
+import java.net.URL;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.enterprise.inject.spi.Extension;
+import javax.inject.Inject;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.container.test.api.OperateOnDeployment;
+import org.jboss.arquillian.junit.Arquillian;
+import org.jboss.as.test.module.util.TestModule;
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Tests that annotations of static module classes are resolved through the index shared between deployments, for every
+ * deployment depending on the module.
+ */
+@RunWith(Arquillian.class)
+public class SharedModuleIndexTestCase {
+
+    private static TestModule testModule;
+
+    public static void doSetup() throws Exception {
+        if (testModule != null) {
+            return;
+        }
+        URL url = SharedModuleIndexTestCase.class.getResource("shared-index-module.xml");
+        File moduleXmlFile = new File(url.toURI());
+        testModule = new TestModule("test.shared-index", moduleXmlFile);
+        JavaArchive jar = testModule.addResource("shared-index.jar");
+        jar.addClasses(SharedMarker.class, SharedStereotype.class, SharedBase.class, SharedUnmarkedBase.class);
+        testModule.create(true);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        if (testModule != null) {
+            testModule.remove();
+            testModule = null;
+        }
+    }
+
+    @Deployment(name = "first")
+    public static Archive<?> getFirstDeployment() throws Exception {
+        return createDeployment("first.war");
+    }
+
+    @Deployment(name = "second")
+    public static Archive<?> getSecondDeployment() throws Exception {
+        return createDeployment("second.war");
+    }
+
+    private static Archive<?> createDeployment(String name) throws Exception {
+        doSetup();
+        return ShrinkWrap.create(WebArchive.class, name)
+                .addClasses(SharedModuleIndexTestCase.class, TestModule.class, MarkerExtension.class)
+                .addClasses(MarkedBySuperclass.class, MarkedByMetaAnnotation.class, Unmarked.class)
+                .addAsServiceProvider(Extension.class, MarkerExtension.class)
+                .addAsWebInfResource(EmptyAsset.INSTANCE, "beans.xml")
+                .addAsManifestResource(new StringAsset("Dependencies: test.shared-index meta-inf\n"), "MANIFEST.MF");
+    }
+
+    @Inject
+    private MarkerExtension extension;
+
+    @Test
+    @OperateOnDeployment("first")
+    public void testFirstDeployment() {
+        assertMarked();
+    }
+
+    @Test
+    @OperateOnDeployment("second")
+    public void testSecondDeployment() {
+        assertMarked();
+    }
+
+    private void assertMarked() {
+        Set<Class<?>> expected = new HashSet<>();
+        expected.add(MarkedBySuperclass.class);
+        expected.add(MarkedByMetaAnnotation.class);
+        Assert.assertEquals(expected, new HashSet<>(extension.getMarked()));
+    }
+}
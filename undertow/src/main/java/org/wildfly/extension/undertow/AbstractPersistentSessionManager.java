@@ -166,7 +166,7 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
         private final Date expiry;
         private final Map<String, byte[]> data;
 
-        private SessionEntry(Date expiry, Map<String, byte[]> data) {
+        SessionEntry(Date expiry, Map<String, byte[]> data) {
             this.expiry = expiry;
             this.data = data;
         }
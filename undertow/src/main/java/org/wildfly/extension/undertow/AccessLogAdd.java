@@ -60,6 +60,9 @@ class AccessLogAdd extends AbstractAddStepHandler {
         final boolean useServerLog = AccessLogDefinition.USE_SERVER_LOG.resolveModelAttribute(context, model).asBoolean();
         final boolean rotate = AccessLogDefinition.ROTATE.resolveModelAttribute(context, model).asBoolean();
         final boolean extended = AccessLogDefinition.EXTENDED.resolveModelAttribute(context, model).asBoolean();
+        final boolean batched = AccessLogDefinition.BATCHED.resolveModelAttribute(context, model).asBoolean();
+        final ModelNode rotateSizeNode = AccessLogDefinition.ROTATE_SIZE.resolveModelAttribute(context, model);
+        final long rotateSize = rotateSizeNode.isDefined() ? rotateSizeNode.asLong() : 0;
         final ModelNode relativeToNode = AccessLogDefinition.RELATIVE_TO.resolveModelAttribute(context, model);
         final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
 
@@ -73,7 +76,7 @@ class AccessLogAdd extends AbstractAddStepHandler {
         if (useServerLog) {
             service = new AccessLogService(pattern, extended, predicate);
         } else {
-            service = new AccessLogService(pattern, directory, relativeTo, filePrefix, fileSuffix, rotate, extended, predicate);
+            service = new AccessLogService(pattern, directory, relativeTo, filePrefix, fileSuffix, rotate, extended, batched, rotateSize, predicate);
         }
 
         final String serverName = serverAddress.getLastElement().getValue();
@@ -33,6 +33,8 @@ import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.access.constraint.SensitivityClassification;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.dmr.ModelNode;
@@ -92,6 +94,17 @@ public class AccessLogDefinition extends PersistentResourceDefinition {
             .setAllowExpression(true)
             .build();
 
+    protected static final SimpleAttributeDefinition BATCHED = new SimpleAttributeDefinitionBuilder(Constants.BATCHED, ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .build();
+
+    protected static final SimpleAttributeDefinition ROTATE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.ROTATE_SIZE, ModelType.LONG, true)
+            .setValidator(new LongRangeValidator(1, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setAllowExpression(true)
+            .build();
+
     protected static final SimpleAttributeDefinition PREDICATE = new SimpleAttributeDefinitionBuilder(Constants.PREDICATE, ModelType.STRING, true)
             .setAllowExpression(true)
             .build();
@@ -107,7 +120,9 @@ public class AccessLogDefinition extends PersistentResourceDefinition {
             USE_SERVER_LOG,
             RELATIVE_TO,
             EXTENDED,
-            PREDICATE
+            PREDICATE,
+            BATCHED,
+            ROTATE_SIZE
     );
     static final AccessLogDefinition INSTANCE = new AccessLogDefinition();
     private final List<AccessConstraintDefinition> accessConstraints;
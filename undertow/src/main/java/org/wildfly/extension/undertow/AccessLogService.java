@@ -33,6 +33,7 @@ import io.undertow.server.handlers.accesslog.AccessLogReceiver;
 import io.undertow.server.handlers.accesslog.DefaultAccessLogReceiver;
 import io.undertow.server.handlers.accesslog.ExtendedAccessLogParser;
 import io.undertow.server.handlers.accesslog.JBossLoggingAccessLogReceiver;
+import io.undertow.server.handlers.accesslog.LogFileHeaderGenerator;
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
@@ -61,6 +62,8 @@ class AccessLogService implements Service<AccessLogService> {
     private final boolean rotate;
     private final boolean useServerLog;
     private final boolean extended;
+    private final boolean batched;
+    private final long rotateSize;
     private final Predicate predicate;
     private volatile AccessLogReceiver logReceiver;
 
@@ -82,10 +85,16 @@ class AccessLogService implements Service<AccessLogService> {
         this.fileSuffix = null;
         this.useServerLog = true;
         this.rotate = false; //doesn't really matter
+        this.batched = false;
+        this.rotateSize = 0;
         this.predicate = predicate == null ? Predicates.truePredicate() : predicate;
     }
 
     AccessLogService(String pattern, String path, String pathRelativeTo, String filePrefix, String fileSuffix, boolean rotate, boolean extended, Predicate predicate) {
+        this(pattern, path, pathRelativeTo, filePrefix, fileSuffix, rotate, extended, false, 0, predicate);
+    }
+
+    AccessLogService(String pattern, String path, String pathRelativeTo, String filePrefix, String fileSuffix, boolean rotate, boolean extended, boolean batched, long rotateSize, Predicate predicate) {
         this.pattern = pattern;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
@@ -93,6 +102,8 @@ class AccessLogService implements Service<AccessLogService> {
         this.fileSuffix = fileSuffix;
         this.rotate = rotate;
         this.extended = extended;
+        this.batched = batched;
+        this.rotateSize = rotateSize;
         this.useServerLog = false;
         this.predicate = predicate == null ? Predicates.truePredicate() : predicate;
     }
@@ -113,21 +124,29 @@ class AccessLogService implements Service<AccessLogService> {
                     throw UndertowLogger.ROOT_LOGGER.couldNotCreateLogDirectory(directory, e);
                 }
             }
-            try {
-                DefaultAccessLogReceiver.Builder builder = DefaultAccessLogReceiver.builder().setLogWriteExecutor(worker.getValue())
-                        .setOutputDirectory(directory)
-                        .setLogBaseName(filePrefix)
-                        .setLogNameSuffix(fileSuffix)
-                        .setRotate(rotate);
-                if(extended) {
-                    builder.setLogFileHeaderGenerator(new ExtendedAccessLogParser.ExtendedAccessLogHeaderGenerator(pattern));
-                    extendedPattern = new ExtendedAccessLogParser(getClass().getClassLoader()).parse(pattern);
-                } else {
-                    extendedPattern = null;
+            LogFileHeaderGenerator headerGenerator = null;
+            if(extended) {
+                headerGenerator = new ExtendedAccessLogParser.ExtendedAccessLogHeaderGenerator(pattern);
+                extendedPattern = new ExtendedAccessLogParser(getClass().getClassLoader()).parse(pattern);
+            } else {
+                extendedPattern = null;
+            }
+            if (batched) {
+                logReceiver = new BatchedAccessLogReceiver(worker.getValue(), directory, filePrefix, fileSuffix, rotate, rotateSize, headerGenerator);
+            } else {
+                try {
+                    DefaultAccessLogReceiver.Builder builder = DefaultAccessLogReceiver.builder().setLogWriteExecutor(worker.getValue())
+                            .setOutputDirectory(directory)
+                            .setLogBaseName(filePrefix)
+                            .setLogNameSuffix(fileSuffix)
+                            .setRotate(rotate);
+                    if (headerGenerator != null) {
+                        builder.setLogFileHeaderGenerator(headerGenerator);
+                    }
+                    logReceiver = builder.build();
+                } catch (IllegalStateException e) {
+                    throw new StartException(e);
                 }
-                logReceiver = builder.build();
-            } catch (IllegalStateException e) {
-                throw new StartException(e);
             }
         }
         host.getValue().setAccessLogService(this);
@@ -136,6 +155,9 @@ class AccessLogService implements Service<AccessLogService> {
     @Override
     public void stop(StopContext context) {
         host.getValue().setAccessLogService(null);
+        if (logReceiver instanceof BatchedAccessLogReceiver) {
+            ((BatchedAccessLogReceiver) logReceiver).close();
+        }
         if (callbackHandle != null) {
             callbackHandle.remove();
             callbackHandle = null;
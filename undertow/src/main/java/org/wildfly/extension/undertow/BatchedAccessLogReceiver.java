@@ -0,0 +1,376 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.undertow.server.handlers.accesslog.AccessLogReceiver;
+import io.undertow.server.handlers.accesslog.LogFileHeaderGenerator;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.xnio.XnioExecutor;
+import org.xnio.XnioWorker;
+
+/**
+ * Access log receiver that never blocks request threads on file I/O.
+ * <p>
+ * Each thread encodes its log entries into its own direct buffer. Filled buffers are handed off through a lock-free
+ * queue to a write task, executed by the XNIO worker one at a time, which writes them to the log file using gathering
+ * writes. Partially filled buffers are collected periodically, from an IO thread of the worker, so that entries from
+ * idle threads still reach the file. The buffers of threads that died are dropped once collected. The write task
+ * rotates the log daily and/or once it exceeds a given size. Since buffers are written as a whole, entries logged by
+ * different threads are not necessarily written in the order they were logged.
+ */
+class BatchedAccessLogReceiver implements AccessLogReceiver, Closeable {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final long FLUSH_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_BATCH = 64;
+    private static final byte NEW_LINE = '\n';
+
+    private final Path directory;
+    private final String prefix;
+    private final String suffix;
+    private final boolean rotate;
+    private final long rotateSize;
+    private final LogFileHeaderGenerator headerGenerator;
+
+    private final Queue<ByteBuffer> filled = new ConcurrentLinkedQueue<>();
+    private final Queue<ByteBuffer> free = new ConcurrentLinkedQueue<>();
+    private final Set<ThreadBuffer> buffers = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<ThreadBuffer> threadBuffer = new ThreadLocal<ThreadBuffer>() {
+        @Override
+        protected ThreadBuffer initialValue() {
+            ThreadBuffer buffer = new ThreadBuffer(Thread.currentThread());
+            BatchedAccessLogReceiver.this.buffers.add(buffer);
+            return buffer;
+        }
+    };
+    private final XnioWorker worker;
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private final Runnable writeTask = new Runnable() {
+        @Override
+        public void run() {
+            BatchedAccessLogReceiver.this.writeScheduled.set(false);
+            BatchedAccessLogReceiver.this.write();
+        }
+    };
+    private final Runnable collectTask = new Runnable() {
+        @Override
+        public void run() {
+            BatchedAccessLogReceiver.this.collect();
+            BatchedAccessLogReceiver.this.scheduleCollect();
+        }
+    };
+    private volatile boolean closed = false;
+    private volatile XnioExecutor.Key collectKey;
+
+    // Guarded by the batch list, which serializes writes
+    private final List<ByteBuffer> batch = new ArrayList<>(MAX_BATCH);
+    private boolean finished = false;
+    private FileChannel channel;
+    private Path file;
+    private LocalDate date;
+    private long size;
+
+    /**
+     * @param directory the directory of the log file
+     * @param prefix the log file name prefix
+     * @param suffix the log file name suffix
+     * @param rotate whether to rotate the log daily
+     * @param rotateSize the size, in bytes, beyond which the log is rotated, or a non-positive value to disable size based rotation
+     * @param headerGenerator generates the header written at the start of each log file, may be null
+     */
+    BatchedAccessLogReceiver(XnioWorker worker, Path directory, String prefix, String suffix, boolean rotate, long rotateSize, LogFileHeaderGenerator headerGenerator) {
+        this.worker = worker;
+        this.directory = directory;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.rotate = rotate;
+        this.rotateSize = rotateSize;
+        this.headerGenerator = headerGenerator;
+        this.scheduleCollect();
+    }
+
+    @Override
+    public void logMessage(String message) {
+        if (this.closed) return;
+        this.threadBuffer.get().append(message);
+    }
+
+    /**
+     * Stops collecting buffers, and writes whatever was logged so far on the calling thread, waiting for a running write task to complete.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        XnioExecutor.Key key = this.collectKey;
+        if (key != null) {
+            key.remove();
+        }
+        synchronized (this.batch) {
+            this.collect();
+            this.write();
+            this.closeFile();
+            this.finished = true;
+        }
+    }
+
+    private void scheduleCollect() {
+        if (!this.closed) {
+            this.collectKey = this.worker.getIoThread().executeAfter(this.collectTask, FLUSH_INTERVAL, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Steals the partially filled buffers of all threads, and forgets the buffers of threads that died.
+     */
+    private void collect() {
+        Iterator<ThreadBuffer> buffers = this.buffers.iterator();
+        while (buffers.hasNext()) {
+            ThreadBuffer buffer = buffers.next();
+            boolean dead = buffer.isOwnerDead();
+            buffer.steal();
+            if (dead) {
+                buffers.remove();
+            }
+        }
+    }
+
+    private void write() {
+        synchronized (this.batch) {
+            if (!this.finished) {
+                this.write(this.batch);
+            }
+        }
+    }
+
+    private void write(List<ByteBuffer> batch) {
+        ByteBuffer buffer = this.filled.poll();
+        while (buffer != null) {
+            long length = 0;
+            do {
+                buffer.flip();
+                length += buffer.remaining();
+                batch.add(buffer);
+                buffer = (batch.size() < MAX_BATCH) ? this.filled.poll() : null;
+            } while (buffer != null);
+
+            try {
+                this.prepareFile(length);
+                ByteBuffer[] buffers = batch.toArray(new ByteBuffer[batch.size()]);
+                long remaining = length;
+                while (remaining > 0) {
+                    remaining -= this.channel.write(buffers);
+                }
+                this.size += length;
+            } catch (IOException e) {
+                UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.file, e);
+                this.closeFile();
+            }
+            for (ByteBuffer written : batch) {
+                this.recycle(written);
+            }
+            batch.clear();
+            buffer = this.filled.poll();
+        }
+    }
+
+    private void prepareFile(long length) throws IOException {
+        LocalDate today = LocalDate.now();
+        if (this.channel != null) {
+            boolean expired = this.rotate && !today.equals(this.date);
+            boolean full = (this.rotateSize > 0) && (this.size > 0) && (this.size + length > this.rotateSize);
+            if (expired || full) {
+                this.closeFile();
+                Path target = this.directory.resolve(this.prefix + this.date + this.suffix);
+                for (int i = 1; Files.exists(target); ++i) {
+                    target = this.directory.resolve(this.prefix + this.date + "." + i + this.suffix);
+                }
+                Files.move(this.file, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        if (this.channel == null) {
+            this.file = this.directory.resolve(this.prefix + this.suffix);
+            this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            this.size = this.channel.size();
+            this.date = today;
+            if ((this.size == 0) && (this.headerGenerator != null)) {
+                String header = this.headerGenerator.generateHeader();
+                if (header != null) {
+                    ByteBuffer buffer = StandardCharsets.UTF_8.encode(header + "\n");
+                    while (buffer.hasRemaining()) {
+                        this.size += this.channel.write(buffer);
+                    }
+                }
+            }
+        }
+    }
+
+    private void closeFile() {
+        if (this.channel != null) {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.file, e);
+            }
+            this.channel = null;
+        }
+    }
+
+    ByteBuffer acquire() {
+        ByteBuffer buffer = this.free.poll();
+        return (buffer != null) ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+    }
+
+    private void recycle(ByteBuffer buffer) {
+        // Oversized buffers of single huge entries are not pooled
+        if (buffer.isDirect() && (buffer.capacity() == BUFFER_SIZE)) {
+            buffer.clear();
+            this.free.offer(buffer);
+        }
+    }
+
+    void submit(ByteBuffer buffer) {
+        if (buffer.position() > 0) {
+            this.filled.offer(buffer);
+            if (!this.closed && this.writeScheduled.compareAndSet(false, true)) {
+                try {
+                    this.worker.execute(this.writeTask);
+                } catch (RejectedExecutionException e) {
+                    // The worker is shutting down, buffers are written once this receiver is closed
+                    this.writeScheduled.set(false);
+                }
+            }
+        } else {
+            this.recycle(buffer);
+        }
+    }
+
+    /**
+     * Per-thread buffer. The owning thread takes the buffer out of the reference while appending to it, so that the
+     * collector can only ever steal a buffer that is not currently being appended to.
+     */
+    private class ThreadBuffer {
+        private final WeakReference<Thread> owner;
+        private final AtomicReference<ByteBuffer> reference = new AtomicReference<>();
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        ThreadBuffer(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        /**
+         * Indicates whether the owning thread died, in which case nothing will be appended to this buffer anymore.
+         */
+        boolean isOwnerDead() {
+            Thread owner = this.owner.get();
+            return (owner == null) || !owner.isAlive();
+        }
+
+        void append(String message) {
+            ByteBuffer buffer = this.reference.getAndSet(null);
+            if (buffer == null) {
+                buffer = BatchedAccessLogReceiver.this.acquire();
+            }
+            if (!this.encode(message, buffer)) {
+                // Entry does not fit, hand off what we have and retry with an empty buffer
+                BatchedAccessLogReceiver.this.submit(buffer);
+                buffer = BatchedAccessLogReceiver.this.acquire();
+                if (!this.encode(message, buffer)) {
+                    BatchedAccessLogReceiver.this.submit(this.encodeOversized(message));
+                    this.reference.set(buffer);
+                    return;
+                }
+            }
+            buffer.put(NEW_LINE);
+            // Collection only ever clears the reference, so there is nothing to overwrite
+            this.reference.set(buffer);
+        }
+
+        /**
+         * Encodes the specified entry into the specified buffer, leaving room for the trailing new line.
+         * @return true, if the entry was encoded, false if it did not fit, in which case the buffer is left unchanged
+         */
+        private boolean encode(String message, ByteBuffer buffer) {
+            int position = buffer.position();
+            this.encoder.reset();
+            CoderResult result = this.encoder.encode(CharBuffer.wrap(message), buffer, true);
+            if (!result.isOverflow()) {
+                result = this.encoder.flush(buffer);
+            }
+            if (result.isOverflow() || !buffer.hasRemaining()) {
+                buffer.position(position);
+                return false;
+            }
+            return true;
+        }
+
+        private ByteBuffer encodeOversized(String message) {
+            try {
+                this.encoder.reset();
+                ByteBuffer encoded = this.encoder.encode(CharBuffer.wrap(message));
+                ByteBuffer buffer = ByteBuffer.allocate(encoded.remaining() + 1);
+                buffer.put(encoded).put(NEW_LINE);
+                return buffer;
+            } catch (CharacterCodingException e) {
+                // Cannot happen, since malformed and unmappable input is replaced
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void steal() {
+            ByteBuffer buffer = this.reference.getAndSet(null);
+            if (buffer != null) {
+                BatchedAccessLogReceiver.this.submit(buffer);
+            }
+        }
+    }
+}
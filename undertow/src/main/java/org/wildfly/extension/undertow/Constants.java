@@ -58,6 +58,8 @@ public interface Constants {
     String PREFIX = "prefix";
     String SUFFIX = "suffix";
     String ROTATE = "rotate";
+    String ROTATE_SIZE = "rotate-size";
+    String BATCHED = "batched";
     //String CLASS = "class";
     String DEFAULT_HOST = "default-host";
     String DEFAULT_VIRTUAL_HOST = "default-virtual-host";
@@ -123,6 +125,7 @@ public interface Constants {
     String ALLOW_NON_STANDARD_WRAPPERS = "allow-non-standard-wrappers";
 
     String PERSISTENT_SESSIONS = "persistent-sessions";
+    String INCREMENTAL = "incremental";
     String DEFAULT_BUFFER_CACHE = "default-buffer-cache";
 
     String RELATIVE_TO = "relative-to";
@@ -216,4 +219,5 @@ public interface Constants {
     String EXTENDED = "extended";
     String MAX_BUFFERED_REQUEST_SIZE = "max-buffered-request-size";
     String MAX_SESSIONS = "max-sessions";
+    String DELTA_SESSION_REPLICATION = "delta-session-replication";
 }
@@ -0,0 +1,335 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.session.Session;
+import io.undertow.server.session.SessionListener;
+import io.undertow.servlet.UndertowServletLogger;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.msc.service.StopContext;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent session manager that stores sessions incrementally in segmented files on disk.
+ * <p>
+ * Only sessions that were accessed, or whose attributes were set or removed, since they were last persisted are serialized again, one session at a time.
+ * A session counts as accessed once its expiration time differs from the stored one, so in-place changes to mutable attribute values made by a request are persisted as well.
+ * When a deployment starts, session attributes are deserialized lazily, session by session, straight from the memory mapped segments.
+ */
+public class SegmentedPersistentSessionManager extends DiskBasedModularPersistentSessionManager {
+
+    private static final int SEGMENTS = 16;
+
+    private final Map<String, SessionSegmentStore> stores = new ConcurrentHashMap<>();
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+
+    public SegmentedPersistentSessionManager(String path, String pathRelativeTo) {
+        super(path, pathRelativeTo);
+    }
+
+    /**
+     * Returns the listener that tracks changed sessions of the specified deployment.
+     */
+    public SessionListener getSessionListener(String deploymentName) {
+        return this.tracker(deploymentName);
+    }
+
+    @Override
+    public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
+        Tracker tracker = this.tracker(deploymentName);
+        try {
+            SessionSegmentStore store = this.store(deploymentName);
+            final Marshaller marshaller = createMarshaller();
+            try {
+                for (Map.Entry<String, PersistentSession> sessionEntry : sessionData.entrySet()) {
+                    String id = sessionEntry.getKey();
+                    long expiry = sessionEntry.getValue().getExpiration().getTime();
+                    if (!tracker.isDirty(id) && store.isCurrent(id, expiry)) {
+                        continue;
+                    }
+                    Map<String, byte[]> data = new HashMap<String, byte[]>();
+                    for (Map.Entry<String, Object> sessionAttribute : sessionEntry.getValue().getSessionData().entrySet()) {
+                        try {
+                            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                            marshaller.start(new OutputStreamByteOutput(out));
+                            marshaller.writeObject(sessionAttribute.getValue());
+                            marshaller.finish();
+                            data.put(sessionAttribute.getKey(), out.toByteArray());
+                        } catch (Exception e) {
+                            UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), id, e);
+                        }
+                    }
+                    store.write(id, expiry, data);
+                }
+            } finally {
+                marshaller.close();
+            }
+            retain(store, sessionData.keySet());
+            // Keep tracked changes if the sessions could not be written, so that they are written by the next attempt
+            tracker.reset();
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
+        }
+    }
+
+    @Override
+    public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, final ClassLoader classLoader) {
+        try {
+            Tracker tracker = this.tracker(deploymentName);
+            Map<String, SessionSegmentStore.Stored> stored = this.store(deploymentName).load(System.currentTimeMillis());
+            Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
+            for (Map.Entry<String, SessionSegmentStore.Stored> sessionEntry : stored.entrySet()) {
+                LazySessionData data = new LazySessionData(sessionEntry.getKey(), sessionEntry.getValue(), tracker);
+                tracker.restoring(sessionEntry.getKey(), data);
+                ret.put(sessionEntry.getKey(), new PersistentSession(new Date(sessionEntry.getValue().getExpiry()), data));
+            }
+            return ret;
+        } catch (Exception e) {
+            UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized void stop(StopContext stopContext) {
+        for (SessionSegmentStore store : this.stores.values()) {
+            store.close();
+        }
+        this.stores.clear();
+        super.stop(stopContext);
+    }
+
+    @Override
+    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
+        SessionSegmentStore store = this.store(deploymentName);
+        for (Map.Entry<String, SessionEntry> sessionEntry : serializedData.entrySet()) {
+            store.write(sessionEntry.getKey(), sessionEntry.getValue().getExpiry().getTime(), sessionEntry.getValue().getData());
+        }
+        retain(store, serializedData.keySet());
+    }
+
+    @Override
+    protected Map<String, SessionEntry> loadSerializedSessions(String deploymentName) throws IOException {
+        Map<String, SessionEntry> result = new HashMap<String, SessionEntry>();
+        for (Map.Entry<String, SessionSegmentStore.Stored> sessionEntry : this.store(deploymentName).load(System.currentTimeMillis()).entrySet()) {
+            Map<String, byte[]> data = new HashMap<String, byte[]>();
+            for (Map.Entry<String, ByteBuffer> sessionAttribute : sessionEntry.getValue().getAttributes().entrySet()) {
+                ByteBuffer buffer = sessionAttribute.getValue();
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                data.put(sessionAttribute.getKey(), bytes);
+            }
+            result.put(sessionEntry.getKey(), new SessionEntry(new Date(sessionEntry.getValue().getExpiry()), data));
+        }
+        return result;
+    }
+
+    /**
+     * Removes all sessions but the specified ones from the store, and forces the store to disk.
+     */
+    private static void retain(SessionSegmentStore store, Set<String> ids) throws IOException {
+        for (String id : store.getSessionIds()) {
+            if (!ids.contains(id)) {
+                store.remove(id);
+            }
+        }
+        store.flush();
+    }
+
+    private SessionSegmentStore store(String deploymentName) throws IOException {
+        SessionSegmentStore store = this.stores.get(deploymentName);
+        if (store == null) {
+            synchronized (this.stores) {
+                store = this.stores.get(deploymentName);
+                if (store == null) {
+                    store = new SessionSegmentStore(new File(getBaseDir(), deploymentName + ".segments"), SEGMENTS);
+                    this.stores.put(deploymentName, store);
+                }
+            }
+        }
+        return store;
+    }
+
+    private Tracker tracker(String deploymentName) {
+        return this.trackers.computeIfAbsent(deploymentName, name -> new Tracker());
+    }
+
+    /**
+     * Session attributes that are only deserialized once they are first accessed.
+     */
+    private class LazySessionData extends AbstractMap<String, Object> {
+        private final String id;
+        private final Tracker tracker;
+        private SessionSegmentStore.Stored stored;
+        private Map<String, Object> attributes;
+        // Names of the attributes not yet re-inserted into the restored session
+        private Set<String> unrestored;
+
+        LazySessionData(String id, SessionSegmentStore.Stored stored, Tracker tracker) {
+            this.id = id;
+            this.stored = stored;
+            this.tracker = tracker;
+        }
+
+        @Override
+        public synchronized Set<Entry<String, Object>> entrySet() {
+            return this.attributes().entrySet();
+        }
+
+        /**
+         * Indicates whether the specified value is the restored value of the specified attribute,
+         * i.e. whether its insertion into the session is not a change.
+         */
+        synchronized boolean restore(String name, Object value) {
+            Map<String, Object> attributes = this.attributes();
+            if (this.unrestored == null) {
+                this.unrestored = new HashSet<String>(attributes.keySet());
+            }
+            return (attributes.get(name) == value) && this.unrestored.remove(name);
+        }
+
+        /**
+         * Indicates whether all attributes were re-inserted into the restored session.
+         */
+        synchronized boolean isRestored() {
+            return this.attributes().isEmpty() || ((this.unrestored != null) && this.unrestored.isEmpty());
+        }
+
+        private Map<String, Object> attributes() {
+            if (this.attributes == null) {
+                this.attributes = this.read();
+                this.stored = null;
+            }
+            return this.attributes;
+        }
+
+        private Map<String, Object> read() {
+            Map<String, Object> attributes = new HashMap<String, Object>();
+            try {
+                Unmarshaller unmarshaller = createUnmarshaller();
+                try {
+                    for (Map.Entry<String, ByteBuffer> sessionAttribute : this.stored.getAttributes().entrySet()) {
+                        unmarshaller.start(new ByteBufferInput(sessionAttribute.getValue()));
+                        attributes.put(sessionAttribute.getKey(), unmarshaller.readObject());
+                        unmarshaller.finish();
+                    }
+                } finally {
+                    unmarshaller.close();
+                }
+            } catch (Exception e) {
+                UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+                // Make sure the incomplete session is written again
+                this.tracker.dirty.add(this.id);
+            }
+            return attributes;
+        }
+    }
+
+    /**
+     * Tracks the sessions of a deployment whose attributes were set or removed since they were last persisted.
+     */
+    private static class Tracker implements SessionListener {
+        final Set<String> dirty = ConcurrentHashMap.newKeySet();
+        // Attributes of restored sessions, whose re-insertion into the session must not mark the session as changed.
+        // Entries are released as soon as their session is restored or destroyed.
+        private final Map<String, LazySessionData> restoring = new ConcurrentHashMap<>();
+
+        boolean isDirty(String id) {
+            return this.dirty.contains(id);
+        }
+
+        void restoring(String id, LazySessionData attributes) {
+            this.restoring.put(id, attributes);
+        }
+
+        void reset() {
+            this.dirty.clear();
+            this.restoring.clear();
+        }
+
+        private void release(String id) {
+            LazySessionData restoring = this.restoring.get(id);
+            if ((restoring != null) && restoring.isRestored()) {
+                this.restoring.remove(id, restoring);
+            }
+        }
+
+        @Override
+        public void sessionCreated(Session session, HttpServerExchange exchange) {
+            // A session that has never been stored is always written, a restored session without attributes has nothing left to restore
+            this.release(session.getId());
+        }
+
+        @Override
+        public void sessionDestroyed(Session session, HttpServerExchange exchange, SessionDestroyedReason reason) {
+            // Sessions that are no longer persisted are removed from the store
+            this.restoring.remove(session.getId());
+            this.dirty.remove(session.getId());
+        }
+
+        @Override
+        public void attributeAdded(Session session, String name, Object value) {
+            LazySessionData restoring = this.restoring.get(session.getId());
+            if (restoring != null) {
+                boolean restored = restoring.restore(name, value);
+                this.release(session.getId());
+                if (restored) {
+                    return;
+                }
+            }
+            this.dirty.add(session.getId());
+        }
+
+        @Override
+        public void attributeUpdated(Session session, String name, Object newValue, Object oldValue) {
+            this.dirty.add(session.getId());
+        }
+
+        @Override
+        public void attributeRemoved(Session session, String name, Object oldValue) {
+            this.dirty.add(session.getId());
+        }
+
+        @Override
+        public void sessionIdChanged(Session session, String oldSessionId) {
+            this.restoring.remove(oldSessionId);
+            this.dirty.remove(oldSessionId);
+            this.dirty.add(session.getId());
+        }
+    }
+}
@@ -139,6 +139,13 @@ class ServletContainerDefinition extends PersistentResourceDefinition {
                     .setAllowExpression(true)
                     .build();
 
+    protected static final AttributeDefinition DELTA_SESSION_REPLICATION =
+            new SimpleAttributeDefinitionBuilder(Constants.DELTA_SESSION_REPLICATION, ModelType.BOOLEAN, true)
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .setAllowExpression(true)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
     private static final List<? extends PersistentResourceDefinition> CHILDREN;
     static final Collection<AttributeDefinition> ATTRIBUTES = Arrays.asList(
             ALLOW_NON_STANDARD_WRAPPERS,
@@ -153,7 +160,8 @@ class ServletContainerDefinition extends PersistentResourceDefinition {
             DIRECTORY_LISTING,
             PROACTIVE_AUTHENTICATION,
             SESSION_ID_LENGTH,
-            MAX_SESSIONS
+            MAX_SESSIONS,
+            DELTA_SESSION_REPLICATION
             );
 
     static final ServletContainerDefinition INSTANCE = new ServletContainerDefinition();
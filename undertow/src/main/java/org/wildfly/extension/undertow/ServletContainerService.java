@@ -75,11 +75,13 @@ public class ServletContainerService implements Service<ServletContainerService>
     private final boolean proactiveAuth;
     private final Map<String, AuthenticationMechanismFactory> authenticationMechanisms;
     private final Integer maxSessions;
+    private final boolean deltaSessionReplication;
 
     public ServletContainerService(boolean allowNonStandardWrappers, ServletStackTraces stackTraces, SessionCookieConfig sessionCookieConfig, JSPConfig jspConfig,
                                    String defaultEncoding, boolean useListenerEncoding, boolean ignoreFlush, boolean eagerFilterInit, int defaultSessionTimeout,
                                    boolean disableCachingForSecuredPages, boolean websocketsEnabled, boolean dispatchWebsocketInvocationToWorker, Map<String, String> mimeMappings,
-                                   List<String> welcomeFiles, Boolean directoryListingEnabled, boolean proactiveAuth, int sessionIdLength, Map<String, AuthenticationMechanismFactory> authenticationMechanisms, Integer maxSessions) {
+                                   List<String> welcomeFiles, Boolean directoryListingEnabled, boolean proactiveAuth, int sessionIdLength, Map<String, AuthenticationMechanismFactory> authenticationMechanisms, Integer maxSessions,
+                                   boolean deltaSessionReplication) {
         this.allowNonStandardWrappers = allowNonStandardWrappers;
         this.stackTraces = stackTraces;
         this.sessionCookieConfig = sessionCookieConfig;
@@ -95,6 +97,7 @@ public class ServletContainerService implements Service<ServletContainerService>
         this.directoryListingEnabled = directoryListingEnabled;
         this.proactiveAuth = proactiveAuth;
         this.maxSessions = maxSessions;
+        this.deltaSessionReplication = deltaSessionReplication;
         this.welcomeFiles = new ArrayList<>(welcomeFiles);
         this.mimeMappings = new HashMap<>(mimeMappings);
         this.sessionIdLength = sessionIdLength;
@@ -220,4 +223,8 @@ public class ServletContainerService implements Service<ServletContainerService>
     public Integer getMaxSessions() {
         return maxSessions;
     }
+
+    public boolean isDeltaSessionReplication() {
+        return deltaSessionReplication;
+    }
 }
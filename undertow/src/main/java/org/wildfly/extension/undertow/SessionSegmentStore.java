@@ -0,0 +1,379 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.xnio.IoUtils;
+
+/**
+ * Stores the serialized sessions of one deployment in a fixed number of append-only segment files.
+ * Each record holds either all serialized attributes of a session, or a tombstone for a removed session.
+ * Later records of a session supersede earlier ones, and a segment is compacted once most of its bytes belong to superseded records.
+ * Segments are scanned through memory mapped windows, which are also the source of the attribute data handed out by {@link #load(long)}.
+ * A window covers a bounded range of a segment, so segments may grow beyond the 2GB limit of a single mapping.
+ */
+final class SessionSegmentStore implements Closeable {
+
+    private static final byte TOMBSTONE = 0;
+    private static final byte SESSION = 1;
+    private static final long MIN_COMPACTION_SIZE = 1 << 20;
+    private static final int WINDOW_SIZE = 1 << 26;
+
+    private final Segment[] segments;
+
+    SessionSegmentStore(File dir, int segments) throws IOException {
+        this(dir, segments, WINDOW_SIZE);
+    }
+
+    SessionSegmentStore(File dir, int segments, int windowSize) throws IOException {
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException(dir.getAbsolutePath());
+        }
+        this.segments = new Segment[segments];
+        for (int i = 0; i < segments; ++i) {
+            this.segments[i] = new Segment(new File(dir, "segment-" + i), windowSize);
+        }
+    }
+
+    /**
+     * Returns the attribute data of all stored sessions that expire after the specified time.
+     * Attribute data is not copied out of the memory mapped segments.
+     */
+    Map<String, Stored> load(long time) throws IOException {
+        Map<String, Stored> result = new HashMap<>();
+        for (Segment segment : this.segments) {
+            segment.load(time, result);
+        }
+        return result;
+    }
+
+    Set<String> getSessionIds() {
+        Set<String> ids = new HashSet<>();
+        for (Segment segment : this.segments) {
+            ids.addAll(segment.index.keySet());
+        }
+        return ids;
+    }
+
+    boolean contains(String id) {
+        return this.segment(id).index.containsKey(id);
+    }
+
+    void write(String id, long expiry, Map<String, byte[]> attributes) throws IOException {
+        this.segment(id).write(id, expiry, attributes);
+    }
+
+    /**
+     * Indicates whether the latest record of the specified session was stored with the specified expiration time.
+     */
+    boolean isCurrent(String id, long expiry) {
+        Record record = this.segment(id).index.get(id);
+        return (record != null) && (record.expiry == expiry);
+    }
+
+    void remove(String id) throws IOException {
+        this.segment(id).remove(id);
+    }
+
+    /**
+     * Forces all written records to disk, compacting segments that are mostly made of superseded records.
+     */
+    void flush() throws IOException {
+        for (Segment segment : this.segments) {
+            segment.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : this.segments) {
+            IoUtils.safeClose(segment.channel);
+        }
+    }
+
+    private Segment segment(String id) {
+        return this.segments[(id.hashCode() & Integer.MAX_VALUE) % this.segments.length];
+    }
+
+    /**
+     * The stored, still serialized, attributes of a session.
+     */
+    static final class Stored {
+        private final long expiry;
+        private final ByteBuffer attributes;
+
+        Stored(long expiry, ByteBuffer attributes) {
+            this.expiry = expiry;
+            this.attributes = attributes;
+        }
+
+        long getExpiry() {
+            return this.expiry;
+        }
+
+        /**
+         * Returns the serialized attributes, keyed by attribute name.
+         */
+        Map<String, ByteBuffer> getAttributes() {
+            ByteBuffer buffer = this.attributes.duplicate();
+            int count = buffer.getInt();
+            Map<String, ByteBuffer> attributes = new HashMap<>(count * 2);
+            for (int i = 0; i < count; ++i) {
+                String name = readString(buffer);
+                int length = buffer.getInt();
+                ByteBuffer value = buffer.slice();
+                value.limit(length);
+                buffer.position(buffer.position() + length);
+                attributes.put(name, value);
+            }
+            return attributes;
+        }
+    }
+
+    /**
+     * Location of the latest record of a session within its segment.
+     */
+    private static final class Record {
+        final long position;
+        final int length;
+        final long expiryPosition;
+        final long expiry;
+
+        Record(long position, int length, long expiryPosition, long expiry) {
+            this.position = position;
+            this.length = length;
+            this.expiryPosition = expiryPosition;
+            this.expiry = expiry;
+        }
+    }
+
+    private static final class Segment {
+        private final File file;
+        private final int windowSize;
+        final Map<String, Record> index = new HashMap<>();
+        FileChannel channel;
+        private long size;
+        private long liveBytes;
+
+        Segment(File file, int windowSize) throws IOException {
+            this.file = file;
+            this.windowSize = windowSize;
+            this.open();
+        }
+
+        private void open() throws IOException {
+            this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.index.clear();
+            this.liveBytes = 0;
+            long size = this.channel.size();
+            long position = 0;
+            Window window = null;
+            while (size - position >= 4) {
+                if ((window == null) || !window.covers(position, 4)) {
+                    window = this.map(position, 4, size);
+                }
+                int length = window.buffer.getInt(window.offset(position));
+                if ((length <= 0) || (length > Integer.MAX_VALUE - 4) || (length > size - position - 4)) {
+                    break;
+                }
+                if (!window.covers(position, length + 4L)) {
+                    window = this.map(position, length + 4L, size);
+                }
+                ByteBuffer buffer = window.slice(position + 4, length);
+                byte type = buffer.get();
+                String id = readString(buffer);
+                Record previous = (type == SESSION) ? this.index.put(id, new Record(position, length + 4, position + 4 + buffer.position(), buffer.getLong(buffer.position()))) : this.index.remove(id);
+                if (previous != null) {
+                    this.liveBytes -= previous.length;
+                }
+                if (type == SESSION) {
+                    this.liveBytes += length + 4;
+                }
+                position += length + 4L;
+            }
+            if (position < size) {
+                // Discard a partially written record left behind by a crash
+                this.channel.truncate(position);
+            }
+            this.size = position;
+        }
+
+        void load(long time, Map<String, Stored> result) throws IOException {
+            // Visit records in file order, so that consecutive records share a window
+            List<Map.Entry<String, Record>> records = new ArrayList<>(this.index.entrySet());
+            records.sort(Comparator.comparingLong(entry -> entry.getValue().position));
+            Window window = null;
+            for (Map.Entry<String, Record> entry : records) {
+                Record record = entry.getValue();
+                if ((window == null) || !window.covers(record.position, record.length)) {
+                    window = this.map(record.position, record.length, this.size);
+                }
+                ByteBuffer buffer = window.slice(record.expiryPosition, record.position + record.length - record.expiryPosition);
+                long expiry = buffer.getLong();
+                if (expiry > time) {
+                    result.put(entry.getKey(), new Stored(expiry, buffer.slice()));
+                }
+            }
+        }
+
+        /**
+         * Maps a window of this segment starting at the specified position, large enough to cover the specified length.
+         */
+        private Window map(long position, long length, long size) throws IOException {
+            long windowLength = Math.min(Math.max(this.windowSize, length), size - position);
+            return new Window(position, this.channel.map(FileChannel.MapMode.READ_ONLY, position, windowLength));
+        }
+
+        void write(String id, long expiry, Map<String, byte[]> attributes) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(0);
+            output.writeByte(SESSION);
+            writeString(output, id);
+            int expiryOffset = output.size();
+            output.writeLong(expiry);
+            output.writeInt(attributes.size());
+            for (Map.Entry<String, byte[]> attribute : attributes.entrySet()) {
+                writeString(output, attribute.getKey());
+                output.writeInt(attribute.getValue().length);
+                output.write(attribute.getValue());
+            }
+            output.flush();
+            long position = this.append(bytes.toByteArray());
+            Record previous = this.index.put(id, new Record(position, bytes.size(), position + expiryOffset, expiry));
+            if (previous != null) {
+                this.liveBytes -= previous.length;
+            }
+            this.liveBytes += bytes.size();
+        }
+
+        void remove(String id) throws IOException {
+            Record previous = this.index.remove(id);
+            if (previous != null) {
+                this.liveBytes -= previous.length;
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                DataOutputStream output = new DataOutputStream(bytes);
+                output.writeInt(0);
+                output.writeByte(TOMBSTONE);
+                writeString(output, id);
+                output.flush();
+                this.append(bytes.toByteArray());
+            }
+        }
+
+        private long append(byte[] record) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            buffer.putInt(0, record.length - 4);
+            long position = this.size;
+            long offset = position;
+            while (buffer.hasRemaining()) {
+                offset += this.channel.write(buffer, offset);
+            }
+            this.size = offset;
+            return position;
+        }
+
+        void flush() throws IOException {
+            if ((this.size > MIN_COMPACTION_SIZE) && (this.liveBytes < this.size / 2)) {
+                this.compact();
+            } else {
+                this.channel.force(false);
+            }
+        }
+
+        private void compact() throws IOException {
+            File compacted = new File(this.file.getParentFile(), this.file.getName() + ".compact");
+            try (FileChannel target = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (Record record : this.index.values()) {
+                    long transferred = 0;
+                    while (transferred < record.length) {
+                        transferred += this.channel.transferTo(record.position + transferred, record.length - transferred, target);
+                    }
+                }
+                target.force(false);
+            }
+            this.channel.close();
+            Files.move(compacted.toPath(), this.file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Previously loaded attribute data keeps referencing the old mapping, which remains valid until it is garbage collected
+            this.open();
+        }
+    }
+
+    /**
+     * A memory mapped range of a segment, addressed by absolute segment positions.
+     */
+    private static final class Window {
+        final long start;
+        final MappedByteBuffer buffer;
+
+        Window(long start, MappedByteBuffer buffer) {
+            this.start = start;
+            this.buffer = buffer;
+        }
+
+        boolean covers(long position, long length) {
+            return (position >= this.start) && (position + length <= this.start + this.buffer.capacity());
+        }
+
+        int offset(long position) {
+            return (int) (position - this.start);
+        }
+
+        ByteBuffer slice(long position, long length) {
+            ByteBuffer buffer = this.buffer.duplicate();
+            buffer.limit(this.offset(position + length));
+            buffer.position(this.offset(position));
+            return buffer.slice();
+        }
+    }
+
+    static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+
+    static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -31,6 +31,7 @@ import org.jboss.as.controller.PersistentResourceXMLDescription;
 import org.jboss.as.controller.PersistentResourceXMLParser;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.dmr.ModelNode;
+import org.wildfly.extension.undertow.filters.AdaptiveConnectionLimitFilter;
 import org.wildfly.extension.undertow.filters.ConnectionLimitHandler;
 import org.wildfly.extension.undertow.filters.CustomFilterDefinition;
 import org.wildfly.extension.undertow.filters.ErrorPageDefinition;
@@ -105,7 +106,7 @@ public class UndertowSubsystemParser_3_0 extends PersistentResourceXMLParser {
                                                                 )
                                                 ).addChild(
                                                 builder(AccessLogDefinition.INSTANCE)
-                                                        .addAttributes(AccessLogDefinition.PATTERN, AccessLogDefinition.DIRECTORY, AccessLogDefinition.RELATIVE_TO, AccessLogDefinition.PREFIX, AccessLogDefinition.SUFFIX, AccessLogDefinition.WORKER, AccessLogDefinition.ROTATE, AccessLogDefinition.USE_SERVER_LOG, AccessLogDefinition.EXTENDED, AccessLogDefinition.PREDICATE)
+                                                        .addAttributes(AccessLogDefinition.PATTERN, AccessLogDefinition.DIRECTORY, AccessLogDefinition.RELATIVE_TO, AccessLogDefinition.PREFIX, AccessLogDefinition.SUFFIX, AccessLogDefinition.WORKER, AccessLogDefinition.ROTATE, AccessLogDefinition.USE_SERVER_LOG, AccessLogDefinition.EXTENDED, AccessLogDefinition.PREDICATE, AccessLogDefinition.BATCHED, AccessLogDefinition.ROTATE_SIZE)
                                         ).addChild(
                                                 builder(FilterRefDefinition.INSTANCE)
                                                         .addAttributes(FilterRefDefinition.PREDICATE, FilterRefDefinition.PRIORITY)
@@ -130,6 +131,7 @@ public class UndertowSubsystemParser_3_0 extends PersistentResourceXMLParser {
                                 .addAttribute(ServletContainerDefinition.PROACTIVE_AUTHENTICATION)
                                 .addAttribute(ServletContainerDefinition.SESSION_ID_LENGTH)
                                 .addAttribute(ServletContainerDefinition.MAX_SESSIONS)
+                                .addAttribute(ServletContainerDefinition.DELTA_SESSION_REPLICATION)
                                 .addChild(
                                         builder(JspDefinition.INSTANCE)
                                                 .setXmlElementName(Constants.JSP_CONFIG)
@@ -170,7 +172,8 @@ public class UndertowSubsystemParser_3_0 extends PersistentResourceXMLParser {
                                         builder(PersistentSessionsDefinition.INSTANCE)
                                                 .addAttributes(
                                                         PersistentSessionsDefinition.PATH,
-                                                        PersistentSessionsDefinition.RELATIVE_TO
+                                                        PersistentSessionsDefinition.RELATIVE_TO,
+                                                        PersistentSessionsDefinition.INCREMENTAL
                                                 )
                                 )
                                 .addChild(
@@ -201,7 +204,9 @@ public class UndertowSubsystemParser_3_0 extends PersistentResourceXMLParser {
                                                         FileHandler.DIRECTORY_LISTING,
                                                         FileHandler.FOLLOW_SYMLINK,
                                                         FileHandler.SAFE_SYMLINK_PATHS,
-                                                        FileHandler.CASE_SENSITIVE
+                                                        FileHandler.CASE_SENSITIVE,
+                                                        FileHandler.PRE_COMPRESSED,
+                                                        FileHandler.COMPRESS
                                                 )
                                 )
                                 .addChild(
@@ -229,6 +234,15 @@ public class UndertowSubsystemParser_3_0 extends PersistentResourceXMLParser {
                                         builder(ConnectionLimitHandler.INSTANCE)
                                                 .addAttributes(ConnectionLimitHandler.MAX_CONCURRENT_REQUESTS, ConnectionLimitHandler.QUEUE_SIZE)
                                 ).addChild(
+                                builder(AdaptiveConnectionLimitFilter.INSTANCE)
+                                        .addAttributes(AdaptiveConnectionLimitFilter.INITIAL_LIMIT,
+                                                AdaptiveConnectionLimitFilter.MIN_LIMIT,
+                                                AdaptiveConnectionLimitFilter.MAX_LIMIT,
+                                                AdaptiveConnectionLimitFilter.TARGET_LATENCY,
+                                                AdaptiveConnectionLimitFilter.QUEUE_SIZE,
+                                                AdaptiveConnectionLimitFilter.QUEUE_TIMEOUT,
+                                                AdaptiveConnectionLimitFilter.PRIORITY_PREDICATE)
+                        ).addChild(
                                 builder(ResponseHeaderFilter.INSTANCE)
                                         .addAttributes(ResponseHeaderFilter.NAME, ResponseHeaderFilter.VALUE)
                         ).addChild(
@@ -137,6 +137,7 @@ import org.jboss.vfs.VirtualFile;
 import org.wildfly.extension.requestcontroller.ControlPoint;
 import org.wildfly.extension.undertow.Host;
 import org.wildfly.extension.undertow.JSPConfig;
+import org.wildfly.extension.undertow.SegmentedPersistentSessionManager;
 import org.wildfly.extension.undertow.ServletContainerService;
 import org.wildfly.extension.undertow.SessionCookieConfig;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
@@ -621,6 +622,9 @@ public class UndertowDeploymentInfoService implements Service<DeploymentInfo> {
 
             if (servletContainer.getSessionPersistenceManager() != null) {
                 d.setSessionPersistenceManager(servletContainer.getSessionPersistenceManager());
+                if (servletContainer.getSessionPersistenceManager() instanceof SegmentedPersistentSessionManager) {
+                    d.addSessionListener(((SegmentedPersistentSessionManager) servletContainer.getSessionPersistenceManager()).getSessionListener(deploymentName));
+                }
             }
 
             //for 2.2 apps we do not require a leading / in path mappings
@@ -0,0 +1,83 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Additive-increase/multiplicative-decrease concurrency limit driven by observed request latency.
+ * <p>
+ * While completed requests stay within the target latency and the limit is actually being used, the limit grows by
+ * roughly one request per limit's worth of completions. As soon as a request exceeds the target latency, the limit is
+ * cut back by a fixed ratio, at most once per target latency window, so a single burst of slow responses does not
+ * collapse it to the minimum.
+ *
+ * @author Stuart Douglas
+ */
+class AdaptiveConcurrencyLimit {
+
+    static final double BACKOFF_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatency;
+    private volatile double limit;
+    private long lastDecrease;
+
+    /**
+     * @param initialLimit the initial concurrency limit
+     * @param minLimit the lower bound of the limit
+     * @param maxLimit the upper bound of the limit
+     * @param targetLatency the latency, in milliseconds, above which the limit is decreased
+     */
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatency) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.targetLatency = TimeUnit.MILLISECONDS.toNanos(targetLatency);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.lastDecrease = System.nanoTime() - this.targetLatency;
+    }
+
+    int getLimit() {
+        return (int) this.limit;
+    }
+
+    /**
+     * Adjusts the limit according to a completed request.
+     * @param now the current {@link System#nanoTime()}
+     * @param latency the time, in nanoseconds, the request spent executing
+     * @param inFlight the number of requests still executing
+     */
+    synchronized void update(long now, long latency, int inFlight) {
+        double current = this.limit;
+        if (latency > this.targetLatency) {
+            if (now - this.lastDecrease >= this.targetLatency) {
+                this.limit = Math.max(this.minLimit, current * BACKOFF_RATIO);
+                this.lastDecrease = now;
+            }
+        } else if (inFlight * 2 >= (int) current) {
+            // Only probe for more capacity while the current limit is actually being used
+            this.limit = Math.min(this.maxLimit, current + (1.0 / current));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import io.undertow.Handlers;
+import io.undertow.predicate.Predicate;
+import io.undertow.predicate.PredicateParser;
+import io.undertow.server.HttpHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.Handler;
+import org.wildfly.extension.undertow.UndertowService;
+
+/**
+ * Request limiter whose concurrency limit adapts to the observed request latency.
+ * Each filter-ref, i.e. each host or location referencing this filter, gets its own limit,
+ * whose statistics are reported as metrics of the filter-ref.
+ */
+public class AdaptiveConnectionLimitFilter extends Filter {
+
+    public static final AdaptiveConnectionLimitFilter INSTANCE = new AdaptiveConnectionLimitFilter();
+
+    public static final AttributeDefinition INITIAL_LIMIT = new SimpleAttributeDefinitionBuilder("initial-limit", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(20))
+            .build();
+
+    public static final AttributeDefinition MIN_LIMIT = new SimpleAttributeDefinitionBuilder("min-limit", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(1))
+            .build();
+
+    public static final AttributeDefinition MAX_LIMIT = new SimpleAttributeDefinitionBuilder("max-limit", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(1000))
+            .build();
+
+    public static final AttributeDefinition TARGET_LATENCY = new SimpleAttributeDefinitionBuilder("target-latency", ModelType.LONG)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setDefaultValue(new ModelNode(100L))
+            .build();
+
+    public static final AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder("queue-size", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setDefaultValue(new ModelNode(100))
+            .build();
+
+    public static final AttributeDefinition QUEUE_TIMEOUT = new SimpleAttributeDefinitionBuilder("queue-timeout", ModelType.LONG)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setDefaultValue(new ModelNode(1000L))
+            .build();
+
+    public static final AttributeDefinition PRIORITY_PREDICATE = new SimpleAttributeDefinitionBuilder("priority-predicate", ModelType.STRING)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .build();
+
+    // Metrics of a filter-ref, undefined unless it references an adaptive connection limit filter
+    public static final AttributeDefinition CONCURRENCY_LIMIT = new SimpleAttributeDefinitionBuilder("concurrency-limit", ModelType.INT, true)
+            .setStorageRuntime().build();
+    public static final AttributeDefinition ACTIVE_REQUESTS = new SimpleAttributeDefinitionBuilder("active-requests", ModelType.INT, true)
+            .setStorageRuntime().build();
+    public static final AttributeDefinition QUEUED_REQUESTS = new SimpleAttributeDefinitionBuilder("queued-requests", ModelType.INT, true)
+            .setStorageRuntime().build();
+    public static final AttributeDefinition REJECTED_REQUESTS = new SimpleAttributeDefinitionBuilder("rejected-requests", ModelType.LONG, true)
+            .setStorageRuntime().build();
+
+    static final List<AttributeDefinition> METRICS = Arrays.asList(CONCURRENCY_LIMIT, ACTIVE_REQUESTS, QUEUED_REQUESTS, REJECTED_REQUESTS);
+
+    /*
+    <adaptive-connection-limit name="adaptive" max-limit="500" target-latency="200" queue-size="100" queue-timeout="1000" priority-predicate="path['/health']"/>
+     */
+
+    private AdaptiveConnectionLimitFilter() {
+        super("adaptive-connection-limit");
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(INITIAL_LIMIT, MIN_LIMIT, MAX_LIMIT, TARGET_LATENCY, QUEUE_SIZE, QUEUE_TIMEOUT, PRIORITY_PREDICATE);
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        registerAddOperation(resourceRegistration, new AdaptiveConnectionLimitAdd(), OperationEntry.Flag.RESTART_RESOURCE_SERVICES);
+        registerRemoveOperation(resourceRegistration, ReloadRequiredRemoveStepHandler.INSTANCE, OperationEntry.Flag.RESTART_RESOURCE_SERVICES);
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(final Predicate predicate, final ModelNode model, HttpHandler next) {
+        HttpHandler handler = createLimitingHandler(model, next);
+        return (predicate != null) ? Handlers.predicate(predicate, handler, next) : handler;
+    }
+
+    static AdaptiveRequestLimitingHandler createLimitingHandler(ModelNode model, HttpHandler next) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(model.get(INITIAL_LIMIT.getName()).asInt(), model.get(MIN_LIMIT.getName()).asInt(), model.get(MAX_LIMIT.getName()).asInt(), model.get(TARGET_LATENCY.getName()).asLong());
+        ModelNode priority = model.get(PRIORITY_PREDICATE.getName());
+        Predicate priorityPredicate = priority.isDefined() ? PredicateParser.parse(priority.asString(), AdaptiveConnectionLimitFilter.class.getClassLoader()) : null;
+        return new AdaptiveRequestLimitingHandler(limit, model.get(QUEUE_SIZE.getName()).asInt(), model.get(QUEUE_TIMEOUT.getName()).asLong(), priorityPredicate, next);
+    }
+
+    @Override
+    protected Class[] getConstructorSignature() {
+        throw new IllegalStateException(); //should not be used, as the handler is constructed above
+    }
+
+    private static class AdaptiveConnectionLimitAdd extends FilterAdd {
+
+        AdaptiveConnectionLimitAdd() {
+            super(INSTANCE);
+        }
+
+        @Override
+        FilterService createService(Handler handler, ModelNode model) {
+            return new AdaptiveConnectionLimitService(model);
+        }
+    }
+
+    /**
+     * Keeps track of the handler created for each filter-ref, so their statistics can be reported.
+     */
+    static class AdaptiveConnectionLimitService extends FilterService {
+        private final ModelNode model;
+        // The handler chain of a host or location is rebuilt whenever its filter-refs change, so only the latest handler of a filter-ref is live
+        private final Map<FilterRef, AdaptiveRequestLimitingHandler> handlers = Collections.synchronizedMap(new WeakHashMap<FilterRef, AdaptiveRequestLimitingHandler>());
+
+        AdaptiveConnectionLimitService(ModelNode model) {
+            super(INSTANCE, model);
+            this.model = model;
+        }
+
+        @Override
+        HttpHandler createHttpHandler(FilterRef ref, final Predicate predicate, HttpHandler next) {
+            AdaptiveRequestLimitingHandler handler = createLimitingHandler(this.model, next);
+            this.handlers.put(ref, handler);
+            return (predicate != null) ? Handlers.predicate(predicate, handler, next) : handler;
+        }
+
+        AdaptiveRequestLimitingHandler getHandler(FilterRef ref) {
+            return this.handlers.get(ref);
+        }
+    }
+
+    /**
+     * Reads the statistics of the handler of a filter-ref.
+     */
+    static class ReadStatisticHandler implements OperationStepHandler {
+
+        static final ReadStatisticHandler INSTANCE = new ReadStatisticHandler();
+
+        @Override
+        public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+            PathAddress address = context.getCurrentAddress();
+            ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.getFilterRefServiceName(address, address.getLastElement().getValue()));
+            if (controller == null || controller.getState() != ServiceController.State.UP) {
+                return;
+            }
+            FilterRef ref = (FilterRef) controller.getValue();
+            FilterService filter = ref.getFilter().getValue();
+            AdaptiveRequestLimitingHandler handler = (filter instanceof AdaptiveConnectionLimitService) ? ((AdaptiveConnectionLimitService) filter).getHandler(ref) : null;
+            if (handler == null) {
+                return;
+            }
+            String name = operation.get(NAME).asString();
+            if (name.equals(CONCURRENCY_LIMIT.getName())) {
+                context.getResult().set(handler.getConcurrencyLimit());
+            } else if (name.equals(ACTIVE_REQUESTS.getName())) {
+                context.getResult().set(handler.getActiveRequests());
+            } else if (name.equals(QUEUED_REQUESTS.getName())) {
+                context.getResult().set(handler.getQueuedRequests());
+            } else if (name.equals(REJECTED_REQUESTS.getName())) {
+                context.getResult().set(handler.getRejectedRequests());
+            }
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.util.SameThreadExecutor;
+import org.xnio.XnioExecutor;
+
+/**
+ * Request limiting handler whose concurrency limit adapts to the observed request latency.
+ * <p>
+ * Requests beyond the current limit wait in a bounded queue until either capacity frees up or their queue timeout
+ * elapses, in which case they are rejected with a 503. Requests matching the priority predicate (e.g. health checks)
+ * bypass the limit entirely, so that they keep being answered while the handler is saturated.
+ */
+public class AdaptiveRequestLimitingHandler implements HttpHandler {
+
+    private final AdaptiveConcurrencyLimit limit;
+    private final int queueSize;
+    private final long queueTimeout;
+    private final Predicate priority;
+    private final HttpHandler next;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final Deque<SuspendedRequest> queue = new ArrayDeque<>();
+    private volatile int queued = 0;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param limit the adaptive concurrency limit
+     * @param queueSize the maximum number of requests waiting for capacity
+     * @param queueTimeout the maximum time, in milliseconds, a request may wait for capacity
+     * @param priority matches requests that bypass the limit, may be null
+     * @param next the next handler
+     */
+    AdaptiveRequestLimitingHandler(AdaptiveConcurrencyLimit limit, int queueSize, long queueTimeout, Predicate priority, HttpHandler next) {
+        this.limit = limit;
+        this.queueSize = queueSize;
+        this.queueTimeout = queueTimeout;
+        this.priority = priority;
+        this.next = next;
+    }
+
+    @Override
+    public void handleRequest(final HttpServerExchange exchange) throws Exception {
+        if (this.priority != null && this.priority.resolve(exchange)) {
+            this.next.handleRequest(exchange);
+            return;
+        }
+        if (this.tryAcquire()) {
+            exchange.addExchangeCompleteListener(new CompletionListener());
+            this.next.handleRequest(exchange);
+            return;
+        }
+        if (this.queueSize <= 0) {
+            this.reject(exchange);
+            return;
+        }
+        exchange.dispatch(SameThreadExecutor.INSTANCE, new Runnable() {
+            @Override
+            public void run() {
+                AdaptiveRequestLimitingHandler.this.enqueue(exchange);
+            }
+        });
+    }
+
+    /**
+     * Admits a request immediately, if there is spare capacity and nobody is already waiting for it.
+     */
+    private boolean tryAcquire() {
+        if (this.queued > 0) {
+            return false;
+        }
+        int current = this.active.get();
+        while (current < this.limit.getLimit()) {
+            if (this.active.compareAndSet(current, current + 1)) {
+                return true;
+            }
+            current = this.active.get();
+        }
+        return false;
+    }
+
+    void enqueue(HttpServerExchange exchange) {
+        SuspendedRequest request = new SuspendedRequest(exchange);
+        synchronized (this) {
+            if (this.queue.size() >= this.queueSize) {
+                request = null;
+            } else {
+                this.queue.addLast(request);
+                this.queued = this.queue.size();
+            }
+        }
+        if (request == null) {
+            this.reject(exchange);
+            return;
+        }
+        request.timeoutKey = this.scheduleTimeout(exchange, request);
+        // Capacity may have been released between our failed acquisition and the enqueue
+        this.resumeQueued();
+    }
+
+    void release(long start) {
+        int inFlight = this.active.decrementAndGet();
+        long now = System.nanoTime();
+        this.limit.update(now, now - start, inFlight);
+        this.resumeQueued();
+    }
+
+    private void resumeQueued() {
+        SuspendedRequest request = this.poll();
+        while (request != null) {
+            XnioExecutor.Key key = request.timeoutKey;
+            if (key != null) {
+                key.remove();
+            }
+            request.exchange.addExchangeCompleteListener(new CompletionListener());
+            this.resume(request.exchange);
+            request = this.poll();
+        }
+    }
+
+    /**
+     * Schedules the queue timeout of a waiting request.
+     */
+    XnioExecutor.Key scheduleTimeout(HttpServerExchange exchange, Runnable timeout) {
+        return exchange.getIoThread().executeAfter(timeout, this.queueTimeout, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Resumes a waiting request, for which capacity was reserved.
+     */
+    void resume(HttpServerExchange exchange) {
+        exchange.dispatch(this.next);
+    }
+
+    /**
+     * Responds to a rejected request.
+     */
+    void unavailable(HttpServerExchange exchange) {
+        exchange.dispatch(SameThreadExecutor.INSTANCE, ResponseCodeHandler.HANDLE_503);
+    }
+
+    /**
+     * Removes the oldest waiting request, reserving capacity for it, if the current limit allows.
+     */
+    private synchronized SuspendedRequest poll() {
+        if (this.queue.isEmpty() || this.active.get() >= this.limit.getLimit()) {
+            return null;
+        }
+        SuspendedRequest request = this.queue.pollFirst();
+        this.queued = this.queue.size();
+        this.active.incrementAndGet();
+        return request;
+    }
+
+    private synchronized boolean remove(SuspendedRequest request) {
+        boolean removed = this.queue.remove(request);
+        this.queued = this.queue.size();
+        return removed;
+    }
+
+    private void reject(HttpServerExchange exchange) {
+        this.rejected.increment();
+        this.unavailable(exchange);
+    }
+
+    public int getConcurrencyLimit() {
+        return this.limit.getLimit();
+    }
+
+    public int getActiveRequests() {
+        return this.active.get();
+    }
+
+    public int getQueuedRequests() {
+        return this.queued;
+    }
+
+    public long getRejectedRequests() {
+        return this.rejected.sum();
+    }
+
+    private class SuspendedRequest implements Runnable {
+        final HttpServerExchange exchange;
+        volatile XnioExecutor.Key timeoutKey;
+
+        SuspendedRequest(HttpServerExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        // Queue timeout
+        @Override
+        public void run() {
+            if (AdaptiveRequestLimitingHandler.this.remove(this)) {
+                AdaptiveRequestLimitingHandler.this.reject(this.exchange);
+            }
+        }
+    }
+
+    private class CompletionListener implements ExchangeCompletionListener {
+        private final long start = System.nanoTime();
+
+        @Override
+        public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+            try {
+                AdaptiveRequestLimitingHandler.this.release(this.start);
+            } finally {
+                nextListener.proceed();
+            }
+        }
+    }
+}
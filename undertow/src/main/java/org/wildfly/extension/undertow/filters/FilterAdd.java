@@ -52,13 +52,17 @@ class FilterAdd extends AbstractAddStepHandler {
         final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
         final String name = address.getLastElement().getValue();
 
-        final FilterService service = new FilterService(handler, getResolvedModel(context, model));
+        final FilterService service = createService(handler, getResolvedModel(context, model));
         final ServiceTarget target = context.getServiceTarget();
         target.addService(UndertowService.FILTER.append(name), service)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
                 .install();
     }
 
+    FilterService createService(Handler handler, ModelNode model) {
+        return new FilterService(handler, model);
+    }
+
     private ModelNode getResolvedModel(OperationContext context, ModelNode model) throws OperationFailedException {
         ModelNode resolved = new ModelNode();
         for (AttributeDefinition attribute : attributes) {
@@ -42,6 +42,7 @@ public class FilterDefinitions extends PersistentResourceDefinition {
     public static final FilterDefinitions INSTANCE = new FilterDefinitions();
     private static List<? extends PersistentResourceDefinition> FILTERS = Collections.unmodifiableList(Arrays.asList(
             ConnectionLimitHandler.INSTANCE,
+            AdaptiveConnectionLimitFilter.INSTANCE,
             ResponseHeaderFilter.INSTANCE,
             GzipFilter.INSTANCE,
             ErrorPageDefinition.INSTANCE,
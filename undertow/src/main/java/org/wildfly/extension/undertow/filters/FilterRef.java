@@ -66,7 +66,7 @@ public class FilterRef implements Service<FilterRef> {
     }
 
     public HttpHandler createHttpHandler(HttpHandler next) {
-        return filter.getValue().createHttpHandler(predicate, next);
+        return filter.getValue().createHttpHandler(this, predicate, next);
     }
 
     public int getPriority() {
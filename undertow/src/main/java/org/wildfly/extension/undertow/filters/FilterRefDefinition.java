@@ -38,6 +38,7 @@ import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
@@ -79,6 +80,14 @@ public class FilterRefDefinition extends PersistentResourceDefinition {
         return Arrays.asList(PREDICATE, PRIORITY);
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        for (AttributeDefinition metric : AdaptiveConnectionLimitFilter.METRICS) {
+            resourceRegistration.registerMetric(metric, AdaptiveConnectionLimitFilter.ReadStatisticHandler.INSTANCE);
+        }
+    }
+
 
     static class FilterRefAdd extends AbstractAddStepHandler {
         FilterRefAdd() {
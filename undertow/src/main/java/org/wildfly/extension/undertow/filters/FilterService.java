@@ -57,6 +57,13 @@ public class FilterService implements Service<FilterService> {
         return handler.createHttpHandler(predicate, model, next);
     }
 
+    /**
+     * Creates the handler of the specified filter-ref.
+     */
+    HttpHandler createHttpHandler(FilterRef ref, final Predicate predicate, HttpHandler next) {
+        return createHttpHandler(predicate, next);
+    }
+
     @Override
     public FilterService getValue() throws IllegalStateException, IllegalArgumentException {
         return this;
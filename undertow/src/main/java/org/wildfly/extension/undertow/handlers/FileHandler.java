@@ -23,11 +23,20 @@
 package org.wildfly.extension.undertow.handlers;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import io.undertow.predicate.Predicates;
 import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.encoding.ContentEncodedResourceManager;
+import io.undertow.server.handlers.encoding.ContentEncodingRepository;
+import io.undertow.server.handlers.encoding.GzipEncodingProvider;
+import io.undertow.server.handlers.resource.CachingResourceManager;
 import io.undertow.server.handlers.resource.FileResourceManager;
 import io.undertow.server.handlers.resource.ResourceHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -47,6 +56,8 @@ public class FileHandler extends Handler {
 
     public static final FileHandler INSTANCE = new FileHandler();
 
+    private static final String TEMP_DIR = "jboss.server.temp.dir";
+
     /*<file path="/opt/data" cache-buffer-size="1024" cache-buffers="1024"/>*/
     public static final AttributeDefinition PATH = new SimpleAttributeDefinitionBuilder(Constants.PATH, ModelType.STRING)
             .setAllowNull(true)
@@ -85,13 +96,29 @@ public class FileHandler extends Handler {
             .setDefaultValue(new ModelNode(true))
             .build();
 
+    public static final AttributeDefinition PRE_COMPRESSED = new SimpleAttributeDefinitionBuilder("pre-compressed", ModelType.BOOLEAN)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
+    public static final AttributeDefinition COMPRESS = new SimpleAttributeDefinitionBuilder("compress", ModelType.BOOLEAN)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .setDefaultValue(new ModelNode(false))
+            .build();
+
+    private static final int MIN_COMPRESSED_SIZE = 512;
+    private static final int MAX_COMPRESSED_SIZE = 10 * 1024 * 1024;
+    private static final String[] COMPRESSIBLE_SUFFIXES = { ".html", ".htm", ".css", ".js", ".json", ".svg", ".txt", ".xml" };
+
     private FileHandler() {
         super(Constants.FILE);
     }
 
     @Override
     public Collection<AttributeDefinition> getAttributes() {
-        return Arrays.asList(PATH, CACHE_BUFFER_SIZE, CACHE_BUFFERS, DIRECTORY_LISTING, FOLLOW_SYMLINK, CASE_SENSITIVE, SAFE_SYMLINK_PATHS);
+        return Arrays.asList(PATH, CACHE_BUFFER_SIZE, CACHE_BUFFERS, DIRECTORY_LISTING, FOLLOW_SYMLINK, CASE_SENSITIVE, SAFE_SYMLINK_PATHS, PRE_COMPRESSED, COMPRESS);
     }
 
     @Override
@@ -104,11 +131,35 @@ public class FileHandler extends Handler {
         final int cacheBuffers = CACHE_BUFFERS.resolveModelAttribute(context, model).asInt();
         final List<String> safePaths = SAFE_SYMLINK_PATHS.unwrap(context, model);
         final String[] paths = safePaths.toArray(new String[safePaths.size()]);
+        final boolean preCompressed = PRE_COMPRESSED.resolveModelAttribute(context, model).asBoolean();
+        final boolean compress = COMPRESS.resolveModelAttribute(context, model).asBoolean();
 
         UndertowLogger.ROOT_LOGGER.creatingFileHandler(path, directoryListing, followSymlink, caseSensitive, safePaths);
         FileResourceManager resourceManager = new FileResourceManager(new File(path), cacheBufferSize * cacheBuffers, caseSensitive, followSymlink, paths);
         ResourceHandler handler = new ResourceHandler(resourceManager);
         handler.setDirectoryListingEnabled(directoryListing);
+        if (compress) {
+            // Compress each eligible resource once, caching the result on disk
+            Path encodedRoot = Paths.get(System.getProperty(TEMP_DIR, System.getProperty("java.io.tmpdir")), "undertow-compressed", context.getCurrentAddressValue());
+            try {
+                Files.createDirectories(encodedRoot);
+            } catch (IOException e) {
+                throw new OperationFailedException(e);
+            }
+            ContentEncodingRepository repository = new ContentEncodingRepository().addEncodingHandler("gzip", new GzipEncodingProvider(), 50, Predicates.truePredicate());
+            CachingResourceManager encodedCache = new CachingResourceManager(cacheBuffers, MAX_COMPRESSED_SIZE, null, new FileResourceManager(encodedRoot.toFile(), cacheBufferSize * cacheBuffers), -1);
+            handler.setContentEncodedResourceManager(new ContentEncodedResourceManager(encodedRoot, encodedCache, repository, MIN_COMPRESSED_SIZE, MAX_COMPRESSED_SIZE, Predicates.suffixes(COMPRESSIBLE_SUFFIXES)));
+        }
+        if (preCompressed || compress) {
+            // Content compressed on the fly differs from the file, so its ETags can only be weak.
+            // Entries are only cached if resource change events keep them current, and the index is built once the handler service starts.
+            boolean cached = resourceManager.isResourceChangeListenerSupported();
+            StaticContentIndex index = new StaticContentIndex(Paths.get(path), compress, followSymlink, cached);
+            if (cached) {
+                resourceManager.registerResourceChangeListener(index);
+            }
+            return new StaticContentHandler(index, preCompressed, handler);
+        }
         return handler;
     }
 }
@@ -30,6 +30,7 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.capability.RuntimeCapability;
+import org.jboss.as.server.Services;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
@@ -58,6 +59,7 @@ class HandlerAdd extends AbstractAddStepHandler {
         final ServiceTarget target = context.getServiceTarget();
         ServiceBuilder<HttpHandler> builder = target.addService(UndertowService.HANDLER.append(name), service)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND);
+        Services.addServerExecutorDependency(builder, service.getServerExecutor(), false);
         final RuntimeCapability newCapability = Handler.CAPABILITY.fromBaseCapability(name);
         if(context.hasOptionalCapability(Handler.REQUEST_CONTROLLER, newCapability.getName(), null)) {
             builder.addDependency(RequestController.SERVICE_NAME, RequestController.class, service.getRequestControllerInjectedValue());
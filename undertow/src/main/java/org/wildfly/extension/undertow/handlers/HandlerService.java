@@ -22,6 +22,8 @@
 
 package org.wildfly.extension.undertow.handlers;
 
+import java.util.concurrent.ExecutorService;
+
 import io.undertow.server.HttpHandler;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
@@ -39,6 +41,7 @@ import org.wildfly.extension.undertow.logging.UndertowLogger;
 public class HandlerService implements Service<HttpHandler> {
     private final HttpHandler httpHandler;
     private final InjectedValue<RequestController> requestControllerInjectedValue = new InjectedValue<>();
+    private final InjectedValue<ExecutorService> serverExecutor = new InjectedValue<>();
     private volatile ControlPoint controlPoint;
     private volatile HttpHandler realHandler;
     private final String name;
@@ -57,10 +60,16 @@ public class HandlerService implements Service<HttpHandler> {
         } else {
             realHandler = httpHandler;
         }
+        if (httpHandler instanceof StaticContentHandler) {
+            ((StaticContentHandler) httpHandler).start(serverExecutor.getValue());
+        }
     }
 
     @Override
     public void stop(StopContext context) {
+        if (httpHandler instanceof StaticContentHandler) {
+            ((StaticContentHandler) httpHandler).stop();
+        }
         if(controlPoint != null) {
             requestControllerInjectedValue.getValue().removeControlPoint(controlPoint);
             controlPoint = null;
@@ -75,4 +84,8 @@ public class HandlerService implements Service<HttpHandler> {
     public InjectedValue<RequestController> getRequestControllerInjectedValue() {
         return requestControllerInjectedValue;
     }
+
+    InjectedValue<ExecutorService> getServerExecutor() {
+        return serverExecutor;
+    }
 }
@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.CanonicalPathUtils;
+import io.undertow.util.ETag;
+import io.undertow.util.ETagUtils;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import io.undertow.util.MimeMappings;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * Handler in front of the file handler's resource handler that answers conditional requests using the precomputed
+ * ETags of a {@link StaticContentIndex}, and that serves pre-compressed variants of a file to clients accepting them,
+ * so that static bundles need not be compressed per request.
+ * The index is built by a task of the server executor while the handler service is started.
+ */
+class StaticContentHandler implements HttpHandler {
+
+    private final StaticContentIndex index;
+    private final boolean preCompressed;
+    private final HttpHandler next;
+    private volatile Future<?> indexing;
+
+    StaticContentHandler(StaticContentIndex index, boolean preCompressed, HttpHandler next) {
+        this.index = index;
+        this.preCompressed = preCompressed;
+        this.next = next;
+    }
+
+    /**
+     * Builds the index in the background, using the specified executor.
+     */
+    void start(ExecutorService executor) {
+        this.index.open();
+        this.indexing = executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    StaticContentHandler.this.index.index();
+                } catch (IOException e) {
+                    UndertowLogger.ROOT_LOGGER.failedToIndexStaticContent(StaticContentHandler.this.index.getRoot(), e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Stops building the index, and drops it.
+     */
+    void stop() {
+        Future<?> indexing = this.indexing;
+        if (indexing != null) {
+            indexing.cancel(false);
+            this.indexing = null;
+        }
+        this.index.close();
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (!exchange.getRequestMethod().equals(Methods.GET) && !exchange.getRequestMethod().equals(Methods.HEAD)) {
+            this.next.handleRequest(exchange);
+            return;
+        }
+        String path = CanonicalPathUtils.canonicalize(exchange.getRelativePath());
+        StaticContentIndex.Entry entry = this.index.get(path);
+        if (entry == null) {
+            this.next.handleRequest(exchange);
+            return;
+        }
+        HeaderMap responseHeaders = exchange.getResponseHeaders();
+        StaticContentIndex.Encoding encoding = (this.preCompressed && entry.hasVariants()) ? select(exchange, entry) : null;
+        ETag etag = (encoding != null) ? entry.getETag(encoding) : entry.getETag();
+        if (this.preCompressed && entry.hasVariants()) {
+            responseHeaders.add(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+        }
+        if (!ETagUtils.handleIfNoneMatch(exchange, etag, true)) {
+            responseHeaders.put(Headers.ETAG, etag.toString());
+            exchange.setResponseCode(304);
+            exchange.endExchange();
+            return;
+        }
+        responseHeaders.put(Headers.ETAG, etag.toString());
+        if (encoding != null) {
+            // Serve the variant, but with the content type of the original file
+            int index = path.lastIndexOf('.');
+            String contentType = (index > path.lastIndexOf('/')) ? MimeMappings.DEFAULT.getMimeType(path.substring(index + 1)) : null;
+            responseHeaders.put(Headers.CONTENT_TYPE, (contentType != null) ? contentType : "application/octet-stream");
+            responseHeaders.put(Headers.CONTENT_ENCODING, encoding.name);
+            exchange.setRelativePath(path + encoding.suffix);
+        }
+        this.next.handleRequest(exchange);
+    }
+
+    /**
+     * Selects the preferred pre-compressed variant acceptable to the client, if any.
+     */
+    private static StaticContentIndex.Encoding select(HttpServerExchange exchange, StaticContentIndex.Entry entry) {
+        HeaderValues values = exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING);
+        if (values == null) return null;
+        for (StaticContentIndex.Encoding encoding : StaticContentIndex.Encoding.values()) {
+            if ((entry.getETag(encoding) != null) && accepts(values, encoding.name)) {
+                return encoding;
+            }
+        }
+        return null;
+    }
+
+    private static boolean accepts(HeaderValues values, String encoding) {
+        for (String value : values) {
+            for (String token : value.split(",")) {
+                String[] parts = token.split(";");
+                if (parts[0].trim().equalsIgnoreCase(encoding)) {
+                    for (int i = 1; i < parts.length; ++i) {
+                        String parameter = parts[i].trim();
+                        if (parameter.startsWith("q=")) {
+                            try {
+                                return Double.parseDouble(parameter.substring(2)) > 0;
+                            } catch (NumberFormatException e) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.util.ETag;
+
+/**
+ * Index of the static content of a file handler, mapping each file to a precomputed ETag and to the pre-compressed
+ * variants available next to it, e.g. <code>app.js.br</code> and <code>app.js.gz</code> for <code>app.js</code>.
+ * The index is built in the background and kept current via resource change events; files that are not (yet) indexed
+ * are looked up on demand. Without resource change events, entries could go stale, so nothing is cached and every
+ * file is looked up on demand.
+ */
+class StaticContentIndex implements ResourceChangeListener {
+
+    enum Encoding {
+        BROTLI("br", ".br"),
+        GZIP("gzip", ".gz"),
+        ;
+        final String name;
+        final String suffix;
+
+        Encoding(String name, String suffix) {
+            this.name = name;
+            this.suffix = suffix;
+        }
+
+        static Encoding forFile(String path) {
+            for (Encoding encoding : values()) {
+                if (path.endsWith(encoding.suffix)) {
+                    return encoding;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final Path root;
+    private final boolean weak;
+    private final boolean cached;
+    private final LinkOption[] options;
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    /**
+     * @param root the root directory of the file handler
+     * @param weak whether to generate weak ETags, e.g. because content may be compressed on the fly
+     * @param followSymlink whether to follow symbolic links
+     * @param cached whether entries may be cached, i.e. whether this index receives the resource change events of the root directory
+     */
+    StaticContentIndex(Path root, boolean weak, boolean followSymlink, boolean cached) {
+        this.root = root.toAbsolutePath().normalize();
+        this.weak = weak;
+        this.cached = cached;
+        this.options = followSymlink ? new LinkOption[0] : new LinkOption[] { LinkOption.NOFOLLOW_LINKS };
+    }
+
+    /**
+     * Indexes all files beneath the root directory, until this index is closed.
+     */
+    void index() throws IOException {
+        if (!this.cached || !Files.isDirectory(this.root)) return;
+        Files.walkFileTree(this.root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) {
+                return StaticContentIndex.this.closed ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (StaticContentIndex.this.closed) {
+                    return FileVisitResult.TERMINATE;
+                }
+                if (attributes.isRegularFile()) {
+                    String path = StaticContentIndex.this.getRelativePath(file);
+                    if (Encoding.forFile(path) == null) {
+                        Entry entry = StaticContentIndex.this.load(path);
+                        if (entry != null) {
+                            StaticContentIndex.this.entries.putIfAbsent(path, entry);
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException exception) {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Returns the index entry for the specified canonical request path.
+     * @return the index entry, or null, if the path does not denote a regular file
+     */
+    Entry get(String path) {
+        if (!this.cached) {
+            return this.load(path);
+        }
+        Entry entry = this.entries.get(path);
+        if (entry == null) {
+            entry = this.load(path);
+            if (entry != null) {
+                Entry existing = this.entries.putIfAbsent(path, entry);
+                if (existing != null) {
+                    entry = existing;
+                }
+            }
+        }
+        return entry;
+    }
+
+    @Override
+    public void handleChanges(Collection<ResourceChangeEvent> changes) {
+        for (ResourceChangeEvent change : changes) {
+            String resource = change.getResource();
+            String path = resource.startsWith("/") ? resource : "/" + resource;
+            this.entries.remove(path);
+            Encoding encoding = Encoding.forFile(path);
+            if (encoding != null) {
+                this.entries.remove(path.substring(0, path.length() - encoding.suffix.length()));
+            }
+        }
+    }
+
+    /**
+     * Allows {@link #index()} to run, after this index was closed.
+     */
+    void open() {
+        this.closed = false;
+    }
+
+    /**
+     * Stops a running {@link #index()} and drops all entries.
+     */
+    void close() {
+        this.closed = true;
+        this.entries.clear();
+    }
+
+    int size() {
+        return this.entries.size();
+    }
+
+    Path getRoot() {
+        return this.root;
+    }
+
+    private String getRelativePath(Path file) {
+        StringBuilder builder = new StringBuilder();
+        for (Path element : this.root.relativize(file)) {
+            builder.append('/').append(element.toString());
+        }
+        return builder.toString();
+    }
+
+    private Entry load(String path) {
+        if (path.isEmpty() || path.equals("/")) return null;
+        Path file = this.root.resolve(path.substring(1)).normalize();
+        if (!file.startsWith(this.root)) return null;
+        BasicFileAttributes attributes = this.readAttributes(file);
+        if ((attributes == null) || !attributes.isRegularFile()) return null;
+        Encoding[] encodings = Encoding.values();
+        ETag[] variants = new ETag[encodings.length];
+        for (Encoding encoding : encodings) {
+            BasicFileAttributes variant = this.readAttributes(file.resolveSibling(file.getFileName() + encoding.suffix));
+            if ((variant != null) && variant.isRegularFile()) {
+                variants[encoding.ordinal()] = this.createETag(variant, encoding);
+            }
+        }
+        return new Entry(this.createETag(attributes, null), variants);
+    }
+
+    private BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class, this.options);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private ETag createETag(BasicFileAttributes attributes, Encoding encoding) {
+        StringBuilder tag = new StringBuilder();
+        tag.append(Long.toHexString(attributes.size())).append('-').append(Long.toHexString(attributes.lastModifiedTime().toMillis()));
+        if (encoding != null) {
+            tag.append('-').append(encoding.name);
+        }
+        return new ETag(this.weak, tag.toString());
+    }
+
+    static class Entry {
+        private final ETag etag;
+        private final ETag[] variants;
+
+        Entry(ETag etag, ETag[] variants) {
+            this.etag = etag;
+            this.variants = variants;
+        }
+
+        ETag getETag() {
+            return this.etag;
+        }
+
+        /**
+         * @return the ETag of the pre-compressed variant for the specified encoding, or null, if there is none.
+         */
+        ETag getETag(Encoding encoding) {
+            return this.variants[encoding.ordinal()];
+        }
+
+        boolean hasVariants() {
+            for (ETag variant : this.variants) {
+                if (variant != null) return true;
+            }
+            return false;
+        }
+    }
+}
@@ -328,4 +328,12 @@ public interface UndertowLogger extends BasicLogger {
     @Message(id = 76, value = "Cannot remove resource of type %s")
     IllegalArgumentException cannotRemoveResourceOfType(String type);
 
+    @LogMessage(level = ERROR)
+    @Message(id = 77, value = "Failed to write access log %s")
+    void failedToWriteAccessLog(Path file, @Cause IOException e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 78, value = "Failed to index static content of %s")
+    void failedToIndexStaticContent(Path path, @Cause IOException e);
+
 }
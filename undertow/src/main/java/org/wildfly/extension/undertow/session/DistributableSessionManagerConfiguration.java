@@ -34,4 +34,9 @@ public interface DistributableSessionManagerConfiguration {
     Module getModule();
 
     String getCacheName();
+
+    /**
+     * @return true, if a session replicated with SESSION granularity should only replicate the attributes changed by a request
+     */
+    boolean isDeltaReplication();
 }
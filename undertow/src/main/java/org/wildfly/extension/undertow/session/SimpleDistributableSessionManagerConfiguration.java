@@ -36,6 +36,7 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     private final ReplicationConfig replicationConfig;
     private final String deploymentName;
     private final Module module;
+    private final boolean deltaReplication;
 
     public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String deploymentName, Module module) {
         this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), deploymentName, module);
@@ -46,10 +47,15 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     }
 
     public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String deploymentName, Module module) {
+        this(maxActiveSessions, replicationConfig, deploymentName, module, false);
+    }
+
+    public SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String deploymentName, Module module, boolean deltaReplication) {
         this.maxActiveSessions = maxActiveSessions;
         this.replicationConfig = replicationConfig;
         this.deploymentName = deploymentName;
         this.module = module;
+        this.deltaReplication = deltaReplication;
     }
 
     @Override
@@ -76,4 +82,9 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     public String getCacheName() {
         return (this.replicationConfig != null) ? this.replicationConfig.getCacheName() : null;
     }
+
+    @Override
+    public boolean isDeltaReplication() {
+        return this.deltaReplication;
+    }
 }
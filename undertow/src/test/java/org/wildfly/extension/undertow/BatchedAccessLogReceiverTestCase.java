@@ -0,0 +1,182 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import io.undertow.server.handlers.accesslog.LogFileHeaderGenerator;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.xnio.OptionMap;
+import org.xnio.Xnio;
+import org.xnio.XnioWorker;
+
+/**
+ * Tests for {@link BatchedAccessLogReceiver}.
+ */
+public class BatchedAccessLogReceiverTestCase {
+
+    private Path dir;
+    private XnioWorker worker;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("access-log");
+        worker = Xnio.getInstance().createWorker(OptionMap.EMPTY);
+    }
+
+    @After
+    public void cleanup() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination();
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.toFile().delete();
+    }
+
+    @Test
+    public void testConcurrentLogging() throws Exception {
+        final int threads = 8;
+        final int messages = 10000;
+        final BatchedAccessLogReceiver receiver = new BatchedAccessLogReceiver(worker, dir, "access", ".log", false, 0, null);
+        List<Thread> loggers = new ArrayList<>();
+        for (int i = 0; i < threads; ++i) {
+            final int thread = i;
+            loggers.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < messages; ++j) {
+                        receiver.logMessage("GET /thread/" + thread + "/request/" + j + " 200");
+                    }
+                }
+            }));
+        }
+        for (Thread logger : loggers) {
+            logger.start();
+        }
+        for (Thread logger : loggers) {
+            logger.join();
+        }
+        receiver.close();
+
+        List<String> lines = Files.readAllLines(dir.resolve("access.log"), StandardCharsets.UTF_8);
+        Assert.assertEquals(threads * messages, lines.size());
+        Assert.assertEquals(threads * messages, new HashSet<>(lines).size());
+        Assert.assertTrue(lines.contains("GET /thread/7/request/9999 200"));
+    }
+
+    @Test
+    public void testIdleThreadIsFlushed() throws Exception {
+        BatchedAccessLogReceiver receiver = new BatchedAccessLogReceiver(worker, dir, "access", ".log", false, 0, null);
+        try {
+            receiver.logMessage("GET / 200");
+            Path file = dir.resolve("access.log");
+            long deadline = System.currentTimeMillis() + 10000;
+            while ((!Files.exists(file) || Files.size(file) == 0) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals("GET / 200", Files.readAllLines(file, StandardCharsets.UTF_8).get(0));
+        } finally {
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void testDeadThreadIsFlushed() throws Exception {
+        final BatchedAccessLogReceiver receiver = new BatchedAccessLogReceiver(worker, dir, "access", ".log", false, 0, null);
+        try {
+            Thread logger = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    receiver.logMessage("GET /dead 200");
+                }
+            });
+            logger.start();
+            logger.join();
+            Path file = dir.resolve("access.log");
+            long deadline = System.currentTimeMillis() + 10000;
+            while ((!Files.exists(file) || Files.size(file) == 0) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            Assert.assertEquals("GET /dead 200", Files.readAllLines(file, StandardCharsets.UTF_8).get(0));
+        } finally {
+            receiver.close();
+        }
+    }
+
+    @Test
+    public void testSizeRotationAndHeader() throws Exception {
+        BatchedAccessLogReceiver receiver = new BatchedAccessLogReceiver(worker, dir, "access", ".log", false, 1024, new LogFileHeaderGenerator() {
+            @Override
+            public String generateHeader() {
+                return "#Fields: request";
+            }
+        });
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 100; ++i) {
+            large.append("0123456789");
+        }
+        int count = 0;
+        // Each entry is handed off on its own, since it is larger than a log buffer
+        for (int i = 0; i < 3; ++i) {
+            char[] oversized = new char[BatchedAccessLogReceiver.BUFFER_SIZE];
+            Arrays.fill(oversized, 'x');
+            receiver.logMessage(new String(oversized));
+            count++;
+        }
+        for (int i = 0; i < 50; ++i) {
+            receiver.logMessage(large.toString());
+            count++;
+        }
+        receiver.close();
+
+        File[] files = dir.toFile().listFiles();
+        Assert.assertNotNull(files);
+        Assert.assertTrue(files.length > 1);
+        int entries = 0;
+        Set<String> names = new HashSet<>();
+        for (File file : files) {
+            names.add(file.getName());
+            List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+            Assert.assertEquals("#Fields: request", lines.get(0));
+            entries += lines.size() - 1;
+        }
+        Assert.assertTrue(names.contains("access.log"));
+        Assert.assertEquals(count, entries);
+    }
+}
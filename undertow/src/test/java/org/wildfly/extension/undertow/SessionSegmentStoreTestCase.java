@@ -0,0 +1,144 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2015, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link SessionSegmentStore}.
+ */
+public class SessionSegmentStoreTestCase {
+
+    private File dir;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("sessions").toFile();
+    }
+
+    @After
+    public void cleanup() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void testWriteAndReload() throws IOException {
+        try (SessionSegmentStore store = new SessionSegmentStore(dir, 4)) {
+            store.write("a", 1000, Collections.singletonMap("name", bytes("first")));
+            store.write("b", 1000, Collections.singletonMap("name", bytes("other")));
+            store.write("a", 2000, Collections.singletonMap("name", bytes("second")));
+            store.write("c", 1000, Collections.<String, byte[]>emptyMap());
+            store.remove("c");
+            store.write("b", 3000, Collections.singletonMap("name", bytes("other")));
+            store.flush();
+            Assert.assertTrue(store.isCurrent("b", 3000));
+            Assert.assertFalse(store.isCurrent("b", 1000));
+            Assert.assertFalse(store.isCurrent("c", 1000));
+        }
+        try (SessionSegmentStore store = new SessionSegmentStore(dir, 4)) {
+            // Expiration times are restored from the segments
+            Assert.assertTrue(store.isCurrent("a", 2000));
+            Assert.assertTrue(store.isCurrent("b", 3000));
+            Map<String, SessionSegmentStore.Stored> sessions = store.load(0);
+            Assert.assertEquals(2, sessions.size());
+            Assert.assertEquals(2000, sessions.get("a").getExpiry());
+            Assert.assertEquals("second", string(sessions.get("a").getAttributes().get("name")));
+            Assert.assertEquals(3000, sessions.get("b").getExpiry());
+            Assert.assertEquals("other", string(sessions.get("b").getAttributes().get("name")));
+
+            // Expired sessions are not loaded
+            Assert.assertEquals(Collections.singleton("b"), store.load(2500).keySet());
+        }
+    }
+
+    @Test
+    public void testCompaction() throws IOException {
+        byte[] value = new byte[64 * 1024];
+        try (SessionSegmentStore store = new SessionSegmentStore(dir, 1)) {
+            for (int i = 0; i < 64; ++i) {
+                store.write("session", i, Collections.singletonMap("name", value));
+            }
+            store.flush();
+            Assert.assertTrue(new File(dir, "segment-0").length() < 2 * value.length);
+            Assert.assertEquals(63, store.load(0).get("session").getExpiry());
+        }
+    }
+
+    @Test
+    public void testWindows() throws IOException {
+        // Windows smaller than a record, so records are read from windows starting at arbitrary positions
+        int windowSize = 64;
+        byte[] value = new byte[100];
+        for (int i = 0; i < value.length; ++i) {
+            value[i] = (byte) i;
+        }
+        try (SessionSegmentStore store = new SessionSegmentStore(dir, 1, windowSize)) {
+            for (int i = 0; i < 32; ++i) {
+                store.write("session-" + i, 1000 + i, Collections.singletonMap("name", (i % 2 == 0) ? value : bytes("value-" + i)));
+            }
+            store.flush();
+        }
+        try (SessionSegmentStore store = new SessionSegmentStore(dir, 1, windowSize)) {
+            Map<String, SessionSegmentStore.Stored> sessions = store.load(0);
+            Assert.assertEquals(32, sessions.size());
+            for (int i = 0; i < 32; ++i) {
+                SessionSegmentStore.Stored stored = sessions.get("session-" + i);
+                Assert.assertEquals(1000 + i, stored.getExpiry());
+                ByteBuffer buffer = stored.getAttributes().get("name");
+                if (i % 2 == 0) {
+                    byte[] bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    Assert.assertArrayEquals(value, bytes);
+                } else {
+                    Assert.assertEquals("value-" + i, string(buffer));
+                }
+            }
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit test for {@link AdaptiveConcurrencyLimit}
+ */
+public class AdaptiveConcurrencyLimitTestCase {
+
+    private static final long TARGET = 100;
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(TARGET / 2);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(TARGET * 2);
+
+    @Test
+    public void bounds() {
+        assertEquals(5, new AdaptiveConcurrencyLimit(1, 5, 10, TARGET).getLimit());
+        assertEquals(10, new AdaptiveConcurrencyLimit(20, 5, 10, TARGET).getLimit());
+        assertEquals(1, new AdaptiveConcurrencyLimit(0, 0, 0, TARGET).getLimit());
+    }
+
+    @Test
+    public void increase() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 12, TARGET);
+        long now = System.nanoTime();
+        // Roughly one limit's worth of fast completions at full utilization should grow the limit by one
+        for (int i = 0; i < 11; ++i) {
+            limit.update(now, FAST, 10);
+        }
+        assertEquals(11, limit.getLimit());
+
+        // Should never exceed the maximum
+        for (int i = 0; i < 100; ++i) {
+            limit.update(now, FAST, 12);
+        }
+        assertEquals(12, limit.getLimit());
+    }
+
+    @Test
+    public void noIncreaseWhenUnderutilized() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, TARGET);
+        long now = System.nanoTime();
+        for (int i = 0; i < 100; ++i) {
+            limit.update(now, FAST, 1);
+        }
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void decrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(100, 80, 100, TARGET);
+        long now = System.nanoTime();
+        limit.update(now, SLOW, 100);
+        assertEquals(90, limit.getLimit());
+
+        // Further slow completions within the same latency window should not decrease the limit again
+        limit.update(now + 1, SLOW, 90);
+        limit.update(now + FAST, SLOW, 90);
+        assertEquals(90, limit.getLimit());
+
+        long later = now + TimeUnit.MILLISECONDS.toNanos(TARGET);
+        limit.update(later, SLOW, 90);
+        assertEquals(81, limit.getLimit());
+
+        // Should never fall below the minimum
+        later += TimeUnit.MILLISECONDS.toNanos(TARGET);
+        limit.update(later, SLOW, 90);
+        assertEquals(80, limit.getLimit());
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow.filters;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import org.junit.Test;
+import org.xnio.XnioExecutor;
+
+/**
+ * Unit test for {@link AdaptiveRequestLimitingHandler}
+ */
+public class AdaptiveRequestLimitingHandlerTestCase {
+
+    private static final long TARGET = 100;
+
+    private final AtomicInteger handled = new AtomicInteger();
+    private final HttpHandler next = new HttpHandler() {
+        @Override
+        public void handleRequest(HttpServerExchange exchange) {
+            handled.incrementAndGet();
+        }
+    };
+
+    @Test
+    public void queue() throws Exception {
+        TestHandler handler = new TestHandler(2, 1, null);
+        handler.handleRequest(new HttpServerExchange(null));
+        handler.handleRequest(new HttpServerExchange(null));
+        assertEquals(2, this.handled.get());
+        assertEquals(2, handler.getActiveRequests());
+
+        // Over the limit, the request waits for capacity
+        HttpServerExchange waiting = new HttpServerExchange(null);
+        handler.handleRequest(waiting);
+        assertEquals(2, this.handled.get());
+        assertEquals(1, handler.getQueuedRequests());
+        assertEquals(1, handler.timeouts.size());
+        assertTrue(handler.resumed.isEmpty());
+
+        // A completed request hands its capacity over to the waiting one, whose timeout is cancelled
+        handler.release(System.nanoTime());
+        assertEquals(0, handler.getQueuedRequests());
+        assertEquals(2, handler.getActiveRequests());
+        assertEquals(1, handler.resumed.size());
+        assertSame(waiting, handler.resumed.get(0));
+        assertEquals(1, handler.cancelled.get());
+        assertEquals(0, handler.getRejectedRequests());
+
+        handler.release(System.nanoTime());
+        handler.release(System.nanoTime());
+        assertEquals(0, handler.getActiveRequests());
+    }
+
+    @Test
+    public void rejectWhenQueueFull() throws Exception {
+        TestHandler handler = new TestHandler(1, 1, null);
+        handler.handleRequest(new HttpServerExchange(null));
+        handler.handleRequest(new HttpServerExchange(null));
+        HttpServerExchange rejected = new HttpServerExchange(null);
+        handler.handleRequest(rejected);
+
+        assertEquals(1, this.handled.get());
+        assertEquals(1, handler.getQueuedRequests());
+        assertEquals(1, handler.getRejectedRequests());
+        assertEquals(1, handler.unavailable.size());
+        assertSame(rejected, handler.unavailable.get(0));
+    }
+
+    @Test
+    public void rejectWithoutQueue() throws Exception {
+        TestHandler handler = new TestHandler(1, 0, null);
+        handler.handleRequest(new HttpServerExchange(null));
+        handler.handleRequest(new HttpServerExchange(null));
+
+        assertEquals(1, this.handled.get());
+        assertEquals(0, handler.getQueuedRequests());
+        assertEquals(1, handler.getRejectedRequests());
+        assertTrue(handler.timeouts.isEmpty());
+    }
+
+    @Test
+    public void rejectOnTimeout() throws Exception {
+        TestHandler handler = new TestHandler(1, 1, null);
+        handler.handleRequest(new HttpServerExchange(null));
+        HttpServerExchange waiting = new HttpServerExchange(null);
+        handler.handleRequest(waiting);
+        assertEquals(1, handler.getQueuedRequests());
+
+        handler.timeouts.get(0).run();
+        assertEquals(0, handler.getQueuedRequests());
+        assertEquals(1, handler.getRejectedRequests());
+        assertSame(waiting, handler.unavailable.get(0));
+
+        // A timed out request is not resumed once capacity is released
+        handler.release(System.nanoTime());
+        assertTrue(handler.resumed.isEmpty());
+        assertEquals(0, handler.getActiveRequests());
+    }
+
+    @Test
+    public void priority() throws Exception {
+        TestHandler handler = new TestHandler(1, 0, new Predicate() {
+            @Override
+            public boolean resolve(HttpServerExchange exchange) {
+                return true;
+            }
+        });
+        handler.handleRequest(new HttpServerExchange(null));
+        handler.handleRequest(new HttpServerExchange(null));
+
+        assertEquals(2, this.handled.get());
+        assertEquals(0, handler.getActiveRequests());
+        assertEquals(0, handler.getRejectedRequests());
+    }
+
+    /**
+     * Records resumed and rejected requests, and scheduled timeouts, instead of dispatching them.
+     */
+    private class TestHandler extends AdaptiveRequestLimitingHandler {
+        final List<Runnable> timeouts = new ArrayList<>();
+        final List<HttpServerExchange> resumed = new ArrayList<>();
+        final List<HttpServerExchange> unavailable = new ArrayList<>();
+        final AtomicInteger cancelled = new AtomicInteger();
+
+        TestHandler(int limit, int queueSize, Predicate priority) {
+            super(new AdaptiveConcurrencyLimit(limit, limit, limit, TARGET), queueSize, TARGET, priority, AdaptiveRequestLimitingHandlerTestCase.this.next);
+        }
+
+        @Override
+        XnioExecutor.Key scheduleTimeout(HttpServerExchange exchange, Runnable timeout) {
+            this.timeouts.add(timeout);
+            return new XnioExecutor.Key() {
+                @Override
+                public boolean remove() {
+                    cancelled.incrementAndGet();
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        void resume(HttpServerExchange exchange) {
+            this.resumed.add(exchange);
+        }
+
+        @Override
+        void unavailable(HttpServerExchange exchange) {
+            this.unavailable.add(exchange);
+        }
+    }
+}
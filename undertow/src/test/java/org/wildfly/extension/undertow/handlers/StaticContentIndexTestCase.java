@@ -0,0 +1,155 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.util.ETag;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link StaticContentIndex}.
+ */
+public class StaticContentIndexTestCase {
+
+    private Path dir;
+
+    @Before
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("static");
+        Files.createDirectories(dir.resolve("js"));
+        write("index.html", "<html/>");
+        write("js/app.js", "var a = 1;");
+        write("js/app.js.gz", "gzipped");
+        write("js/app.js.br", "brotli");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        delete(dir.toFile());
+    }
+
+    @Test
+    public void testIndex() throws IOException {
+        StaticContentIndex index = new StaticContentIndex(dir, false, false, true);
+        index.index();
+        // Variants are not indexed on their own
+        Assert.assertEquals(2, index.size());
+
+        StaticContentIndex.Entry html = index.get("/index.html");
+        Assert.assertNotNull(html);
+        Assert.assertFalse(html.hasVariants());
+        Assert.assertFalse(html.getETag().isWeak());
+
+        StaticContentIndex.Entry js = index.get("/js/app.js");
+        Assert.assertNotNull(js);
+        Assert.assertTrue(js.hasVariants());
+        ETag gzip = js.getETag(StaticContentIndex.Encoding.GZIP);
+        ETag brotli = js.getETag(StaticContentIndex.Encoding.BROTLI);
+        Assert.assertNotNull(gzip);
+        Assert.assertNotNull(brotli);
+        Assert.assertNotEquals(js.getETag().getTag(), gzip.getTag());
+        Assert.assertNotEquals(gzip.getTag(), brotli.getTag());
+
+        Assert.assertNull(index.get("/js"));
+        Assert.assertNull(index.get("/missing.html"));
+        Assert.assertNull(index.get("/../outside"));
+    }
+
+    @Test
+    public void testLookupAndInvalidation() throws IOException {
+        StaticContentIndex index = new StaticContentIndex(dir, true, false, true);
+        StaticContentIndex.Entry entry = index.get("/js/app.js");
+        Assert.assertNotNull(entry);
+        Assert.assertTrue(entry.getETag().isWeak());
+        Assert.assertSame(entry, index.get("/js/app.js"));
+
+        Files.delete(dir.resolve("js/app.js.br"));
+        write("js/app.js", "var a = 2; // changed");
+        Files.setLastModifiedTime(dir.resolve("js/app.js"), FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        index.handleChanges(Collections.singleton(new ResourceChangeEvent("js/app.js.br", ResourceChangeEvent.Type.REMOVED)));
+
+        StaticContentIndex.Entry changed = index.get("/js/app.js");
+        Assert.assertNotSame(entry, changed);
+        Assert.assertNotEquals(entry.getETag().getTag(), changed.getETag().getTag());
+        Assert.assertNull(changed.getETag(StaticContentIndex.Encoding.BROTLI));
+        Assert.assertNotNull(changed.getETag(StaticContentIndex.Encoding.GZIP));
+    }
+
+    @Test
+    public void testUncached() throws IOException {
+        // Without resource change events, nothing is cached, so changes are seen immediately
+        StaticContentIndex index = new StaticContentIndex(dir, false, false, false);
+        index.index();
+        Assert.assertEquals(0, index.size());
+
+        StaticContentIndex.Entry entry = index.get("/js/app.js");
+        Assert.assertNotNull(entry);
+        Assert.assertEquals(0, index.size());
+
+        write("js/app.js", "var a = 2; // changed");
+        Files.setLastModifiedTime(dir.resolve("js/app.js"), FileTime.fromMillis(System.currentTimeMillis() + 10000));
+        Assert.assertNotEquals(entry.getETag().getTag(), index.get("/js/app.js").getETag().getTag());
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        StaticContentIndex index = new StaticContentIndex(dir, false, false, true);
+        index.index();
+        Assert.assertEquals(2, index.size());
+
+        index.close();
+        Assert.assertEquals(0, index.size());
+        // A closed index is not built again until it is opened
+        index.index();
+        Assert.assertEquals(0, index.size());
+
+        index.open();
+        index.index();
+        Assert.assertEquals(2, index.size());
+    }
+
+    private void write(String path, String content) throws IOException {
+        Files.write(dir.resolve(path), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void delete(File file) {
+        File[] files = file.listFiles();
+        if (files != null) {
+            for (File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
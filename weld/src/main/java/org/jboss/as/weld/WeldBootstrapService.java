@@ -24,6 +24,7 @@ package org.jboss.as.weld;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -31,6 +32,7 @@ import javax.enterprise.inject.spi.BeanManager;
 
 import org.jboss.as.weld.deployment.BeanDeploymentArchiveImpl;
 import org.jboss.as.weld.deployment.WeldDeployment;
+import org.jboss.as.weld.discovery.WeldClassFileServices;
 import org.jboss.as.weld.logging.WeldLogger;
 import org.jboss.as.weld.services.ModuleGroupSingletonProvider;
 import org.jboss.as.weld.services.bootstrap.WeldSecurityServices;
@@ -46,6 +48,7 @@ import org.jboss.weld.bootstrap.api.Environment;
 import org.jboss.weld.bootstrap.spi.BeanDeploymentArchive;
 import org.jboss.weld.manager.BeanManagerImpl;
 import org.jboss.weld.manager.api.ExecutorServices;
+import org.jboss.weld.resources.spi.ClassFileServices;
 import org.jboss.weld.security.spi.SecurityServices;
 import org.jboss.weld.transaction.spi.TransactionServices;
 import org.wildfly.security.manager.WildFlySecurityManager;
@@ -114,6 +117,23 @@ public class WeldBootstrapService implements Service<WeldBootstrapService> {
             addWeldService(ExecutorServices.class, executorServices.getValue());
         }
 
+        // resolve the annotations of the bean classes which are not part of the index of their module up front, in parallel
+        final Map<WeldClassFileServices, Set<String>> beanClasses = new IdentityHashMap<WeldClassFileServices, Set<String>>();
+        for (BeanDeploymentArchive bda : deployment.getBeanDeploymentArchives()) {
+            final ClassFileServices classFileServices = bda.getServices().get(ClassFileServices.class);
+            if (classFileServices instanceof WeldClassFileServices) {
+                Set<String> classes = beanClasses.get(classFileServices);
+                if (classes == null) {
+                    classes = new HashSet<String>();
+                    beanClasses.put((WeldClassFileServices) classFileServices, classes);
+                }
+                classes.addAll(bda.getBeanClasses());
+            }
+        }
+        for (Map.Entry<WeldClassFileServices, Set<String>> entry : beanClasses.entrySet()) {
+            entry.getKey().preloadAnnotations(entry.getValue(), deployment.getServices().get(ExecutorServices.class));
+        }
+
         ModuleGroupSingletonProvider.addClassLoaders(deployment.getModule().getClassLoader(),
                 deployment.getSubDeploymentClassLoaders());
 
@@ -0,0 +1,121 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.weld.deployment;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.modules.Module;
+import org.jboss.weld.bootstrap.spi.BeansXml;
+
+/**
+ * Server wide cache of the bean archives found in the modules deployments depend on, so that the static modules shared
+ * by many deployments are only scanned once.
+ * <p>
+ * Entries are keyed by module instance and only weakly reference it: a module which is redefined, or the module of a
+ * deployment which is redeployed, is a new instance and is scanned again, while the entries of the previous instance
+ * are dropped along with it.
+ */
+public class ExternalBeanArchiveCache {
+
+    private static final Set<URL> NO_BEANS_XML = Collections.emptySet();
+
+    private final Map<Module, Set<URL>> exportedBeansXml = Collections.synchronizedMap(new WeakHashMap<Module, Set<URL>>());
+    private final Map<Module, ConcurrentMap<URL, BeanArchive>> beanArchives = Collections.synchronizedMap(new WeakHashMap<Module, ConcurrentMap<URL, BeanArchive>>());
+
+    /**
+     * @param module the module
+     * @return the locations of the {@code META-INF/beans.xml} files exported by the module, an empty set if it exports
+     *         none, or {@code null} if the module was not seen before
+     */
+    public Set<URL> getExportedBeansXml(final Module module) {
+        return exportedBeansXml.get(module);
+    }
+
+    /**
+     * @param module the module
+     * @param urls the locations of the {@code META-INF/beans.xml} files exported by the module, or {@code null} if it exports none
+     */
+    public void putExportedBeansXml(final Module module, final Set<URL> urls) {
+        exportedBeansXml.put(module, urls == null ? NO_BEANS_XML : Collections.unmodifiableSet(urls));
+    }
+
+    /**
+     * @param module the module
+     * @param beansXml the location of the {@code META-INF/beans.xml} file
+     * @return the bean archive, or {@code null} if it was not scanned yet
+     */
+    public BeanArchive getBeanArchive(final Module module, final URL beansXml) {
+        final Map<URL, BeanArchive> archives = beanArchives.get(module);
+        return archives == null ? null : archives.get(beansXml);
+    }
+
+    public void putBeanArchive(final Module module, final URL beansXml, final BeanArchive beanArchive) {
+        ConcurrentMap<URL, BeanArchive> archives;
+        synchronized (beanArchives) {
+            archives = beanArchives.get(module);
+            if (archives == null) {
+                archives = new ConcurrentHashMap<>();
+                beanArchives.put(module, archives);
+            }
+        }
+        archives.put(beansXml, beanArchive);
+    }
+
+    public void clear() {
+        exportedBeansXml.clear();
+        beanArchives.clear();
+    }
+
+    /**
+     * The result of the scan of a bean archive.
+     */
+    public static final class BeanArchive {
+
+        private final Set<String> classes;
+        private final BeansXml beansXml;
+
+        /**
+         * @param classes the classes of the archive, or {@code null} if the archive could not be scanned
+         * @param beansXml the parsed {@code beans.xml}, or {@code null} if it depends on the deployment, i.e. it contains
+         *                 property expressions
+         */
+        public BeanArchive(Set<String> classes, BeansXml beansXml) {
+            this.classes = classes == null ? null : Collections.unmodifiableSet(classes);
+            this.beansXml = beansXml;
+        }
+
+        public Set<String> getClasses() {
+            return classes;
+        }
+
+        public BeansXml getBeansXml() {
+            return beansXml;
+        }
+    }
+}
@@ -40,7 +40,11 @@ public class PropertyReplacingBeansXmlParser extends BeansXmlParser {
     private final PropertyReplacer replacer;
 
     public PropertyReplacingBeansXmlParser(DeploymentUnit deploymentUnit) {
-        this.replacer = SpecDescriptorPropertyReplacement.propertyReplacer(deploymentUnit);
+        this(SpecDescriptorPropertyReplacement.propertyReplacer(deploymentUnit));
+    }
+
+    public PropertyReplacingBeansXmlParser(PropertyReplacer replacer) {
+        this.replacer = replacer;
     }
 
     protected PropertyReplacingBeansXmlHandler getHandler(final URL beansXml) {
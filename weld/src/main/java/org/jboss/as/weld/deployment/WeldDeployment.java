@@ -36,6 +36,7 @@ import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.weld.WeldModuleResourceLoader;
 import org.jboss.as.weld.deployment.BeanDeploymentArchiveImpl.BeanArchiveType;
+import org.jboss.as.weld.discovery.ModuleClassIndex;
 import org.jboss.as.weld.discovery.WeldAnnotationDiscovery;
 import org.jboss.as.weld.logging.WeldLogger;
 import org.jboss.as.weld.services.bootstrap.ProxyServicesImpl;
@@ -91,6 +92,12 @@ public class WeldDeployment implements CDI11Deployment {
     public WeldDeployment(Set<BeanDeploymentArchiveImpl> beanDeploymentArchives, Collection<Metadata<Extension>> extensions,
             Module module, Set<ClassLoader> subDeploymentClassLoaders, DeploymentUnit deploymentUnit, BeanDeploymentModule rootBeanDeploymentModule,
             Map<ModuleIdentifier, EEModuleDescriptor> eeModuleDescriptors) {
+        this(beanDeploymentArchives, extensions, module, subDeploymentClassLoaders, deploymentUnit, rootBeanDeploymentModule, eeModuleDescriptors, new ModuleClassIndex());
+    }
+
+    public WeldDeployment(Set<BeanDeploymentArchiveImpl> beanDeploymentArchives, Collection<Metadata<Extension>> extensions,
+            Module module, Set<ClassLoader> subDeploymentClassLoaders, DeploymentUnit deploymentUnit, BeanDeploymentModule rootBeanDeploymentModule,
+            Map<ModuleIdentifier, EEModuleDescriptor> eeModuleDescriptors, ModuleClassIndex moduleClassIndex) {
         this.subDeploymentClassLoaders = new HashSet<ClassLoader>(subDeploymentClassLoaders);
         this.beanDeploymentArchives = new HashSet<BeanDeploymentArchiveImpl>(beanDeploymentArchives);
         this.extensions = new HashSet<Metadata<Extension>>(extensions);
@@ -106,7 +113,7 @@ public class WeldDeployment implements CDI11Deployment {
 
         CompositeIndex index = deploymentUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
         if (index != null) {
-            this.serviceRegistry.add(AnnotationDiscovery.class, new WeldAnnotationDiscovery(index));
+            this.serviceRegistry.add(AnnotationDiscovery.class, new WeldAnnotationDiscovery(index, moduleClassIndex));
         }
 
         calculateAccessibilityGraph(this.beanDeploymentArchives);
@@ -33,6 +33,7 @@ import java.util.Set;
 
 import org.jboss.as.ee.component.ComponentDescription;
 import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.as.ee.structure.SpecDescriptorPropertyReplacement;
 import org.jboss.as.ee.weld.WeldDeploymentMarker;
 import org.jboss.as.ejb3.component.EJBComponentDescription;
 import org.jboss.as.server.deployment.Attachments;
@@ -44,12 +45,14 @@ import org.jboss.as.weld.deployment.BeanDeploymentArchiveImpl;
 import org.jboss.as.weld.deployment.BeanDeploymentArchiveImpl.BeanArchiveType;
 import org.jboss.as.weld.deployment.ExplicitBeanArchiveMetadata;
 import org.jboss.as.weld.deployment.ExplicitBeanArchiveMetadataContainer;
+import org.jboss.as.weld.deployment.ExternalBeanArchiveCache;
 import org.jboss.as.weld.deployment.PropertyReplacingBeansXmlParser;
 import org.jboss.as.weld.deployment.UrlScanner;
 import org.jboss.as.weld.deployment.WeldAttachments;
 import org.jboss.as.weld.logging.WeldLogger;
 import org.jboss.as.weld.services.bootstrap.WeldJaxwsInjectionServices;
 import org.jboss.as.weld.services.bootstrap.WeldJpaInjectionServices;
+import org.jboss.metadata.property.PropertyReplacer;
 import org.jboss.modules.DependencySpec;
 import org.jboss.modules.Module;
 import org.jboss.modules.ModuleDependencySpec;
@@ -76,6 +79,8 @@ public class ExternalBeanArchiveProcessor implements DeploymentUnitProcessor {
 
     private static final String META_INF_BEANS_XML = "META-INF/beans.xml";
 
+    private final ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache();
+
     @Override
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
@@ -96,7 +101,8 @@ public class ExternalBeanArchiveProcessor implements DeploymentUnitProcessor {
         deploymentUnits.add(deploymentUnit);
         deploymentUnits.addAll(deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS));
 
-        PropertyReplacingBeansXmlParser parser = new PropertyReplacingBeansXmlParser(deploymentUnit);
+        final ExpressionTrackingPropertyReplacer replacer = new ExpressionTrackingPropertyReplacer(SpecDescriptorPropertyReplacement.propertyReplacer(deploymentUnit));
+        PropertyReplacingBeansXmlParser parser = new PropertyReplacingBeansXmlParser(replacer);
 
         final HashSet<URL> existing = new HashSet<URL>();
 
@@ -156,17 +162,30 @@ public class ExternalBeanArchiveProcessor implements DeploymentUnitProcessor {
                         }
 
                         WeldLogger.DEPLOYMENT_LOGGER.debugf("Found external beans.xml: %s", url.toString());
-                        final BeansXml beansXml = parseBeansXml(url, parser, deploymentUnit);
+                        final ExternalBeanArchiveCache.BeanArchive cached = cache.getBeanArchive(dependency, url);
+                        final BeansXml beansXml;
+                        final Set<String> classes;
+                        if (cached != null) {
+                            beansXml = cached.getBeansXml() != null ? cached.getBeansXml() : parseBeansXml(url, parser, deploymentUnit);
+                            classes = cached.getClasses();
+                        } else {
+                            replacer.reset();
+                            beansXml = parseBeansXml(url, parser, deploymentUnit);
 
-                        final UrlScanner urlScanner = new UrlScanner();
+                            final UrlScanner urlScanner = new UrlScanner();
 
-                        final List<String> discoveredClasses = new ArrayList<String>();
-                        if (!urlScanner.handleBeansXml(url, discoveredClasses)) {
+                            final List<String> discoveredClasses = new ArrayList<String>();
+                            classes = urlScanner.handleBeansXml(url, discoveredClasses) ? new HashSet<String>(discoveredClasses) : null;
+                            // a beans.xml with expressions is parsed again for each deployment, as the replaced values may differ
+                            cache.putBeanArchive(dependency, url, new ExternalBeanArchiveCache.BeanArchive(classes, replacer.hasExpressions() ? null : beansXml));
+                        }
+                        if (classes == null) {
                             continue;
                         }
+                        final Set<String> discoveredClasses = new HashSet<String>(classes);
                         discoveredClasses.removeAll(ejbClassName);
 
-                        final BeanDeploymentArchiveImpl bda = new BeanDeploymentArchiveImpl(new HashSet<String>(discoveredClasses), beansXml, dependency, beanArchiveIdPrefix + url.toExternalForm(), BeanArchiveType.EXTERNAL);
+                        final BeanDeploymentArchiveImpl bda = new BeanDeploymentArchiveImpl(discoveredClasses, beansXml, dependency, beanArchiveIdPrefix + url.toExternalForm(), BeanArchiveType.EXTERNAL);
                         WeldLogger.DEPLOYMENT_LOGGER.beanArchiveDiscovered(bda);
 
                         final JpaInjectionServices jpaInjectionServices = new WeldJpaInjectionServices(deploymentUnit);
@@ -193,6 +212,15 @@ public class ExternalBeanArchiveProcessor implements DeploymentUnitProcessor {
     }
 
     private Set<URL> findExportedLocalBeansXml(Module dependencyModule) {
+        Set<URL> ret = cache.getExportedBeansXml(dependencyModule);
+        if (ret == null) {
+            ret = scanExportedLocalBeansXml(dependencyModule);
+            cache.putExportedBeansXml(dependencyModule, ret);
+        }
+        return ret == null || ret.isEmpty() ? null : ret;
+    }
+
+    private Set<URL> scanExportedLocalBeansXml(Module dependencyModule) {
         HashSet<URL> ret = new HashSet<>();
         Enumeration<URL> exported = dependencyModule.getExportedResources(META_INF_BEANS_XML);
         if (exported.hasMoreElements()) {
@@ -232,6 +260,35 @@ public class ExternalBeanArchiveProcessor implements DeploymentUnitProcessor {
 
     }
 
+    /**
+     * Records whether the parsed beans.xml contains property expressions.
+     */
+    private static final class ExpressionTrackingPropertyReplacer implements PropertyReplacer {
+
+        private final PropertyReplacer delegate;
+        private boolean expressions;
+
+        ExpressionTrackingPropertyReplacer(PropertyReplacer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String replaceProperties(String text) {
+            if (text != null && text.contains("${")) {
+                expressions = true;
+            }
+            return delegate.replaceProperties(text);
+        }
+
+        void reset() {
+            expressions = false;
+        }
+
+        boolean hasExpressions() {
+            return expressions;
+        }
+    }
+
     private BeansXml parseBeansXml(URL beansXmlFile, BeansXmlParser parser, final DeploymentUnit deploymentUnit) throws DeploymentUnitProcessingException {
         return parser.parse(beansXmlFile);
     }
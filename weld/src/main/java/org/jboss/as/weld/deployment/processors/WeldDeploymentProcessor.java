@@ -70,6 +70,7 @@ import org.jboss.as.weld.deployment.CdiAnnotationMarker;
 import org.jboss.as.weld.deployment.WeldAttachments;
 import org.jboss.as.weld.deployment.WeldDeployment;
 import org.jboss.as.weld.deployment.WeldPortableExtensions;
+import org.jboss.as.weld.discovery.ModuleClassIndex;
 import org.jboss.as.weld.discovery.WeldClassFileServices;
 import org.jboss.as.weld.logging.WeldLogger;
 import org.jboss.as.weld.services.TCCLSingletonService;
@@ -112,6 +113,8 @@ public class WeldDeploymentProcessor implements DeploymentUnitProcessor {
 
     private final boolean jtsEnabled;
 
+    private final ModuleClassIndex moduleClassIndex = new ModuleClassIndex();
+
     public WeldDeploymentProcessor(final boolean jtsEnabled) {
         this.jtsEnabled = jtsEnabled;
     }
@@ -147,6 +150,9 @@ public class WeldDeploymentProcessor implements DeploymentUnitProcessor {
 
         WeldLogger.DEPLOYMENT_LOGGER.startingServicesForCDIDeployment(phaseContext.getDeploymentUnit().getName());
 
+        // module jars may have been redefined since the previous deployment
+        moduleClassIndex.revalidate();
+
         final Module module = deploymentUnit.getAttachment(Attachments.MODULE);
         final ModuleSpecification moduleSpecification = deploymentUnit.getAttachment(Attachments.MODULE_SPECIFICATION);
         final CompositeIndex rootIndex = deploymentUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
@@ -206,7 +212,7 @@ public class WeldDeploymentProcessor implements DeploymentUnitProcessor {
 
             final CompositeIndex index = subDeployment.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX);
             if (index != null) {
-                bdm.addService(ClassFileServices.class, new WeldClassFileServices(index, subDeploymentModule.getClassLoader()));
+                bdm.addService(ClassFileServices.class, new WeldClassFileServices(index, subDeploymentModule.getClassLoader(), moduleClassIndex));
             }
         }
 
@@ -227,7 +233,7 @@ public class WeldDeploymentProcessor implements DeploymentUnitProcessor {
         final EjbInjectionServices ejbInjectionServices = new WeldEjbInjectionServices(deploymentUnit.getServiceRegistry(),
                 eeModuleDescription, eeApplicationDescription, deploymentRoot.getRoot(), module);
         final ResourceInjectionServices resourceInjectionServices = new WeldResourceInjectionServices(deploymentUnit.getServiceRegistry(), eeModuleDescription, module);
-        final WeldClassFileServices classFileServices = (rootIndex != null ? new WeldClassFileServices(rootIndex, module.getClassLoader()) : null);
+        final WeldClassFileServices classFileServices = (rootIndex != null ? new WeldClassFileServices(rootIndex, module.getClassLoader(), moduleClassIndex) : null);
 
 
         rootBeanDeploymentModule.addService(EjbInjectionServices.class, ejbInjectionServices);
@@ -247,7 +253,7 @@ public class WeldDeploymentProcessor implements DeploymentUnitProcessor {
 
         final Collection<Metadata<Extension>> extensions = WeldPortableExtensions.getPortableExtensions(deploymentUnit).getExtensions();
 
-        final WeldDeployment deployment = new WeldDeployment(beanDeploymentArchives, extensions, module, subDeploymentLoaders, deploymentUnit, rootBeanDeploymentModule, eeModuleDescriptors);
+        final WeldDeployment deployment = new WeldDeployment(beanDeploymentArchives, extensions, module, subDeploymentLoaders, deploymentUnit, rootBeanDeploymentModule, eeModuleDescriptors, moduleClassIndex);
 
         final WeldBootstrapService weldBootstrapService = new WeldBootstrapService(deployment, Environments.EE_INJECT, deploymentUnit.getName());
 
@@ -0,0 +1,227 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.as.weld.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.weld.logging.WeldLogger;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.Indexer;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Server wide Jandex index of the classes which are not part of the index of a deployment, typically the classes of the
+ * static modules a deployment depends on.
+ * <p>
+ * The index is kept per resource root, i.e. per jar file or directory, and is shared by all the deployments. A root
+ * which ships a pre-built {@code META-INF/jandex.idx} is served from it, otherwise its classes are indexed on demand the
+ * first time they are looked up. This avoids loading classes and inspecting them by reflection when a deployment
+ * refers to a class it does not contain.
+ * <p>
+ * Only roots accessed through the {@code file} and {@code jar:file} protocols are indexed; the index of a jar file is
+ * dropped when the file is modified, e.g. when its module is redefined. Jar files are only checked for modification by
+ * the first lookup of their root following a call to {@link #revalidate()}, which is made once per deployment.
+ */
+public class ModuleClassIndex {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String JAR_SEPARATOR = "!/";
+    private static final String JANDEX_INDEX = "META-INF/jandex.idx";
+
+    private final ConcurrentMap<String, RootIndex> roots = new ConcurrentHashMap<>();
+    /**
+     * incremented for each deployment, a root checks whether its jar was modified when it sees a new value
+     */
+    private volatile int generation;
+
+    /**
+     * @param name the name of the class
+     * @param classLoader the class loader the class is visible from
+     * @return the class, or {@code null} if it cannot be found or is not part of an indexable root
+     */
+    public ClassInfo getClassInfo(DotName name, ClassLoader classLoader) {
+        if (classLoader == null) {
+            return null;
+        }
+        final String path = name.toString().replace('.', '/') + CLASS_SUFFIX;
+        final URL resource = getResource(classLoader, path);
+        if (resource == null) {
+            return null;
+        }
+        final String url = resource.toExternalForm();
+        final String root;
+        final File file;
+        if ("jar".equals(resource.getProtocol()) && url.startsWith("jar:file:") && url.endsWith(JAR_SEPARATOR + path)) {
+            root = url.substring(0, url.length() - path.length());
+            file = toFile(url.substring("jar:".length(), url.length() - path.length() - JAR_SEPARATOR.length()));
+        } else if ("file".equals(resource.getProtocol()) && url.endsWith(path)) {
+            root = url.substring(0, url.length() - path.length());
+            file = null;
+        } else {
+            return null;
+        }
+        final int generation = this.generation;
+        RootIndex index = roots.get(root);
+        if (index == null || (index.checkedGeneration != generation && index.isStale(generation))) {
+            index = new RootIndex(root, file, generation);
+            roots.put(root, index);
+        }
+        return index.getClassInfo(name, resource);
+    }
+
+    /**
+     * Makes the next lookup of each root check whether its jar file was modified since it was indexed.
+     */
+    public void revalidate() {
+        generation++;
+    }
+
+    /**
+     * @return the number of indexed roots
+     */
+    public int size() {
+        return roots.size();
+    }
+
+    public void clear() {
+        roots.clear();
+    }
+
+    /**
+     * @param clazz the class
+     * @param annotationName the name of the annotation
+     * @return {@code true} if the annotation is declared on the class itself, as opposed to its members
+     */
+    static boolean isAnnotationDeclared(ClassInfo clazz, DotName annotationName) {
+        final List<AnnotationInstance> annotations = clazz.annotations().get(annotationName);
+        if (annotations != null) {
+            for (AnnotationInstance annotation : annotations) {
+                if (clazz.equals(annotation.target())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static URL getResource(final ClassLoader classLoader, final String path) {
+        if (WildFlySecurityManager.isChecking()) {
+            return AccessController.doPrivileged(new PrivilegedAction<URL>() {
+                @Override
+                public URL run() {
+                    return classLoader.getResource(path);
+                }
+            });
+        }
+        return classLoader.getResource(path);
+    }
+
+    private static File toFile(String url) {
+        try {
+            return new File(new URL(url).toURI());
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static InputStream openStream(URL url) throws IOException {
+        // do not let the jar URL connection cache keep module jars open
+        final URLConnection connection = url.openConnection();
+        connection.setUseCaches(false);
+        return connection.getInputStream();
+    }
+
+    private static final class RootIndex {
+
+        private final String root;
+        private final File file;
+        private final long lastModified;
+        private volatile int checkedGeneration;
+        private final ConcurrentMap<DotName, ClassInfo> classes = new ConcurrentHashMap<>();
+        private volatile Index prebuilt;
+        private volatile boolean prebuiltRead;
+
+        RootIndex(String root, File file, int generation) {
+            this.root = root;
+            this.file = file;
+            this.lastModified = file != null ? file.lastModified() : 0L;
+            this.checkedGeneration = generation;
+        }
+
+        boolean isStale(int generation) {
+            if (file != null && file.lastModified() != lastModified) {
+                return true;
+            }
+            checkedGeneration = generation;
+            return false;
+        }
+
+        ClassInfo getClassInfo(DotName name, URL resource) {
+            final Index prebuilt = getPrebuiltIndex();
+            if (prebuilt != null) {
+                final ClassInfo clazz = prebuilt.getClassByName(name);
+                if (clazz != null) {
+                    return clazz;
+                }
+            }
+            ClassInfo clazz = classes.get(name);
+            if (clazz == null) {
+                try (InputStream in = openStream(resource)) {
+                    clazz = new Indexer().index(in);
+                } catch (IOException | RuntimeException e) {
+                    WeldLogger.DEPLOYMENT_LOGGER.debugf(e, "Unable to index %s", resource);
+                    return null;
+                }
+                final ClassInfo existing = classes.putIfAbsent(name, clazz);
+                if (existing != null) {
+                    clazz = existing;
+                }
+            }
+            return clazz;
+        }
+
+        private Index getPrebuiltIndex() {
+            if (!prebuiltRead) {
+                synchronized (this) {
+                    if (!prebuiltRead) {
+                        try (InputStream in = openStream(new URL(root + JANDEX_INDEX))) {
+                            prebuilt = new IndexReader(in).read();
+                        } catch (IOException | RuntimeException e) {
+                            // no pre-built index, classes are indexed on demand
+                        }
+                        prebuiltRead = true;
+                    }
+                }
+            }
+            return prebuilt;
+        }
+    }
+}
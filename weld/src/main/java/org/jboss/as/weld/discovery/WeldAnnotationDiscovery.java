@@ -69,11 +69,22 @@ public class WeldAnnotationDiscovery implements ExtendedAnnotationDiscovery, Boo
 
     private CompositeIndex index;
 
+    private final ModuleClassIndex moduleClassIndex;
+
     // caching
     private final LoadingCache<Class<? extends Annotation>, Set<AnnotationType>> annotatedAnnotations = CacheBuilder.newBuilder().build(new LoadAnnotatedAnnotations());
 
     public WeldAnnotationDiscovery(CompositeIndex index) {
+        this(index, new ModuleClassIndex());
+    }
+
+    /**
+     * @param index the index of the deployment
+     * @param moduleClassIndex the index of the classes outside of the deployment, shared by all the deployments
+     */
+    public WeldAnnotationDiscovery(CompositeIndex index, ModuleClassIndex moduleClassIndex) {
         this.index = index;
+        this.moduleClassIndex = moduleClassIndex;
     }
 
     @Override
@@ -87,11 +98,14 @@ public class WeldAnnotationDiscovery implements ExtendedAnnotationDiscovery, Boo
     }
 
     private boolean containsAnnotation(DotName className, DotName requiredAnnotationName, Class<?> originalClass, Class<? extends Annotation> requiredAnnotation) {
-        final ClassInfo clazz = index.getClassByName(className);
+        ClassInfo clazz = index.getClassByName(className);
         if (clazz == null) {
             // we are accessing a class that is outside of the jandex index
-            // fallback to using reflection
-            return Reflections.containsAnnotation(originalClass, requiredAnnotation);
+            // try the index shared by the deployments and fallback to using reflection
+            clazz = moduleClassIndex.getClassInfo(className, originalClass.getClassLoader());
+            if (clazz == null) {
+                return Reflections.containsAnnotation(originalClass, requiredAnnotation);
+            }
         }
 
         // type and members
@@ -105,6 +119,10 @@ public class WeldAnnotationDiscovery implements ExtendedAnnotationDiscovery, Boo
                 if (annotationClassInfo.annotations().containsKey(requiredAnnotationName)) {
                     return true;
                 }
+            } else if ((annotationClassInfo = moduleClassIndex.getClassInfo(annotation, originalClass.getClassLoader())) != null) {
+                if (ModuleClassIndex.isAnnotationDeclared(annotationClassInfo, requiredAnnotationName)) {
+                    return true;
+                }
             } else {
                 // the annotation is not indexed, let's try to load the class and inspect using reflection
                 Class<?> annotationClass;
@@ -64,6 +64,8 @@ public class WeldClassFileInfo implements ClassFileInfo {
 
     private final ClassLoader classLoader;
 
+    private final ModuleClassIndex moduleClassIndex;
+
     /**
      *
      * @param className
@@ -71,7 +73,21 @@ public class WeldClassFileInfo implements ClassFileInfo {
      * @param annotationClassAnnotationsCache
      */
     public WeldClassFileInfo(String className, CompositeIndex index, LoadingCache<DotName, Set<String>> annotationClassAnnotationsCache, ClassLoader classLoader) {
+        this(className, index, annotationClassAnnotationsCache, classLoader, new ModuleClassIndex());
+    }
+
+    /**
+     *
+     * @param className
+     * @param index
+     * @param annotationClassAnnotationsCache
+     * @param classLoader
+     * @param moduleClassIndex the index of the classes outside of the deployment
+     */
+    public WeldClassFileInfo(String className, CompositeIndex index, LoadingCache<DotName, Set<String>> annotationClassAnnotationsCache, ClassLoader classLoader,
+            ModuleClassIndex moduleClassIndex) {
         this.index = index;
+        this.moduleClassIndex = moduleClassIndex;
         this.annotationClassAnnotationsCache = annotationClassAnnotationsCache;
         this.classInfo = index.getClassByName(DotName.createSimple(className));
         if (this.classInfo == null) {
@@ -238,7 +254,7 @@ public class WeldClassFileInfo implements ClassFileInfo {
             return false; // there's nothing assignable from Object.class except for Object.class
         }
 
-        ClassInfo fromClassInfo = index.getClassByName(name);
+        ClassInfo fromClassInfo = getClassByName(name);
         if (fromClassInfo == null) {
             // We reached a class that is not in the index. Let's use reflection.
             final Class<?> clazz = loadClass(name.toString());
@@ -280,7 +296,7 @@ public class WeldClassFileInfo implements ClassFileInfo {
         final DotName superName = classInfo.superName();
 
         if (superName != null && !OBJECT_NAME.equals(superName)) {
-            final ClassInfo superClassInfo = index.getClassByName(superName);
+            final ClassInfo superClassInfo = getClassByName(superName);
             if (superClassInfo == null) {
                 // we are accessing a class that is outside of the jandex index
                 // fallback to using reflection
@@ -293,6 +309,14 @@ public class WeldClassFileInfo implements ClassFileInfo {
         return false;
     }
 
+    private ClassInfo getClassByName(DotName name) {
+        final ClassInfo clazz = index.getClassByName(name);
+        if (clazz != null) {
+            return clazz;
+        }
+        return moduleClassIndex.getClassInfo(name, classLoader);
+    }
+
     private Class<?> loadClass(String className) {
         WeldLogger.DEPLOYMENT_LOGGER.tracef("Falling back to reflection for %s", className);
         try {
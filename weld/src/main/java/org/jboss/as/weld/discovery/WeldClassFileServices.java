@@ -17,12 +17,18 @@
 package org.jboss.as.weld.discovery;
 
 import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.jboss.as.server.deployment.annotation.CompositeIndex;
 import org.jboss.as.weld.logging.WeldLogger;
 import org.jboss.jandex.ClassInfo;
 import org.jboss.jandex.DotName;
+import org.jboss.weld.manager.api.ExecutorServices;
 import org.jboss.weld.resources.spi.ClassFileInfo;
 import org.jboss.weld.resources.spi.ClassFileServices;
 
@@ -43,6 +49,8 @@ public class WeldClassFileServices implements ClassFileServices {
 
     private final ClassLoader moduleClassLoader;
 
+    private final ModuleClassIndex moduleClassIndex;
+
     private class AnnotationClassAnnotationLoader extends CacheLoader<DotName, Set<String>> {
         @Override
         public Set<String> load(DotName name) throws Exception {
@@ -54,6 +62,13 @@ public class WeldClassFileServices implements ClassFileServices {
                 for (DotName annotationName : annotationClassInfo.annotations().keySet()) {
                     builder.add(annotationName.toString());
                 }
+            } else if ((annotationClassInfo = moduleClassIndex.getClassInfo(name, moduleClassLoader)) != null) {
+                // the annotation is not part of the deployment, use the shared index instead of reflection
+                for (DotName annotationName : annotationClassInfo.annotations().keySet()) {
+                    if (ModuleClassIndex.isAnnotationDeclared(annotationClassInfo, annotationName)) {
+                        builder.add(annotationName.toString());
+                    }
+                }
             } else {
                 try {
                      Class<?> annotationClass = moduleClassLoader.loadClass(name.toString());
@@ -73,17 +88,86 @@ public class WeldClassFileServices implements ClassFileServices {
      * @param index
      */
     public WeldClassFileServices(CompositeIndex index, ClassLoader moduleClassLoader) {
+        this(index, moduleClassLoader, new ModuleClassIndex());
+    }
+
+    /**
+     *
+     * @param index
+     * @param moduleClassLoader
+     * @param moduleClassIndex the index of the classes outside of the deployment, shared by all the deployments
+     */
+    public WeldClassFileServices(CompositeIndex index, ClassLoader moduleClassLoader, ModuleClassIndex moduleClassIndex) {
         if (index == null) {
             throw WeldLogger.ROOT_LOGGER.cannotUseAtRuntime(ClassFileServices.class.getSimpleName());
         }
         this.moduleClassLoader = moduleClassLoader;
+        this.moduleClassIndex = moduleClassIndex;
         this.index = index;
         this.annotationClassAnnotationsCache = CacheBuilder.newBuilder().build(new AnnotationClassAnnotationLoader());
     }
 
     @Override
     public ClassFileInfo getClassFileInfo(String className) {
-        return new WeldClassFileInfo(className, index, annotationClassAnnotationsCache, moduleClassLoader);
+        return new WeldClassFileInfo(className, index, annotationClassAnnotationsCache, moduleClassLoader, moduleClassIndex);
+    }
+
+    /**
+     * Resolves the meta-annotations of the annotations of the given bean classes which are not part of the index, in
+     * parallel, so that the bootstrap finds them in the cache instead of resolving them one by one. These are the
+     * annotations whose meta-annotations Weld queries while it scans the bean classes.
+     *
+     * @param beanClasses the names of the bean classes served by this instance
+     * @param executorServices the executor used for Weld bootstrap
+     */
+    public void preloadAnnotations(Collection<String> beanClasses, ExecutorServices executorServices) {
+        final CompositeIndex index = this.index;
+        final LoadingCache<DotName, Set<String>> cache = this.annotationClassAnnotationsCache;
+        if (index == null || cache == null) {
+            return;
+        }
+        final Set<DotName> annotations = new HashSet<>();
+        for (String beanClass : beanClasses) {
+            final ClassInfo clazz = index.getClassByName(DotName.createSimple(beanClass));
+            if (clazz == null) {
+                continue;
+            }
+            for (DotName annotation : clazz.annotations().keySet()) {
+                if (index.getClassByName(annotation) == null) {
+                    annotations.add(annotation);
+                }
+            }
+        }
+        if (annotations.isEmpty()) {
+            return;
+        }
+        final List<Callable<Void>> tasks = new ArrayList<>();
+        final int chunks = Math.min(annotations.size(), Runtime.getRuntime().availableProcessors());
+        final List<DotName> names = new ArrayList<>(annotations);
+        for (int i = 0; i < chunks; i++) {
+            final List<DotName> chunk = names.subList(i * names.size() / chunks, (i + 1) * names.size() / chunks);
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (DotName name : chunk) {
+                        cache.get(name);
+                    }
+                    return null;
+                }
+            });
+        }
+        try {
+            if (executorServices != null && executorServices.getTaskExecutor() != null && chunks > 1) {
+                executorServices.invokeAllAndCheckForExceptions(tasks);
+            } else {
+                for (Callable<Void> task : tasks) {
+                    task.call();
+                }
+            }
+        } catch (Exception e) {
+            // the annotations are resolved again on demand
+            WeldLogger.DEPLOYMENT_LOGGER.debugf(e, "Unable to preload %d annotations", names.size());
+        }
     }
 
     @Override
@@ -0,0 +1,119 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.weld.deployment;
+
+import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.modules.ModuleLoadException;
+import org.jboss.modules.ModuleLoader;
+import org.jboss.modules.ModuleSpec;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExternalBeanArchiveCacheTest {
+
+    private static final ModuleIdentifier LIBRARY = ModuleIdentifier.create("test.library");
+
+    private final TestModuleLoader moduleLoader = new TestModuleLoader();
+
+    @Test
+    public void testHitAcrossDeployments() throws Exception {
+        final ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache();
+        final URL beansXml = new URL("file:/modules/test/library/main/library.jar!/META-INF/beans.xml");
+        final Set<String> classes = new HashSet<>(Collections.singleton("org.example.Library"));
+
+        // the first deployment depending on the library scans it
+        final Module library = moduleLoader.loadModule(LIBRARY);
+        Assert.assertNull(cache.getExportedBeansXml(library));
+        Assert.assertNull(cache.getBeanArchive(library, beansXml));
+        cache.putExportedBeansXml(library, Collections.singleton(beansXml));
+        cache.putBeanArchive(library, beansXml, new ExternalBeanArchiveCache.BeanArchive(classes, null));
+
+        // the next deployment depending on the same module reuses the scan
+        final Module sameLibrary = moduleLoader.loadModule(LIBRARY);
+        Assert.assertSame(library, sameLibrary);
+        Assert.assertEquals(Collections.singleton(beansXml), cache.getExportedBeansXml(sameLibrary));
+        final ExternalBeanArchiveCache.BeanArchive archive = cache.getBeanArchive(sameLibrary, beansXml);
+        Assert.assertNotNull(archive);
+        Assert.assertEquals(classes, archive.getClasses());
+        // a beans.xml with expressions is parsed for each deployment
+        Assert.assertNull(archive.getBeansXml());
+    }
+
+    @Test
+    public void testModuleWithoutBeansXml() throws Exception {
+        final ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache();
+        final Module library = moduleLoader.loadModule(LIBRARY);
+        cache.putExportedBeansXml(library, null);
+        // an empty set tells a module known not to export beans.xml from a module not seen yet
+        Assert.assertEquals(Collections.emptySet(), cache.getExportedBeansXml(library));
+    }
+
+    @Test
+    public void testRedefinedModuleIsScannedAgain() throws Exception {
+        final ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache();
+        final URL beansXml = new URL("file:/modules/test/library/main/library.jar!/META-INF/beans.xml");
+        final Module library = moduleLoader.loadModule(LIBRARY);
+        cache.putExportedBeansXml(library, Collections.singleton(beansXml));
+        cache.putBeanArchive(library, beansXml, new ExternalBeanArchiveCache.BeanArchive(Collections.singleton("org.example.Library"), null));
+
+        moduleLoader.unload(library);
+        final Module redefined = moduleLoader.loadModule(LIBRARY);
+        Assert.assertNotSame(library, redefined);
+        Assert.assertNull(cache.getExportedBeansXml(redefined));
+        Assert.assertNull(cache.getBeanArchive(redefined, beansXml));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        final ExternalBeanArchiveCache cache = new ExternalBeanArchiveCache();
+        final URL beansXml = new URL("file:/modules/test/library/main/library.jar!/META-INF/beans.xml");
+        final Module library = moduleLoader.loadModule(LIBRARY);
+        cache.putExportedBeansXml(library, Collections.singleton(beansXml));
+        cache.putBeanArchive(library, beansXml, new ExternalBeanArchiveCache.BeanArchive(null, null));
+        cache.clear();
+        Assert.assertNull(cache.getExportedBeansXml(library));
+        Assert.assertNull(cache.getBeanArchive(library, beansXml));
+    }
+
+    private static final class TestModuleLoader extends ModuleLoader {
+
+        @Override
+        protected ModuleSpec findModule(ModuleIdentifier identifier) throws ModuleLoadException {
+            return ModuleSpec.build(identifier).create();
+        }
+
+        void unload(Module module) {
+            unloadModuleLocal(module);
+        }
+
+        @Override
+        public String toString() {
+            return "test module loader";
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2016, Red Hat Inc., and individual contributors as indicated
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.weld.discovery;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import javax.enterprise.inject.Vetoed;
+
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ModuleClassIndexTest {
+
+    private final ClassLoader classLoader = ModuleClassIndexTest.class.getClassLoader();
+
+    @Test
+    public void testClassesAreIndexedOnDemand() {
+        ModuleClassIndex index = new ModuleClassIndex();
+        ClassInfo charlie = index.getClassInfo(DotName.createSimple(Charlie.class.getName()), classLoader);
+        Assert.assertNotNull(charlie);
+        Assert.assertEquals(Charlie.class.getName(), charlie.name().toString());
+        Assert.assertTrue(charlie.annotations().containsKey(DotName.createSimple(AnnotationNotInIndex.class.getName())));
+        Assert.assertSame(charlie, index.getClassInfo(DotName.createSimple(Charlie.class.getName()), classLoader));
+        Assert.assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testAnnotationDeclared() {
+        ModuleClassIndex index = new ModuleClassIndex();
+        ClassInfo alpha = index.getClassInfo(DotName.createSimple(Alpha.class.getName()), classLoader);
+        Assert.assertNotNull(alpha);
+        ClassInfo charlie = index.getClassInfo(DotName.createSimple(Charlie.class.getName()), classLoader);
+        // declared on a method, not on the class
+        Assert.assertFalse(ModuleClassIndex.isAnnotationDeclared(charlie, DotName.createSimple(AnnotationNotInIndex.class.getName())));
+        Assert.assertTrue(ModuleClassIndex.isAnnotationDeclared(alpha, DotName.createSimple(Vetoed.class.getName())));
+    }
+
+    @Test
+    public void testModifiedJarIsCheckedOncePerDeployment() throws Exception {
+        final String path = Charlie.class.getName().replace('.', '/') + ".class";
+        final File jar = File.createTempFile("module-class-index", ".jar");
+        try {
+            try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath())); InputStream in = classLoader.getResourceAsStream(path)) {
+                out.putNextEntry(new JarEntry(path));
+                final byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+            }
+            final DotName name = DotName.createSimple(Charlie.class.getName());
+            try (URLClassLoader jarClassLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null)) {
+                ModuleClassIndex index = new ModuleClassIndex();
+                ClassInfo charlie = index.getClassInfo(name, jarClassLoader);
+                Assert.assertNotNull(charlie);
+
+                Assert.assertTrue(jar.setLastModified(jar.lastModified() - 10000L));
+                // the modification is only noticed by the next deployment
+                Assert.assertSame(charlie, index.getClassInfo(name, jarClassLoader));
+                index.revalidate();
+                ClassInfo reindexed = index.getClassInfo(name, jarClassLoader);
+                Assert.assertNotNull(reindexed);
+                Assert.assertNotSame(charlie, reindexed);
+                // an unmodified jar keeps its index
+                index.revalidate();
+                Assert.assertSame(reindexed, index.getClassInfo(name, jarClassLoader));
+                Assert.assertEquals(1, index.size());
+            }
+        } finally {
+            jar.delete();
+        }
+    }
+
+    @Test
+    public void testUnknownClass() {
+        ModuleClassIndex index = new ModuleClassIndex();
+        Assert.assertNull(index.getClassInfo(DotName.createSimple("org.jboss.as.weld.discovery.DoesNotExist"), classLoader));
+        Assert.assertNull(index.getClassInfo(DotName.createSimple(Charlie.class.getName()), null));
+        Assert.assertEquals(0, index.size());
+    }
+}